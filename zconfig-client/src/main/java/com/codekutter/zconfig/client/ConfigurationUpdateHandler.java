@@ -33,6 +33,7 @@ import com.codekutter.zconfig.common.LogUtils;
 import com.codekutter.zconfig.transport.events.ConfigUpdateBatch;
 import com.codekutter.zconfig.transport.events.ConfigUpdateEvent;
 import com.codekutter.zconfig.common.model.Configuration;
+import com.codekutter.zconfig.common.model.ConfigurationSnapshotBuilder;
 import com.codekutter.zconfig.common.model.Version;
 
 import javax.annotation.Nonnull;
@@ -45,6 +46,10 @@ import java.util.List;
 public class ConfigurationUpdateHandler {
     /**
      * Process and apply the batch of configuration update event.
+     * <p>
+     * Events are applied to a copy-on-write snapshot of the configuration,
+     * the updated snapshot is published once the entire batch has been applied.
+     * Readers will either see the configuration before or after the batch.
      *
      * @param batch - Update Batch.
      * @throws ConfigurationException
@@ -60,19 +65,43 @@ public class ConfigurationUpdateHandler {
                     batch.getHeader().getConfigName(),
                     batch.getHeader().getTransactionId()));
             batch.validate();
-            String configName = null;
+            String configName = batch.getHeader().getConfigName();
+            ConfigurationManager manager =
+                    ZConfigClientEnv.clientEnv().getConfigurationManager();
+            if (manager.get(configName) == null) {
+                LogUtils.debug(getClass(),
+                               String.format(
+                                       "Configuration not loaded. [name=%s]",
+                                       configName));
+                return;
+            }
             List<String> updatePaths = new ArrayList<>(batch.getEvents().size());
-            for (ConfigUpdateEvent event : batch.getEvents()) {
-                if (configName.compareTo(event.getHeader().getConfigName()) != 0) {
+            Configuration config = manager.getWithLock(configName);
+            try {
+                ConfigurationSnapshotBuilder builder =
+                        new ConfigurationSnapshotBuilder(config);
+                for (ConfigUpdateEvent event : batch.getEvents()) {
+                    if (configName.compareTo(event.getHeader().getConfigName()) != 0) {
+                        throw new ConfigurationException(String.format(
+                                "Invalid Event batch : Multiple configurations specified. [configName=%s]",
+                                configName));
+                    }
+                    processEvent(event, builder);
+                    updatePaths.add(event.getPath());
+                }
+                if (!manager.publish(config, builder.build())) {
                     throw new ConfigurationException(String.format(
-                            "Invalid Event batch : Multiple configurations specified. [configName=%s]",
+                            "Invalid Sync state: Configuration changed during update. [config=%s]",
+                            configName));
+                }
+            } finally {
+                if (!manager.releaseLock(configName)) {
+                    LogUtils.warn(getClass(), String.format(
+                            "Configuration update lock release failed. [config=%s]",
                             configName));
                 }
-                processEvent(event);
-                updatePaths.add(event.getPath());
             }
-            ZConfigClientEnv.clientEnv().getConfigurationManager()
-                            .applyConfigurationUpdates(configName, updatePaths);
+            manager.applyConfigurationUpdates(configName, updatePaths);
         } catch (Exception e) {
             LogUtils.error(getClass(), String.format(
                     "Update failed to configuration [name=%s][transaction=%s] : %s",
@@ -85,58 +114,44 @@ public class ConfigurationUpdateHandler {
     /**
      * Process and apply the specified configuration update event.
      *
-     * @param event - Update Event.
+     * @param event   - Update Event.
+     * @param builder - Snapshot builder for the configuration being updated.
      * @throws ConfigurationException
      */
-    private void processEvent(@Nonnull ConfigUpdateEvent event) throws
-                                                                ConfigurationException {
+    private void processEvent(@Nonnull ConfigUpdateEvent event,
+                              @Nonnull ConfigurationSnapshotBuilder builder)
+    throws ConfigurationException {
         Preconditions.checkArgument(event != null);
+        Preconditions.checkArgument(builder != null);
         try {
-            ConfigurationManager manager =
-                    ZConfigClientEnv.clientEnv().getConfigurationManager();
-            Configuration config = manager.getWithLock(event.getHeader().getConfigName());
-            if (config == null) {
-                LogUtils.debug(getClass(),
-                               String.format(
-                                       "Configuration not loaded. [name=%s]",
-                                       event.getHeader().getConfigName()));
-                return;
+            Configuration config = builder.getConfiguration();
+            Version prev = Version.parse(event.getHeader().getPreVersion());
+            Version curr = Version.parse(event.getHeader().getUpdatedVersion());
+            if (!config.getVersion().equals(prev)) {
+                throw new ConfigurationException(String.format(
+                        "Invalid Sync state: Event version out of sync. [expected=%s][actual=%s]",
+                        config.getVersion().toString(), prev.toString()));
             }
-            try {
-                Version prev = Version.parse(event.getHeader().getPreVersion());
-                Version curr = Version.parse(event.getHeader().getUpdatedVersion());
-                if (!config.getVersion().equals(prev)) {
-                    throw new ConfigurationException(String.format(
-                            "Invalid Sync state: Event version out of sync. [expected=%s][actual=%s]",
-                            config.getVersion().toString(), prev.toString()));
-                }
-                AbstractConfigNode node = config.find(event.getPath());
-                if (node == null) {
-                    throw new ConfigurationException(String.format(
-                            "Invalid Sync state: Specified node not found. [config=%s][path=%s]",
-                            event.getHeader().getConfigName(), event.getPath()));
-                }
-                switch (event.getEventType()) {
-                    case Add:
-                        processAddEvent(event, node, config);
-                        break;
-                    case Update:
-                        processUpdateEvent(event, node, config);
-                        break;
-                    case Remove:
-                        processDeleteEvent(event, node, config);
-                        break;
-                }
-                LogUtils.info(getClass(), String.format(
-                        "Updated configuration : [name=%s][version=%s]",
-                        event.getHeader().getConfigName(), curr.toString()));
-            } finally {
-                if (!manager.releaseLock(event.getHeader().getConfigName())) {
-                    LogUtils.warn(getClass(), String.format(
-                            "Configuration update lock release failed. [config=%s]",
-                            event.getHeader().getConfigName()));
-                }
+            AbstractConfigNode node = config.find(event.getPath());
+            if (node == null) {
+                throw new ConfigurationException(String.format(
+                        "Invalid Sync state: Specified node not found. [config=%s][path=%s]",
+                        event.getHeader().getConfigName(), event.getPath()));
             }
+            switch (event.getEventType()) {
+                case Add:
+                    processAddEvent(event, node, builder);
+                    break;
+                case Update:
+                    processUpdateEvent(event, node, builder);
+                    break;
+                case Remove:
+                    processDeleteEvent(event, node, builder);
+                    break;
+            }
+            LogUtils.info(getClass(), String.format(
+                    "Updated configuration : [name=%s][version=%s]",
+                    event.getHeader().getConfigName(), curr.toString()));
         } catch (Exception e) {
             LogUtils.error(getClass(), e);
             throw new ConfigurationException(e);
@@ -148,16 +163,17 @@ public class ConfigurationUpdateHandler {
      *
      * @param event         - Event handle.
      * @param parent        - Parent configuration node.
-     * @param configuration - Configuration instance.
+     * @param builder       - Configuration snapshot builder.
      * @throws ConfigurationException
      */
     private void processAddEvent(ConfigUpdateEvent event, AbstractConfigNode parent,
-                                 Configuration configuration)
+                                 ConfigurationSnapshotBuilder builder)
     throws ConfigurationException {
         LogUtils.debug(getClass(),
                        String.format("Applying Add change. [config=%s][path=%s]",
                                      event.getHeader().getConfigName(),
                                      parent.getAbsolutePath()));
+        parent = builder.edit(parent);
         if (parent instanceof ConfigPathNode) {
             ConfigPathNode cp = (ConfigPathNode) parent;
             AbstractConfigNode cnode = cp.getChildNode(event.getValue().getName());
@@ -197,13 +213,14 @@ public class ConfigurationUpdateHandler {
      *
      * @param event         - Event handle.
      * @param parent        - Parent configuration node.
-     * @param configuration - Configuration instance.
+     * @param builder       - Configuration snapshot builder.
      * @throws ConfigurationException
      */
     private void processUpdateEvent(ConfigUpdateEvent event,
                                     AbstractConfigNode parent,
-                                    Configuration configuration)
+                                    ConfigurationSnapshotBuilder builder)
     throws ConfigurationException {
+        parent = builder.edit(parent);
         if (parent instanceof ConfigPathNode) {
             ConfigPathNode cp = (ConfigPathNode) parent;
             AbstractConfigNode cnode = cp.getChildNode(event.getValue().getName());
@@ -219,6 +236,7 @@ public class ConfigurationUpdateHandler {
                         event.getHeader().getConfigName(), cp.getAbsolutePath(),
                         event.getValue().getName()));
             }
+            cnode = builder.edit(cnode);
             ((ConfigValueNode) cnode).setValue(event.getValue().getValue());
         } else if (parent instanceof ConfigListValueNode) {
             ConfigListValueNode cp = (ConfigListValueNode) parent;
@@ -229,6 +247,7 @@ public class ConfigurationUpdateHandler {
                         event.getHeader().getConfigName(), cp.getAbsolutePath(),
                         event.getValue().getName()));
             }
+            vn = builder.edit(vn);
             vn.setValue(event.getValue().getValue());
         } else if (parent instanceof ConfigKeyValueNode) {
             ConfigKeyValueNode cp = (ConfigKeyValueNode) parent;
@@ -249,13 +268,14 @@ public class ConfigurationUpdateHandler {
      *
      * @param event         - Event handle.
      * @param parent        - Parent configuration node.
-     * @param configuration - Configuration instance.
+     * @param builder       - Configuration snapshot builder.
      * @throws ConfigurationException
      */
     private void processDeleteEvent(ConfigUpdateEvent event,
                                     AbstractConfigNode parent,
-                                    Configuration configuration)
+                                    ConfigurationSnapshotBuilder builder)
     throws ConfigurationException {
+        parent = builder.edit(parent);
         if (parent instanceof ConfigPathNode) {
             ConfigPathNode cp = (ConfigPathNode) parent;
             AbstractConfigNode cnode = cp.getChildNode(event.getValue().getName());
@@ -26,25 +26,98 @@ package com.codekutter.zconfig.client.factory;
 
 import com.google.common.base.Preconditions;
 import com.google.common.base.Strings;
+import com.codekutter.zconfig.common.BinaryConfigConstants;
 import com.codekutter.zconfig.common.ConfigProviderFactory;
 import com.codekutter.zconfig.common.ConfigurationException;
 import com.codekutter.zconfig.common.LogUtils;
 import com.codekutter.zconfig.common.model.Configuration;
 import com.codekutter.zconfig.common.model.ConfigurationSettings;
+import com.codekutter.zconfig.common.model.MappedConfiguration;
+import com.codekutter.zconfig.common.model.SharedConfigStore;
 import com.codekutter.zconfig.common.model.Version;
 import com.codekutter.zconfig.common.parsers.AbstractConfigParser;
+import com.codekutter.zconfig.common.parsers.BinaryConfigParser;
 import com.codekutter.zconfig.common.readers.AbstractConfigReader;
+import com.codekutter.zconfig.common.readers.ConfigBufferReader;
 import com.codekutter.zconfig.common.readers.ConfigFileReader;
+import com.codekutter.zconfig.common.readers.ConfigURLReader;
+import com.codekutter.zconfig.common.readers.EReaderType;
+import com.codekutter.zconfig.common.utils.IOUtils;
+import com.codekutter.zconfig.common.writers.BinaryConfigWriter;
 
 import javax.annotation.Nonnull;
+import java.io.File;
 import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 
 /**
  * Class to load configurations.
+ * <p>
+ * If enabled (see {@link #setUseSnapshots(boolean)}), configurations loaded
+ * from local files are saved as binary snapshots next to the source file
+ * ([source file].snapshot). Subsequent loads use the snapshot while the source
+ * content, the included configurations, the System properties/environment
+ * variables the values were resolved with and the requested version are
+ * unchanged. Configurations loaded over HTTP are snapshotted next to the
+ * locally cached response, so an unmodified remote configuration is not
+ * downloaded or parsed again.
+ * <p>
+ * Configurations can also be shared by the processes on the host (see
+ * {@link #loadShared(String, String, Version, ConfigurationSettings, String)}),
+ * the first process publishes the loaded configuration to the shared store,
+ * other processes map the published configuration.
  */
 public class ConfigurationLoader {
+    /**
+     * Use binary snapshots for configurations loaded from local files
+     * (disabled by default).
+     */
+    private boolean useSnapshots = false;
+    /**
+     * Host level store for shared configurations.
+     */
+    private SharedConfigStore sharedStore = null;
+
+    /**
+     * Are binary snapshots used for configurations loaded from local files?
+     *
+     * @return - Use snapshots?
+     */
+    public boolean isUseSnapshots() {
+        return useSnapshots;
+    }
+
+    /**
+     * Set if binary snapshots should be used for configurations loaded from
+     * local files.
+     *
+     * @param useSnapshots - Use snapshots?
+     */
+    public void setUseSnapshots(boolean useSnapshots) {
+        this.useSnapshots = useSnapshots;
+    }
+
+    /**
+     * Get the store used for shared configurations.
+     *
+     * @return - Shared configuration store.
+     */
+    public SharedConfigStore getSharedStore() {
+        return sharedStore;
+    }
+
+    /**
+     * Set the store used for shared configurations.
+     *
+     * @param sharedStore - Shared configuration store.
+     */
+    public void setSharedStore(SharedConfigStore sharedStore) {
+        this.sharedStore = sharedStore;
+    }
+
     /**
      * Load configuration from the specified URI.
      *
@@ -73,7 +146,35 @@ public class ConfigurationLoader {
                                    "Reading configuration: [type=%s][uri=%s][version=%s]",
                                    configType.name(), uri.toString(),
                                    version.toString()));
-            try (AbstractConfigReader reader = ConfigProviderFactory.reader(uri)) {
+            EReaderType type = EReaderType.parseFromUri(uri);
+            if (useSnapshots && (type == EReaderType.File ||
+                    type == EReaderType.HTTP || type == EReaderType.HTTPS)) {
+                try (
+                        AbstractConfigParser parser =
+                                ConfigProviderFactory.parser(configType)) {
+                    if (parser == null) {
+                        throw new ConfigurationException(
+                                String.format(
+                                        "Error getting parser for type: [type=%s]",
+                                        configType.name()));
+                    }
+                    if (type == EReaderType.File) {
+                        return load(configName, Paths.get(uri).toFile(), parser,
+                                    version, settings, password);
+                    }
+                    // Remote content is cached locally, the snapshot is keyed
+                    // by the cached content.
+                    try (ConfigURLReader reader = (settings != null ?
+                            new ConfigURLReader(uri.toURL(), settings) :
+                            new ConfigURLReader(uri.toURL()))) {
+                        reader.open();
+                        return load(configName, reader.getContentFile(), parser,
+                                    version, settings, password);
+                    }
+                }
+            }
+            try (AbstractConfigReader reader =
+                         ConfigProviderFactory.reader(uri, settings)) {
                 if (reader == null) {
                     throw new ConfigurationException(
                             String.format("Error getting reader for URI: [uri=%s]",
@@ -140,16 +241,20 @@ public class ConfigurationLoader {
                                configName, filename,
                                version.toString()));
         try {
-            try (ConfigFileReader reader = new ConfigFileReader(filename)) {
-                try (
-                        AbstractConfigParser parser = ConfigProviderFactory
-                                .parser(filename)) {
-                    if (parser == null) {
-                        throw new ConfigurationException(
-                                String.format(
-                                        "Error getting parser for file: [filename=%s]",
-                                        filename));
-                    }
+            try (
+                    AbstractConfigParser parser = ConfigProviderFactory
+                            .parser(filename)) {
+                if (parser == null) {
+                    throw new ConfigurationException(
+                            String.format(
+                                    "Error getting parser for file: [filename=%s]",
+                                    filename));
+                }
+                if (useSnapshots) {
+                    return load(configName, new File(filename), parser, version,
+                                settings, password);
+                }
+                try (ConfigFileReader reader = new ConfigFileReader(filename)) {
                     parser.parse(configName, reader, settings, version, password);
                     return parser.getConfiguration();
                 }
@@ -173,4 +278,102 @@ public class ConfigurationLoader {
     throws ConfigurationException {
         return load(configName, filename, version, null, password);
     }
+
+    /**
+     * Load the shared configuration for the specified filename. The published
+     * configuration is mapped if the source is unchanged (and the passcode
+     * matches the published configuration), else the configuration is loaded
+     * and published to the shared store.
+     *
+     * @param configName - Configuration name.
+     * @param filename   - Configuration filename.
+     * @param version    - Configuration version.
+     * @param settings   - Configuration Settings.
+     * @param password   - Password, for encrypted values.
+     * @return - Mapped shared configuration.
+     * @throws ConfigurationException
+     */
+    public MappedConfiguration loadShared(@Nonnull String configName,
+                                          @Nonnull String filename,
+                                          @Nonnull Version version,
+                                          ConfigurationSettings settings,
+                                          String password)
+    throws ConfigurationException {
+        Preconditions.checkArgument(!Strings.isNullOrEmpty(configName));
+        Preconditions.checkArgument(!Strings.isNullOrEmpty(filename));
+        Preconditions.checkArgument(version != null);
+        Preconditions.checkState(sharedStore != null,
+                                 "Shared configuration store not set.");
+
+        try {
+            String hash = IOUtils.getContentHash(
+                    Files.readAllBytes(Paths.get(filename)));
+            MappedConfiguration mapped =
+                    sharedStore.open(configName, version, hash, settings);
+            if (mapped != null) {
+                mapped.validatePasscode(password);
+                LogUtils.debug(getClass(), String.format(
+                        "Mapped shared configuration. [name=%s][file=%s]",
+                        configName, mapped.getFile().getAbsolutePath()));
+                return mapped;
+            }
+            Configuration configuration =
+                    load(configName, filename, version, settings, password);
+            return sharedStore.publish(configuration, version, hash);
+        } catch (IOException e) {
+            throw new ConfigurationException(e);
+        }
+    }
+
+    /**
+     * Load the configuration from the local source file, using the binary
+     * snapshot if still valid. The snapshot is (re-)written if the source
+     * had to be parsed.
+     *
+     * @param configName - Configuration name.
+     * @param source     - Configuration source file.
+     * @param parser     - Parser for the source file.
+     * @param version    - Configuration version.
+     * @param settings   - Configuration Settings.
+     * @param password   - Password, for encrypted values.
+     * @return - Loaded Configuration instance.
+     * @throws ConfigurationException
+     * @throws IOException
+     */
+    private Configuration load(String configName, File source,
+                               AbstractConfigParser parser, Version version,
+                               ConfigurationSettings settings, String password)
+    throws ConfigurationException, IOException {
+        byte[] data = Files.readAllBytes(source.toPath());
+        String hash = IOUtils.getContentHash(data);
+        File snapshot = new File(String.format("%s%s", source.getAbsolutePath(),
+                                               BinaryConfigConstants.SNAPSHOT_FILE_EXT));
+        if (snapshot.exists()) {
+            try (ConfigFileReader reader = new ConfigFileReader(snapshot);
+                 BinaryConfigParser sparser = new BinaryConfigParser()) {
+                sparser.setSourceHash(hash);
+                sparser.parse(configName, reader, settings, version, password);
+                LogUtils.debug(getClass(), String.format(
+                        "Loaded configuration from snapshot. [name=%s][snapshot=%s]",
+                        configName, snapshot.getAbsolutePath()));
+                return sparser.getConfiguration();
+            } catch (ConfigurationException e) {
+                LogUtils.debug(getClass(), String.format(
+                        "Snapshot not used. [snapshot=%s][reason=%s]",
+                        snapshot.getAbsolutePath(), e.getLocalizedMessage()));
+            }
+        }
+        try (ConfigBufferReader reader = new ConfigBufferReader(data)) {
+            parser.parse(configName, reader, settings, version, password);
+        }
+        Configuration configuration = parser.getConfiguration();
+        try {
+            new BinaryConfigWriter().write(configuration, snapshot, hash, version);
+        } catch (ConfigurationException e) {
+            LogUtils.warn(getClass(), String.format(
+                    "Error writing configuration snapshot. [snapshot=%s][error=%s]",
+                    snapshot.getAbsolutePath(), e.getLocalizedMessage()));
+        }
+        return configuration;
+    }
 }
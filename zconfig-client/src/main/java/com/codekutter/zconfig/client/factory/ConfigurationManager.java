@@ -40,6 +40,7 @@ import sun.security.krb5.Config;
 
 import javax.annotation.Nonnull;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.locks.ReentrantLock;
 
 /**
@@ -85,8 +86,11 @@ public class ConfigurationManager {
     /**
      * Map of Loaded configurations. Only one version of a specific configuration
      * can be loaded per client instance.
+     * <p>
+     * Configuration handles are immutable snapshots once published, updates
+     * replace the handle (see {@link #publish(Configuration, Configuration)}).
      */
-    private Map<String, Configuration> loadedConfigs = new HashMap<>();
+    private Map<String, Configuration> loadedConfigs = new ConcurrentHashMap<>();
     /**
      * Map of auto-wired object instances. This is to update these instances
      * upon configuration updates.
@@ -266,15 +270,44 @@ public class ConfigurationManager {
 
     /**
      * Get a cached configuration handle.
+     * <p>
+     * The returned handle is a consistent snapshot, update batches are
+     * published as a new handle and are not visible on handles already read.
      *
      * @param configName - Configuration name.
      * @return - Cached handle or NULL if not in cache.
      */
     public Configuration get(@Nonnull String configName) {
-        if (loadedConfigs.containsKey(configName)) {
-            return loadedConfigs.get(configName);
+        return loadedConfigs.get(configName);
+    }
+
+    /**
+     * Publish an updated snapshot of a loaded configuration. The snapshot
+     * replaces the current handle only if the current handle is the one the
+     * update was applied to.
+     *
+     * @param current  - Configuration handle the update was applied to.
+     * @param snapshot - Updated configuration snapshot.
+     * @return - Was published?
+     */
+    public boolean publish(@Nonnull Configuration current,
+                           @Nonnull Configuration snapshot) {
+        Preconditions.checkArgument(current != null);
+        Preconditions.checkArgument(snapshot != null);
+        Preconditions.checkArgument(
+                current.getName().compareTo(snapshot.getName()) == 0);
+
+        configCacheLock.lock();
+        try {
+            if (loadedConfigs.replace(current.getName(), current, snapshot)) {
+                applicationGroups.remove(current.getApplicationGroup(), current);
+                applicationGroups.put(snapshot.getApplicationGroup(), snapshot);
+                return true;
+            }
+        } finally {
+            configCacheLock.unlock();
         }
-        return null;
+        return false;
     }
 
     /**
@@ -0,0 +1,94 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ * Copyright (c) $year
+ * Date: 18/10/26 6:40 AM
+ * Subho Ghosh (subho dot ghosh at outlook.com)
+ *
+ */
+
+package com.codekutter.zconfig.common;
+
+import com.codekutter.zconfig.common.model.Configuration;
+import com.codekutter.zconfig.common.model.Version;
+import com.codekutter.zconfig.common.parsers.JSONConfigParser;
+import com.codekutter.zconfig.common.readers.ConfigFileReader;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Annotation binding cost: discovering the bindings of the type on every call
+ * (earlier ConfigurationAnnotationProcessor) vs binding with the cached plan.
+ * <p>
+ * Run from the module directory (configuration files are relative to it):
+ * mvn -Pbenchmark test-compile exec:exec -Dbenchmark=Benchmark_ConfigBindingPlan
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class Benchmark_ConfigBindingPlan {
+    private static final String CONFIG_FILE =
+            "src/test/resources/json/test-config-encrypted.json";
+    private static final String ENCRYPTION_KEY = "21947a50-6755-47";
+    private static final Class<Test_ConfigurationAnnotationProcessor.ConfigAnnotationsTest>
+            TYPE = Test_ConfigurationAnnotationProcessor.ConfigAnnotationsTest.class;
+
+    private Configuration configuration;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        JSONConfigParser parser =
+                (JSONConfigParser) ConfigProviderFactory.parser(
+                        ConfigProviderFactory.EConfigType.JSON);
+        try (ConfigFileReader reader = new ConfigFileReader(CONFIG_FILE)) {
+            parser.parse("test-config", reader, null, Version.parse("0.*"),
+                         ENCRYPTION_KEY);
+            configuration = parser.getConfiguration();
+        }
+    }
+
+    /**
+     * Discovery only: annotation, field, method and constructor scans.
+     */
+    @Benchmark
+    public Object discover() {
+        return ConfigBindingPlan.create(TYPE);
+    }
+
+    /**
+     * Earlier path: the bindings are discovered and then applied on every call.
+     */
+    @Benchmark
+    public void discoverAndBind(Blackhole blackhole)
+    throws ConfigurationException {
+        blackhole.consume(ConfigBindingPlan.create(TYPE));
+        blackhole.consume(ConfigurationAnnotationProcessor
+                                  .readConfigAnnotations(TYPE, configuration));
+    }
+
+    @Benchmark
+    public Object bindCached() throws ConfigurationException {
+        return ConfigurationAnnotationProcessor
+                .readConfigAnnotations(TYPE, configuration);
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ * Copyright (c) $year
+ * Date: 18/10/26 6:10 AM
+ * Subho Ghosh (subho dot ghosh at outlook.com)
+ *
+ */
+
+package com.codekutter.zconfig.common.utils;
+
+import com.codekutter.zconfig.common.ConfigProviderFactory;
+import com.codekutter.zconfig.common.model.Configuration;
+import com.codekutter.zconfig.common.model.ConfigurationSettings;
+import com.codekutter.zconfig.common.model.Version;
+import com.codekutter.zconfig.common.model.nodes.ConfigValueNode;
+import com.codekutter.zconfig.common.parsers.JSONConfigParser;
+import com.codekutter.zconfig.common.readers.ConfigFileReader;
+import org.apache.commons.codec.binary.Base64;
+import org.openjdk.jmh.annotations.*;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.IvParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decrypt throughput of the config vault: a new cipher for the passcode and the
+ * value per call (earlier ConfigVault.decrypt()) vs pooled ciphers vs the cached
+ * decrypted values.
+ * <p>
+ * Run from the module directory (configuration files are relative to it):
+ * mvn -Pbenchmark test-compile exec:exec -Dbenchmark=Benchmark_ConfigVault
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class Benchmark_ConfigVault {
+    private static final String CONFIG_FILE =
+            "src/test/resources/json/test-config-encrypted.json";
+    private static final String CIPHER_ALGO = "AES/CBC/PKCS5Padding";
+    private static final String CIPHER_TYPE = "AES";
+    private static final String ENCRYPTION_KEY = "21947a50-6755-47";
+
+    private Configuration configuration;
+    private String encryptedValue;
+    private String encryptedPasscode;
+    private String encodingKey;
+    private String iv;
+    private CypherUtils.ConfigVault pooled;
+    private CypherUtils.ConfigVault cached;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        JSONConfigParser parser =
+                (JSONConfigParser) ConfigProviderFactory.parser(
+                        ConfigProviderFactory.EConfigType.JSON);
+        try (ConfigFileReader reader = new ConfigFileReader(CONFIG_FILE)) {
+            ConfigurationSettings settings = new ConfigurationSettings();
+            settings.setDownloadRemoteFiles(
+                    ConfigurationSettings.EStartupOptions.OnStartUp);
+            parser.parse("test-config", reader, settings, Version.parse("0.*"),
+                         ENCRYPTION_KEY);
+            configuration = parser.getConfiguration();
+        }
+        encryptedValue = ((ConfigValueNode) configuration
+                .find("configuration/node_1/node_2#PARAM_3")).getValue();
+
+        // Same key/IV the vault uses to store the passcode.
+        String key = String.format("%s%s%d", configuration.getName(),
+                                   configuration.getInstanceId(),
+                                   configuration.getCreatedBy().getTimestamp());
+        int index = (int) (configuration.getHeader().getTimestamp() % 16);
+        if (index + 16 >= key.length()) {
+            index = key.length() - 17;
+        }
+        encodingKey = key.substring(index, index + 16);
+        iv = String.format("%s%s%s", configuration.getName(),
+                           configuration.getApplication(),
+                           configuration.getApplicationGroup()).substring(0, 16);
+        encryptedPasscode =
+                CypherUtils.encryptAsString(ENCRYPTION_KEY, encodingKey, iv);
+
+        pooled = new CypherUtils.ConfigVault(0);
+        pooled.addPasscode(configuration, ENCRYPTION_KEY);
+        cached = new CypherUtils.ConfigVault();
+        cached.addPasscode(configuration, ENCRYPTION_KEY);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pooled.wipe();
+        cached.wipe();
+    }
+
+    /**
+     * Earlier path: decrypt the stored passcode and then the value, each with a
+     * new cipher.
+     */
+    @Benchmark
+    public String newCipherPerCall() throws Exception {
+        String passcode = new String(decrypt(encryptedPasscode, encodingKey));
+        return new String(decrypt(encryptedValue, passcode),
+                          StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public String pooledCiphers() throws Exception {
+        return pooled.decrypt(encryptedValue, configuration);
+    }
+
+    @Benchmark
+    public String cachedValues() throws Exception {
+        return cached.decrypt(encryptedValue, configuration);
+    }
+
+    private byte[] decrypt(String data, String password) throws Exception {
+        byte[] array = Base64.decodeBase64(data.getBytes(StandardCharsets.UTF_8));
+        Cipher cipher = Cipher.getInstance(CIPHER_ALGO);
+        cipher.init(Cipher.DECRYPT_MODE,
+                    new SecretKeySpec(password.getBytes(StandardCharsets.UTF_8),
+                                      CIPHER_TYPE),
+                    new IvParameterSpec(iv.getBytes(StandardCharsets.UTF_8)));
+        return cipher.doFinal(array);
+    }
+}
@@ -0,0 +1,516 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ * Copyright (c) $year
+ * Date: 18/10/26 5:25 AM
+ * Subho Ghosh (subho dot ghosh at outlook.com)
+ *
+ */
+
+package com.codekutter.zconfig.common;
+
+import com.codekutter.zconfig.common.model.EncryptedValue;
+import com.codekutter.zconfig.common.model.nodes.*;
+import com.codekutter.zconfig.common.utils.ReflectionUtils;
+import com.google.common.base.Preconditions;
+import com.google.common.base.Strings;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Base class for generated configuration binders: provides the node/value
+ * lookups (with the same checks as the reflection based binding), the generated
+ * code converts and sets the values.
+ *
+ * @param <T> - Annotated type.
+ */
+public abstract class AbstractConfigBinder<T> implements IConfigBinder<T> {
+    private final Class<T> type;
+    private final String path;
+
+    /**
+     * Binder constructor.
+     *
+     * @param type - Annotated type.
+     * @param path - Config Path annotation value.
+     */
+    protected AbstractConfigBinder(@Nonnull Class<T> type, @Nonnull String path) {
+        Preconditions.checkArgument(type != null);
+        Preconditions.checkArgument(path != null);
+
+        this.type = type;
+        this.path = path;
+    }
+
+    /**
+     * Get the annotated type this binder binds.
+     *
+     * @return - Annotated type.
+     */
+    @Override
+    public Class<T> getType() {
+        return type;
+    }
+
+    /**
+     * Get the Config Path annotation value of the bound type.
+     *
+     * @return - Configuration node path.
+     */
+    @Override
+    public String getPath() {
+        return path;
+    }
+
+    /**
+     * Get the (un-encrypted) value of a Config Value.
+     *
+     * @param node       - Configuration node.
+     * @param name       - Value name/path.
+     * @param required   - Is required?
+     * @param valuePaths - List to add the read value paths to (can be NULL).
+     * @return - Value string, NULL if not found.
+     * @throws ConfigurationException
+     */
+    protected static String getValue(@Nonnull AbstractConfigNode node,
+                                     @Nonnull String name, boolean required,
+                                     List<String> valuePaths)
+            throws ConfigurationException {
+        ConfigValueNode cv = findValue(node, name, valuePaths);
+        if (cv != null && cv.isEncrypted()) {
+            throw new ConfigurationException(String.format(
+                    "Encrypted value cannot be used. [path=%s]",
+                    cv.getSearchPath()));
+        }
+        return checkValue(cv, node, name, required);
+    }
+
+    /**
+     * Get the value of a Config Value to be transformed.
+     *
+     * @param node       - Configuration node.
+     * @param name       - Value name/path.
+     * @param required   - Is required?
+     * @param valuePaths - List to add the read value paths to (can be NULL).
+     * @return - Value string, NULL if not found.
+     * @throws ConfigurationException
+     */
+    protected static String getTransformValue(@Nonnull AbstractConfigNode node,
+                                              @Nonnull String name,
+                                              boolean required,
+                                              List<String> valuePaths)
+            throws ConfigurationException {
+        return checkValue(findValue(node, name, valuePaths), node, name, required);
+    }
+
+    /**
+     * Get the values of a Config Value list.
+     *
+     * @param node       - Configuration node.
+     * @param name       - Value name/path.
+     * @param required   - Is required?
+     * @param valuePaths - List to add the read value paths to (can be NULL).
+     * @return - List of value strings, NULL if not found.
+     * @throws ConfigurationException
+     */
+    protected static List<String> getValues(@Nonnull AbstractConfigNode node,
+                                            @Nonnull String name,
+                                            boolean required,
+                                            List<String> valuePaths)
+            throws ConfigurationException {
+        List<String> values = null;
+        if (node instanceof ConfigPathNode) {
+            AbstractConfigNode fnode = node.find(name);
+            if (fnode != null) {
+                if (fnode instanceof ConfigListValueNode) {
+                    List<ConfigValueNode> nodes =
+                            ((ConfigListValueNode) fnode).getValues();
+                    values = new ArrayList<>(nodes.size());
+                    for (ConfigValueNode cvn : nodes) {
+                        values.add(cvn.getValue());
+                    }
+                }
+                if (valuePaths != null) {
+                    valuePaths.add(fnode.getSearchPath());
+                }
+            }
+        }
+        if (values == null && required) {
+            throw new ConfigurationException(String.format(
+                    "Required configuration value not specified: [path=%s][name=%s]",
+                    node.getAbsolutePath(), name));
+        }
+        return values;
+    }
+
+    /**
+     * Get the encrypted value of a Config Value.
+     *
+     * @param node       - Configuration node.
+     * @param name       - Value name/path.
+     * @param required   - Is required?
+     * @param valuePaths - List to add the read value paths to (can be NULL).
+     * @return - Encrypted value, NULL if not found.
+     * @throws ConfigurationException
+     */
+    protected static EncryptedValue getEncryptedValue(
+            @Nonnull AbstractConfigNode node, @Nonnull String name,
+            boolean required, List<String> valuePaths)
+            throws ConfigurationException {
+        ConfigValueNode vn = findValue(node, name, valuePaths);
+        if (vn != null && !vn.isEncrypted()) {
+            throw new ConfigurationException(String.format(
+                    "Non-Encrypted value cannot be used. [path=%s]",
+                    vn.getSearchPath()));
+        }
+        if (vn == null) {
+            if (required) {
+                throw new ConfigurationException(String.format(
+                        "Required parameter not specified: [path=%s][name=%s]",
+                        node.getAbsolutePath(), node.getName()));
+            }
+            return null;
+        }
+        return new EncryptedValue(vn);
+    }
+
+    /**
+     * Get the node of a nested configuration annotated type.
+     *
+     * @param node - Configuration node.
+     * @param path - Nested node path.
+     * @return - Nested node, NULL if not found.
+     * @throws ConfigurationException
+     */
+    protected static ConfigPathNode getNestedNode(@Nonnull AbstractConfigNode node,
+                                                  @Nonnull String path)
+            throws ConfigurationException {
+        if (!(node instanceof ConfigPathNode)) {
+            throw new ConfigurationException(String.format(
+                    "Invalid Configuration Node type. [path=%s][type=%s]",
+                    node.getSearchPath(), node.getClass().getCanonicalName()));
+        }
+        AbstractConfigNode cnode = node.find(path);
+        if (cnode instanceof ConfigPathNode) {
+            return (ConfigPathNode) cnode;
+        }
+        return null;
+    }
+
+    /**
+     * Check the value of a required configuration value is set.
+     *
+     * @param value - Value to check.
+     * @param node  - Configuration node.
+     * @param name  - Value name/path.
+     * @throws ConfigurationException
+     */
+    protected static void checkRequired(Object value,
+                                        @Nonnull AbstractConfigNode node,
+                                        @Nonnull String name)
+            throws ConfigurationException {
+        if (value == null) {
+            throw new ConfigurationException(String.format(
+                    "Required configuration value not specified: [path=%s][name=%s]",
+                    node.getAbsolutePath(), name));
+        }
+    }
+
+    /**
+     * Add the search path of the node to the value paths.
+     *
+     * @param node       - Configuration node.
+     * @param valuePaths - List to add the read value paths to (can be NULL).
+     */
+    protected static void addValuePath(@Nonnull AbstractConfigNode node,
+                                       List<String> valuePaths) {
+        if (valuePaths != null) {
+            valuePaths.add(node.getSearchPath());
+        }
+    }
+
+    /**
+     * Get the (un-encrypted) value of a Config Parameter.
+     *
+     * @param node       - Configuration node.
+     * @param path       - Node path of the parameter (can be NULL).
+     * @param name       - Parameter name.
+     * @param required   - Is required?
+     * @param valuePaths - List to add the read value paths to (can be NULL).
+     * @return - Value string, NULL if not found.
+     * @throws ConfigurationException
+     */
+    protected static String getParam(@Nonnull AbstractConfigNode node, String path,
+                                     @Nonnull String name, boolean required,
+                                     List<String> valuePaths)
+            throws ConfigurationException {
+        return getKeyValue(node, path, name, required, false, valuePaths);
+    }
+
+    /**
+     * Get the encrypted value of a Config Parameter.
+     *
+     * @param node       - Configuration node.
+     * @param path       - Node path of the parameter (can be NULL).
+     * @param name       - Parameter name.
+     * @param required   - Is required?
+     * @param valuePaths - List to add the read value paths to (can be NULL).
+     * @return - Encrypted value, NULL if not found.
+     * @throws ConfigurationException
+     */
+    protected static EncryptedValue getEncryptedParam(
+            @Nonnull AbstractConfigNode node, String path, @Nonnull String name,
+            boolean required, List<String> valuePaths)
+            throws ConfigurationException {
+        return getEncryptedKeyValue(node, path, name, required, false, valuePaths);
+    }
+
+    /**
+     * Get the (un-encrypted) value of a Config Attribute.
+     *
+     * @param node       - Configuration node.
+     * @param path       - Node path of the attribute (can be NULL).
+     * @param name       - Attribute name.
+     * @param required   - Is required?
+     * @param valuePaths - List to add the read value paths to (can be NULL).
+     * @return - Value string, NULL if not found.
+     * @throws ConfigurationException
+     */
+    protected static String getAttribute(@Nonnull AbstractConfigNode node,
+                                         String path, @Nonnull String name,
+                                         boolean required, List<String> valuePaths)
+            throws ConfigurationException {
+        return getKeyValue(node, path, name, required, true, valuePaths);
+    }
+
+    /**
+     * Get the encrypted value of a Config Attribute.
+     *
+     * @param node       - Configuration node.
+     * @param path       - Node path of the attribute (can be NULL).
+     * @param name       - Attribute name.
+     * @param required   - Is required?
+     * @param valuePaths - List to add the read value paths to (can be NULL).
+     * @return - Encrypted value, NULL if not found.
+     * @throws ConfigurationException
+     */
+    protected static EncryptedValue getEncryptedAttribute(
+            @Nonnull AbstractConfigNode node, String path, @Nonnull String name,
+            boolean required, List<String> valuePaths)
+            throws ConfigurationException {
+        return getEncryptedKeyValue(node, path, name, required, true, valuePaths);
+    }
+
+    /**
+     * Get the node to invoke an annotated method/constructor with.
+     *
+     * @param node - Configuration node.
+     * @param path - Method Invoke annotation path.
+     * @return - Configuration node.
+     * @throws ConfigurationException
+     */
+    protected static AbstractConfigNode getInvokeNode(@Nonnull AbstractConfigNode node,
+                                                      String path)
+            throws ConfigurationException {
+        if (!Strings.isNullOrEmpty(path)) {
+            node = node.find(path);
+        }
+        if (node == null) {
+            throw new ConfigurationException(
+                    String.format("Configuration Node Not Found : [path=%s]",
+                                  path));
+        }
+        return node;
+    }
+
+    /**
+     * Get the value of an annotated method/constructor parameter.
+     *
+     * @param type     - Annotated type.
+     * @param node     - Configuration node.
+     * @param name     - Parameter name.
+     * @param pname    - Config Parameter name.
+     * @param ptype    - Parameter type.
+     * @param required - Is required?
+     * @return - Value extracted from configuration.
+     * @throws ConfigurationException
+     */
+    protected static Object getParamValue(@Nonnull Class<?> type,
+                                          @Nonnull AbstractConfigNode node,
+                                          String name, String pname,
+                                          @Nonnull Class<?> ptype,
+                                          boolean required)
+            throws ConfigurationException {
+        if (ptype.equals(AbstractConfigNode.class)) {
+            if (!Strings.isNullOrEmpty(pname)) {
+                node = node.find(pname);
+            }
+            return node;
+        }
+        if (!(node instanceof ConfigPathNode)) {
+            throw new ConfigurationException(String.format(
+                    "Invalid Configuration Node type. [path=%s][type=%s]",
+                    node.getSearchPath(), node.getClass().getCanonicalName()));
+        }
+
+        ConfigPathNode pnode = (ConfigPathNode) node;
+        ConfigParametersNode paramnode = pnode.parmeters();
+        String value = null;
+        if (paramnode != null) {
+            ConfigValueNode cv = paramnode.getValue(pname);
+            if (cv != null) {
+                if (cv.isEncrypted()) {
+                    if (ptype == EncryptedValue.class) {
+                        return new EncryptedValue(cv);
+                    }
+                }
+                value = cv.getValue();
+            }
+        }
+        if (Strings.isNullOrEmpty(value) && required) {
+            throw new ConfigurationException(String.format(
+                    "Required Parameter Value not defined. [param=%s][type=%s]",
+                    name, type.getCanonicalName()));
+        }
+        Object v = null;
+        if (!Strings.isNullOrEmpty(value)) {
+            v = ReflectionUtils.parseStringValue(ptype, value);
+            if (v == null) {
+                throw new ConfigurationException(String.format(
+                        "Error parsing parameter value. [type=%s][value=%s]",
+                        ptype.getCanonicalName(), value));
+            }
+        }
+        return v;
+    }
+
+    private static ConfigValueNode findValue(AbstractConfigNode node, String name,
+                                             List<String> valuePaths)
+            throws ConfigurationException {
+        ConfigValueNode cv = null;
+        if (node instanceof ConfigPathNode) {
+            AbstractConfigNode fnode = node.find(name);
+            if (fnode != null) {
+                if (fnode instanceof ConfigValueNode) {
+                    cv = (ConfigValueNode) fnode;
+                }
+                if (valuePaths != null) {
+                    valuePaths.add(fnode.getSearchPath());
+                }
+            }
+        }
+        return cv;
+    }
+
+    private static String checkValue(ConfigValueNode cv, AbstractConfigNode node,
+                                      String name, boolean required)
+            throws ConfigurationException {
+        String value = (cv != null ? cv.getValue() : null);
+        if (Strings.isNullOrEmpty(value)) {
+            if (required) {
+                throw new ConfigurationException(String.format(
+                        "Required configuration value not specified: [path=%s][name=%s]",
+                        node.getAbsolutePath(), name));
+            }
+            return null;
+        }
+        return value;
+    }
+
+    private static ConfigPathNode getTagNode(AbstractConfigNode node, String path)
+            throws ConfigurationException {
+        if (path != null) {
+            node = node.find(path);
+            if (node == null) {
+                throw new ConfigurationException(String.format(
+                        "Invalid ConfigParam : path not found. [path=%s]", path));
+            }
+        }
+        return (ConfigPathNode) node;
+    }
+
+    private static String getKeyValue(AbstractConfigNode node, String path,
+                                      String name, boolean required,
+                                      boolean attributes, List<String> valuePaths)
+            throws ConfigurationException {
+        String value = null;
+        if (node instanceof ConfigPathNode) {
+            ConfigPathNode pathNode = getTagNode(node, path);
+            ConfigKeyValueNode kvnode =
+                    (attributes ? pathNode.attributes() : pathNode.parmeters());
+            if (kvnode != null && !kvnode.isEmpty()) {
+                if (kvnode.hasKey(name)) {
+                    ConfigValueNode vn = kvnode.getValue(name);
+                    if (vn != null) {
+                        if (vn.isEncrypted()) {
+                            throw new ConfigurationException(String.format(
+                                    "Encrypted value cannot be used. [path=%s]",
+                                    vn.getSearchPath()));
+                        }
+                        value = vn.getValue();
+                    }
+                }
+            }
+            if (valuePaths != null) {
+                valuePaths.add(attributes ? node.getSearchPath() :
+                                       pathNode.getSearchPath());
+            }
+        }
+        if (Strings.isNullOrEmpty(value)) {
+            if (required) {
+                throw new ConfigurationException(String.format(
+                        "Required parameter not specified: [path=%s][name=%s]",
+                        node.getAbsolutePath(), name));
+            }
+            return null;
+        }
+        return value;
+    }
+
+    private static EncryptedValue getEncryptedKeyValue(AbstractConfigNode node,
+                                                       String path, String name,
+                                                       boolean required,
+                                                       boolean attributes,
+                                                       List<String> valuePaths)
+            throws ConfigurationException {
+        ConfigValueNode vn = null;
+        if (node instanceof ConfigPathNode) {
+            ConfigPathNode pathNode = getTagNode(node, path);
+            ConfigKeyValueNode kvnode =
+                    (attributes ? pathNode.attributes() : pathNode.parmeters());
+            if (kvnode != null && !kvnode.isEmpty()) {
+                if (kvnode.hasKey(name))
+                    vn = kvnode.getValue(name);
+            }
+            if (valuePaths != null) {
+                valuePaths.add(node.getSearchPath());
+            }
+        }
+        if (vn == null) {
+            if (required) {
+                throw new ConfigurationException(String.format(
+                        "Required parameter not specified: [path=%s][name=%s]",
+                        node.getAbsolutePath(), name));
+            }
+            return null;
+        }
+        return new EncryptedValue(vn);
+    }
+}
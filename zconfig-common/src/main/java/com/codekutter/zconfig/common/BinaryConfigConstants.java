@@ -0,0 +1,101 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ * Copyright (c) $year
+ * Date: 17/10/26 6:40 PM
+ * Subho Ghosh (subho dot ghosh at outlook.com)
+ *
+ */
+
+package com.codekutter.zconfig.common;
+
+/**
+ * Class encapsulating the constants defined for the binary configuration
+ * snapshot format.
+ * <p>
+ * Snapshot layout:
+ * - Magic, format version
+ * - Source content hash, loaded version
+ * - Included configurations (URI, content hash)
+ * - System/environment variables resolved (names, fingerprint of the values)
+ * - Configuration header
+ * - Configuration node tree (depth first)
+ * <p>
+ * Strings are pooled: the first occurrence is written inline, repeated
+ * occurrences are written as a reference to the first one.
+ */
+public class BinaryConfigConstants {
+    public static final int SNAPSHOT_MAGIC = 0x5A43534E;
+    public static final short SNAPSHOT_FORMAT_VERSION = 3;
+    public static final String SNAPSHOT_FILE_EXT = ".snapshot";
+
+    public static final int STRING_NULL = -1;
+    public static final int STRING_INLINE = -2;
+
+    public static final byte NODE_PATH = 1;
+    public static final byte NODE_VALUE = 2;
+    public static final byte NODE_PROPERTIES = 3;
+    public static final byte NODE_PARAMETERS = 4;
+    public static final byte NODE_ATTRIBUTES = 5;
+    public static final byte NODE_LIST_VALUE = 6;
+    public static final byte NODE_LIST_ELEMENT = 7;
+    public static final byte NODE_INCLUDE = 8;
+    public static final byte NODE_RESOURCE_FILE = 9;
+    public static final byte NODE_RESOURCE_DIRECTORY = 10;
+    public static final byte NODE_RESOURCE_BLOB = 11;
+    /**
+     * Marker for an included root node attached directly to the including
+     * path node, the marker is followed by the include definition.
+     */
+    public static final byte NODE_INCLUDED = 12;
+
+    /*
+     * Shared (memory mapped) configuration store layout:
+     * - Fixed header: magic, format version, loaded version, entry count,
+     *   entries offset, snapshot offset, snapshot length
+     * - Configuration name, source content hash
+     * - Included configurations (URI, content hash)
+     * - System/environment variables resolved (names, fingerprint of the
+     *   values), encryption key hash
+     * - Entry table sorted by the (UTF-8) search path
+     * - Path and value data
+     * - Configuration snapshot
+     */
+    public static final int SHARED_MAGIC = 0x5A43534D;
+    public static final short SHARED_FORMAT_VERSION = 3;
+    public static final String SHARED_FILE_EXT = ".shm";
+
+    public static final int SHARED_OFFSET_MAGIC = 0;
+    public static final int SHARED_OFFSET_FORMAT = 4;
+    public static final int SHARED_OFFSET_MAJOR_VERSION = 6;
+    public static final int SHARED_OFFSET_MINOR_VERSION = 10;
+    public static final int SHARED_OFFSET_ENTRY_COUNT = 14;
+    public static final int SHARED_OFFSET_ENTRIES = 18;
+    public static final int SHARED_OFFSET_SNAPSHOT = 22;
+    public static final int SHARED_OFFSET_SNAPSHOT_LENGTH = 26;
+    public static final int SHARED_OFFSET_NAME = 30;
+
+    /**
+     * Entry: type (byte), path offset, path length, value offset,
+     * value length (int).
+     */
+    public static final int SHARED_ENTRY_SIZE = 17;
+    public static final byte SHARED_ENTRY_NODE = 0;
+    public static final byte SHARED_ENTRY_VALUE = 1;
+    public static final byte SHARED_ENTRY_ENCRYPTED = 2;
+}
@@ -0,0 +1,522 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ * Copyright (c) $year
+ * Date: 18/10/26 3:30 AM
+ * Subho Ghosh (subho dot ghosh at outlook.com)
+ *
+ */
+
+package com.codekutter.zconfig.common;
+
+import com.codekutter.zconfig.common.model.EncryptedValue;
+import com.codekutter.zconfig.common.model.annotations.*;
+import com.codekutter.zconfig.common.model.annotations.transformers.NullTransformer;
+import com.codekutter.zconfig.common.model.nodes.AbstractConfigNode;
+import com.codekutter.zconfig.common.model.nodes.ConfigAttributesNode;
+import com.codekutter.zconfig.common.model.nodes.ConfigParametersNode;
+import com.codekutter.zconfig.common.utils.ReflectionUtils;
+import com.google.common.base.Preconditions;
+import com.google.common.base.Strings;
+import org.apache.commons.lang3.reflect.MethodUtils;
+
+import javax.annotation.Nonnull;
+import java.lang.reflect.*;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.*;
+
+/**
+ * Binding plan of a configuration annotated type: the annotated fields,
+ * methods and constructor with the resolved names, paths and setter types.
+ * <p>
+ * Plans are immutable and computed once per type (cached in a {@link ClassValue}),
+ * binding a configuration only executes the plan. Types with a generated
+ * {@link IConfigBinder} are not scanned, the plan only holds the binder.
+ */
+final class ConfigBindingPlan {
+    /**
+     * Configuration annotation of a bound field.
+     */
+    enum EBindingType {
+        Value, Param, Attribute
+    }
+
+    /**
+     * How the bound field value is set.
+     */
+    enum ESetterType {
+        /**
+         * Parsed from the value string (primitives, enums, collections).
+         */
+        String,
+        /**
+         * Encrypted value node.
+         */
+        Encrypted,
+        /**
+         * Value transformer.
+         */
+        Transformer,
+        /**
+         * Nested configuration annotated type.
+         */
+        Nested,
+        /**
+         * Value is not set.
+         */
+        None
+    }
+
+    /**
+     * Binding of an annotated field.
+     */
+    static final class FieldBinding {
+        final Field field;
+        final EBindingType bindingType;
+        final ESetterType setterType;
+        /**
+         * Resolved value name (annotation name or field name).
+         */
+        final String name;
+        /**
+         * Node path prefix of tagged (parameter/attribute) names.
+         */
+        final String tagPath;
+        /**
+         * Resolved name of tagged (parameter/attribute) names.
+         */
+        final String tagName;
+        final boolean required;
+        final Class<? extends ITransformer> transformer;
+        /**
+         * Path annotation of the nested type.
+         */
+        final String nestedPath;
+        /**
+         * Error resolving the binding, thrown when the field is bound.
+         */
+        final Exception error;
+        /**
+         * Error parsing the tagged name, thrown when the field is bound.
+         */
+        final String tagError;
+
+        private FieldBinding(Field field, EBindingType bindingType,
+                             ESetterType setterType, String name, String tag,
+                             boolean required,
+                             Class<? extends ITransformer> transformer,
+                             String nestedPath, Exception error) {
+            this.field = field;
+            this.bindingType = bindingType;
+            this.setterType = setterType;
+            this.name = name;
+            this.required = required;
+            this.transformer = transformer;
+            this.nestedPath = nestedPath;
+            this.error = error;
+            String tpath = null;
+            String tname = name;
+            String terror = null;
+            if (tag != null && name.contains(tag)) {
+                String[] parts = name.split(tag);
+                if (parts.length == 2) {
+                    if (!Strings.isNullOrEmpty(parts[0])) {
+                        tpath = parts[0];
+                    }
+                    tname = parts[1];
+                } else {
+                    terror = String.format("Invalid ConfigParam : [name=%s]", name);
+                }
+            }
+            this.tagPath = tpath;
+            this.tagName = tname;
+            this.tagError = terror;
+        }
+    }
+
+    /**
+     * Binding of an annotated method/constructor parameter.
+     */
+    static final class ParamBinding {
+        /**
+         * Parameter name (for errors).
+         */
+        final String name;
+        final Class<?> type;
+        /**
+         * Resolved parameter (value/node) name.
+         */
+        final String pname;
+        final boolean required;
+        final boolean annotated;
+
+        private ParamBinding(Parameter param) {
+            this.name = param.getName();
+            this.type = param.getType();
+            ConfigParam p = param.getAnnotation(ConfigParam.class);
+            this.annotated = (p != null);
+            if (p != null) {
+                String value = p.name();
+                if (Strings.isNullOrEmpty(value) &&
+                        !type.equals(AbstractConfigNode.class)) {
+                    value = param.getName();
+                }
+                this.pname = value;
+                this.required = p.required();
+            } else {
+                this.pname = null;
+                this.required = false;
+            }
+        }
+    }
+
+    /**
+     * Binding of an auto-invoked method/constructor.
+     */
+    static final class InvokeBinding {
+        final Executable executable;
+        /**
+         * Accessible (public) method to invoke, NULL if not found.
+         */
+        final Method method;
+        final String path;
+        final List<ParamBinding> params;
+
+        private InvokeBinding(Executable executable, MethodInvoke mi) {
+            this.executable = executable;
+            this.method = (executable instanceof Method ?
+                    MethodUtils.getAccessibleMethod((Method) executable) : null);
+            this.path = mi.path();
+            List<ParamBinding> values = new ArrayList<>();
+            for (Parameter param : executable.getParameters()) {
+                values.add(new ParamBinding(param));
+            }
+            this.params = Collections.unmodifiableList(values);
+        }
+    }
+
+    /**
+     * Cache of the computed binding plans.
+     */
+    private static final ClassValue<ConfigBindingPlan> plans =
+            new ClassValue<ConfigBindingPlan>() {
+                @Override
+                protected ConfigBindingPlan computeValue(Class<?> type) {
+                    return create(type);
+                }
+            };
+
+    private final Class<?> type;
+    /**
+     * Config Path annotation value, NULL if not annotated.
+     */
+    private final String path;
+    private final List<FieldBinding> fields;
+    private final List<InvokeBinding> methods;
+    /**
+     * Annotated constructor, NULL if not annotated.
+     */
+    private final InvokeBinding constructor;
+    private final boolean defaultConstructor;
+    /**
+     * Generated binder of the type, NULL if not present.
+     */
+    private final IConfigBinder<?> binder;
+
+    private ConfigBindingPlan(Class<?> type, String path,
+                              List<FieldBinding> fields,
+                              List<InvokeBinding> methods,
+                              InvokeBinding constructor,
+                              boolean defaultConstructor,
+                              IConfigBinder<?> binder) {
+        this.type = type;
+        this.path = path;
+        this.fields = Collections.unmodifiableList(fields);
+        this.methods = Collections.unmodifiableList(methods);
+        this.constructor = constructor;
+        this.defaultConstructor = defaultConstructor;
+        this.binder = binder;
+    }
+
+    Class<?> getType() {
+        return type;
+    }
+
+    String getPath() {
+        return path;
+    }
+
+    List<FieldBinding> getFields() {
+        return fields;
+    }
+
+    List<InvokeBinding> getMethods() {
+        return methods;
+    }
+
+    InvokeBinding getConstructor() {
+        return constructor;
+    }
+
+    boolean hasDefaultConstructor() {
+        return defaultConstructor;
+    }
+
+    IConfigBinder<?> getBinder() {
+        return binder;
+    }
+
+    /**
+     * Get the (cached) binding plan for the type.
+     *
+     * @param type - Configuration annotated type.
+     * @return - Binding plan.
+     */
+    static ConfigBindingPlan get(@Nonnull Class<?> type) {
+        Preconditions.checkArgument(type != null);
+        return plans.get(type);
+    }
+
+    /**
+     * Compute the binding plan for the type.
+     *
+     * @param type - Configuration annotated type.
+     * @return - Binding plan.
+     */
+    static ConfigBindingPlan create(@Nonnull Class<?> type) {
+        Preconditions.checkArgument(type != null);
+
+        IConfigBinder<?> binder = findBinder(type);
+        if (binder != null) {
+            return new ConfigBindingPlan(type, binder.getPath(),
+                                         new ArrayList<>(), new ArrayList<>(),
+                                         null, false, binder);
+        }
+        List<FieldBinding> fields = new ArrayList<>();
+        Field[] afields = ReflectionUtils.getAllFields(type);
+        if (afields != null) {
+            for (Field field : afields) {
+                FieldBinding binding = createBinding(field);
+                if (binding != null) {
+                    fields.add(binding);
+                }
+            }
+        }
+        List<InvokeBinding> methods = new ArrayList<>();
+        Method[] amethods = ReflectionUtils.getAllMethods(type);
+        if (amethods != null) {
+            for (Method method : amethods) {
+                MethodInvoke mi = method.getAnnotation(MethodInvoke.class);
+                if (mi != null) {
+                    methods.add(new InvokeBinding(method, mi));
+                }
+            }
+        }
+        InvokeBinding constructor = null;
+        boolean defaultConstructor = false;
+        for (Constructor<?> constr : type.getConstructors()) {
+            if (Modifier.isPublic(constr.getModifiers())) {
+                if (constr.getParameterCount() == 0) {
+                    defaultConstructor = true;
+                } else if (constructor == null) {
+                    MethodInvoke mi = constr.getAnnotation(MethodInvoke.class);
+                    if (mi != null) {
+                        constructor = new InvokeBinding(constr, mi);
+                    }
+                }
+            }
+        }
+        ConfigPath cPath = type.getAnnotation(ConfigPath.class);
+        return new ConfigBindingPlan(type, (cPath != null ? cPath.path() : null),
+                                     fields, methods, constructor,
+                                     defaultConstructor, null);
+    }
+
+    /**
+     * Get the name of the generated binder class of the type.
+     *
+     * @param type - Configuration annotated type.
+     * @return - Binder class name.
+     */
+    static String getBinderName(@Nonnull Class<?> type) {
+        String name = type.getName();
+        int index = name.lastIndexOf('.');
+        return name.substring(0, index + 1) +
+                name.substring(index + 1).replace('$', '_') +
+                IConfigBinder.BINDER_SUFFIX;
+    }
+
+    /**
+     * Load the generated binder of the type.
+     *
+     * @param type - Configuration annotated type.
+     * @return - Binder instance, NULL if no binder has been generated.
+     */
+    private static IConfigBinder<?> findBinder(Class<?> type) {
+        try {
+            Class<?> cls = Class.forName(getBinderName(type), true,
+                                         type.getClassLoader());
+            if (IConfigBinder.class.isAssignableFrom(cls)) {
+                IConfigBinder<?> binder = (IConfigBinder<?>) cls.newInstance();
+                if (binder.getType() == type) {
+                    return binder;
+                }
+            }
+        } catch (ClassNotFoundException e) {
+            return null;
+        } catch (Exception e) {
+            LogUtils.warn(ConfigBindingPlan.class, e);
+        }
+        return null;
+    }
+
+    /**
+     * Create the binding for the annotated field.
+     *
+     * @param field - Field to bind.
+     * @return - Field binding, NULL if not annotated.
+     */
+    private static FieldBinding createBinding(Field field) {
+        Class<?> ftype = field.getType();
+        if (field.isAnnotationPresent(ConfigParam.class)) {
+            ConfigParam param = field.getAnnotation(ConfigParam.class);
+            String name = getName(param.name(), field);
+            ESetterType setter = ESetterType.None;
+            Exception error = null;
+            try {
+                if (ftype == EncryptedValue.class) {
+                    setter = ESetterType.Encrypted;
+                } else if (canProcessFieldType(field) || ftype.isEnum()) {
+                    setter = ESetterType.String;
+                }
+            } catch (Exception e) {
+                error = e;
+            }
+            return new FieldBinding(field, EBindingType.Param, setter, name,
+                                    ConfigParametersNode.NODE_ABBR_PREFIX,
+                                    param.required(), param.transformer(), null,
+                                    error);
+        } else if (field.isAnnotationPresent(ConfigAttribute.class)) {
+            ConfigAttribute attr = field.getAnnotation(ConfigAttribute.class);
+            String name = getName(attr.name(), field);
+            ESetterType setter = ESetterType.None;
+            Exception error = null;
+            try {
+                if (ftype == EncryptedValue.class) {
+                    setter = ESetterType.Encrypted;
+                } else if (canProcessFieldType(field) || ftype.isEnum()) {
+                    setter = ESetterType.String;
+                } else if (attr.transformer() != NullTransformer.class) {
+                    setter = ESetterType.Transformer;
+                }
+            } catch (Exception e) {
+                error = e;
+            }
+            return new FieldBinding(field, EBindingType.Attribute, setter, name,
+                                    ConfigAttributesNode.NODE_ABBR_PREFIX,
+                                    attr.required(), attr.transformer(), null,
+                                    error);
+        } else if (field.isAnnotationPresent(ConfigValue.class)) {
+            ConfigValue value = field.getAnnotation(ConfigValue.class);
+            String name = getName(value.name(), field);
+            ESetterType setter;
+            String nestedPath = null;
+            Exception error = null;
+            try {
+                if (ftype.isEnum() || canSetFieldType(field)) {
+                    setter = ESetterType.String;
+                } else if (ftype == EncryptedValue.class) {
+                    setter = ESetterType.Encrypted;
+                } else if (value.transformer() != NullTransformer.class) {
+                    setter = ESetterType.Transformer;
+                } else {
+                    setter = ESetterType.Nested;
+                    nestedPath = ConfigurationAnnotationProcessor
+                            .hasConfigAnnotation(ftype);
+                }
+            } catch (Exception e) {
+                setter = ESetterType.None;
+                error = e;
+            }
+            return new FieldBinding(field, EBindingType.Value, setter, name, null,
+                                    value.required(), value.transformer(),
+                                    nestedPath, error);
+        }
+        return null;
+    }
+
+    private static String getName(String name, Field field) {
+        if (Strings.isNullOrEmpty(name)) {
+            return field.getName();
+        }
+        return name;
+    }
+
+    /**
+     * Check if the specified annotated field can be processed.
+     *
+     * @param field - Field to check for.
+     * @return - Can process?
+     * @throws Exception
+     */
+    private static boolean canProcessFieldType(Field field) throws Exception {
+        if (ReflectionUtils.isPrimitiveTypeOrString(field)) {
+            return true;
+        } else if (canSetFieldType(field)) {
+            return true;
+        } else {
+            Class<?> type = field.getType();
+            String ann = ConfigurationAnnotationProcessor.hasConfigAnnotation(type);
+            if (!Strings.isNullOrEmpty(ann)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean canSetFieldType(Field field) throws Exception {
+        if (ReflectionUtils.isPrimitiveTypeOrString(field) ||
+                field.getType().isEnum()) {
+            return true;
+        } else if (ReflectionUtils
+                .implementsInterface(List.class, field.getType())) {
+            Class<?> itype = ReflectionUtils.getGenericListType(field);
+            Preconditions.checkArgument(itype != null);
+            if (ReflectionUtils.isPrimitiveTypeOrString(itype)) {
+                return true;
+            } else if (itype.equals(BigInteger.class) ||
+                    itype.equals(BigDecimal.class) || itype.equals(
+                    Date.class)) {
+                return true;
+            }
+        } else if (ReflectionUtils
+                .implementsInterface(Set.class, field.getType())) {
+            Class<?> itype = ReflectionUtils.getGenericSetType(field);
+            Preconditions.checkArgument(itype != null);
+            if (ReflectionUtils.isPrimitiveTypeOrString(itype)) {
+                return true;
+            } else if (itype.equals(BigInteger.class) ||
+                    itype.equals(BigDecimal.class) || itype.equals(
+                    Date.class)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
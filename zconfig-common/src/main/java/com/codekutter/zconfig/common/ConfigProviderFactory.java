@@ -24,6 +24,7 @@
 
 package com.codekutter.zconfig.common;
 
+import com.codekutter.zconfig.common.model.ConfigurationSettings;
 import com.codekutter.zconfig.common.parsers.JSONConfigParser;
 import com.codekutter.zconfig.common.parsers.XMLConfigParser;
 import com.codekutter.zconfig.common.readers.ConfigFileReader;
@@ -145,6 +146,22 @@ public class ConfigProviderFactory {
      * @throws ConfigurationException
      */
     public static final AbstractConfigReader reader(URI uri)
+    throws ConfigurationException {
+        return reader(uri, null);
+    }
+
+    /**
+     * Get a new instance of a Configuration reader. Type of reader is determined based on the
+     * SCHEME of the URI. Remote (HTTP) content is cached under the temp directory
+     * of the configuration settings.
+     *
+     * @param uri      - URI to get the input from.
+     * @param settings - Configuration Settings, NULL to use the defaults.
+     * @return - Configuration Reader instance.
+     * @throws ConfigurationException
+     */
+    public static final AbstractConfigReader reader(URI uri,
+                                                    ConfigurationSettings settings)
     throws ConfigurationException {
         Preconditions.checkArgument(uri != null);
         EReaderType type = EReaderType.parseFromUri(uri);
@@ -152,6 +169,9 @@ public class ConfigProviderFactory {
             if (type != null) {
                 if (type == EReaderType.HTTP || type == EReaderType.HTTPS) {
                     URL url = uri.toURL();
+                    if (settings != null) {
+                        return new ConfigURLReader(url, settings);
+                    }
                     return new ConfigURLReader(url);
                 } else if (type == EReaderType.File) {
                     File file = Paths.get(uri).toFile();
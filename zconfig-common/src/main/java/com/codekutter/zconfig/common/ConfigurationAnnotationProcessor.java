@@ -27,9 +27,9 @@ package com.codekutter.zconfig.common;
 import com.codekutter.zconfig.common.model.Configuration;
 import com.codekutter.zconfig.common.model.EncryptedValue;
 import com.codekutter.zconfig.common.model.annotations.*;
-import com.codekutter.zconfig.common.model.annotations.transformers.NullTransformer;
 import com.codekutter.zconfig.common.model.nodes.*;
 import com.codekutter.zconfig.common.utils.CollectionUtils;
+import com.codekutter.zconfig.common.utils.FieldAccessor;
 import com.codekutter.zconfig.common.utils.ReflectionUtils;
 import com.google.common.base.Preconditions;
 import com.google.common.base.Strings;
@@ -38,10 +38,7 @@ import org.apache.commons.lang3.reflect.MethodUtils;
 import javax.annotation.Nonnull;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.*;
-import java.math.BigDecimal;
-import java.math.BigInteger;
 import java.util.ArrayList;
-import java.util.Date;
 import java.util.List;
 import java.util.Set;
 
@@ -106,12 +103,12 @@ public class ConfigurationAnnotationProcessor {
         Preconditions.checkArgument(target != null);
         Preconditions.checkArgument(type != null);
 
-        ConfigPath cPath = type.getAnnotation(ConfigPath.class);
-        if (cPath != null) {
+        ConfigBindingPlan plan = ConfigBindingPlan.get(type);
+        if (plan.getPath() != null) {
             if (!Strings.isNullOrEmpty(path)) {
-                path = String.format("%s.%s", path, cPath.path());
+                path = String.format("%s.%s", path, plan.getPath());
             } else {
-                path = cPath.path();
+                path = plan.getPath();
             }
             if (Strings.isNullOrEmpty(path)) {
                 throw new ConfigurationException(
@@ -123,7 +120,7 @@ public class ConfigurationAnnotationProcessor {
                         String.format("Invalid Path : Path not found. [path=%s]",
                                 path));
             }
-            processType(type, node, target, valuePaths);
+            processType(plan, node, target, valuePaths);
         }
         return target;
     }
@@ -165,15 +162,15 @@ public class ConfigurationAnnotationProcessor {
         Preconditions.checkArgument(target != null);
         Preconditions.checkArgument(type != null);
 
-        ConfigPath cPath = type.getAnnotation(ConfigPath.class);
-        if (cPath != null) {
-            String path = cPath.path();
+        ConfigBindingPlan plan = ConfigBindingPlan.get(type);
+        if (plan.getPath() != null) {
+            String path = plan.getPath();
             if (Strings.isNullOrEmpty(path)) {
                 throw new ConfigurationException(
                         "Invalid Config Path : Path is NULL/Empty");
             }
             AbstractConfigNode node = config.find(path);
-            processType(type, node, target, valuePaths);
+            processType(plan, node, target, valuePaths);
         }
         return target;
     }
@@ -199,12 +196,12 @@ public class ConfigurationAnnotationProcessor {
         Preconditions.checkArgument(type != null);
 
 
-        ConfigPath cPath = type.getAnnotation(ConfigPath.class);
-        if (cPath != null) {
+        ConfigBindingPlan plan = ConfigBindingPlan.get(type);
+        if (plan.getPath() != null) {
             if (!Strings.isNullOrEmpty(path)) {
-                path = String.format("%s.%s", path, cPath.path());
+                path = String.format("%s.%s", path, plan.getPath());
             } else {
-                path = cPath.path();
+                path = plan.getPath();
             }
             if (Strings.isNullOrEmpty(path)) {
                 throw new ConfigurationException(
@@ -216,7 +213,7 @@ public class ConfigurationAnnotationProcessor {
                         String.format("Invalid Path : Path not found. [path=%s]",
                                 path));
             }
-            T target = createInstance(type, node);
+            T target = createInstance(plan, node);
             return readConfigAnnotations(type, config, target, path, null);
         }
         throw new ConfigurationException(
@@ -242,9 +239,9 @@ public class ConfigurationAnnotationProcessor {
         Preconditions.checkArgument(type != null);
 
 
-        ConfigPath cPath = type.getAnnotation(ConfigPath.class);
-        if (cPath != null) {
-            String path = cPath.path();
+        ConfigBindingPlan plan = ConfigBindingPlan.get(type);
+        if (plan.getPath() != null) {
+            String path = plan.getPath();
             if (Strings.isNullOrEmpty(path)) {
                 throw new ConfigurationException(
                         "Invalid Config Path : Path is NULL/Empty");
@@ -255,7 +252,7 @@ public class ConfigurationAnnotationProcessor {
                         String.format("Invalid Path : Path not found. [path=%s]",
                                 path));
             }
-            T target = createInstance(type, node);
+            T target = createInstance(plan, node);
             return readConfigAnnotations(type, config, target);
         }
         throw new ConfigurationException(
@@ -281,141 +278,137 @@ public class ConfigurationAnnotationProcessor {
         Preconditions.checkArgument(config != null);
         Preconditions.checkArgument(type != null);
 
-        T target = createInstance(type, config);
+        T target = createInstance(ConfigBindingPlan.get(type), config);
         return readConfigAnnotations(type, config, target, null);
     }
 
     /**
      * Create a new instance of the specified type.
-     * Will look for an annotated constructor, if not found will
-     * try to invoke the default (empty) constructor.
+     * Will invoke the annotated constructor, if present, else will
+     * try to invoke the default (empty) constructor (using the generated
+     * binder of the type, if present).
      *
-     * @param type - Type of the target object.
+     * @param plan - Binding plan of the target type.
      * @param node - Configuration node source.
      * @param <T>  - Annotated object type.
      * @return - New Object instance
      * @throws ConfigurationException
      */
     @SuppressWarnings("unchecked")
-    private static <T> T createInstance(Class<? extends T> type,
+    private static <T> T createInstance(ConfigBindingPlan plan,
                                         AbstractConfigNode node)
             throws ConfigurationException {
+        if (plan.getBinder() != null) {
+            return (T) plan.getBinder().newInstance(node);
+        }
+        Class<?> type = plan.getType();
         try {
-            Constructor<?>[] constructors = type.getConstructors();
-            Constructor<?> defaultConst = null;
-            T target = null;
-            for (Constructor<?> constr : constructors) {
-                if (Modifier.isPublic(constr.getModifiers())) {
-                    Parameter[] params = constr.getParameters();
-                    if (params == null || params.length == 0) {
-                        defaultConst = constr;
-                    } else {
-                        if (constr.isAnnotationPresent(MethodInvoke.class)) {
-                            MethodInvoke mi =
-                                    constr.getAnnotation(MethodInvoke.class);
-                            if (!Strings.isNullOrEmpty(mi.path())) {
-                                node = node.find(mi.path());
-                            }
-                            if (node == null) {
-                                throw new ConfigurationException(String.format(
-                                        "Configuration Node not found. [path=%s]",
-                                        mi.path()));
-                            }
-                            Object[] input = null;
-                            List<Object> values = new ArrayList<>();
-                            for (Parameter param : params) {
-                                Object value = getParamValue(type, node, param);
-                                values.add(value);
-                            }
-                            input = values.toArray();
-                            target = (T) constr.newInstance(input);
-
-                            break;
-                        }
-                    }
+            ConfigBindingPlan.InvokeBinding constr = plan.getConstructor();
+            if (constr != null) {
+                if (!Strings.isNullOrEmpty(constr.path)) {
+                    node = node.find(constr.path);
                 }
-            }
-            if (target == null && defaultConst != null) {
-                target = type.newInstance();
-            } else if (target == null) {
-                throw new ConfigurationException(
-                        String.format("No valid constructor found. [type=%s]",
-                                type.getCanonicalName()));
-            }
-            return target;
+                if (node == null) {
+                    throw new ConfigurationException(String.format(
+                            "Configuration Node not found. [path=%s]",
+                            constr.path));
+                }
+                Object[] input = getParamValues(type, node, constr);
+                return (T) ((Constructor<?>) constr.executable).newInstance(input);
+            } else if (plan.hasDefaultConstructor()) {
+                return (T) type.newInstance();
+            }
+            throw new ConfigurationException(
+                    String.format("No valid constructor found. [type=%s]",
+                            type.getCanonicalName()));
         } catch (IllegalAccessException | InstantiationException | InvocationTargetException e) {
             throw new ConfigurationException(e);
         }
     }
 
     /**
-     * Check and apply any annotations for all fields and methods.
+     * Apply the values of all the annotated fields and invoke the annotated methods.
+     * Uses the generated binder of the type, if present.
      *
-     * @param type   - Type of the target object.
+     * @param plan   - Binding plan of the target type.
      * @param node   - Extracted configuration node.
      * @param target - Target to apply the values to.
      * @param <T>    - Annotated object type.
      * @throws ConfigurationException
      */
-    private static <T> void processType(Class<? extends T> type,
+    @SuppressWarnings("unchecked")
+    private static <T> void processType(ConfigBindingPlan plan,
                                         AbstractConfigNode node, T target, List<String> valuePaths)
             throws ConfigurationException {
-        Field[] fields = ReflectionUtils.getAllFields(type);
-        if (fields != null && fields.length > 0) {
-            for (Field field : fields) {
-                processField(type, node, target, field, valuePaths);
-            }
+        if (plan.getBinder() != null) {
+            ((IConfigBinder<T>) plan.getBinder()).bind(node, target, valuePaths);
+            return;
         }
-        Method[] methods = ReflectionUtils.getAllMethods(type);
-        if (methods != null && methods.length > 0) {
-            for (Method method : methods) {
-                processMethod(type, node, target, method);
-            }
+        Class<?> type = plan.getType();
+        for (ConfigBindingPlan.FieldBinding binding : plan.getFields()) {
+            processField(type, node, target, binding, valuePaths);
+        }
+        for (ConfigBindingPlan.InvokeBinding binding : plan.getMethods()) {
+            processMethod(type, node, target, binding);
         }
     }
 
     /**
-     * Check if method(s) have been marked for auto-invoke and invoke them
-     * with the configuration parameters.
+     * Invoke the method marked for auto-invoke with the configuration parameters.
      *
-     * @param type   - Instance Type
-     * @param node   - Configuration Node.
-     * @param target - Target instance.
-     * @param method - Method to check.
-     * @param <T>    - Annotated object type.
+     * @param type    - Instance Type
+     * @param node    - Configuration Node.
+     * @param target  - Target instance.
+     * @param binding - Method binding.
+     * @param <T>     - Annotated object type.
      * @throws ConfigurationException
      */
-    private static <T> void processMethod(Class<? extends T> type,
+    private static <T> void processMethod(Class<?> type,
                                           AbstractConfigNode node, T target,
-                                          Method method)
+                                          ConfigBindingPlan.InvokeBinding binding)
             throws ConfigurationException {
-        if (method.isAnnotationPresent(MethodInvoke.class)) {
-            MethodInvoke mi = method.getAnnotation(MethodInvoke.class);
-            if (!Strings.isNullOrEmpty(mi.path())) {
-                node = node.find(mi.path());
+        if (!Strings.isNullOrEmpty(binding.path)) {
+            node = node.find(binding.path);
+        }
+        if (node == null) {
+            throw new ConfigurationException(
+                    String.format("Configuration Node Not Found : [path=%s]",
+                            binding.path));
+        }
+
+        try {
+            Object[] input = null;
+            if (!binding.params.isEmpty()) {
+                input = getParamValues(type, node, binding);
             }
-            if (node == null) {
-                throw new ConfigurationException(
-                        String.format("Configuration Node Not Found : [path=%s]",
-                                mi.path()));
+            if (binding.method != null) {
+                binding.method.invoke(target, input);
+            } else {
+                MethodUtils.invokeMethod(target, binding.executable.getName(), input);
             }
+        } catch (InvocationTargetException | IllegalAccessException | NoSuchMethodException e) {
+            throw new ConfigurationException(e);
+        }
+    }
 
-            try {
-                Object[] input = null;
-                Parameter[] params = method.getParameters();
-                if (params != null && params.length > 0) {
-                    List<Object> values = new ArrayList<>();
-                    for (Parameter param : params) {
-                        Object value = getParamValue(type, node, param);
-                        values.add(value);
-                    }
-                    input = values.toArray();
-                }
-                MethodUtils.invokeMethod(target, method.getName(), input);
-            } catch (InvocationTargetException | IllegalAccessException | NoSuchMethodException e) {
-                throw new ConfigurationException(e);
-            }
+    /**
+     * Get the values of the annotated method/constructor parameters.
+     *
+     * @param type    - Instance Type
+     * @param node    - Configuration Node.
+     * @param binding - Method/Constructor binding.
+     * @return - Parameter values.
+     * @throws ConfigurationException
+     */
+    private static Object[] getParamValues(Class<?> type,
+                                           AbstractConfigNode node,
+                                           ConfigBindingPlan.InvokeBinding binding)
+            throws ConfigurationException {
+        Object[] values = new Object[binding.params.size()];
+        for (int ii = 0; ii < values.length; ii++) {
+            values[ii] = getParamValue(type, node, binding.params.get(ii));
         }
+        return values;
     }
 
     /**
@@ -423,96 +416,51 @@ public class ConfigurationAnnotationProcessor {
      *
      * @param type  - Instance Type
      * @param node  - Configuration Node.
-     * @param param - Method/Constructor parameter.
-     * @param <T>   - Annotated object type.
+     * @param param - Method/Constructor parameter binding.
      * @return - Value extracted from configuration.
      * @throws ConfigurationException
      */
-    private static <T> Object getParamValue(Class<? extends T> type,
-                                            AbstractConfigNode node,
-                                            Parameter param)
+    private static Object getParamValue(Class<?> type,
+                                        AbstractConfigNode node,
+                                        ConfigBindingPlan.ParamBinding param)
             throws ConfigurationException {
-        if (param.isAnnotationPresent(ConfigParam.class)) {
-            ConfigParam p = param.getAnnotation(ConfigParam.class);
-            String pname = p.name();
-            if (Strings.isNullOrEmpty(pname) &&
-                    !param.getType().equals(AbstractConfigNode.class)) {
-                pname = param.getName();
-            }
-            if (param.getType().equals(AbstractConfigNode.class)) {
-                if (!Strings.isNullOrEmpty(pname)) {
-                    node = node.find(pname);
-                }
-                return node;
-            }
-            if (!(node instanceof ConfigPathNode)) {
-                throw new ConfigurationException(String.format(
-                        "Invalid Configuration Node type. [path=%s][type=%s]",
-                        node.getSearchPath(), node.getClass().getCanonicalName()));
-            }
-
-            ConfigPathNode pnode = (ConfigPathNode) node;
-            ConfigParametersNode paramnode = pnode.parmeters();
-            String value = null;
-            if (paramnode != null) {
-                ConfigValueNode cv = paramnode.getValue(pname);
-                if (cv != null) {
-                    if (cv.isEncrypted()) {
-                        if (param.getType() == EncryptedValue.class) {
-                            EncryptedValue ev = new EncryptedValue(cv);
-                            return ev;
-                        }
-                    }
-                    value = cv.getValue();
-                }
-            }
-            if (Strings.isNullOrEmpty(value) && p.required()) {
-                throw new ConfigurationException(String.format(
-                        "Required Parameter Value not defined. [param=%s][type=%s]",
-                        param.getName(), type.getCanonicalName()));
-            }
-            Object v = null;
-            if (!Strings.isNullOrEmpty(value)) {
-                v = ReflectionUtils.parseStringValue(param.getType(), value);
-                if (v == null) {
-                    throw new ConfigurationException(String.format(
-                            "Error parsing parameter value. [type=%s][value=%s]",
-                            param.getType().getCanonicalName(), value));
-                }
-            }
-            return v;
+        if (param.annotated) {
+            return AbstractConfigBinder.getParamValue(type, node, param.name,
+                                                      param.pname, param.type,
+                                                      param.required);
         } else {
             throw new ConfigurationException(String.format(
                     "Parameter Annotation not defined. [param=%s][type=%s]",
-                    param.getName(), type.getCanonicalName()));
+                    param.name, type.getCanonicalName()));
         }
     }
 
     /**
-     * Check and apply any annotations for the specified field.
+     * Apply the value of the annotated field.
      *
-     * @param type   - Type of the target object.
-     * @param node   - Extracted configuration node.
-     * @param target - Target to apply the values to.
-     * @param field  - Field to check and apply to.
-     * @param <T>    - Annotated object type.
+     * @param type    - Type of the target object.
+     * @param node    - Extracted configuration node.
+     * @param target  - Target to apply the values to.
+     * @param binding - Field binding.
+     * @param <T>     - Annotated object type.
      * @throws ConfigurationException
      */
-    private static <T> void processField(Class<? extends T> type,
+    private static <T> void processField(Class<?> type,
                                          AbstractConfigNode node, T target,
-                                         Field field, List<String> valuePaths)
+                                         ConfigBindingPlan.FieldBinding binding,
+                                         List<String> valuePaths)
             throws ConfigurationException {
         try {
-            if (field.isAnnotationPresent(ConfigParam.class)) {
-                ConfigParam param = field.getAnnotation(ConfigParam.class);
-                processParam(param, field, node, target, valuePaths);
-            } else if (field.isAnnotationPresent(ConfigAttribute.class)) {
-                ConfigAttribute attr =
-                        field.getAnnotation(ConfigAttribute.class);
-                processAttributes(attr, field, node, target, valuePaths);
-            } else if (field.isAnnotationPresent(ConfigValue.class)) {
-                ConfigValue value = field.getAnnotation(ConfigValue.class);
-                processValue(type, value, field, node, target, valuePaths);
+            switch (binding.bindingType) {
+                case Param:
+                    processParam(binding, node, target, valuePaths);
+                    break;
+                case Attribute:
+                    processAttributes(binding, node, target, valuePaths);
+                    break;
+                case Value:
+                    processValue(type, binding, node, target, valuePaths);
+                    break;
             }
         } catch (Exception e) {
             throw new ConfigurationException(e);
@@ -522,25 +470,26 @@ public class ConfigurationAnnotationProcessor {
     /**
      * Process a Config Value annotation.
      *
-     * @param type        - Target type.
-     * @param configValue - Config Value annotation.
-     * @param field       - Field to process.
-     * @param node        - Configuration node.
-     * @param target      - Target instance.
-     * @param <T>         - Target Type
+     * @param type    - Target type.
+     * @param binding - Config Value field binding.
+     * @param node    - Configuration node.
+     * @param target  - Target instance.
+     * @param <T>     - Target Type
      * @throws ConfigurationException
      */
     @SuppressWarnings("unchecked")
-    private static <T> void processValue(Class<? extends T> type,
-                                         ConfigValue configValue, Field field,
+    private static <T> void processValue(Class<?> type,
+                                         ConfigBindingPlan.FieldBinding binding,
                                          AbstractConfigNode node, T target, List<String> valuePaths)
             throws ConfigurationException {
         try {
-            String name = configValue.name();
-            if (Strings.isNullOrEmpty(name)) {
-                name = field.getName();
+            if (binding.error != null) {
+                throw binding.error;
             }
-            if (field.getType().isEnum() || canSetFieldType(field)) {
+            String name = binding.name;
+            Field field = binding.field;
+            FieldAccessor accessor = FieldAccessor.get(target.getClass(), field);
+            if (binding.setterType == ConfigBindingPlan.ESetterType.String) {
                 String value = null;
                 if (node instanceof ConfigPathNode) {
                     AbstractConfigNode fnode = node.find(name);
@@ -566,12 +515,12 @@ public class ConfigurationAnnotationProcessor {
                 if (!Strings.isNullOrEmpty(value)) {
                     ReflectionUtils
                             .setValueFromString(value, target, field);
-                } else if (configValue.required()) {
+                } else if (binding.required) {
                     throw new ConfigurationException(String.format(
                             "Required configuration value not specified: [path=%s][name=%s]",
                             node.getAbsolutePath(), name));
                 }
-            } else if (field.getType() == EncryptedValue.class) {
+            } else if (binding.setterType == ConfigBindingPlan.ESetterType.Encrypted) {
                 ConfigValueNode vn = null;
                 if (node instanceof ConfigPathNode) {
                     AbstractConfigNode fnode = node.find(name);
@@ -590,74 +539,70 @@ public class ConfigurationAnnotationProcessor {
                     }
                 }
                 if (vn == null) {
-                    if (configValue.required()) {
+                    if (binding.required) {
                         throw new ConfigurationException(String.format(
                                 "Required parameter not specified: [path=%s][name=%s]",
                                 node.getAbsolutePath(), node.getName()));
                     }
                 } else {
                     EncryptedValue ev = new EncryptedValue(vn);
-                    ReflectionUtils.setObjectValue(target, field, ev);
+                    accessor.set(target, ev);
+                }
+            } else if (binding.setterType == ConfigBindingPlan.ESetterType.Transformer) {
+                ITransformer<?, String> transformer = binding.transformer.newInstance();
+                String value = null;
+                if (node instanceof ConfigPathNode) {
+                    AbstractConfigNode fnode = node.find(name);
+                    if (fnode != null) {
+                        if (fnode instanceof ConfigValueNode) {
+                            ConfigValueNode cv = (ConfigValueNode) fnode;
+                            value = cv.getValue();
+                        }
+                        if (valuePaths != null) {
+                            valuePaths.add(fnode.getSearchPath());
+                        }
+                    }
+                }
+                if (!Strings.isNullOrEmpty(value)) {
+                    Object tValue = transformer.transform(value);
+                    accessor.set(target, tValue);
+                } else if (binding.required) {
+                    throw new ConfigurationException(String.format(
+                            "Required configuration value not specified: [path=%s][name=%s]",
+                            node.getAbsolutePath(), name));
                 }
             } else {
-                Class<? extends ITransformer> tt = configValue.transformer();
-                if (tt != NullTransformer.class) {
-                    ITransformer<?, String> transformer = tt.newInstance();
-                    String value = null;
-                    if (node instanceof ConfigPathNode) {
-                        AbstractConfigNode fnode = node.find(name);
-                        if (fnode != null) {
-                            if (fnode instanceof ConfigValueNode) {
-                                ConfigValueNode cv = (ConfigValueNode) fnode;
-                                value = cv.getValue();
-                            }
-                            if (valuePaths != null) {
-                                valuePaths.add(fnode.getSearchPath());
-                            }
+                Class<?> ftype = field.getType();
+                String path = binding.nestedPath;
+                if (!Strings.isNullOrEmpty(path) &&
+                        (node instanceof ConfigPathNode)) {
+                    if (path.equals(".")) {
+                        path = name;
+                    } else {
+                        path = String.format("%s.%s", path, name);
+                    }
+                    AbstractConfigNode cnode = node.find(path);
+                    if (cnode != null &&
+                            (cnode instanceof ConfigPathNode)) {
+                        Object value = ftype.newInstance();
+                        value = readConfigAnnotations(ftype,
+                                (ConfigPathNode) cnode,
+                                value, valuePaths);
+                        accessor.set(target, value);
+                        if (valuePaths != null) {
+                            valuePaths.add(cnode.getSearchPath());
                         }
                     }
-                    if (!Strings.isNullOrEmpty(value)) {
-                        Object tValue = transformer.transform(value);
-                        ReflectionUtils.setObjectValue(target, field, tValue);
-                    } else if (configValue.required()) {
+                    Object fv = accessor.get(target);
+                    if (fv == null && binding.required) {
                         throw new ConfigurationException(String.format(
                                 "Required configuration value not specified: [path=%s][name=%s]",
                                 node.getAbsolutePath(), name));
                     }
                 } else {
-                    Class<?> ftype = field.getType();
-                    String path = hasConfigAnnotation(ftype);
-                    if (!Strings.isNullOrEmpty(path) &&
-                            (node instanceof ConfigPathNode)) {
-                        if (path.equals(".")) {
-                            path = name;
-                        } else {
-                            path = String.format("%s.%s", path, name);
-                        }
-                        AbstractConfigNode cnode = node.find(path);
-                        if (cnode != null &&
-                                (cnode instanceof ConfigPathNode)) {
-                            Object value = ftype.newInstance();
-                            value = readConfigAnnotations(ftype,
-                                    (ConfigPathNode) cnode,
-                                    value, valuePaths);
-                            ReflectionUtils
-                                    .setObjectValue(target, field, value);
-                            if (valuePaths != null) {
-                                valuePaths.add(cnode.getSearchPath());
-                            }
-                        }
-                        Object fv = ReflectionUtils.getFieldValue(target, field);
-                        if (fv == null && configValue.required()) {
-                            throw new ConfigurationException(String.format(
-                                    "Required configuration value not specified: [path=%s][name=%s]",
-                                    node.getAbsolutePath(), name));
-                        }
-                    } else {
-                        throw new ConfigurationException(String.format(
-                                "Parameter cannot be set for field of type = %s",
-                                field.getType().getCanonicalName()));
-                    }
+                    throw new ConfigurationException(String.format(
+                            "Parameter cannot be set for field of type = %s",
+                            field.getType().getCanonicalName()));
                 }
             }
         } catch (Exception e) {
@@ -668,25 +613,20 @@ public class ConfigurationAnnotationProcessor {
     /**
      * Process a Config Parameter annotation.
      *
-     * @param param  - Config Parameter annotation.
-     * @param field  - Field to process.
-     * @param node   - Configuration node.
-     * @param target - Target instance.
-     * @param <T>    - Target Type
+     * @param binding - Config Parameter field binding.
+     * @param node    - Configuration node.
+     * @param target  - Target instance.
+     * @param <T>     - Target Type
      * @throws ConfigurationException
      */
-    @SuppressWarnings("unchecked")
-    private static <T> void processParam(ConfigParam param, Field field,
+    private static <T> void processParam(ConfigBindingPlan.FieldBinding binding,
                                          AbstractConfigNode node, T target, List<String> valuePaths)
             throws ConfigurationException {
         try {
-            String name = param.name();
-            if (Strings.isNullOrEmpty(name)) {
-                name = field.getName();
-            }
-            StructNodeInfo nodeInfo = checkAnnotationTags(name, node,
-                    ConfigParametersNode.NODE_ABBR_PREFIX);
-            if (field.getType() == EncryptedValue.class) {
+            Field field = binding.field;
+            FieldAccessor accessor = FieldAccessor.get(target.getClass(), field);
+            StructNodeInfo nodeInfo = checkAnnotationTags(binding, node);
+            if (binding.setterType == ConfigBindingPlan.ESetterType.Encrypted) {
                 ConfigValueNode vn = null;
                 if (node instanceof ConfigPathNode) {
                     ConfigPathNode pathNode = (ConfigPathNode) nodeInfo.node;
@@ -700,14 +640,14 @@ public class ConfigurationAnnotationProcessor {
                     }
                 }
                 if (vn == null) {
-                    if (param.required()) {
+                    if (binding.required) {
                         throw new ConfigurationException(String.format(
                                 "Required parameter not specified: [path=%s][name=%s]",
                                 node.getAbsolutePath(), nodeInfo.name));
                     }
                 } else {
                     EncryptedValue ev = new EncryptedValue(vn);
-                    ReflectionUtils.setObjectValue(target, field, ev);
+                    accessor.set(target, ev);
                 }
 
                 return;
@@ -735,20 +675,13 @@ public class ConfigurationAnnotationProcessor {
             }
 
             if (!Strings.isNullOrEmpty(value)) {
-                if (canProcessFieldType(field) || field.getType().isEnum()) {
-                    if (!Strings.isNullOrEmpty(value)) {
-                        ReflectionUtils.setValueFromString(value, target, field);
-                    } else {
-                        Class<? extends ITransformer> tt = param.transformer();
-                        if (tt != NullTransformer.class) {
-                            ITransformer<?, String> transformer = tt.newInstance();
-
-                            Object tValue = transformer.transform(value);
-                            ReflectionUtils.setObjectValue(target, field, tValue);
-                        }
-                    }
+                if (binding.error != null) {
+                    throw binding.error;
                 }
-            } else if (param.required()) {
+                if (binding.setterType == ConfigBindingPlan.ESetterType.String) {
+                    ReflectionUtils.setValueFromString(value, target, field);
+                }
+            } else if (binding.required) {
                 throw new ConfigurationException(String.format(
                         "Required parameter not specified: [path=%s][name=%s]",
                         node.getAbsolutePath(), nodeInfo.name));
@@ -761,26 +694,21 @@ public class ConfigurationAnnotationProcessor {
     /**
      * Process a Config Attribute annotation.
      *
-     * @param attribute - Config Attribute annotation.
-     * @param field     - Field to process.
-     * @param node      - Configuration node.
-     * @param target    - Target instance.
-     * @param <T>       - Target Type
+     * @param binding - Config Attribute field binding.
+     * @param node    - Configuration node.
+     * @param target  - Target instance.
+     * @param <T>     - Target Type
      * @throws ConfigurationException
      */
     @SuppressWarnings("unchecked")
-    private static <T> void processAttributes(ConfigAttribute attribute,
-                                              Field field,
+    private static <T> void processAttributes(ConfigBindingPlan.FieldBinding binding,
                                               AbstractConfigNode node, T target, List<String> valuePaths)
             throws ConfigurationException {
         try {
-            String name = attribute.name();
-            if (Strings.isNullOrEmpty(name)) {
-                name = field.getName();
-            }
-            StructNodeInfo nodeInfo = checkAnnotationTags(name, node,
-                    ConfigAttributesNode.NODE_ABBR_PREFIX);
-            if (field.getType() == EncryptedValue.class) {
+            Field field = binding.field;
+            FieldAccessor accessor = FieldAccessor.get(target.getClass(), field);
+            StructNodeInfo nodeInfo = checkAnnotationTags(binding, node);
+            if (binding.setterType == ConfigBindingPlan.ESetterType.Encrypted) {
                 ConfigValueNode vn = null;
                 if (node instanceof ConfigPathNode) {
                     ConfigPathNode pathNode = (ConfigPathNode) nodeInfo.node;
@@ -794,14 +722,14 @@ public class ConfigurationAnnotationProcessor {
                     }
                 }
                 if (vn == null) {
-                    if (attribute.required()) {
+                    if (binding.required) {
                         throw new ConfigurationException(String.format(
                                 "Required parameter not specified: [path=%s][name=%s]",
                                 node.getAbsolutePath(), nodeInfo.name));
                     }
                 } else {
                     EncryptedValue ev = new EncryptedValue(vn);
-                    ReflectionUtils.setObjectValue(target, field, ev);
+                    accessor.set(target, ev);
                 }
 
                 return;
@@ -829,18 +757,18 @@ public class ConfigurationAnnotationProcessor {
                 }
             }
             if (!Strings.isNullOrEmpty(value)) {
-                if (canProcessFieldType(field) || field.getType().isEnum()) {
+                if (binding.error != null) {
+                    throw binding.error;
+                }
+                if (binding.setterType == ConfigBindingPlan.ESetterType.String) {
                     ReflectionUtils.setValueFromString(value, target, field);
-                } else {
-                    Class<? extends ITransformer> tt = attribute.transformer();
-                    if (tt != NullTransformer.class) {
-                        ITransformer<?, String> transformer = tt.newInstance();
+                } else if (binding.setterType == ConfigBindingPlan.ESetterType.Transformer) {
+                    ITransformer<?, String> transformer = binding.transformer.newInstance();
 
-                        Object tValue = transformer.transform(value);
-                        ReflectionUtils.setObjectValue(target, field, tValue);
-                    }
+                    Object tValue = transformer.transform(value);
+                    accessor.set(target, tValue);
                 }
-            } else if (attribute.required()) {
+            } else if (binding.required) {
                 throw new ConfigurationException(String.format(
                         "Required parameter not specified: [path=%s][name=%s]",
                         node.getAbsolutePath(), nodeInfo.name));
@@ -851,43 +779,29 @@ public class ConfigurationAnnotationProcessor {
     }
 
     /**
-     * Check field for annotation tag.
+     * Resolve the node/name of the tagged (parameter/attribute) field name.
      *
-     * @param name - Annotation name property.
-     * @param node - Configuration node.
-     * @param tag  - Annotation tag.
+     * @param binding - Field binding.
+     * @param node    - Configuration node.
      * @return - Processed Name/Node.
      * @throws ConfigurationException
      */
-    private static StructNodeInfo checkAnnotationTags(String name,
-                                                      AbstractConfigNode node,
-                                                      String tag)
+    private static StructNodeInfo checkAnnotationTags(ConfigBindingPlan.FieldBinding binding,
+                                                      AbstractConfigNode node)
             throws ConfigurationException {
+        if (binding.tagError != null) {
+            throw new ConfigurationException(binding.tagError);
+        }
         StructNodeInfo ni = new StructNodeInfo();
-        ni.name = name;
+        ni.name = binding.tagName;
         ni.node = node;
-        if (name.contains(tag)) {
-            String[] parts =
-                    name.split(tag);
-            if (parts.length == 2) {
-                String path = parts[0];
-                String nname = parts[1];
-                if (Strings.isNullOrEmpty(path)) {
-                    ni.name = nname;
-                } else {
-                    ni.node = node.find(path);
-                    if (ni.node == null) {
-                        throw new ConfigurationException(
-                                String.format(
-                                        "Invalid ConfigParam : path not found. [name=%s]",
-                                        name));
-                    }
-                    ni.name = nname;
-                }
-            } else {
+        if (binding.tagPath != null) {
+            ni.node = node.find(binding.tagPath);
+            if (ni.node == null) {
                 throw new ConfigurationException(
-                        String.format("Invalid ConfigParam : [name=%s]",
-                                name));
+                        String.format(
+                                "Invalid ConfigParam : path not found. [name=%s]",
+                                binding.name));
             }
         }
         return ni;
@@ -903,7 +817,7 @@ public class ConfigurationAnnotationProcessor {
      * @param <T>           - Generic type.
      * @throws ConfigurationException
      */
-    private static <T> void setListValueFromNode(Class<? extends T> type,
+    private static <T> void setListValueFromNode(Class<?> type,
                                                  ConfigListValueNode listValueNode,
                                                  T target, Field field)
             throws ConfigurationException {
@@ -924,58 +838,6 @@ public class ConfigurationAnnotationProcessor {
         }
     }
 
-    /**
-     * Check if the specified annotated field can be processed.
-     *
-     * @param field - Field to check for.
-     * @return - Can process?
-     * @throws Exception
-     */
-    private static boolean canProcessFieldType(Field field) throws Exception {
-        if (ReflectionUtils.isPrimitiveTypeOrString(field)) {
-            return true;
-        } else if (canSetFieldType(field)) {
-            return true;
-        } else {
-            Class<?> type = field.getType();
-            String ann = hasConfigAnnotation(type);
-            if (!Strings.isNullOrEmpty(ann)) {
-                return true;
-            }
-        }
-        return false;
-    }
-
-    private static boolean canSetFieldType(Field field) throws Exception {
-        if (ReflectionUtils.isPrimitiveTypeOrString(field) ||
-                field.getType().isEnum()) {
-            return true;
-        } else if (ReflectionUtils
-                .implementsInterface(List.class, field.getType())) {
-            Class<?> itype = ReflectionUtils.getGenericListType(field);
-            Preconditions.checkArgument(itype != null);
-            if (ReflectionUtils.isPrimitiveTypeOrString(itype)) {
-                return true;
-            } else if (itype.equals(BigInteger.class) ||
-                    itype.equals(BigDecimal.class) || itype.equals(
-                    Date.class)) {
-                return true;
-            }
-        } else if (ReflectionUtils
-                .implementsInterface(Set.class, field.getType())) {
-            Class<?> itype = ReflectionUtils.getGenericSetType(field);
-            Preconditions.checkArgument(itype != null);
-            if (ReflectionUtils.isPrimitiveTypeOrString(itype)) {
-                return true;
-            } else if (itype.equals(BigInteger.class) ||
-                    itype.equals(BigDecimal.class) || itype.equals(
-                    Date.class)) {
-                return true;
-            }
-        }
-        return false;
-    }
-
     /**
      * Check and get the path annotation from the passed type.
      *
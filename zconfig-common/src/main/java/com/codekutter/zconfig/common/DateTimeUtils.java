@@ -30,10 +30,36 @@ import org.joda.time.DateTime;
 import org.joda.time.format.DateTimeFormat;
 import org.joda.time.format.DateTimeFormatter;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 /**
  * Utility class to parse/write datetime.
  */
 public class DateTimeUtils {
+    /**
+     * Cache of Date/Time formatters by format string (formatters are thread-safe).
+     */
+    private static final Map<String, DateTimeFormatter> formatters =
+            new ConcurrentHashMap<>();
+
+    /**
+     * Get the (cached) formatter for the specified format string.
+     *
+     * @param format - Format string.
+     * @return - Date/Time formatter.
+     */
+    public static DateTimeFormatter getFormatter(String format) {
+        Preconditions.checkArgument(!Strings.isNullOrEmpty(format));
+
+        DateTimeFormatter formatter = formatters.get(format);
+        if (formatter == null) {
+            formatter = DateTimeFormat.forPattern(format);
+            formatters.putIfAbsent(format, formatter);
+        }
+        return formatter;
+    }
+
     /**
      * Parse the Date/Time string using the specified format string.
      *
@@ -45,7 +71,7 @@ public class DateTimeUtils {
         Preconditions.checkArgument(!Strings.isNullOrEmpty(datetime));
         Preconditions.checkArgument(!Strings.isNullOrEmpty(format));
 
-        DateTimeFormatter formatter = DateTimeFormat.forPattern(format);
+        DateTimeFormatter formatter = getFormatter(format);
         return formatter.parseDateTime(datetime);
     }
 
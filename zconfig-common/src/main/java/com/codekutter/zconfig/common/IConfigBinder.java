@@ -0,0 +1,82 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ * Copyright (c) $year
+ * Date: 18/10/26 5:20 AM
+ * Subho Ghosh (subho dot ghosh at outlook.com)
+ *
+ */
+
+package com.codekutter.zconfig.common;
+
+import com.codekutter.zconfig.common.model.nodes.AbstractConfigNode;
+
+import javax.annotation.Nonnull;
+import java.util.List;
+
+/**
+ * Interface implemented by the (generated) configuration binders of
+ * {@link com.codekutter.zconfig.common.model.annotations.ConfigPath} annotated types.
+ * <p>
+ * Binders are named [Type]_ConfigBinder (nested type names joined by '_') in the
+ * package of the annotated type. {@link ConfigurationAnnotationProcessor} uses the
+ * binder, if present, instead of binding the type using reflection.
+ *
+ * @param <T> - Annotated type.
+ */
+public interface IConfigBinder<T> {
+    /**
+     * Name suffix of the generated binder classes.
+     */
+    String BINDER_SUFFIX = "_ConfigBinder";
+
+    /**
+     * Get the annotated type this binder binds.
+     *
+     * @return - Annotated type.
+     */
+    Class<T> getType();
+
+    /**
+     * Get the Config Path annotation value of the bound type.
+     *
+     * @return - Configuration node path.
+     */
+    String getPath();
+
+    /**
+     * Create a new instance of the bound type, will invoke the annotated
+     * constructor, if present, else the default (empty) constructor.
+     *
+     * @param node - Configuration node.
+     * @return - New instance.
+     * @throws ConfigurationException
+     */
+    T newInstance(@Nonnull AbstractConfigNode node) throws ConfigurationException;
+
+    /**
+     * Apply the values of all the annotated fields and invoke the annotated methods.
+     *
+     * @param node       - Configuration node.
+     * @param target     - Target to apply the values to.
+     * @param valuePaths - List to add the read value paths to (can be NULL).
+     * @throws ConfigurationException
+     */
+    void bind(@Nonnull AbstractConfigNode node, @Nonnull T target,
+              List<String> valuePaths) throws ConfigurationException;
+}
@@ -63,6 +63,14 @@ public class LogUtils {
 
     private static final Logger LOGGER = LoggerFactory.getLogger("DEFAULT");
 
+    /**
+     * Check if DEBUG logging is enabled for the default logger handle.
+     *
+     * @return - Is debug enabled?
+     */
+    public static boolean isDebugEnabled() {
+        return LOGGER.isDebugEnabled();
+    }
 
     /**
      * Log an INFO message to the default logger handle.
@@ -0,0 +1,166 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ * Copyright (c) $year
+ * Date: 17/10/26 2:15 PM
+ * Subho Ghosh (subho dot ghosh at outlook.com)
+ *
+ */
+
+package com.codekutter.zconfig.common;
+
+import com.google.common.base.Preconditions;
+import com.google.common.base.Strings;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Compiled value template with ${variable} place holders.
+ * <p>
+ * The value is split once into literal and variable segments, variables are
+ * substituted in a single pass. Place holders that can't be resolved (or resolve
+ * to an empty value) are retained as-is. Substituted values are not re-parsed.
+ */
+public final class VariableTemplate {
+    private static final String VAR_START = "${";
+    private static final char VAR_END = '}';
+
+    /**
+     * Segments of values without variables.
+     */
+    private static final String[] NO_VARIABLES = new String[0];
+
+    /**
+     * Source value string.
+     */
+    private final String source;
+    /**
+     * Alternating literal and variable segments, starting with a literal:
+     * [literal, variable, literal, variable, ..., literal]
+     */
+    private final String[] segments;
+
+    private VariableTemplate(String source, String[] segments) {
+        this.source = source;
+        this.segments = segments;
+    }
+
+    /**
+     * Does the template contain any variables?
+     *
+     * @return - Has variables?
+     */
+    public boolean hasVariables() {
+        return segments.length > 1;
+    }
+
+    /**
+     * Get the names of the variables in this template, in order of occurrence.
+     *
+     * @return - List of variable names (empty if none).
+     */
+    public List<String> getVariables() {
+        if (!hasVariables()) {
+            return Collections.emptyList();
+        }
+        List<String> vars = new ArrayList<>(segments.length / 2);
+        for (int ii = 1; ii < segments.length; ii += 2) {
+            vars.add(segments[ii]);
+        }
+        return vars;
+    }
+
+    /**
+     * Substitute the variables using the specified resolver.
+     *
+     * @param resolver - Function returning the variable value (or NULL if not defined).
+     * @return - Substituted value, the source value if no variables were replaced.
+     */
+    public String apply(@Nonnull Function<String, String> resolver) {
+        Preconditions.checkArgument(resolver != null);
+        if (!hasVariables()) {
+            return source;
+        }
+        StringBuilder buffer = new StringBuilder(source.length() + 32);
+        boolean replaced = false;
+        for (int ii = 0; ii < segments.length; ii++) {
+            if (ii % 2 == 0) {
+                buffer.append(segments[ii]);
+                continue;
+            }
+            String value = resolver.apply(segments[ii]);
+            if (Strings.isNullOrEmpty(value)) {
+                buffer.append(VAR_START).append(segments[ii]).append(VAR_END);
+            } else {
+                buffer.append(value);
+                replaced = true;
+            }
+        }
+        if (!replaced) {
+            return source;
+        }
+        return buffer.toString();
+    }
+
+    /**
+     * Compile the template for the specified value.
+     *
+     * @param value - Value string.
+     * @return - Compiled template.
+     */
+    public static VariableTemplate compile(@Nonnull String value) {
+        Preconditions.checkArgument(value != null);
+        int start = value.indexOf(VAR_START);
+        if (start < 0) {
+            return new VariableTemplate(value, NO_VARIABLES);
+        }
+        List<String> segments = new ArrayList<>();
+        int pos = 0;
+        while (start >= 0) {
+            int end = value.indexOf(VAR_END, start + VAR_START.length());
+            if (end < 0) {
+                break;
+            }
+            String var = value.substring(start + VAR_START.length(), end);
+            if (var.isEmpty()) {
+                start = value.indexOf(VAR_START, end + 1);
+                continue;
+            }
+            segments.add(value.substring(pos, start));
+            segments.add(var);
+            pos = end + 1;
+            start = value.indexOf(VAR_START, pos);
+        }
+        if (segments.isEmpty()) {
+            return new VariableTemplate(value, NO_VARIABLES);
+        }
+        segments.add(value.substring(pos));
+        return new VariableTemplate(value, segments.toArray(new String[0]));
+    }
+
+    @Override
+    public String toString() {
+        return String.format("[template=%s][segments=%s]", source,
+                             Arrays.toString(segments));
+    }
+}
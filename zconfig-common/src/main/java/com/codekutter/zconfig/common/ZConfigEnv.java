@@ -294,6 +294,7 @@ public abstract class ZConfigEnv {
                 try {
                     __env.dispose();
                     __env = null;
+                    vault.wipe();
                 } finally {
                     releaseEnvLock();
                 }
@@ -0,0 +1,325 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ * Copyright (c) $year
+ * Date: 17/10/26 11:05 AM
+ * Subho Ghosh (subho dot ghosh at outlook.com)
+ *
+ */
+
+package com.codekutter.zconfig.common.model;
+
+import com.codekutter.zconfig.common.model.nodes.*;
+import com.google.common.base.Preconditions;
+
+import javax.annotation.Nonnull;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Estimated heap footprint of a configuration node tree.
+ * <p>
+ * Sizes are estimated using the 64-bit JVM layout with compressed references
+ * (12 byte object headers, 4 byte references, 8 byte alignment). Shared
+ * instances (pooled names, shared node states) are counted once.
+ * <p>
+ * Note: Only the configuration structure is measured (nodes, node states,
+ * names, values and the child collections), list capacities are taken as
+ * the list sizes.
+ */
+public final class ConfigFootprint {
+    private static final int OBJECT_HEADER = 12;
+    private static final int ARRAY_HEADER = 16;
+    private static final int REFERENCE = 4;
+    private static final int ALIGNMENT = 8;
+    /**
+     * Size of a hash map entry (hash, key, value, next).
+     */
+    private static final int HASH_ENTRY = 32;
+
+    /**
+     * Cached shallow instance sizes by class.
+     */
+    private static final Map<Class<?>, Long> shallowSizes =
+            new ConcurrentHashMap<>();
+
+    private long nodeCount = 0;
+    private long nodeBytes = 0;
+    private long stateBytes = 0;
+    private long stringBytes = 0;
+    private long collectionBytes = 0;
+
+    private final Set<Object> visited =
+            Collections.newSetFromMap(new IdentityHashMap<>());
+
+    private ConfigFootprint() {
+    }
+
+    /**
+     * Get the number of nodes measured.
+     *
+     * @return - Node count.
+     */
+    public long getNodeCount() {
+        return nodeCount;
+    }
+
+    /**
+     * Get the estimated size of the node instances.
+     *
+     * @return - Size in bytes.
+     */
+    public long getNodeBytes() {
+        return nodeBytes;
+    }
+
+    /**
+     * Get the estimated size of the node state instances.
+     *
+     * @return - Size in bytes.
+     */
+    public long getStateBytes() {
+        return stateBytes;
+    }
+
+    /**
+     * Get the estimated size of the name/value strings.
+     *
+     * @return - Size in bytes.
+     */
+    public long getStringBytes() {
+        return stringBytes;
+    }
+
+    /**
+     * Get the estimated size of the child node collections.
+     *
+     * @return - Size in bytes.
+     */
+    public long getCollectionBytes() {
+        return collectionBytes;
+    }
+
+    /**
+     * Get the estimated total size.
+     *
+     * @return - Size in bytes.
+     */
+    public long getTotalBytes() {
+        return nodeBytes + stateBytes + stringBytes + collectionBytes;
+    }
+
+    /**
+     * Get the estimated average size per node.
+     *
+     * @return - Bytes per node.
+     */
+    public double getBytesPerNode() {
+        if (nodeCount == 0) {
+            return 0;
+        }
+        return ((double) getTotalBytes()) / nodeCount;
+    }
+
+    /**
+     * Get a report comparing this footprint (before) with the specified
+     * footprint (after).
+     *
+     * @param after - Footprint to compare with.
+     * @return - Report string.
+     */
+    public String compare(@Nonnull ConfigFootprint after) {
+        Preconditions.checkArgument(after != null);
+        return String.format(
+                "[nodes=%d][bytes/node before=%.1f, after=%.1f][total before=%d, after=%d]",
+                nodeCount, getBytesPerNode(), after.getBytesPerNode(),
+                getTotalBytes(), after.getTotalBytes());
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+                "[nodes=%d][bytes/node=%.1f][total=%d][nodes=%d, states=%d, strings=%d, collections=%d]",
+                nodeCount, getBytesPerNode(), getTotalBytes(), nodeBytes,
+                stateBytes, stringBytes, collectionBytes);
+    }
+
+    /**
+     * Measure the footprint of the tree under (and including) the specified node.
+     *
+     * @param root - Root node.
+     * @return - Estimated footprint.
+     */
+    public static ConfigFootprint measure(@Nonnull AbstractConfigNode root) {
+        Preconditions.checkArgument(root != null);
+
+        ConfigFootprint footprint = new ConfigFootprint();
+        Deque<AbstractConfigNode> stack = new ArrayDeque<>();
+        stack.push(root);
+        while (!stack.isEmpty()) {
+            footprint.add(stack.pop(), stack);
+        }
+        footprint.visited.clear();
+        return footprint;
+    }
+
+    /**
+     * Add the node to the footprint and push the child nodes to be measured.
+     *
+     * @param node  - Node to measure.
+     * @param stack - Nodes pending measurement.
+     */
+    @SuppressWarnings("unchecked")
+    private void add(AbstractConfigNode node, Deque<AbstractConfigNode> stack) {
+        if (!visited.add(node)) {
+            return;
+        }
+        nodeCount++;
+        nodeBytes += shallowSize(node.getClass());
+        NodeState state = node.getState();
+        if (state != null && visited.add(state)) {
+            stateBytes += shallowSize(state.getClass());
+        }
+        addString(node.getName());
+
+        Collection<? extends AbstractConfigNode> children = null;
+        if (node instanceof ConfigPathNode) {
+            Map<String, AbstractConfigNode> map = ((ConfigPathNode) node).getChildren();
+            if (map != null) {
+                addMap(map);
+                children = map.values();
+            }
+        } else if (node instanceof ConfigKeyValueNode) {
+            Map<String, ConfigValueNode> map = ((ConfigKeyValueNode) node).getKeyValues();
+            if (map != null) {
+                addMap(map);
+                children = map.values();
+            }
+        } else if (node instanceof ConfigListNode) {
+            List<AbstractConfigNode> values =
+                    ((ConfigListNode<AbstractConfigNode>) node).getValues();
+            if (values != null) {
+                collectionBytes += shallowSize(values.getClass()) +
+                        array(values.size(), REFERENCE);
+                children = values;
+            }
+        } else if (node instanceof ConfigIncludeNode) {
+            ConfigPathNode included = ((ConfigIncludeNode) node).getNode();
+            if (included != null) {
+                children = Collections.singletonList(included);
+            }
+        } else if (node instanceof ConfigValueNode) {
+            addString(((ConfigValueNode) node).getValue());
+        }
+        if (children != null) {
+            for (AbstractConfigNode child : children) {
+                if (child != null) {
+                    stack.push(child);
+                }
+            }
+        }
+    }
+
+    /**
+     * Add the child node map (and keys) to the footprint.
+     *
+     * @param map - Child node map.
+     */
+    private void addMap(Map<String, ?> map) {
+        int size = map.size();
+        long bytes = shallowSize(map.getClass());
+        if (map instanceof CompactNodeMap) {
+            bytes += 2 * array(size, REFERENCE);
+        } else {
+            int capacity = 16;
+            while (capacity * 3 / 4 < size) {
+                capacity <<= 1;
+            }
+            bytes += array(capacity, REFERENCE) + ((long) size * HASH_ENTRY);
+        }
+        collectionBytes += bytes;
+        for (String key : map.keySet()) {
+            addString(key);
+        }
+    }
+
+    /**
+     * Add the string to the footprint, if not already counted.
+     *
+     * @param value - String value.
+     */
+    private void addString(String value) {
+        if (value != null && visited.add(value)) {
+            stringBytes += shallowSize(String.class) + array(value.length(), 2);
+        }
+    }
+
+    /**
+     * Get the aligned size of an array.
+     *
+     * @param length      - Array length.
+     * @param elementSize - Size of an array element.
+     * @return - Size in bytes.
+     */
+    private static long array(int length, int elementSize) {
+        return align(ARRAY_HEADER + ((long) length * elementSize));
+    }
+
+    private static long align(long size) {
+        return ((size + ALIGNMENT - 1) / ALIGNMENT) * ALIGNMENT;
+    }
+
+    /**
+     * Get the estimated shallow size of an instance of the specified class.
+     *
+     * @param type - Class type.
+     * @return - Size in bytes.
+     */
+    private static long shallowSize(Class<?> type) {
+        Long size = shallowSizes.get(type);
+        if (size == null) {
+            long bytes = OBJECT_HEADER;
+            for (Class<?> c = type; c != null; c = c.getSuperclass()) {
+                for (Field field : c.getDeclaredFields()) {
+                    if (Modifier.isStatic(field.getModifiers())) {
+                        continue;
+                    }
+                    bytes += fieldSize(field.getType());
+                }
+            }
+            size = align(bytes);
+            shallowSizes.put(type, size);
+        }
+        return size;
+    }
+
+    private static int fieldSize(Class<?> type) {
+        if (type == long.class || type == double.class) {
+            return 8;
+        } else if (type == int.class || type == float.class) {
+            return 4;
+        } else if (type == short.class || type == char.class) {
+            return 2;
+        } else if (type == byte.class || type == boolean.class) {
+            return 1;
+        }
+        return REFERENCE;
+    }
+}
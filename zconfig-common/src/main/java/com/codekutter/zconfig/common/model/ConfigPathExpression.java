@@ -0,0 +1,230 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ * Copyright (c) $year
+ * Date: 16/10/26 10:12 AM
+ * Subho Ghosh (subho dot ghosh at outlook.com)
+ *
+ */
+
+package com.codekutter.zconfig.common.model;
+
+import com.codekutter.zconfig.common.ConfigurationException;
+import com.codekutter.zconfig.common.utils.ConfigUtils;
+import com.google.common.base.Preconditions;
+import com.google.common.base.Strings;
+import com.google.common.collect.ImmutableList;
+
+import javax.annotation.Nonnull;
+import java.util.AbstractList;
+import java.util.List;
+
+/**
+ * Pre-compiled configuration search path.
+ * <p>
+ * The path string is tokenized once (index terms and the #/$/@ suffixes
+ * already split) so that repeated searches can walk the configuration tree
+ * without re-parsing the path.
+ * <p>
+ * Note: Paths containing the parent term (..) are resolved relative to the
+ * node being searched, such expressions are re-resolved on every search.
+ */
+public final class ConfigPathExpression {
+    /**
+     * Source path string.
+     */
+    private final String path;
+    /**
+     * Tokenized path elements (NULL for relative expressions).
+     */
+    private final List<String> tokens;
+    /**
+     * Index path (path elements joined by "/") for non-relative expressions.
+     */
+    private final String indexPath;
+    /**
+     * Does the path contain parent terms (..)?
+     */
+    private final boolean relative;
+    /**
+     * Does the path contain wildcard terms (* or **)?
+     */
+    private final boolean wildcard;
+    /**
+     * Glob matcher for this expression (created on first use).
+     */
+    private volatile ConfigPathMatcher matcher = null;
+
+    /**
+     * Constructor with the parsed path elements.
+     *
+     * @param path     - Source path string.
+     * @param tokens   - Tokenized path elements.
+     * @param relative - Contains parent terms?
+     * @param wildcard - Contains wildcard terms?
+     */
+    private ConfigPathExpression(String path, List<String> tokens,
+                                 boolean relative, boolean wildcard) {
+        this.path = path;
+        this.tokens = tokens;
+        if (tokens != null) {
+            this.indexPath = String.join(ConfigurationSettings.NODE_SEARCH_SEPERATOR,
+                                         tokens);
+        } else {
+            this.indexPath = null;
+        }
+        this.relative = relative;
+        this.wildcard = wildcard;
+    }
+
+    /**
+     * Get the source path string.
+     *
+     * @return - Path string.
+     */
+    public String getPath() {
+        return path;
+    }
+
+    /**
+     * Get the tokenized path elements.
+     *
+     * @return - Immutable list of path elements, NULL if relative.
+     */
+    public List<String> getTokens() {
+        return tokens;
+    }
+
+    /**
+     * Get the index path for this expression.
+     *
+     * @return - Index path, NULL if relative.
+     * @see ConfigPathIndex
+     */
+    public String getIndexPath() {
+        return indexPath;
+    }
+
+    /**
+     * Is this path relative to the search node? (contains parent terms)
+     *
+     * @return - Is relative?
+     */
+    public boolean isRelative() {
+        return relative;
+    }
+
+    /**
+     * Does this path contain wildcard terms?
+     *
+     * @return - Has wildcard?
+     */
+    public boolean hasWildcard() {
+        return wildcard;
+    }
+
+    /**
+     * Get the glob matcher for this expression.
+     *
+     * @return - Path matcher.
+     * @throws ConfigurationException - If this is a relative expression.
+     */
+    public ConfigPathMatcher getMatcher() throws ConfigurationException {
+        ConfigPathMatcher matcher = this.matcher;
+        if (matcher == null) {
+            matcher = ConfigPathMatcher.compile(this);
+            this.matcher = matcher;
+        }
+        return matcher;
+    }
+
+    /**
+     * Get the path elements with the specified name prepended. The returned list
+     * is a view and does not copy the path elements.
+     *
+     * @param head - Element to prepend.
+     * @return - List view of path elements.
+     */
+    public List<String> prepend(@Nonnull String head) {
+        Preconditions.checkArgument(!Strings.isNullOrEmpty(head));
+        Preconditions.checkState(tokens != null);
+        return new AbstractList<String>() {
+            @Override
+            public String get(int index) {
+                if (index == 0) {
+                    return head;
+                }
+                return tokens.get(index - 1);
+            }
+
+            @Override
+            public int size() {
+                return tokens.size() + 1;
+            }
+        };
+    }
+
+    /**
+     * Override default toString().
+     *
+     * @return - Path string.
+     */
+    @Override
+    public String toString() {
+        return path;
+    }
+
+    /**
+     * Compile the specified path string using the configuration settings.
+     *
+     * @param path     - Path string to compile.
+     * @param settings - Configuration settings.
+     * @return - Compiled path expression.
+     * @throws ConfigurationException
+     */
+    public static ConfigPathExpression compile(@Nonnull String path,
+                                               @Nonnull
+                                                       ConfigurationSettings settings)
+    throws ConfigurationException {
+        Preconditions.checkArgument(!Strings.isNullOrEmpty(path));
+        Preconditions.checkArgument(settings != null);
+
+        ImmutableList.Builder<String> builder = ImmutableList.builder();
+        boolean wildcard = false;
+        String[] parts = path.split(ConfigurationSettings.NODE_SEARCH_SEPERATOR);
+        for (String part : parts) {
+            if (Strings.isNullOrEmpty(part)) {
+                continue;
+            }
+            if (part.compareTo(ConfigurationSettings.NODE_PARENT_TERM) == 0) {
+                return new ConfigPathExpression(path, null, true, false);
+            }
+            String[] pc = ConfigUtils.checkSubPath(part, settings);
+            if (pc != null && pc.length > 0) {
+                builder.add(pc);
+            } else {
+                builder.add(part);
+                if (ConfigurationSettings.isWildcard(part) ||
+                        ConfigurationSettings.isRecursiveWildcard(part)) {
+                    wildcard = true;
+                }
+            }
+        }
+        return new ConfigPathExpression(path, builder.build(), false, wildcard);
+    }
+}
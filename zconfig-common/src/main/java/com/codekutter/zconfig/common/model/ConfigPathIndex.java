@@ -0,0 +1,293 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ * Copyright (c) $year
+ * Date: 16/10/26 2:40 PM
+ * Subho Ghosh (subho dot ghosh at outlook.com)
+ *
+ */
+
+package com.codekutter.zconfig.common.model;
+
+import com.codekutter.zconfig.common.model.nodes.*;
+import com.google.common.base.Preconditions;
+import com.google.common.base.Strings;
+
+import javax.annotation.Nonnull;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+
+/**
+ * Flat index of the configuration nodes keyed by the search path (path elements
+ * separated by "/", with the parameters/properties/attributes nodes referenced
+ * by their node names).
+ * <p>
+ * Example: configuration/node_1/parameters/PARAM_1
+ * <p>
+ * Included configuration nodes are transparent in the path, the included
+ * root node is indexed directly under the including path node.
+ */
+public class ConfigPathIndex {
+    /**
+     * Map of search path to configuration node.
+     */
+    private final Map<String, AbstractConfigNode> index =
+            new ConcurrentHashMap<>();
+
+    /**
+     * Default constructor - Empty index.
+     */
+    public ConfigPathIndex() {
+    }
+
+    /**
+     * Copy constructor - Create a copy of the specified index.
+     *
+     * @param source - Index to copy.
+     */
+    public ConfigPathIndex(@Nonnull ConfigPathIndex source) {
+        Preconditions.checkArgument(source != null);
+        index.putAll(source.index);
+    }
+
+    /**
+     * Get the node indexed at the specified path.
+     *
+     * @param path - Search path key.
+     * @return - Config node or NULL.
+     */
+    public AbstractConfigNode get(@Nonnull String path) {
+        Preconditions.checkArgument(!Strings.isNullOrEmpty(path));
+        return index.get(path);
+    }
+
+    /**
+     * Get the number of indexed nodes.
+     *
+     * @return - Index size.
+     */
+    public int size() {
+        return index.size();
+    }
+
+    /**
+     * Perform the action for each of the indexed nodes.
+     *
+     * @param action - Action to perform (search path, config node).
+     */
+    public void forEach(@Nonnull BiConsumer<String, AbstractConfigNode> action) {
+        Preconditions.checkArgument(action != null);
+        index.forEach(action);
+    }
+
+    /**
+     * Clear and rebuild the index for the tree under the specified root.
+     *
+     * @param root - Root configuration node.
+     */
+    public void build(@Nonnull ConfigPathNode root) {
+        Preconditions.checkArgument(root != null);
+        index.clear();
+        add(root.getName(), root, true);
+    }
+
+    /**
+     * Get the index path of the specified node. Returns NULL if the node is
+     * not part of this index.
+     *
+     * @param node - Config node.
+     * @return - Index path or NULL.
+     */
+    public String getIndexPath(@Nonnull AbstractConfigNode node) {
+        Preconditions.checkArgument(node != null);
+        String path = getPath(node);
+        if (index.get(path) == node) {
+            return path;
+        }
+        return null;
+    }
+
+    /**
+     * Replace the indexed node with a copy. The copy is expected to be
+     * attached to the (already indexed) copies of the parent nodes.
+     *
+     * @param node - Indexed node.
+     * @param copy - Copy of the node.
+     * @return - Was replaced?
+     */
+    public boolean replace(@Nonnull AbstractConfigNode node,
+                           @Nonnull AbstractConfigNode copy) {
+        Preconditions.checkArgument(node != null);
+        Preconditions.checkArgument(copy != null);
+        if (copy instanceof ConfigIncludeNode) {
+            return false;
+        }
+        return index.replace(getPath(copy), node, copy);
+    }
+
+    /**
+     * Get the search path of the node by walking the parent nodes.
+     *
+     * @param node - Config node.
+     * @return - Search path.
+     */
+    private String getPath(AbstractConfigNode node) {
+        StringBuilder buffer = new StringBuilder(node.getName());
+        AbstractConfigNode parent = node.getParent();
+        while (parent != null) {
+            if (!(parent instanceof ConfigIncludeNode)) {
+                buffer.insert(0, ConfigurationSettings.NODE_SEARCH_SEPERATOR);
+                buffer.insert(0, parent.getName());
+            }
+            parent = parent.getParent();
+        }
+        return buffer.toString();
+    }
+
+    /**
+     * Add the node (and sub-tree) under the specified parent. Nodes are only
+     * added if the parent is part of this index.
+     *
+     * @param parent - Parent config node.
+     * @param node   - Node to add.
+     */
+    public void add(@Nonnull AbstractConfigNode parent,
+                    @Nonnull AbstractConfigNode node) {
+        Preconditions.checkArgument(parent != null);
+        Preconditions.checkArgument(node != null);
+
+        String path = getIndexPath(parent);
+        if (path != null) {
+            add(getChildPath(path, node.getName()), node,
+                !(parent instanceof ConfigListNode));
+        }
+    }
+
+    /**
+     * Remove the node (and sub-tree) under the specified parent.
+     *
+     * @param parent - Parent config node.
+     * @param node   - Node to remove.
+     */
+    public void remove(@Nonnull AbstractConfigNode parent,
+                       @Nonnull AbstractConfigNode node) {
+        Preconditions.checkArgument(parent != null);
+        Preconditions.checkArgument(node != null);
+
+        String path = getIndexPath(parent);
+        if (path != null) {
+            remove(getChildPath(path, node.getName()), node);
+        }
+    }
+
+    /**
+     * Recursively add the node and the child nodes.
+     *
+     * @param path    - Index path of the node.
+     * @param node    - Node to add.
+     * @param replace - Replace existing entry?
+     */
+    @SuppressWarnings("unchecked")
+    private void add(String path, AbstractConfigNode node, boolean replace) {
+        if (node instanceof ConfigIncludeNode) {
+            // Included root node is added as a child of the parent.
+            return;
+        }
+        if (replace) {
+            index.put(path, node);
+        } else if (index.putIfAbsent(path, node) != null) {
+            return;
+        }
+        if (node instanceof ConfigPathNode) {
+            Map<String, AbstractConfigNode> children =
+                    ((ConfigPathNode) node).getChildren();
+            if (children != null) {
+                for (String key : children.keySet()) {
+                    add(getChildPath(path, key), children.get(key), true);
+                }
+            }
+        } else if (node instanceof ConfigKeyValueNode) {
+            Map<String, ConfigValueNode> values =
+                    ((ConfigKeyValueNode) node).getKeyValues();
+            if (values != null) {
+                for (String key : values.keySet()) {
+                    add(getChildPath(path, key), values.get(key), true);
+                }
+            }
+        } else if (node instanceof ConfigListNode) {
+            List<AbstractConfigNode> values =
+                    ((ConfigListNode<AbstractConfigNode>) node).getValues();
+            if (values != null) {
+                for (AbstractConfigNode value : values) {
+                    add(getChildPath(path, value.getName()), value, false);
+                }
+            }
+        }
+    }
+
+    /**
+     * Recursively remove the node and the child nodes.
+     *
+     * @param path - Index path of the node.
+     * @param node - Node to remove.
+     */
+    @SuppressWarnings("unchecked")
+    private void remove(String path, AbstractConfigNode node) {
+        if (!index.remove(path, node)) {
+            return;
+        }
+        if (node instanceof ConfigPathNode) {
+            Map<String, AbstractConfigNode> children =
+                    ((ConfigPathNode) node).getChildren();
+            if (children != null) {
+                for (String key : children.keySet()) {
+                    remove(getChildPath(path, key), children.get(key));
+                }
+            }
+        } else if (node instanceof ConfigKeyValueNode) {
+            Map<String, ConfigValueNode> values =
+                    ((ConfigKeyValueNode) node).getKeyValues();
+            if (values != null) {
+                for (String key : values.keySet()) {
+                    remove(getChildPath(path, key), values.get(key));
+                }
+            }
+        } else if (node instanceof ConfigListNode) {
+            List<AbstractConfigNode> values =
+                    ((ConfigListNode<AbstractConfigNode>) node).getValues();
+            if (values != null) {
+                for (AbstractConfigNode value : values) {
+                    remove(getChildPath(path, value.getName()), value);
+                }
+            }
+        }
+    }
+
+    /**
+     * Get the index path of a child node.
+     *
+     * @param path - Parent index path.
+     * @param name - Child node name.
+     * @return - Child index path.
+     */
+    private static String getChildPath(String path, String name) {
+        return path + ConfigurationSettings.NODE_SEARCH_SEPERATOR + name;
+    }
+}
@@ -0,0 +1,291 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ * Copyright (c) $year
+ * Date: 16/10/26 9:10 PM
+ * Subho Ghosh (subho dot ghosh at outlook.com)
+ *
+ */
+
+package com.codekutter.zconfig.common.model;
+
+import com.codekutter.zconfig.common.ConfigurationException;
+import com.codekutter.zconfig.common.model.nodes.*;
+import com.google.common.base.Preconditions;
+
+import javax.annotation.Nonnull;
+import java.util.*;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Glob matcher for configuration search paths with wildcard (*) and recursive
+ * wildcard (**) terms.
+ * <p>
+ * The path elements are compiled into a (non-deterministic) automaton, the
+ * tree is walked once, depth first, tracking the set of active pattern positions
+ * per node. Matches are returned lazily, no intermediate result lists are created.
+ * <p>
+ * Matching rules:
+ * <pre>
+ *     *  - Matches any single node.
+ *     ** - Matches zero or more levels of nodes.
+ * </pre>
+ * Nodes are named as in the search path (parameters, properties and attributes
+ * by their node names), included configuration nodes are transparent.
+ */
+public final class ConfigPathMatcher {
+    /**
+     * Max number of path elements supported (states are tracked as bits).
+     */
+    public static final int MAX_PATH_ELEMENTS = 63;
+
+    /**
+     * Path elements to match.
+     */
+    private final String[] tokens;
+    /**
+     * Bit mask of the wildcard (*) positions.
+     */
+    private final long wildcards;
+    /**
+     * Bit mask of the recursive wildcard (**) positions.
+     */
+    private final long recursive;
+    /**
+     * Bit mask of the non-final positions.
+     */
+    private final long pending;
+
+    /**
+     * Constructor with the path elements.
+     *
+     * @param tokens - Path elements.
+     */
+    private ConfigPathMatcher(List<String> tokens) {
+        this.tokens = tokens.toArray(new String[0]);
+        long wildcards = 0;
+        long recursive = 0;
+        for (int ii = 0; ii < this.tokens.length; ii++) {
+            if (ConfigurationSettings.isRecursiveWildcard(this.tokens[ii])) {
+                recursive |= (1L << ii);
+            } else if (ConfigurationSettings.isWildcard(this.tokens[ii])) {
+                wildcards |= (1L << ii);
+            }
+        }
+        this.wildcards = wildcards;
+        this.recursive = recursive;
+        this.pending = (1L << this.tokens.length) - 1;
+    }
+
+    /**
+     * Get the matches under (and including) the specified node. The first path
+     * element is matched against the passed node.
+     *
+     * @param node - Node to search from.
+     * @return - Lazy iterator of matched nodes.
+     */
+    public Iterator<AbstractConfigNode> iterator(@Nonnull AbstractConfigNode node) {
+        Preconditions.checkArgument(node != null);
+        return new MatchIterator(node);
+    }
+
+    /**
+     * Get the matches under (and including) the specified node as a stream.
+     *
+     * @param node - Node to search from.
+     * @return - Lazy stream of matched nodes.
+     */
+    public Stream<AbstractConfigNode> stream(@Nonnull AbstractConfigNode node) {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(
+                iterator(node), Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    /**
+     * Add the positions reachable by matching a recursive wildcard with no nodes.
+     *
+     * @param states - Active positions.
+     * @return - Closure of the active positions.
+     */
+    private long closure(long states) {
+        long mask = states & recursive;
+        while (mask != 0) {
+            int ii = Long.numberOfTrailingZeros(mask);
+            states |= (1L << (ii + 1));
+            mask = (mask & ~(1L << ii)) | ((1L << (ii + 1)) & recursive);
+        }
+        return states;
+    }
+
+    /**
+     * Get the positions active after matching a node with the specified name.
+     *
+     * @param states - Active positions before the node.
+     * @param name   - Node name.
+     * @return - Active positions after the node.
+     */
+    private long step(long states, String name) {
+        long mask = closure(states) & pending;
+        long next = 0;
+        while (mask != 0) {
+            int ii = Long.numberOfTrailingZeros(mask);
+            long bit = (1L << ii);
+            if ((recursive & bit) != 0) {
+                next |= bit;
+            } else if ((wildcards & bit) != 0 ||
+                    tokens[ii].compareTo(name) == 0) {
+                next |= (bit << 1);
+            }
+            mask &= ~bit;
+        }
+        return next;
+    }
+
+    /**
+     * Get the child nodes to search.
+     *
+     * @param node - Parent node.
+     * @return - Child nodes or NULL.
+     */
+    @SuppressWarnings("unchecked")
+    private static Iterator<? extends AbstractConfigNode> children(
+            AbstractConfigNode node) {
+        Collection<? extends AbstractConfigNode> children = null;
+        if (node instanceof ConfigPathNode) {
+            Map<String, AbstractConfigNode> map =
+                    ((ConfigPathNode) node).getChildren();
+            if (map != null) {
+                children = map.values();
+            }
+        } else if (node instanceof ConfigKeyValueNode) {
+            Map<String, ConfigValueNode> map =
+                    ((ConfigKeyValueNode) node).getKeyValues();
+            if (map != null) {
+                children = map.values();
+            }
+        } else if (node instanceof ConfigListNode) {
+            children = ((ConfigListNode<AbstractConfigNode>) node).getValues();
+        }
+        if (children != null && !children.isEmpty()) {
+            return children.iterator();
+        }
+        return null;
+    }
+
+    /**
+     * Depth-first iterator over the matched nodes.
+     */
+    private final class MatchIterator implements Iterator<AbstractConfigNode> {
+        /**
+         * Child iterators of the nodes being searched.
+         */
+        private final Deque<Iterator<? extends AbstractConfigNode>> levels =
+                new ArrayDeque<>();
+        /**
+         * Active positions for the nodes at each level.
+         */
+        private long[] states = new long[8];
+        /**
+         * Next matched node.
+         */
+        private AbstractConfigNode next = null;
+
+        private MatchIterator(AbstractConfigNode node) {
+            levels.push(Collections.singletonList(node).iterator());
+            states[0] = 1;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (next == null) {
+                next = advance();
+            }
+            return (next != null);
+        }
+
+        @Override
+        public AbstractConfigNode next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            AbstractConfigNode node = next;
+            next = null;
+            return node;
+        }
+
+        /**
+         * Walk the tree till the next matched node.
+         *
+         * @return - Matched node or NULL if done.
+         */
+        private AbstractConfigNode advance() {
+            while (!levels.isEmpty()) {
+                Iterator<? extends AbstractConfigNode> iter = levels.peek();
+                if (!iter.hasNext()) {
+                    levels.pop();
+                    continue;
+                }
+                AbstractConfigNode node = iter.next();
+                long active = step(states[levels.size() - 1], node.getName());
+                if (active == 0) {
+                    continue;
+                }
+                active = closure(active);
+                if ((active & pending) != 0) {
+                    Iterator<? extends AbstractConfigNode> children =
+                            children(node);
+                    if (children != null) {
+                        if (levels.size() == states.length) {
+                            states = Arrays.copyOf(states, states.length * 2);
+                        }
+                        states[levels.size()] = active;
+                        levels.push(children);
+                    }
+                }
+                if ((active & ~pending) != 0) {
+                    return node;
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Compile the matcher for the specified path expression.
+     *
+     * @param expression - Compiled path expression.
+     * @return - Path matcher.
+     * @throws ConfigurationException
+     */
+    public static ConfigPathMatcher compile(@Nonnull ConfigPathExpression expression)
+    throws ConfigurationException {
+        Preconditions.checkArgument(expression != null);
+        if (expression.isRelative()) {
+            throw new ConfigurationException(String.format(
+                    "Relative paths not supported by search. [path=%s]",
+                    expression.getPath()));
+        }
+        List<String> tokens = expression.getTokens();
+        if (tokens.isEmpty() || tokens.size() > MAX_PATH_ELEMENTS) {
+            throw new ConfigurationException(String.format(
+                    "Invalid search path : Path elements must be between 1 and %d. [path=%s]",
+                    MAX_PATH_ELEMENTS, expression.getPath()));
+        }
+        return new ConfigPathMatcher(tokens);
+    }
+}
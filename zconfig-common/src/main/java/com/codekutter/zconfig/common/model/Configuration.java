@@ -31,20 +31,33 @@ import com.codekutter.zconfig.common.utils.ConfigUtils;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.google.common.base.Preconditions;
 import com.google.common.base.Strings;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
 import lombok.Data;
 
+import javax.annotation.Nonnull;
 import javax.xml.bind.DatatypeConverter;
 import java.io.IOException;
 import java.security.MessageDigest;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 /**
  * Configuration class that defines a configuration set.
  */
 public class Configuration {
+    /**
+     * Default maximum number of compiled search paths cached per configuration.
+     */
+    public static final int DEFAULT_PATH_CACHE_SIZE = 1024;
+
     @Data
     public static class Header {
         /**
@@ -118,6 +131,35 @@ public class Configuration {
 
     private ConfigurationSettings settings;
 
+    /**
+     * Bounded (LRU) cache of compiled search paths.
+     */
+    @JsonIgnore
+    private final Cache<String, ConfigPathExpression> pathCache =
+            CacheBuilder.newBuilder().maximumSize(DEFAULT_PATH_CACHE_SIZE)
+                        .build();
+
+    /**
+     * Flat index of the configuration nodes, built once the configuration
+     * has been loaded.
+     */
+    @JsonIgnore
+    private ConfigPathIndex pathIndex = null;
+
+    /**
+     * String pool for the node paths of this configuration.
+     */
+    @JsonIgnore
+    private final Interner<String> pathPool = Interners.newWeakInterner();
+
+    /**
+     * System properties/environment variables the values of this configuration
+     * were resolved with (NULL value if undefined), used to validate snapshots
+     * of the loaded configuration.
+     */
+    @JsonIgnore
+    private final Map<String, String> resolvedVariables = new HashMap<>();
+
     /**
      * Default Empty constructor.
      */
@@ -369,6 +411,39 @@ public class Configuration {
         this.header.syncMode = syncMode;
     }
 
+    /**
+     * Get the System properties/environment variables the values of this
+     * configuration were resolved with.
+     *
+     * @return - Variable values (NULL value if undefined).
+     */
+    @JsonIgnore
+    public Map<String, String> getResolvedVariables() {
+        return Collections.unmodifiableMap(resolvedVariables);
+    }
+
+    /**
+     * Record the System property/environment variable a value was resolved with.
+     *
+     * @param name  - Variable name.
+     * @param value - Variable value, NULL if undefined.
+     */
+    public void addResolvedVariable(@Nonnull String name, String value) {
+        Preconditions.checkArgument(!Strings.isNullOrEmpty(name));
+        resolvedVariables.put(name, value);
+    }
+
+    /**
+     * Record the System properties/environment variables the values were
+     * resolved with (of an included configuration).
+     *
+     * @param variables - Variable values (NULL value if undefined).
+     */
+    public void addResolvedVariables(@Nonnull Map<String, String> variables) {
+        Preconditions.checkArgument(variables != null);
+        resolvedVariables.putAll(variables);
+    }
+
     /**
      * Get the configuration settings used to parse this configuration.
      *
@@ -385,6 +460,8 @@ public class Configuration {
      */
     public void setSettings(ConfigurationSettings settings) {
         this.settings = settings;
+        // Compiled paths depend on the node names defined in the settings.
+        pathCache.invalidateAll();
     }
 
     /**
@@ -424,8 +501,98 @@ public class Configuration {
                                              state.getError());
         }
         state.setState(ENodeState.Synced);
-        if (rootConfigNode != null)
+        if (rootConfigNode != null) {
             rootConfigNode.loaded();
+            if (settings == null || settings.isCompactOnLoad()) {
+                compact();
+            }
+
+            ConfigPathIndex index = new ConfigPathIndex();
+            index.build(rootConfigNode);
+            pathIndex = index;
+        }
+    }
+
+    /**
+     * Convert the configuration nodes to the compact representation: child
+     * nodes are stored in compact sorted maps, node names are pooled and the
+     * node states are replaced by shared state instances.
+     * <p>
+     * Node updates are still supported, updated nodes get a local state copy.
+     */
+    public void compact() {
+        if (rootConfigNode != null) {
+            ConfigFootprint before = null;
+            if (LogUtils.isDebugEnabled()) {
+                before = ConfigFootprint.measure(rootConfigNode);
+            }
+            rootConfigNode.compact();
+            if (before != null) {
+                LogUtils.debug(getClass(), String.format(
+                        "Compacted configuration. [name=%s] %s",
+                        header.name,
+                        before.compare(ConfigFootprint.measure(rootConfigNode))));
+            }
+        }
+    }
+
+    /**
+     * Create a copy of this configuration handle. The copy shares the
+     * configuration nodes and settings with this instance, the header and
+     * path index are copied.
+     * <p>
+     * Used to build copy-on-write configuration snapshots, the shared nodes
+     * are copied into the snapshot when it is built.
+     *
+     * @return - Configuration copy.
+     * @see ConfigurationSnapshotBuilder
+     */
+    public Configuration copy() {
+        Configuration config = new Configuration(settings);
+        config.instanceId = instanceId;
+        config.state.setState(state.getState());
+
+        Header h = config.header;
+        h.id = header.id;
+        h.applicationGroup = header.applicationGroup;
+        h.application = header.application;
+        h.name = header.name;
+        h.description = header.description;
+        h.version = header.version;
+        h.createdBy = header.createdBy;
+        h.updatedBy = header.updatedBy;
+        h.syncMode = header.syncMode;
+        h.encryptionHash = header.encryptionHash;
+        h.timestamp = header.timestamp;
+
+        config.resolvedVariables.putAll(resolvedVariables);
+        config.rootConfigNode = rootConfigNode;
+        if (pathIndex != null) {
+            config.pathIndex = new ConfigPathIndex(pathIndex);
+        }
+        return config;
+    }
+
+    /**
+     * Intern the path string in the string pool of this configuration, so that
+     * nodes with the same path share the path string instance.
+     *
+     * @param path - Path string.
+     * @return - Pooled path string.
+     */
+    public String intern(@Nonnull String path) {
+        Preconditions.checkArgument(path != null);
+        return pathPool.intern(path);
+    }
+
+    /**
+     * Get the flat path index for this configuration.
+     *
+     * @return - Path index or NULL if not loaded.
+     */
+    @JsonIgnore
+    public ConfigPathIndex getPathIndex() {
+        return pathIndex;
     }
 
     /**
@@ -445,13 +612,91 @@ public class Configuration {
         Preconditions.checkArgument(node != null);
         Preconditions.checkArgument(!Strings.isNullOrEmpty(path));
 
-        List<String> stack = ConfigUtils.getResolvedPath(path, settings, node);
+        return find(node, compile(path));
+    }
+
+    /**
+     * Find the configuration node at the compiled path under the specified node.
+     *
+     * @param node - Configuration node to search under.
+     * @param path - Compiled path to search for.
+     * @return - Configuration Node or NULL.
+     * @throws ConfigurationException
+     */
+    public AbstractConfigNode find(AbstractConfigNode node,
+                                   ConfigPathExpression path)
+    throws ConfigurationException {
+        Preconditions.checkArgument(node != null);
+        Preconditions.checkArgument(path != null);
+
+        List<String> stack = null;
+        if (path.isRelative()) {
+            stack = ConfigUtils.getResolvedPath(path.getPath(), settings, node);
+        } else {
+            stack = path.getTokens();
+            if (!stack.isEmpty() && !path.hasWildcard() &&
+                    node == rootConfigNode && pathIndex != null) {
+                AbstractConfigNode found = pathIndex.get(path.getIndexPath());
+                // Single element paths can also refer to a child of the root node.
+                if (found != null || stack.size() > 1) {
+                    return found;
+                }
+            }
+        }
         if (stack != null && !stack.isEmpty()) {
             return node.find(stack, 0);
         }
         return null;
     }
 
+    /**
+     * Find the configuration node at the compiled path under the root node.
+     *
+     * @param path - Compiled path to search for.
+     * @return - Configuration Node or NULL.
+     * @throws ConfigurationException
+     */
+    public AbstractConfigNode find(ConfigPathExpression path)
+    throws ConfigurationException {
+        return find(rootConfigNode, path);
+    }
+
+    /**
+     * Search for all the nodes matching the specified path under the root node.
+     * Paths can contain wildcard (*) and recursive wildcard (**) elements.
+     * <p>
+     * Matches are evaluated lazily while the stream is consumed.
+     *
+     * @param path - Search path.
+     * @return - Stream of matched nodes.
+     * @throws ConfigurationException
+     * @see ConfigPathMatcher
+     */
+    public Stream<AbstractConfigNode> search(@Nonnull String path)
+    throws ConfigurationException {
+        Preconditions.checkState(rootConfigNode != null);
+        return compile(path).getMatcher().stream(rootConfigNode);
+    }
+
+    /**
+     * Get the compiled expression for the specified path. Compiled expressions
+     * are cached (bounded LRU) for this configuration instance.
+     *
+     * @param path - Path to compile.
+     * @return - Compiled path expression.
+     * @throws ConfigurationException
+     */
+    public ConfigPathExpression compile(String path)
+    throws ConfigurationException {
+        Preconditions.checkArgument(!Strings.isNullOrEmpty(path));
+        ConfigPathExpression expression = pathCache.getIfPresent(path);
+        if (expression == null) {
+            expression = ConfigPathExpression.compile(path, settings);
+            pathCache.put(path, expression);
+        }
+        return expression;
+    }
+
     /**
      * Find the configuration node at the specified path under the root node.
      * <p>
@@ -543,46 +788,53 @@ public class Configuration {
      * Get all the defined properties till this node. Properties are defined in scope an can be overridden by
      * subsequent nodes. This method will return a set of properties defined till the root node in this nodes
      * ancestor path.
+     * <p>
+     * Note: Creates a new (merged) properties node on every call, use
+     * {@link #resolvedScope(AbstractConfigNode)} to lookup property values.
      *
      * @param node - Node to get properties for.
      * @return - Aggregated properties set.
      */
     public ConfigPropertiesNode resolvedProperties(AbstractConfigNode node) {
-        Preconditions.checkArgument(node != null);
-        node = findParentPath(node);
-        if (node instanceof ConfigPathNode) {
-            ConfigPropertiesNode props = null;
-            ConfigPathNode cp = (ConfigPathNode) node;
-            ConfigPropertiesNode pn = cp.properties();
-            if (pn != null) {
-                props = pn.copy();
-            } else {
-                props = new ConfigPropertiesNode(this, cp);
-                props.setConfiguration(this);
-            }
-            if (node.getParent() != null) {
-                ConfigPropertiesNode pp = resolvedProperties(node.getParent());
-                if (pp != null && !pp.isEmpty()) {
-                    Map<String, ConfigValueNode> pmap = pp.getKeyValues();
-                    if (pmap != null && !pmap.isEmpty()) {
-                        if (!props.isEmpty()) {
-                            for (String key : pmap.keySet()) {
-                                if (!props.hasKey(key)) {
-                                    props.addKeyValue(key,
-                                                      pmap.get(key).getValue());
-                                }
-                            }
-                        } else {
-                            props.addAll(pmap);
-                        }
+        ConfigPropertyScope scope = resolvedScope(node);
+        if (scope != null) {
+            ConfigPathNode cp = findParentPath(node);
+            Map<String, ConfigValueNode> values = new HashMap<>();
+            while (scope != null) {
+                ConfigPropertiesNode pn = scope.getProperties();
+                if (pn != null && !pn.isEmpty()) {
+                    for (Map.Entry<String, ConfigValueNode> entry :
+                            pn.getKeyValues().entrySet()) {
+                        values.putIfAbsent(entry.getKey(), entry.getValue());
                     }
                 }
+                scope = scope.getParent();
             }
+            ConfigPropertiesNode props = new ConfigPropertiesNode(this, cp);
+            props.setName(settings.getPropertiesNodeName());
+            props.setKeyValues(values);
             return props;
         }
         return null;
     }
 
+    /**
+     * Get the property scope of the specified node. The scope resolves the
+     * properties defined for this node and in the ancestor path, without
+     * copying the property sets.
+     *
+     * @param node - Node to get the property scope for.
+     * @return - Property scope or NULL if not under a path node.
+     */
+    public ConfigPropertyScope resolvedScope(AbstractConfigNode node) {
+        Preconditions.checkArgument(node != null);
+        ConfigPathNode cp = findParentPath(node);
+        if (cp != null) {
+            return cp.getPropertyScope();
+        }
+        return null;
+    }
+
     /**
      * Find the closest ancestor node that is a Config Path node.
      *
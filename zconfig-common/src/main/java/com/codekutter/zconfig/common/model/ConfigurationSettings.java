@@ -77,6 +77,8 @@ public class ConfigurationSettings {
     private static final String DEFAULT_PROPS_NAME = "properties";
     private static final String DEFAULT_ATTR_NAME = "@";
     private static final String DEFAULT_PARAMS_NAME = "parameters";
+    private static final int DEFAULT_INCLUDE_THREADS = 4;
+    private static final long DEFAULT_INCLUDE_TIMEOUT = 60 * 1000;
     public static final String ARRAY_INDEX_REGEX = "^(\\w*)\\[(\\d*)\\]$";
     public static final String PARAM_NODE_CHAR = "#";
     public static final String PROP_NODE_CHAR = "$";
@@ -95,6 +97,14 @@ public class ConfigurationSettings {
     private EStartupOptions downloadRemoteFiles = EStartupOptions.OnStartUp;
     @ConfigValue(name = "shutdownOption")
     private EShutdownOptions clearTempFolder = EShutdownOptions.ReuseData;
+    @ConfigValue(name = "compactOnLoad")
+    private boolean compactOnLoad = true;
+    @ConfigValue(name = "includeThreads")
+    private int includeLoaderThreads = DEFAULT_INCLUDE_THREADS;
+    @ConfigValue(name = "includeTimeout")
+    private long includeLoadTimeout = DEFAULT_INCLUDE_TIMEOUT;
+    @ConfigValue(name = "prefetchResources")
+    private boolean prefetchResources = false;
 
     /**
      * Get the Properties Node name.
@@ -206,6 +216,83 @@ public class ConfigurationSettings {
         this.clearTempFolder = clearTempFolder;
     }
 
+    /**
+     * Convert loaded configurations to the compact node representation?
+     *
+     * @return - Compact on load?
+     */
+    public boolean isCompactOnLoad() {
+        return compactOnLoad;
+    }
+
+    /**
+     * Set option to convert loaded configurations to the compact node representation.
+     *
+     * @param compactOnLoad - Compact on load?
+     */
+    public void setCompactOnLoad(boolean compactOnLoad) {
+        this.compactOnLoad = compactOnLoad;
+    }
+
+    /**
+     * Get the number of threads used to load included configurations.
+     * Includes are loaded in the parsing thread if set to 1 or less.
+     *
+     * @return - Include loader threads.
+     */
+    public int getIncludeLoaderThreads() {
+        return includeLoaderThreads;
+    }
+
+    /**
+     * Set the number of threads used to load included configurations.
+     *
+     * @param includeLoaderThreads - Include loader threads.
+     */
+    public void setIncludeLoaderThreads(int includeLoaderThreads) {
+        this.includeLoaderThreads = includeLoaderThreads;
+    }
+
+    /**
+     * Get the timeout (in milliseconds) for loading all the included
+     * configurations of a configuration load.
+     *
+     * @return - Include load timeout.
+     */
+    public long getIncludeLoadTimeout() {
+        return includeLoadTimeout;
+    }
+
+    /**
+     * Set the timeout (in milliseconds) for loading all the included
+     * configurations of a configuration load.
+     *
+     * @param includeLoadTimeout - Include load timeout.
+     */
+    public void setIncludeLoadTimeout(long includeLoadTimeout) {
+        this.includeLoadTimeout = includeLoadTimeout;
+    }
+
+    /**
+     * Should remote resources (downloaded on demand) be prefetched in the
+     * background once the configuration is loaded?
+     *
+     * @return - Prefetch resources?
+     */
+    public boolean isPrefetchResources() {
+        return prefetchResources;
+    }
+
+    /**
+     * Set if remote resources (downloaded on demand) should be prefetched in
+     * the background once the configuration is loaded.
+     *
+     * @param prefetchResources - Prefetch resources?
+     */
+    public void setPrefetchResources(boolean prefetchResources) {
+        this.prefetchResources = prefetchResources;
+    }
+
     /**
      * Get the temp directory to store configuration temporary files.
      * Will attempt to create folder(s) if required.
@@ -0,0 +1,317 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ * Copyright (c) $year
+ * Date: 16/10/26 5:15 PM
+ * Subho Ghosh (subho dot ghosh at outlook.com)
+ *
+ */
+
+package com.codekutter.zconfig.common.model;
+
+import com.codekutter.zconfig.common.ConfigurationException;
+import com.codekutter.zconfig.common.model.nodes.*;
+import com.google.common.base.Preconditions;
+
+import javax.annotation.Nonnull;
+import java.util.*;
+
+/**
+ * Builds a new version (snapshot) of a loaded configuration using path copying.
+ * <p>
+ * The values of the source configuration are never modified: a node returned by
+ * {@link #edit(AbstractConfigNode)} is a copy, and so are all the nodes on the
+ * path from the root to it. Unchanged sub-trees are shared with the source
+ * configuration while the update is applied, the source can continue to be read.
+ * <p>
+ * Nodes reference their parent node and configuration, so shared nodes can't be
+ * re-parented without changing the source. When the snapshot is built the
+ * shared sub-trees are copied into the snapshot instead, nodes of a built
+ * snapshot are never shared with (or referenced by) another version.
+ * Snapshots should not be modified once built.
+ */
+public class ConfigurationSnapshotBuilder {
+    /**
+     * Configuration being updated.
+     */
+    private final Configuration source;
+    /**
+     * Updated copy of the configuration.
+     */
+    private final Configuration target;
+    /**
+     * Nodes copied for this snapshot (copy to source node), these can be
+     * modified in place.
+     */
+    private final Map<AbstractConfigNode, AbstractConfigNode> created =
+            new IdentityHashMap<>();
+
+    /**
+     * Constructor with the configuration to update.
+     *
+     * @param source - Loaded configuration.
+     */
+    public ConfigurationSnapshotBuilder(@Nonnull Configuration source) {
+        Preconditions.checkArgument(source != null);
+        Preconditions.checkArgument(source.getRootConfigNode() != null);
+
+        this.source = source;
+        this.target = source.copy();
+    }
+
+    /**
+     * Get the configuration being updated.
+     *
+     * @return - Source configuration.
+     */
+    public Configuration getSource() {
+        return source;
+    }
+
+    /**
+     * Get the updated configuration. Searches on the returned handle will
+     * include the changes applied so far.
+     *
+     * @return - Updated configuration.
+     */
+    public Configuration getConfiguration() {
+        return target;
+    }
+
+    /**
+     * Get an editable copy of the specified node. The node and its parent nodes
+     * are copied into the updated configuration (if not already copied).
+     * <p>
+     * Nodes are located by their path, so any node handle (from this or an
+     * earlier version) with the same path can be passed.
+     *
+     * @param node - Node to edit.
+     * @param <T>  - Node type.
+     * @return - Editable copy of the node.
+     * @throws ConfigurationException
+     */
+    @SuppressWarnings("unchecked")
+    public <T extends AbstractConfigNode> T edit(@Nonnull T node)
+    throws ConfigurationException {
+        Preconditions.checkArgument(node != null);
+        if (created.containsKey(node)) {
+            return node;
+        }
+        LinkedList<String> names = new LinkedList<>();
+        AbstractConfigNode pnode = node;
+        while (pnode != null) {
+            if (!(pnode instanceof ConfigIncludeNode)) {
+                names.addFirst(pnode.getName());
+            }
+            pnode = pnode.getParent();
+        }
+
+        ConfigPathNode root = target.getRootConfigNode();
+        if (root.getName().compareTo(names.removeFirst()) != 0) {
+            throw new ConfigurationException(String.format(
+                    "Node not found in configuration. [config=%s][path=%s]",
+                    target.getName(), node.getAbsolutePath()));
+        }
+        if (!created.containsKey(root)) {
+            ConfigPathNode copy = root.copy();
+            copy.setConfiguration(target);
+            target.setRootConfigNode(copy);
+            replaceIndex(root, copy);
+            created.put(copy, root);
+            root = copy;
+        }
+
+        AbstractConfigNode current = root;
+        for (String name : names) {
+            AbstractConfigNode child = getChild(current, name);
+            if (child == null) {
+                throw new ConfigurationException(String.format(
+                        "Node not found in configuration. [config=%s][path=%s]",
+                        target.getName(), node.getAbsolutePath()));
+            }
+            if (!created.containsKey(child)) {
+                AbstractConfigNode copy = child.copy();
+                copy.setConfiguration(target);
+                replaceChild(current, child, copy);
+                if (child.getParent() instanceof ConfigIncludeNode) {
+                    ConfigIncludeNode include =
+                            (ConfigIncludeNode) child.getParent().copy();
+                    include.setConfiguration(target);
+                    include.setParent(current);
+                    include.setNode((ConfigPathNode) copy);
+                } else {
+                    copy.setParent(current);
+                }
+                replaceIndex(child, copy);
+                created.put(copy, child);
+                child = copy;
+            }
+            current = child;
+        }
+        return (T) current;
+    }
+
+    /**
+     * Get the updated configuration snapshot. The shared sub-trees are copied
+     * into the snapshot, the source nodes are not modified.
+     * <p>
+     * Note: The builder should not be used once the snapshot has been built.
+     *
+     * @return - Updated configuration.
+     */
+    public Configuration build() {
+        ConfigPathNode root = target.getRootConfigNode();
+        if (created.containsKey(root)) {
+            attach(root);
+        } else {
+            root = (ConfigPathNode) root.copyTree(target, null);
+            target.setRootConfigNode(root);
+        }
+        ConfigPathIndex index = target.getPathIndex();
+        if (index != null) {
+            index.build(root);
+        }
+        return target;
+    }
+
+    /**
+     * Replace the shared child nodes of the copied node with copies attached to
+     * the snapshot.
+     *
+     * @param node - Node copied for this snapshot.
+     */
+    @SuppressWarnings("unchecked")
+    private void attach(AbstractConfigNode node) {
+        if (node instanceof ConfigPathNode) {
+            Map<String, AbstractConfigNode> children =
+                    ((ConfigPathNode) node).getChildren();
+            if (children != null) {
+                for (Map.Entry<String, AbstractConfigNode> entry :
+                        children.entrySet()) {
+                    entry.setValue(attach(entry.getValue(), node));
+                }
+            }
+        } else if (node instanceof ConfigKeyValueNode) {
+            Map<String, ConfigValueNode> values =
+                    ((ConfigKeyValueNode) node).getKeyValues();
+            if (values != null) {
+                for (Map.Entry<String, ConfigValueNode> entry : values.entrySet()) {
+                    entry.setValue((ConfigValueNode) attach(entry.getValue(), node));
+                }
+            }
+        } else if (node instanceof ConfigListNode) {
+            List<AbstractConfigNode> values =
+                    ((ConfigListNode<AbstractConfigNode>) node).getValues();
+            if (values != null) {
+                for (int ii = 0; ii < values.size(); ii++) {
+                    values.set(ii, attach(values.get(ii), node));
+                }
+            }
+        }
+    }
+
+    /**
+     * Attach the child node to the snapshot, shared nodes are copied.
+     *
+     * @param child  - Child node.
+     * @param parent - Parent node in the snapshot.
+     * @return - Child node in the snapshot.
+     */
+    private AbstractConfigNode attach(AbstractConfigNode child,
+                                      AbstractConfigNode parent) {
+        if (created.containsKey(child)) {
+            attach(child);
+            return child;
+        }
+        if (child.getParent() instanceof ConfigIncludeNode) {
+            ConfigIncludeNode include = (ConfigIncludeNode) child.getParent()
+                                                                 .copyTree(target,
+                                                                           parent);
+            return include.getNode();
+        }
+        return child.copyTree(target, parent);
+    }
+
+    /**
+     * Replace the node with its copy in the path index (if any).
+     *
+     * @param node - Source node.
+     * @param copy - Copied node.
+     */
+    private void replaceIndex(AbstractConfigNode node, AbstractConfigNode copy) {
+        ConfigPathIndex index = target.getPathIndex();
+        if (index != null) {
+            index.replace(node, copy);
+        }
+    }
+
+    /**
+     * Get the child node with the specified name.
+     *
+     * @param parent - Parent node.
+     * @param name   - Child node name.
+     * @return - Child node or NULL.
+     */
+    @SuppressWarnings("unchecked")
+    private AbstractConfigNode getChild(AbstractConfigNode parent, String name) {
+        if (parent instanceof ConfigPathNode) {
+            return ((ConfigPathNode) parent).getChildNode(name);
+        } else if (parent instanceof ConfigKeyValueNode) {
+            return ((ConfigKeyValueNode) parent).getValue(name);
+        } else if (parent instanceof ConfigListNode) {
+            List<AbstractConfigNode> values =
+                    ((ConfigListNode<AbstractConfigNode>) parent).getValues();
+            if (values != null) {
+                for (AbstractConfigNode value : values) {
+                    if (value.getName().compareTo(name) == 0) {
+                        return value;
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Replace the child node reference in the (copied) parent node.
+     *
+     * @param parent - Parent node copy.
+     * @param node   - Child node.
+     * @param copy   - Child node copy.
+     */
+    @SuppressWarnings("unchecked")
+    private void replaceChild(AbstractConfigNode parent, AbstractConfigNode node,
+                              AbstractConfigNode copy) {
+        if (parent instanceof ConfigPathNode) {
+            ((ConfigPathNode) parent).getChildren().put(node.getName(), copy);
+        } else if (parent instanceof ConfigKeyValueNode) {
+            ((ConfigKeyValueNode) parent).getKeyValues()
+                                         .put(node.getName(),
+                                              (ConfigValueNode) copy);
+        } else if (parent instanceof ConfigListNode) {
+            List<AbstractConfigNode> values =
+                    ((ConfigListNode<AbstractConfigNode>) parent).getValues();
+            for (int ii = 0; ii < values.size(); ii++) {
+                if (values.get(ii) == node) {
+                    values.set(ii, copy);
+                    break;
+                }
+            }
+        }
+    }
+}
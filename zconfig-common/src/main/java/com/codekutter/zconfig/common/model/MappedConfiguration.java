@@ -0,0 +1,523 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ * Copyright (c) $year
+ * Date: 17/10/26 8:20 PM
+ * Subho Ghosh (subho dot ghosh at outlook.com)
+ *
+ */
+
+package com.codekutter.zconfig.common.model;
+
+import com.codekutter.zconfig.common.BinaryConfigConstants;
+import com.codekutter.zconfig.common.ConfigurationException;
+import com.codekutter.zconfig.common.model.nodes.ConfigValueNode;
+import com.codekutter.zconfig.common.parsers.BinaryConfigParser;
+import com.codekutter.zconfig.common.readers.ConfigBufferReader;
+import com.codekutter.zconfig.common.utils.CypherUtils;
+import com.google.common.base.Preconditions;
+import com.google.common.base.Strings;
+import com.google.common.primitives.UnsignedBytes;
+
+import javax.annotation.Nonnull;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Read-only view of a configuration published to a {@link SharedConfigStore}.
+ * <p>
+ * The store file is memory mapped, node lookups and value reads are served by
+ * a binary search over the mapped entry table, only the values read are
+ * copied to the heap. The configuration node tree is not loaded unless
+ * requested using {@link #load(String)}.
+ * <p>
+ * Encrypted values are returned as stored (encrypted), use the loaded
+ * configuration to read decrypted values.
+ */
+public class MappedConfiguration implements Closeable {
+    /**
+     * Mapped store file.
+     */
+    private final File file;
+    /**
+     * File key and modified timestamp of the file when mapped.
+     */
+    private final Object fileKey;
+    private final long modified;
+    /**
+     * Configuration settings used to compile the search paths.
+     */
+    private final ConfigurationSettings settings;
+    /**
+     * Configuration name.
+     */
+    private final String name;
+    /**
+     * Version the configuration was loaded for.
+     */
+    private final Version version;
+    /**
+     * Content hash of the configuration source.
+     */
+    private final String sourceHash;
+    /**
+     * Included configurations (URI, content hash when published).
+     */
+    private final Map<URI, String> includes;
+    /**
+     * System properties/environment variables the values were resolved with.
+     */
+    private final List<String> variables;
+    /**
+     * Fingerprint of the variable values the configuration was published with.
+     */
+    private final String variablesHash;
+    /**
+     * Hash of the encryption key, NULL if the configuration isn't encrypted.
+     */
+    private final String encryptionHash;
+    /**
+     * Number of entries in the entry table.
+     */
+    private final int entryCount;
+    /**
+     * Offset of the entry table.
+     */
+    private final int entriesOffset;
+    /**
+     * Mapped file region, NULL once closed.
+     */
+    private volatile ByteBuffer buffer;
+
+    /**
+     * Map the specified store file (read-only).
+     *
+     * @param file     - Store file.
+     * @param settings - Configuration settings, NULL to use the defaults.
+     * @throws ConfigurationException
+     */
+    MappedConfiguration(@Nonnull File file, ConfigurationSettings settings)
+    throws ConfigurationException {
+        Preconditions.checkArgument(file != null);
+
+        this.file = file;
+        this.settings = (settings != null ? settings : new ConfigurationSettings());
+        try (FileChannel channel = FileChannel
+                .open(file.toPath(), StandardOpenOption.READ)) {
+            BasicFileAttributes attributes = Files.readAttributes(
+                    file.toPath(), BasicFileAttributes.class);
+            fileKey = attributes.fileKey();
+            modified = attributes.lastModifiedTime().toMillis();
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        } catch (IOException e) {
+            throw new ConfigurationException(e);
+        }
+        if (buffer.capacity() < BinaryConfigConstants.SHARED_OFFSET_NAME ||
+                buffer.getInt(BinaryConfigConstants.SHARED_OFFSET_MAGIC) !=
+                        BinaryConfigConstants.SHARED_MAGIC) {
+            throw new ConfigurationException(String.format(
+                    "Invalid shared configuration : Header not found. [file=%s]",
+                    file.getAbsolutePath()));
+        }
+        short format = buffer.getShort(BinaryConfigConstants.SHARED_OFFSET_FORMAT);
+        if (format != BinaryConfigConstants.SHARED_FORMAT_VERSION) {
+            throw new ConfigurationException(String.format(
+                    "Invalid shared configuration : Format not supported. [file=%s][format=%d]",
+                    file.getAbsolutePath(), format));
+        }
+        version = new Version(
+                buffer.getInt(BinaryConfigConstants.SHARED_OFFSET_MAJOR_VERSION),
+                buffer.getInt(BinaryConfigConstants.SHARED_OFFSET_MINOR_VERSION));
+        entryCount = buffer.getInt(BinaryConfigConstants.SHARED_OFFSET_ENTRY_COUNT);
+        entriesOffset = buffer.getInt(BinaryConfigConstants.SHARED_OFFSET_ENTRIES);
+
+        int offset = BinaryConfigConstants.SHARED_OFFSET_NAME;
+        int length = buffer.getInt(offset);
+        name = readString(buffer, offset + 4, length);
+        offset += 4 + length;
+        length = buffer.getInt(offset);
+        sourceHash = readString(buffer, offset + 4, length);
+        offset += 4 + length;
+        int count = buffer.getInt(offset);
+        offset += 4;
+        Map<URI, String> uris = new LinkedHashMap<>(count);
+        for (int ii = 0; ii < count; ii++) {
+            length = buffer.getInt(offset);
+            String uri = readString(buffer, offset + 4, length);
+            offset += 4 + length;
+            length = buffer.getInt(offset);
+            uris.put(URI.create(uri), readString(buffer, offset + 4, length));
+            offset += 4 + length;
+        }
+        includes = Collections.unmodifiableMap(uris);
+        count = buffer.getInt(offset);
+        offset += 4;
+        List<String> names = new ArrayList<>(count);
+        for (int ii = 0; ii < count; ii++) {
+            length = buffer.getInt(offset);
+            names.add(readString(buffer, offset + 4, length));
+            offset += 4 + length;
+        }
+        variables = Collections.unmodifiableList(names);
+        length = buffer.getInt(offset);
+        variablesHash = readString(buffer, offset + 4, length);
+        offset += 4 + length;
+        length = buffer.getInt(offset);
+        encryptionHash = (length >= 0 ? readString(buffer, offset + 4, length) :
+                null);
+    }
+
+    /**
+     * Get the mapped store file.
+     *
+     * @return - Store file.
+     */
+    public File getFile() {
+        return file;
+    }
+
+    /**
+     * Get the configuration name.
+     *
+     * @return - Configuration name.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Get the version the configuration was loaded for.
+     *
+     * @return - Configuration version.
+     */
+    public Version getVersion() {
+        return version;
+    }
+
+    /**
+     * Get the content hash of the configuration source.
+     *
+     * @return - Source content hash.
+     */
+    public String getSourceHash() {
+        return sourceHash;
+    }
+
+    /**
+     * Get the configurations included by the published configuration.
+     *
+     * @return - Include URIs and the content hash when published.
+     */
+    public Map<URI, String> getIncludes() {
+        return includes;
+    }
+
+    /**
+     * Get the System properties/environment variables the values of the
+     * configuration were resolved with.
+     *
+     * @return - Variable names.
+     */
+    public List<String> getVariables() {
+        return variables;
+    }
+
+    /**
+     * Get the fingerprint of the variable values the configuration was
+     * published with.
+     *
+     * @return - Variables fingerprint.
+     */
+    public String getVariablesHash() {
+        return variablesHash;
+    }
+
+    /**
+     * Get the hash of the encryption key.
+     *
+     * @return - Encryption hash, NULL if not encrypted.
+     */
+    public String getEncryptionHash() {
+        return encryptionHash;
+    }
+
+    /**
+     * Validate the passcode against the encryption hash of the published
+     * configuration.
+     *
+     * @param password - Password, if the configuration has encrypted values.
+     * @throws ConfigurationException - If the passcode doesn't match.
+     */
+    public void validatePasscode(String password) throws ConfigurationException {
+        if (encryptionHash == null) {
+            return;
+        }
+        if (Strings.isNullOrEmpty(password)) {
+            throw new ConfigurationException(String.format(
+                    "Configuration has encryption, but no passcode specified. [config=%s]",
+                    name));
+        }
+        try {
+            if (encryptionHash.compareTo(CypherUtils.getKeyHash(password)) != 0) {
+                throw new ConfigurationException(String.format(
+                        "Invalid Passcode: Doesn't match with passcode set in configuration. [config=%s]",
+                        name));
+            }
+        } catch (ConfigurationException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new ConfigurationException(e);
+        }
+    }
+
+    /**
+     * Get the number of indexed nodes.
+     *
+     * @return - Number of entries.
+     */
+    public int size() {
+        return entryCount;
+    }
+
+    /**
+     * Check if the store file is still the one mapped by this instance.
+     *
+     * @return - Is current?
+     */
+    boolean isCurrent() {
+        if (buffer == null) {
+            return false;
+        }
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(
+                    file.toPath(), BasicFileAttributes.class);
+            return Objects.equals(fileKey, attributes.fileKey()) &&
+                    attributes.lastModifiedTime().toMillis() == modified;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Check if a node exists at the specified path.
+     *
+     * @param path - Search path.
+     * @return - Node exists?
+     * @throws ConfigurationException
+     */
+    public boolean contains(@Nonnull String path) throws ConfigurationException {
+        return search(path) >= 0;
+    }
+
+    /**
+     * Get the value of the value node at the specified path.
+     *
+     * @param path - Search path.
+     * @return - Value or NULL if not a value node.
+     * @throws ConfigurationException
+     */
+    public String getValue(@Nonnull String path) throws ConfigurationException {
+        int entry = search(path);
+        if (entry >= 0) {
+            return readValue(buffer(), entry);
+        }
+        return null;
+    }
+
+    /**
+     * Check if the value at the specified path is encrypted.
+     *
+     * @param path - Search path.
+     * @return - Is encrypted?
+     * @throws ConfigurationException
+     */
+    public boolean isEncrypted(@Nonnull String path) throws ConfigurationException {
+        int entry = search(path);
+        return (entry >= 0 && getType(buffer(), entry) ==
+                BinaryConfigConstants.SHARED_ENTRY_ENCRYPTED);
+    }
+
+    /**
+     * Find the value node at the specified path. The returned node is a
+     * detached copy of the mapped value.
+     *
+     * @param path - Search path.
+     * @return - Value node or NULL if not a value node.
+     * @throws ConfigurationException
+     */
+    public ConfigValueNode find(@Nonnull String path)
+    throws ConfigurationException {
+        ByteBuffer buffer = buffer();
+        int entry = search(path);
+        if (entry >= 0) {
+            String value = readValue(buffer, entry);
+            if (value != null) {
+                ConfigValueNode node = new ConfigValueNode();
+                String[] parts = path.split(
+                        ConfigurationSettings.NODE_SEARCH_SEPERATOR);
+                node.setName(parts[parts.length - 1]);
+                node.setValue(value);
+                node.setEncrypted(getType(buffer, entry) ==
+                                          BinaryConfigConstants.SHARED_ENTRY_ENCRYPTED);
+                node.getState().setState(ENodeState.Synced);
+                return node;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Load the configuration node tree from the snapshot stored in the mapped
+     * file.
+     *
+     * @param password - Password, if the configuration has encrypted values.
+     * @return - Loaded configuration.
+     * @throws ConfigurationException
+     */
+    public Configuration load(String password) throws ConfigurationException {
+        ByteBuffer buffer = buffer();
+        int offset = buffer.getInt(BinaryConfigConstants.SHARED_OFFSET_SNAPSHOT);
+        int length = buffer.getInt(BinaryConfigConstants.SHARED_OFFSET_SNAPSHOT_LENGTH);
+        byte[] data = new byte[length];
+        ByteBuffer view = buffer.duplicate();
+        view.position(offset);
+        view.get(data);
+
+        try (ConfigBufferReader reader = new ConfigBufferReader(data);
+             BinaryConfigParser parser = new BinaryConfigParser()) {
+            parser.setSourceHash(sourceHash);
+            parser.parse(name, reader, settings, version, password);
+            return parser.getConfiguration();
+        } catch (IOException e) {
+            throw new ConfigurationException(e);
+        }
+    }
+
+    /**
+     * Release the mapped region.
+     */
+    @Override
+    public void close() {
+        buffer = null;
+    }
+
+    /**
+     * Get the mapped region.
+     *
+     * @return - Mapped buffer.
+     */
+    private ByteBuffer buffer() {
+        ByteBuffer buffer = this.buffer;
+        Preconditions.checkState(buffer != null,
+                                 "Shared configuration has been closed.");
+        return buffer;
+    }
+
+    /**
+     * Binary search the entry table for the specified path.
+     *
+     * @param path - Search path.
+     * @return - Entry index or -1 if not found.
+     * @throws ConfigurationException
+     */
+    private int search(String path) throws ConfigurationException {
+        Preconditions.checkArgument(!Strings.isNullOrEmpty(path));
+        ByteBuffer buffer = buffer();
+
+        ConfigPathExpression expression =
+                ConfigPathExpression.compile(path, settings);
+        if (expression.isRelative() || expression.hasWildcard()) {
+            throw new ConfigurationException(String.format(
+                    "Relative/wildcard paths not supported by shared configurations. [path=%s]",
+                    path));
+        }
+        byte[] key = expression.getIndexPath().getBytes(StandardCharsets.UTF_8);
+        int low = 0;
+        int high = entryCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int cmp = compare(buffer, mid, key);
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Compare the path of the entry with the search key (unsigned bytes).
+     *
+     * @param buffer - Mapped buffer.
+     * @param entry  - Entry index.
+     * @param key    - Search key.
+     * @return - Comparison result.
+     */
+    private int compare(ByteBuffer buffer, int entry, byte[] key) {
+        int base = entriesOffset + entry * BinaryConfigConstants.SHARED_ENTRY_SIZE;
+        int offset = buffer.getInt(base + 1);
+        int length = buffer.getInt(base + 5);
+        int count = Math.min(length, key.length);
+        for (int ii = 0; ii < count; ii++) {
+            int cmp = UnsignedBytes.compare(buffer.get(offset + ii), key[ii]);
+            if (cmp != 0) {
+                return cmp;
+            }
+        }
+        return length - key.length;
+    }
+
+    private byte getType(ByteBuffer buffer, int entry) {
+        return buffer.get(entriesOffset +
+                                  entry * BinaryConfigConstants.SHARED_ENTRY_SIZE);
+    }
+
+    private String readValue(ByteBuffer buffer, int entry) {
+        int base = entriesOffset + entry * BinaryConfigConstants.SHARED_ENTRY_SIZE;
+        int offset = buffer.getInt(base + 9);
+        if (offset < 0) {
+            return null;
+        }
+        return readString(buffer, offset, buffer.getInt(base + 13));
+    }
+
+    private static String readString(ByteBuffer buffer, int offset, int length) {
+        byte[] data = new byte[length];
+        ByteBuffer view = buffer.duplicate();
+        view.position(offset);
+        view.get(data);
+        return new String(data, StandardCharsets.UTF_8);
+    }
+}
@@ -26,12 +26,76 @@ package com.codekutter.zconfig.common.model;
 
 import com.codekutter.zconfig.common.AbstractState;
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.google.common.base.Preconditions;
+
+import javax.annotation.Nonnull;
 
 /**
  * State object used to represent the state of a configuration node.
  *
  */
 public class NodeState extends AbstractState<ENodeState> {
+    /**
+     * Shared (read-only) state instances, indexed by state ordinal.
+     */
+    private static final NodeState[] SHARED_STATES;
+
+    static {
+        ENodeState[] states = ENodeState.values();
+        SHARED_STATES = new NodeState[states.length];
+        for (ENodeState state : states) {
+            SHARED_STATES[state.ordinal()] = new SharedNodeState(state);
+        }
+    }
+
+    /**
+     * Read-only node state, shared by the nodes of compacted configurations.
+     */
+    private static final class SharedNodeState extends NodeState {
+        private SharedNodeState(ENodeState state) {
+            super.setState(state);
+        }
+
+        @Override
+        public void setState(ENodeState state) {
+            throw new UnsupportedOperationException(
+                    "Shared node state is read-only.");
+        }
+
+        @Override
+        public void setError(Throwable error) {
+            throw new UnsupportedOperationException(
+                    "Shared node state is read-only.");
+        }
+
+        @Override
+        public boolean isShared() {
+            return true;
+        }
+    }
+
+    /**
+     * Is this a shared (read-only) state instance?
+     *
+     * @return - Is shared?
+     */
+    @JsonIgnore
+    public boolean isShared() {
+        return false;
+    }
+
+    /**
+     * Get the shared (read-only) state instance for the specified state.
+     *
+     * @param state - Node state.
+     * @return - Shared state instance.
+     */
+    public static NodeState shared(@Nonnull ENodeState state) {
+        Preconditions.checkArgument(state != null);
+        Preconditions.checkArgument(state != ENodeState.Error);
+        return SHARED_STATES[state.ordinal()];
+    }
+
     /**
      * Is this a newly created node?
      *
@@ -0,0 +1,513 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ * Copyright (c) $year
+ * Date: 17/10/26 8:05 PM
+ * Subho Ghosh (subho dot ghosh at outlook.com)
+ *
+ */
+
+package com.codekutter.zconfig.common.model;
+
+import com.codekutter.zconfig.common.BinaryConfigConstants;
+import com.codekutter.zconfig.common.ConfigurationException;
+import com.codekutter.zconfig.common.LogUtils;
+import com.codekutter.zconfig.common.model.nodes.AbstractConfigNode;
+import com.codekutter.zconfig.common.model.nodes.ConfigIncludeNode;
+import com.codekutter.zconfig.common.model.nodes.ConfigValueNode;
+import com.codekutter.zconfig.common.utils.ConfigUtils;
+import com.codekutter.zconfig.common.utils.IOUtils;
+import com.codekutter.zconfig.common.writers.BinaryConfigWriter;
+import com.google.common.base.Preconditions;
+import com.google.common.base.Strings;
+import com.google.common.primitives.UnsignedBytes;
+
+import javax.annotation.Nonnull;
+import java.io.*;
+import java.net.URI;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.nio.file.attribute.UserPrincipal;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Host level store of loaded configurations, shared by the processes on the
+ * host using memory mapped files.
+ * <p>
+ * A loaded configuration is published once per host (the publish is
+ * serialized using a file lock), other processes map the published file
+ * read-only. See {@link MappedConfiguration} for reading the published values
+ * and {@link BinaryConfigConstants} for the file layout.
+ * <p>
+ * Published files are keyed by the configuration name and version, a
+ * published file is only used if the content hash of the configuration source,
+ * the content hashes of the included configurations and the fingerprint of the
+ * System properties/environment variables the values were resolved with match.
+ * <p>
+ * The store directory and files are only accessible by the owner (on POSIX
+ * file systems), a store directory owned by another user is rejected.
+ */
+public class SharedConfigStore {
+    /**
+     * Default store directory (under the temp directory).
+     */
+    public static final String DEFAULT_STORE_DIR = "zconfig/shared";
+
+    private static final Set<PosixFilePermission> DIRECTORY_PERMISSIONS =
+            PosixFilePermissions.fromString("rwx------");
+    private static final Set<PosixFilePermission> FILE_PERMISSIONS =
+            PosixFilePermissions.fromString("rw-------");
+
+    /**
+     * Locks serializing the publish of a store file within this process.
+     */
+    private static final Map<String, Object> __locks = new ConcurrentHashMap<>();
+
+    /**
+     * Store directory.
+     */
+    private final File directory;
+    /**
+     * Store files mapped by this store instance.
+     */
+    private final Map<String, MappedConfiguration> mapped =
+            new ConcurrentHashMap<>();
+
+    /**
+     * Default constructor - Use the default store directory.
+     */
+    public SharedConfigStore() {
+        this(new File(System.getProperty("java.io.tmpdir"), DEFAULT_STORE_DIR));
+    }
+
+    /**
+     * Constructor with the store directory.
+     *
+     * @param directory - Store directory.
+     */
+    public SharedConfigStore(@Nonnull File directory) {
+        Preconditions.checkArgument(directory != null);
+        this.directory = directory;
+    }
+
+    /**
+     * Get the store directory.
+     *
+     * @return - Store directory.
+     */
+    public File getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Get the store file for the specified configuration version.
+     *
+     * @param name    - Configuration name.
+     * @param version - Configuration version.
+     * @return - Store file.
+     */
+    public File getStoreFile(@Nonnull String name, @Nonnull Version version) {
+        Preconditions.checkArgument(!Strings.isNullOrEmpty(name));
+        Preconditions.checkArgument(version != null);
+
+        return new File(directory, String.format("%s_%d_%d%s", name,
+                                                 version.getMajorVersion(),
+                                                 version.getMinorVersion(),
+                                                 BinaryConfigConstants.SHARED_FILE_EXT));
+    }
+
+    /**
+     * Open the published configuration.
+     *
+     * @param name       - Configuration name.
+     * @param version    - Configuration version.
+     * @param sourceHash - Content hash of the configuration source.
+     * @param settings   - Configuration settings, NULL to use the defaults.
+     * @return - Mapped configuration or NULL if not published (or stale).
+     * @throws ConfigurationException
+     */
+    public MappedConfiguration open(@Nonnull String name, @Nonnull Version version,
+                                    @Nonnull String sourceHash,
+                                    ConfigurationSettings settings)
+    throws ConfigurationException {
+        Preconditions.checkArgument(!Strings.isNullOrEmpty(sourceHash));
+
+        File file = getStoreFile(name, version);
+        String key = file.getAbsolutePath();
+        MappedConfiguration configuration = mapped.get(key);
+        if (configuration == null || !configuration.isCurrent()) {
+            if (!file.exists()) {
+                return null;
+            }
+            checkDirectory();
+            configuration = new MappedConfiguration(file, settings);
+            mapped.put(key, configuration);
+        }
+        if (sourceHash.compareTo(configuration.getSourceHash()) != 0 ||
+                configuration.getVersion().getMajorVersion() !=
+                        version.getMajorVersion() ||
+                configuration.getVersion().getMinorVersion() !=
+                        version.getMinorVersion() ||
+                configuration.getVariablesHash().compareTo(
+                        ConfigUtils.getSystemVariablesHash(
+                                configuration.getVariables())) != 0 ||
+                !isIncludesCurrent(configuration)) {
+            LogUtils.debug(getClass(), String.format(
+                    "Shared configuration is stale. [file=%s]", key));
+            return null;
+        }
+        return configuration;
+    }
+
+    /**
+     * Check if the content of the configurations included by the published
+     * configuration is unchanged.
+     *
+     * @param configuration - Mapped configuration.
+     * @return - Is current?
+     */
+    private boolean isIncludesCurrent(MappedConfiguration configuration) {
+        for (Map.Entry<URI, String> include :
+                configuration.getIncludes().entrySet()) {
+            try {
+                String hash = IOUtils.getContentHash(
+                        IOUtils.readContent(include.getKey()));
+                if (hash.compareTo(include.getValue()) != 0) {
+                    return false;
+                }
+            } catch (ConfigurationException e) {
+                LogUtils.debug(getClass(), String.format(
+                        "Error reading included configuration. [URI=%s][error=%s]",
+                        include.getKey(), e.getLocalizedMessage()));
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Publish the loaded configuration to the store. The configuration is only
+     * written if not already published by another process.
+     *
+     * @param configuration - Loaded configuration.
+     * @param version       - Version the configuration was loaded for.
+     * @param sourceHash    - Content hash of the configuration source.
+     * @return - Mapped published configuration.
+     * @throws ConfigurationException
+     */
+    public MappedConfiguration publish(@Nonnull Configuration configuration,
+                                       @Nonnull Version version,
+                                       @Nonnull String sourceHash)
+    throws ConfigurationException {
+        Preconditions.checkArgument(configuration != null);
+        Preconditions.checkArgument(version != null);
+        Preconditions.checkArgument(!Strings.isNullOrEmpty(sourceHash));
+        Preconditions.checkState(configuration.getPathIndex() != null,
+                                 "Configuration not loaded.");
+
+        String name = configuration.getName();
+        ConfigurationSettings settings = configuration.getSettings();
+        File file = getStoreFile(name, version);
+        createDirectory();
+        File lockfile = new File(String.format("%s.lock", file.getAbsolutePath()));
+        synchronized (__locks.computeIfAbsent(file.getAbsolutePath(),
+                                              k -> new Object())) {
+            Set<StandardOpenOption> options =
+                    EnumSet.of(StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            try (FileChannel channel = (isPosix() ?
+                    FileChannel.open(lockfile.toPath(), options,
+                                     PosixFilePermissions.asFileAttribute(
+                                             FILE_PERMISSIONS)) :
+                    FileChannel.open(lockfile.toPath(), options));
+                 FileLock lock = channel.lock()) {
+                MappedConfiguration published =
+                        open(name, version, sourceHash, settings);
+                if (published != null) {
+                    return published;
+                }
+                write(configuration, version, sourceHash, file);
+                mapped.remove(file.getAbsolutePath());
+                LogUtils.debug(getClass(), String.format(
+                        "Published shared configuration. [name=%s][file=%s]",
+                        name, file.getAbsolutePath()));
+            } catch (IOException e) {
+                throw new ConfigurationException(e);
+            }
+        }
+        MappedConfiguration published = open(name, version, sourceHash, settings);
+        if (published == null) {
+            throw new ConfigurationException(String.format(
+                    "Error opening published configuration. [file=%s]",
+                    file.getAbsolutePath()));
+        }
+        return published;
+    }
+
+    /**
+     * Create the store directory (owner only access) if it doesn't exist.
+     *
+     * @throws ConfigurationException
+     */
+    private void createDirectory() throws ConfigurationException {
+        Path path = directory.toPath();
+        try {
+            if (!Files.exists(path)) {
+                if (isPosix()) {
+                    Path parent = path.toAbsolutePath().getParent();
+                    if (parent != null) {
+                        Files.createDirectories(parent);
+                    }
+                    try {
+                        Files.createDirectory(path,
+                                              PosixFilePermissions.asFileAttribute(
+                                                      DIRECTORY_PERMISSIONS));
+                    } catch (FileAlreadyExistsException e) {
+                        // Created concurrently, checked below.
+                    }
+                } else {
+                    Files.createDirectories(path);
+                }
+            }
+        } catch (IOException e) {
+            throw new ConfigurationException(String.format(
+                    "Error creating store directory. [path=%s][error=%s]",
+                    directory.getAbsolutePath(), e.getLocalizedMessage()));
+        }
+        checkDirectory();
+    }
+
+    /**
+     * Check the store directory is owned by the current user, access by other
+     * users is revoked if granted.
+     *
+     * @throws ConfigurationException - If owned by another user.
+     */
+    private void checkDirectory() throws ConfigurationException {
+        if (!isPosix()) {
+            return;
+        }
+        Path path = directory.toPath();
+        try {
+            UserPrincipal user = path.getFileSystem().getUserPrincipalLookupService()
+                                     .lookupPrincipalByName(
+                                             System.getProperty("user.name"));
+            if (!user.equals(Files.getOwner(path))) {
+                throw new ConfigurationException(String.format(
+                        "Invalid store directory : Not owned by the current user. [path=%s]",
+                        directory.getAbsolutePath()));
+            }
+            if (!DIRECTORY_PERMISSIONS.equals(Files.getPosixFilePermissions(path))) {
+                Files.setPosixFilePermissions(path, DIRECTORY_PERMISSIONS);
+            }
+        } catch (IOException e) {
+            throw new ConfigurationException(e);
+        }
+    }
+
+    private static boolean isPosix() {
+        return FileSystems.getDefault().supportedFileAttributeViews()
+                          .contains("posix");
+    }
+
+    /**
+     * Indexed node (search path, value).
+     */
+    private static final class Entry {
+        private final byte[] path;
+        private final byte type;
+        private final byte[] value;
+
+        private Entry(byte[] path, byte type, byte[] value) {
+            this.path = path;
+            this.type = type;
+            this.value = value;
+        }
+    }
+
+    /**
+     * Write the store file. The file is written to a temporary file and moved
+     * to the store file once complete, so that readers never map a partially
+     * written file.
+     *
+     * @param configuration - Loaded configuration.
+     * @param version       - Version the configuration was loaded for.
+     * @param sourceHash    - Content hash of the configuration source.
+     * @param outfile       - Store file.
+     * @throws ConfigurationException
+     * @throws IOException
+     */
+    private void write(Configuration configuration, Version version,
+                       String sourceHash, File outfile)
+    throws ConfigurationException, IOException {
+        List<Entry> entries = new ArrayList<>();
+        configuration.getPathIndex().forEach((path, node) -> {
+            Entry entry = getEntry(path, node);
+            if (entry != null) {
+                entries.add(entry);
+            }
+        });
+        Comparator<byte[]> comparator = UnsignedBytes.lexicographicalComparator();
+        entries.sort((e1, e2) -> comparator.compare(e1.path, e2.path));
+
+        byte[] name = configuration.getName().getBytes(StandardCharsets.UTF_8);
+        byte[] hash = sourceHash.getBytes(StandardCharsets.UTF_8);
+        Set<URI> uris = new LinkedHashSet<>();
+        ConfigUtils.collectIncludes(configuration.getRootConfigNode(), uris);
+        List<byte[]> includes = new ArrayList<>(uris.size() * 2);
+        int includesLength = 4;
+        for (URI uri : uris) {
+            byte[] iuri = uri.toString().getBytes(StandardCharsets.UTF_8);
+            byte[] ihash = IOUtils.getContentHash(IOUtils.readContent(uri))
+                                  .getBytes(StandardCharsets.UTF_8);
+            includes.add(iuri);
+            includes.add(ihash);
+            includesLength += 8 + iuri.length + ihash.length;
+        }
+        Map<String, String> resolved = configuration.getResolvedVariables();
+        List<byte[]> variables = new ArrayList<>(resolved.size());
+        int variablesLength = 0;
+        for (String variable : resolved.keySet()) {
+            byte[] data = variable.getBytes(StandardCharsets.UTF_8);
+            variables.add(data);
+            variablesLength += 4 + data.length;
+        }
+        byte[] variablesHash = ConfigUtils.getVariablesHash(resolved)
+                                          .getBytes(StandardCharsets.UTF_8);
+        byte[] encryptionHash = (configuration.getEncryptionHash() != null ?
+                configuration.getEncryptionHash().getBytes(StandardCharsets.UTF_8) :
+                null);
+        int entriesOffset = BinaryConfigConstants.SHARED_OFFSET_NAME + 20 +
+                name.length + hash.length + includesLength + variablesLength +
+                variablesHash.length +
+                (encryptionHash != null ? encryptionHash.length : 0);
+        int offset = entriesOffset +
+                entries.size() * BinaryConfigConstants.SHARED_ENTRY_SIZE;
+        for (Entry entry : entries) {
+            offset += entry.path.length;
+            if (entry.value != null) {
+                offset += entry.value.length;
+            }
+        }
+        ByteArrayOutputStream snapshot = new ByteArrayOutputStream();
+        new BinaryConfigWriter().write(configuration, snapshot, sourceHash,
+                                       version);
+
+        File tmpfile = new File(String.format("%s.%s.tmp", outfile.getAbsolutePath(),
+                                              UUID.randomUUID().toString()));
+        try {
+            if (isPosix()) {
+                Files.createFile(tmpfile.toPath(),
+                                 PosixFilePermissions.asFileAttribute(
+                                         FILE_PERMISSIONS));
+            }
+            try (DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(new FileOutputStream(tmpfile)))) {
+                out.writeInt(BinaryConfigConstants.SHARED_MAGIC);
+                out.writeShort(BinaryConfigConstants.SHARED_FORMAT_VERSION);
+                out.writeInt(version.getMajorVersion());
+                out.writeInt(version.getMinorVersion());
+                out.writeInt(entries.size());
+                out.writeInt(entriesOffset);
+                out.writeInt(offset);
+                out.writeInt(snapshot.size());
+                out.writeInt(name.length);
+                out.write(name);
+                out.writeInt(hash.length);
+                out.write(hash);
+                out.writeInt(uris.size());
+                for (byte[] include : includes) {
+                    out.writeInt(include.length);
+                    out.write(include);
+                }
+                out.writeInt(variables.size());
+                for (byte[] variable : variables) {
+                    out.writeInt(variable.length);
+                    out.write(variable);
+                }
+                out.writeInt(variablesHash.length);
+                out.write(variablesHash);
+                if (encryptionHash != null) {
+                    out.writeInt(encryptionHash.length);
+                    out.write(encryptionHash);
+                } else {
+                    out.writeInt(-1);
+                }
+
+                int data = entriesOffset +
+                        entries.size() * BinaryConfigConstants.SHARED_ENTRY_SIZE;
+                for (Entry entry : entries) {
+                    out.writeByte(entry.type);
+                    out.writeInt(data);
+                    out.writeInt(entry.path.length);
+                    data += entry.path.length;
+                    if (entry.value != null) {
+                        out.writeInt(data);
+                        out.writeInt(entry.value.length);
+                        data += entry.value.length;
+                    } else {
+                        out.writeInt(-1);
+                        out.writeInt(0);
+                    }
+                }
+                for (Entry entry : entries) {
+                    out.write(entry.path);
+                    if (entry.value != null) {
+                        out.write(entry.value);
+                    }
+                }
+                snapshot.writeTo(out);
+            }
+            IOUtils.moveFile(tmpfile, outfile);
+        } finally {
+            if (tmpfile.exists() && !tmpfile.delete()) {
+                tmpfile.deleteOnExit();
+            }
+        }
+    }
+
+    /**
+     * Get the store entry for the indexed node.
+     *
+     * @param path - Search path.
+     * @param node - Indexed node.
+     * @return - Store entry or NULL if not stored.
+     */
+    private static Entry getEntry(String path, AbstractConfigNode node) {
+        if (node instanceof ConfigIncludeNode) {
+            return null;
+        }
+        byte[] key = path.getBytes(StandardCharsets.UTF_8);
+        if (node instanceof ConfigValueNode) {
+            ConfigValueNode vn = (ConfigValueNode) node;
+            byte type = (vn.isEncrypted() ?
+                    BinaryConfigConstants.SHARED_ENTRY_ENCRYPTED :
+                    BinaryConfigConstants.SHARED_ENTRY_VALUE);
+            String value = vn.getValue();
+            return new Entry(key, type,
+                             (value != null ?
+                                     value.getBytes(StandardCharsets.UTF_8) :
+                                     null));
+        }
+        return new Entry(key, BinaryConfigConstants.SHARED_ENTRY_NODE, null);
+    }
+}
@@ -25,10 +25,10 @@
 package com.codekutter.zconfig.common.model.annotations.transformers;
 
 import com.google.common.base.Strings;
+import com.codekutter.zconfig.common.DateTimeUtils;
 import com.codekutter.zconfig.common.GlobalConstants;
 import com.codekutter.zconfig.common.model.annotations.ITransformer;
 import org.joda.time.DateTime;
-import org.joda.time.format.DateTimeFormat;
 import org.joda.time.format.DateTimeFormatter;
 
 
@@ -48,7 +48,7 @@ public class JodaTimeTransformer implements ITransformer<DateTime, String> {
     @Override
     public DateTime transform(String source) throws TransformationException {
         if (!Strings.isNullOrEmpty(source)) {
-            DateTimeFormatter formatter = DateTimeFormat.forPattern(dateFormat);
+            DateTimeFormatter formatter = DateTimeUtils.getFormatter(dateFormat);
             return formatter.parseDateTime(source);
         }
         return null;
@@ -64,7 +64,7 @@ public class JodaTimeTransformer implements ITransformer<DateTime, String> {
     @Override
     public String reverse(DateTime source) throws TransformationException {
         if (source != null) {
-            DateTimeFormatter formatter = DateTimeFormat.forPattern(dateFormat);
+            DateTimeFormatter formatter = DateTimeUtils.getFormatter(dateFormat);
             return source.toString(formatter);
         }
         return null;
@@ -25,6 +25,8 @@
 package com.codekutter.zconfig.common.model.nodes;
 
 import com.codekutter.zconfig.common.ConfigurationException;
+import com.codekutter.zconfig.common.model.ConfigPathExpression;
+import com.codekutter.zconfig.common.model.ConfigPathIndex;
 import com.codekutter.zconfig.common.model.Configuration;
 import com.codekutter.zconfig.common.model.ConfigurationSettings;
 import com.codekutter.zconfig.common.utils.ConfigUtils;
@@ -36,12 +38,38 @@ import com.codekutter.zconfig.common.model.NodeState;
 
 import javax.annotation.Nonnull;
 import java.util.ArrayList;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 
 /**
  * Abstract base node for defining configuration elements.
  */
-public abstract class AbstractConfigNode {
+public abstract class AbstractConfigNode implements Cloneable {
+    /**
+     * Computed node path, cached with the parent path it was computed from.
+     */
+    private static final class CachedPath {
+        /**
+         * Computed node path.
+         */
+        private final String path;
+        /**
+         * Parent path used to compute the node path.
+         */
+        private final String parentPath;
+
+        private CachedPath(String path, String parentPath) {
+            this.path = path;
+            this.parentPath = parentPath;
+        }
+
+        private boolean isValid(String parentPath) {
+            return Objects.equals(this.parentPath, parentPath);
+        }
+    }
+
     /**
      * Represents the local state of this configuration node instance.
      */
@@ -65,6 +93,16 @@ public abstract class AbstractConfigNode {
      * Note: Name must be unique for a path.
      */
     private String name;
+    /**
+     * Cached absolute path of this node.
+     */
+    @JsonIgnore
+    private volatile CachedPath absolutePath = null;
+    /**
+     * Cached search path of this node.
+     */
+    @JsonIgnore
+    private volatile CachedPath searchPath = null;
 
 
     /**
@@ -109,6 +147,23 @@ public abstract class AbstractConfigNode {
         return state;
     }
 
+    /**
+     * Get the state handle to update, a shared state (compacted nodes) is
+     * replaced by a node local copy.
+     *
+     * @return - Node local state handle.
+     */
+    protected NodeState mutableState() {
+        if (state == null) {
+            state = new NodeState();
+        } else if (state.isShared()) {
+            NodeState ns = new NodeState();
+            ns.setState(state.getState());
+            state = ns;
+        }
+        return state;
+    }
+
     /**
      * Get the name of this configuration node.
      *
@@ -137,6 +192,107 @@ public abstract class AbstractConfigNode {
         this.configuration = configuration;
     }
 
+    /**
+     * Get the path index of the configuration this node belongs to.
+     *
+     * @return - Path index or NULL if the configuration isn't loaded.
+     */
+    protected ConfigPathIndex getPathIndex() {
+        if (configuration != null) {
+            return configuration.getPathIndex();
+        }
+        return null;
+    }
+
+    /**
+     * Create a shallow copy of this node. Child nodes are not copied, the
+     * copy references the same child node instances as this node.
+     * <p>
+     * Used to build copy-on-write configuration snapshots.
+     *
+     * @return - Copy of this node.
+     */
+    public AbstractConfigNode copy() {
+        try {
+            AbstractConfigNode node = (AbstractConfigNode) super.clone();
+            node.state = new NodeState();
+            node.state.setState(state.getState());
+            return node;
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Create a deep copy of this node, the child nodes are copied as well.
+     * The copied nodes are assigned to the specified configuration.
+     * <p>
+     * Used to attach copies of cached (included) configuration trees.
+     *
+     * @param configuration - Configuration the copied nodes belong to.
+     * @param parent        - Parent node of the copy.
+     * @return - Copy of this node.
+     */
+    public AbstractConfigNode copyTree(Configuration configuration,
+                                       AbstractConfigNode parent) {
+        return copyTree(configuration, parent, new IdentityHashMap<>());
+    }
+
+    /**
+     * Create a deep copy of this node, nodes that are referenced more than
+     * once (included nodes) are only copied once.
+     *
+     * @param configuration - Configuration the copied nodes belong to.
+     * @param parent        - Parent node of the copy.
+     * @param copies        - Nodes copied so far (source node to copy).
+     * @return - Copy of this node.
+     */
+    protected AbstractConfigNode copyTree(Configuration configuration,
+                                          AbstractConfigNode parent,
+                                          Map<AbstractConfigNode, AbstractConfigNode> copies) {
+        AbstractConfigNode node = copies.get(this);
+        if (node == null) {
+            node = copy();
+            node.configuration = configuration;
+            node.setParent(parent);
+            copies.put(this, node);
+            copyChildren(node, copies);
+        }
+        return node;
+    }
+
+    /**
+     * Replace the child nodes shared by the (shallow) copy of this node with
+     * copies of the child nodes.
+     *
+     * @param node   - Copy of this node.
+     * @param copies - Nodes copied so far (source node to copy).
+     */
+    protected void copyChildren(AbstractConfigNode node,
+                                Map<AbstractConfigNode, AbstractConfigNode> copies) {
+        // Nothing to copy by default.
+    }
+
+    /**
+     * Copy a child node of this node. The copy is attached to the copy of the
+     * child's parent if already copied, else to the specified node.
+     *
+     * @param child  - Child node to copy.
+     * @param node   - Copy of this node.
+     * @param copies - Nodes copied so far (source node to copy).
+     * @return - Copy of the child node.
+     */
+    protected static AbstractConfigNode copyChild(AbstractConfigNode child,
+                                                  AbstractConfigNode node,
+                                                  Map<AbstractConfigNode, AbstractConfigNode> copies) {
+        AbstractConfigNode parent = child.getParent();
+        if (parent != null) {
+            AbstractConfigNode pcopy = copies.get(parent);
+            parent = (pcopy != null ? pcopy : node);
+        }
+        return child.copyTree(node.getConfiguration(), parent, copies);
+    }
+
     /**
      * Set the name of this configuration node.
      *
@@ -149,6 +305,7 @@ public abstract class AbstractConfigNode {
                     "Invalid name string. Name cannot contain (.) or (/)");
         }
         this.name = name;
+        invalidatePaths();
     }
 
     /**
@@ -167,41 +324,86 @@ public abstract class AbstractConfigNode {
      */
     public void setParent(AbstractConfigNode parent) {
         this.parent = parent;
+        invalidatePaths();
     }
 
     /**
      * Get the path of this node relative to the root node. Path is represented in the Unix
      * path format.
+     * <p>
+     * Paths are cached, the cached path is re-computed if the parent path changes.
      *
      * @return - Path string.
      */
     public String getAbsolutePath() {
+        String ppath = (parent != null ? parent.getAbsolutePath() : null);
+        CachedPath cached = absolutePath;
+        if (cached != null && cached.isValid(ppath)) {
+            return cached.path;
+        }
         String path = null;
-        if (parent != null) {
-            path = parent.getAbsolutePath();
-            path = String.format("%s/%s", path, name);
+        if (ppath != null) {
+            path = ppath + ConfigurationSettings.NODE_SEARCH_SEPERATOR + name;
         } else {
-            path = String.format("/%s", name);
+            path = ConfigurationSettings.NODE_SEARCH_SEPERATOR + name;
         }
+        path = intern(path);
+        absolutePath = new CachedPath(path, ppath);
         return path;
     }
 
     /**
      * Get the Search path to reach this node.
+     * <p>
+     * Paths are cached, the cached path is re-computed if the parent path changes.
      *
      * @return - Node search path.
      */
     public String getSearchPath() {
-        String path = null;
-        if (parent != null) {
-            path = parent.getSearchPath();
-            path = String.format("%s/%s", path, name);
-        } else {
-            path = String.format("%s", name);
+        String ppath = (parent != null ? parent.getSearchPath() : null);
+        CachedPath cached = searchPath;
+        if (cached != null && cached.isValid(ppath)) {
+            return cached.path;
         }
+        String path = intern(buildSearchPath(ppath));
+        searchPath = new CachedPath(path, ppath);
         return path;
     }
 
+    /**
+     * Build the search path of this node.
+     *
+     * @param parentPath - Search path of the parent node (NULL for root).
+     * @return - Node search path.
+     */
+    protected String buildSearchPath(String parentPath) {
+        if (parentPath != null) {
+            return parentPath + ConfigurationSettings.NODE_SEARCH_SEPERATOR + name;
+        }
+        return name;
+    }
+
+    /**
+     * Clear the cached paths of this node.
+     */
+    protected void invalidatePaths() {
+        absolutePath = null;
+        searchPath = null;
+    }
+
+    /**
+     * Intern the string in the configuration string pool.
+     *
+     * @param value - Name/Path string.
+     * @return - Interned string.
+     */
+    protected String intern(String value) {
+        if (configuration != null) {
+            return configuration.intern(value);
+        }
+        return value;
+    }
+
     /**
      * Override default toString().
      *
@@ -233,15 +435,28 @@ public abstract class AbstractConfigNode {
             path = String.format("%s%s", getName(), path);
         }
 
-        List<String> stack =
-                ConfigUtils.getResolvedPath(path, getConfiguration().getSettings(),
-                                            this);
-        if (stack != null && !stack.isEmpty()) {
-            String node = stack.get(0);
-            if (node.compareTo(getName()) != 0) {
-                stack.add(0, getName());
+        ConfigPathExpression expression = configuration.compile(path);
+        if (expression.isRelative()) {
+            List<String> stack =
+                    ConfigUtils.getResolvedPath(path,
+                                                getConfiguration().getSettings(),
+                                                this);
+            if (stack != null && !stack.isEmpty()) {
+                String node = stack.get(0);
+                if (node.compareTo(getName()) != 0) {
+                    stack.add(0, getName());
+                }
+                return find(stack, 0);
+            }
+        } else {
+            List<String> stack = expression.getTokens();
+            if (stack != null && !stack.isEmpty()) {
+                String node = stack.get(0);
+                if (node.compareTo(getName()) != 0) {
+                    stack = expression.prepend(getName());
+                }
+                return find(stack, 0);
             }
-            return find(stack, 0);
         }
         return null;
     }
@@ -260,7 +475,7 @@ public abstract class AbstractConfigNode {
      */
     protected void updated() {
         if (state.isSynced()) {
-            this.state.setState(ENodeState.Updated);
+            mutableState().setState(ENodeState.Updated);
         }
     }
 
@@ -269,10 +484,10 @@ public abstract class AbstractConfigNode {
      */
     protected boolean deleted() {
         if (state.isSynced()) {
-            this.state.setState(ENodeState.Deleted);
+            mutableState().setState(ENodeState.Deleted);
             return true;
         } else if (state.isUpdated()) {
-            this.state.setState(ENodeState.Deleted);
+            mutableState().setState(ENodeState.Deleted);
             return true;
         }
         return false;
@@ -282,10 +497,7 @@ public abstract class AbstractConfigNode {
      * Mark this node is being loaded.
      */
     public void loading() {
-        if (state == null) {
-            state = new NodeState();
-        }
-        state.setState(ENodeState.Loading);
+        mutableState().setState(ENodeState.Loading);
     }
 
     /**
@@ -293,7 +505,22 @@ public abstract class AbstractConfigNode {
      */
     public void synced() {
         Preconditions.checkNotNull(state);
-        state.setState(ENodeState.Synced);
+        mutableState().setState(ENodeState.Synced);
+    }
+
+    /**
+     * Convert this node to the compact (loaded) representation: the node
+     * name is pooled and the node state replaced by the shared state instance.
+     * <p>
+     * Sub-classes compact the child node collections and the child nodes.
+     */
+    public void compact() {
+        if (name != null) {
+            name = intern(name);
+        }
+        if (state != null && !state.hasError()) {
+            state = NodeState.shared(state.getState());
+        }
     }
 
 
@@ -0,0 +1,296 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ * Copyright (c) $year
+ * Date: 17/10/26 10:20 AM
+ * Subho Ghosh (subho dot ghosh at outlook.com)
+ *
+ */
+
+package com.codekutter.zconfig.common.model.nodes;
+
+import com.google.common.base.Preconditions;
+
+import javax.annotation.Nonnull;
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Compact map of node name to node, used for the child nodes of loaded
+ * (compacted) configurations.
+ * <p>
+ * Entries are stored in sorted parallel arrays sized to fit, lookups are binary
+ * searches. No per-entry objects are allocated. The map is mutable, but inserts
+ * and removes copy the arrays, it is not meant for frequently modified nodes.
+ * <p>
+ * Note: Iteration order is the sorted key order. NULL keys are not supported.
+ *
+ * @param <V> - Node type.
+ */
+public final class CompactNodeMap<V> extends AbstractMap<String, V> {
+    private static final String[] EMPTY_KEYS = new String[0];
+    private static final Object[] EMPTY_VALUES = new Object[0];
+
+    /**
+     * Sorted node names.
+     */
+    private String[] keys = EMPTY_KEYS;
+    /**
+     * Nodes, in the same order as the names.
+     */
+    private Object[] values = EMPTY_VALUES;
+    /**
+     * Structural modification count (for fail-fast iterators).
+     */
+    private int modCount = 0;
+
+    /**
+     * Default constructor - Empty map.
+     */
+    public CompactNodeMap() {
+    }
+
+    /**
+     * Create a compact copy of the specified map.
+     *
+     * @param source - Map to copy.
+     * @param pool   - Function used to pool the key strings.
+     */
+    public CompactNodeMap(@Nonnull Map<String, ? extends V> source,
+                          @Nonnull Function<String, String> pool) {
+        Preconditions.checkArgument(source != null);
+        Preconditions.checkArgument(pool != null);
+
+        int size = source.size();
+        if (size > 0) {
+            String[] keys = new String[size];
+            int ii = 0;
+            for (String key : source.keySet()) {
+                Preconditions.checkArgument(key != null);
+                keys[ii++] = pool.apply(key);
+            }
+            Arrays.sort(keys);
+            Object[] values = new Object[size];
+            for (ii = 0; ii < size; ii++) {
+                values[ii] = source.get(keys[ii]);
+            }
+            this.keys = keys;
+            this.values = values;
+        }
+    }
+
+    /**
+     * Get a compact copy of the specified map. The passed map is returned as-is
+     * if already compact or if it cannot be compacted (contains a NULL key).
+     *
+     * @param source - Map to compact.
+     * @param pool   - Function used to pool the key strings.
+     * @param <V>    - Node type.
+     * @return - Compact map.
+     */
+    public static <V> Map<String, V> compact(@Nonnull Map<String, V> source,
+                                             @Nonnull Function<String, String> pool) {
+        Preconditions.checkArgument(source != null);
+        if (source instanceof CompactNodeMap || source.containsKey(null)) {
+            return source;
+        }
+        return new CompactNodeMap<>(source, pool);
+    }
+
+    /**
+     * Get the index of the key in the sorted key array.
+     *
+     * @param key - Key to search for.
+     * @return - Index if found, else (-(insertion point) - 1).
+     */
+    private int indexOf(Object key) {
+        if (!(key instanceof String)) {
+            return -1;
+        }
+        return Arrays.binarySearch(keys, key);
+    }
+
+    @Override
+    public int size() {
+        return keys.length;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return indexOf(key) >= 0;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V get(Object key) {
+        int index = indexOf(key);
+        if (index >= 0) {
+            return (V) values[index];
+        }
+        return null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V put(@Nonnull String key, V value) {
+        Preconditions.checkArgument(key != null);
+        int index = Arrays.binarySearch(keys, key);
+        if (index >= 0) {
+            V prev = (V) values[index];
+            values[index] = value;
+            return prev;
+        }
+        index = -(index + 1);
+        int size = keys.length;
+        String[] nkeys = new String[size + 1];
+        Object[] nvalues = new Object[size + 1];
+        System.arraycopy(keys, 0, nkeys, 0, index);
+        System.arraycopy(values, 0, nvalues, 0, index);
+        nkeys[index] = key;
+        nvalues[index] = value;
+        System.arraycopy(keys, index, nkeys, index + 1, size - index);
+        System.arraycopy(values, index, nvalues, index + 1, size - index);
+        keys = nkeys;
+        values = nvalues;
+        modCount++;
+        return null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V remove(Object key) {
+        int index = indexOf(key);
+        if (index < 0) {
+            return null;
+        }
+        V prev = (V) values[index];
+        removeAt(index);
+        return prev;
+    }
+
+    /**
+     * Remove the entry at the specified index.
+     *
+     * @param index - Entry index.
+     */
+    private void removeAt(int index) {
+        int size = keys.length;
+        if (size == 1) {
+            keys = EMPTY_KEYS;
+            values = EMPTY_VALUES;
+        } else {
+            String[] nkeys = new String[size - 1];
+            Object[] nvalues = new Object[size - 1];
+            System.arraycopy(keys, 0, nkeys, 0, index);
+            System.arraycopy(values, 0, nvalues, 0, index);
+            System.arraycopy(keys, index + 1, nkeys, index, size - index - 1);
+            System.arraycopy(values, index + 1, nvalues, index, size - index - 1);
+            keys = nkeys;
+            values = nvalues;
+        }
+        modCount++;
+    }
+
+    @Override
+    public void clear() {
+        keys = EMPTY_KEYS;
+        values = EMPTY_VALUES;
+        modCount++;
+    }
+
+    @Override
+    public Set<Entry<String, V>> entrySet() {
+        return new AbstractSet<Entry<String, V>>() {
+            @Override
+            public Iterator<Entry<String, V>> iterator() {
+                return new EntryIterator();
+            }
+
+            @Override
+            public int size() {
+                return keys.length;
+            }
+        };
+    }
+
+    /**
+     * Iterator over the map entries, entries are created on access.
+     */
+    private final class EntryIterator implements Iterator<Entry<String, V>> {
+        private int next = 0;
+        private int last = -1;
+        private int expectedModCount = modCount;
+
+        @Override
+        public boolean hasNext() {
+            return next < keys.length;
+        }
+
+        @Override
+        public Entry<String, V> next() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (next >= keys.length) {
+                throw new NoSuchElementException();
+            }
+            last = next++;
+            return new NodeEntry(last);
+        }
+
+        @Override
+        public void remove() {
+            if (last < 0) {
+                throw new IllegalStateException();
+            }
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            removeAt(last);
+            next = last;
+            last = -1;
+            expectedModCount = modCount;
+        }
+    }
+
+    /**
+     * Map entry view, writes through to the map.
+     */
+    private final class NodeEntry extends SimpleEntry<String, V> {
+        private final int index;
+        private final Object[] array;
+
+        @SuppressWarnings("unchecked")
+        private NodeEntry(int index) {
+            super(keys[index], (V) values[index]);
+            this.index = index;
+            this.array = values;
+        }
+
+        @Override
+        public V setValue(V value) {
+            V prev = super.setValue(value);
+            if (array == values) {
+                values[index] = value;
+            } else {
+                put(getKey(), value);
+            }
+            return prev;
+        }
+    }
+}
@@ -35,6 +35,7 @@ import com.codekutter.zconfig.common.model.Version;
 import java.io.File;
 import java.net.URI;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Configuration node that represents an external configuration set to be included
@@ -161,6 +162,7 @@ public class ConfigIncludeNode extends ConfigElementNode {
         Preconditions.checkArgument(node != null);
         this.node = node;
         this.node.setParent(this);
+        invalidatePaths();
     }
 
     /**
@@ -218,12 +220,40 @@ public class ConfigIncludeNode extends ConfigElementNode {
      */
     @Override
     public void updateState(ENodeState state) {
-        getState().setState(state);
+        mutableState().setState(state);
         if (node != null) {
             node.updateState(state);
         }
     }
 
+    /**
+     * Copy the included configuration node into the copied include node.
+     *
+     * @param node   - Copy of this node.
+     * @param copies - Nodes copied so far (source node to copy).
+     */
+    @Override
+    protected void copyChildren(AbstractConfigNode node,
+                                Map<AbstractConfigNode, AbstractConfigNode> copies) {
+        if (this.node != null) {
+            ConfigIncludeNode inode = (ConfigIncludeNode) node;
+            inode.setNode((ConfigPathNode) this.node.copyTree(
+                    node.getConfiguration(), node, copies));
+        }
+    }
+
+    /**
+     * Convert this node and the included configuration node to the compact
+     * representation.
+     */
+    @Override
+    public void compact() {
+        super.compact();
+        if (node != null) {
+            node.compact();
+        }
+    }
+
     /**
      * Get the URI for this reader type/path.
      *
@@ -298,15 +328,15 @@ public class ConfigIncludeNode extends ConfigElementNode {
     }
 
     /**
-     * Get the Search path to reach this node.
+     * Build the Search path to reach this node.
      *
+     * @param parentPath - Search path of the parent node.
      * @return - Node search path.
      */
     @Override
-    public String getSearchPath() {
-        Preconditions.checkNotNull(getParent());
+    protected String buildSearchPath(String parentPath) {
+        Preconditions.checkNotNull(parentPath);
         Preconditions.checkNotNull(node);
-        String path = getParent().getSearchPath();
-        return String.format("%s.%s", path, node.getName());
+        return parentPath + "." + node.getName();
     }
 }
@@ -25,6 +25,7 @@
 package com.codekutter.zconfig.common.model.nodes;
 
 import com.codekutter.zconfig.common.ConfigurationException;
+import com.codekutter.zconfig.common.model.ConfigPathIndex;
 import com.codekutter.zconfig.common.model.Configuration;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.google.common.base.Preconditions;
@@ -79,7 +80,18 @@ public abstract class ConfigKeyValueNode extends ConfigElementNode {
      */
     public void setKeyValues(Map<String, ConfigValueNode> keyValues) {
         updated();
+        ConfigPathIndex index = getPathIndex();
+        if (index != null && this.keyValues != null) {
+            for (ConfigValueNode node : this.keyValues.values()) {
+                index.remove(this, node);
+            }
+        }
         this.keyValues = keyValues;
+        if (index != null && keyValues != null) {
+            for (ConfigValueNode node : keyValues.values()) {
+                index.add(this, node);
+            }
+        }
     }
 
     /**
@@ -133,6 +145,46 @@ public abstract class ConfigKeyValueNode extends ConfigElementNode {
             } else {
                 keyValues.putAll(map);
             }
+            ConfigPathIndex index = getPathIndex();
+            if (index != null) {
+                for (ConfigValueNode node : map.values()) {
+                    index.add(this, node);
+                }
+            }
+        }
+    }
+
+    /**
+     * Create a shallow copy of this node, the key/value map is copied
+     * but the value nodes are shared.
+     *
+     * @return - Copy of this node.
+     */
+    @Override
+    public ConfigKeyValueNode copy() {
+        ConfigKeyValueNode node = (ConfigKeyValueNode) super.copy();
+        if (keyValues != null) {
+            node.keyValues = new HashMap<>(keyValues);
+        }
+        return node;
+    }
+
+    /**
+     * Copy the value nodes into the copied key/value node.
+     *
+     * @param node   - Copy of this node.
+     * @param copies - Nodes copied so far (source node to copy).
+     */
+    @Override
+    protected void copyChildren(AbstractConfigNode node,
+                                Map<AbstractConfigNode, AbstractConfigNode> copies) {
+        if (keyValues != null) {
+            Map<String, ConfigValueNode> map = new HashMap<>(keyValues.size());
+            for (Map.Entry<String, ConfigValueNode> entry : keyValues.entrySet()) {
+                map.put(entry.getKey(),
+                        (ConfigValueNode) copyChild(entry.getValue(), node, copies));
+            }
+            ((ConfigKeyValueNode) node).keyValues = map;
         }
     }
 
@@ -154,6 +206,10 @@ public abstract class ConfigKeyValueNode extends ConfigElementNode {
         vn.setValue(value);
 
         keyValues.put(key, vn);
+        ConfigPathIndex index = getPathIndex();
+        if (index != null) {
+            index.add(this, vn);
+        }
         updated();
     }
 
@@ -168,6 +224,10 @@ public abstract class ConfigKeyValueNode extends ConfigElementNode {
             keyValues = new HashMap<>();
         }
         keyValues.put(node.getName(), node);
+        ConfigPathIndex index = getPathIndex();
+        if (index != null) {
+            index.add(this, node);
+        }
         updated();
     }
 
@@ -181,7 +241,11 @@ public abstract class ConfigKeyValueNode extends ConfigElementNode {
         Preconditions.checkArgument(!Strings.isNullOrEmpty(key));
         if (keyValues != null && !keyValues.isEmpty()) {
             if (keyValues.containsKey(key)) {
-                keyValues.remove(key);
+                ConfigValueNode node = keyValues.remove(key);
+                ConfigPathIndex index = getPathIndex();
+                if (index != null && node != null) {
+                    index.remove(this, node);
+                }
                 updated();
                 return true;
             }
@@ -250,6 +314,21 @@ public abstract class ConfigKeyValueNode extends ConfigElementNode {
         return String.format("%s:[key/values=%s]", getName(), keyValues);
     }
 
+    /**
+     * Convert this node and the values to the compact representation.
+     * The key/value map is replaced by a compact (sorted array) map.
+     */
+    @Override
+    public void compact() {
+        super.compact();
+        if (keyValues != null) {
+            for (ConfigValueNode node : keyValues.values()) {
+                node.compact();
+            }
+            keyValues = CompactNodeMap.compact(keyValues, this::intern);
+        }
+    }
+
     /**
      * Update the state of this node.
      *
@@ -257,11 +336,11 @@ public abstract class ConfigKeyValueNode extends ConfigElementNode {
      */
     @Override
     public void updateState(ENodeState state) {
-        getState().setState(state);
+        mutableState().setState(state);
     }
 
     /**
-     * Update the state of this node as Synced.
+     * Update the state of this node and the values as Synced.
      *
      * @throws ConfigurationException
      */
@@ -273,6 +352,11 @@ public abstract class ConfigKeyValueNode extends ConfigElementNode {
                     getState().getState().name()));
         }
         updateState(ENodeState.Synced);
+        if (keyValues != null && !keyValues.isEmpty()) {
+            for (ConfigValueNode value : keyValues.values()) {
+                value.loaded();
+            }
+        }
     }
 
     /**
@@ -120,7 +120,7 @@ public class ConfigListElementNode extends ConfigListNode<ConfigElementNode> {
      */
     @Override
     public void updateState(ENodeState state) {
-        getState().setState(state);
+        mutableState().setState(state);
 
         List<ConfigElementNode> nodes = getValues();
         if (nodes != null && !nodes.isEmpty()) {
@@ -25,12 +25,14 @@
 package com.codekutter.zconfig.common.model.nodes;
 
 import com.codekutter.zconfig.common.ConfigurationException;
+import com.codekutter.zconfig.common.model.ConfigPathIndex;
 import com.codekutter.zconfig.common.model.Configuration;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.google.common.base.Preconditions;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Class represents a array of node elements.
@@ -79,7 +81,18 @@ public abstract class ConfigListNode<T extends AbstractConfigNode>
         Preconditions.checkArgument(values != null);
         Preconditions.checkArgument(!values.isEmpty());
 
+        ConfigPathIndex index = getPathIndex();
+        if (index != null && this.values != null) {
+            for (T value : this.values) {
+                index.remove(this, value);
+            }
+        }
         this.values = values;
+        if (index != null) {
+            for (T value : values) {
+                index.add(this, value);
+            }
+        }
         updated();
     }
 
@@ -99,9 +112,65 @@ public abstract class ConfigListNode<T extends AbstractConfigNode>
         }
 
         values.add(value);
+        ConfigPathIndex index = getPathIndex();
+        if (index != null) {
+            index.add(this, value);
+        }
         updated();
     }
 
+    /**
+     * Create a shallow copy of this list node, the list is copied
+     * but the element nodes are shared.
+     *
+     * @return - Copy of this node.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public ConfigListNode<T> copy() {
+        ConfigListNode<T> node = (ConfigListNode<T>) super.copy();
+        if (values != null) {
+            node.values = new ArrayList<>(values);
+        }
+        return node;
+    }
+
+    /**
+     * Copy the element nodes into the copied list node.
+     *
+     * @param node   - Copy of this node.
+     * @param copies - Nodes copied so far (source node to copy).
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    protected void copyChildren(AbstractConfigNode node,
+                                Map<AbstractConfigNode, AbstractConfigNode> copies) {
+        if (values != null) {
+            List<T> list = new ArrayList<>(values.size());
+            for (T value : values) {
+                list.add((T) copyChild(value, node, copies));
+            }
+            ((ConfigListNode<T>) node).values = list;
+        }
+    }
+
+    /**
+     * Convert this node and the element nodes to the compact representation.
+     * The list of values is trimmed to size.
+     */
+    @Override
+    public void compact() {
+        super.compact();
+        if (values != null) {
+            for (T value : values) {
+                value.compact();
+            }
+            if (values instanceof ArrayList) {
+                ((ArrayList<T>) values).trimToSize();
+            }
+        }
+    }
+
     /**
      * Remove the specified value from the list.
      *
@@ -111,6 +180,17 @@ public abstract class ConfigListNode<T extends AbstractConfigNode>
         Preconditions.checkArgument(value != null);
         if (values != null) {
             if (values.remove(value)) {
+                ConfigPathIndex index = getPathIndex();
+                if (index != null) {
+                    index.remove(this, value);
+                    // Re-index the next element with the same name (if any).
+                    for (T v : values) {
+                        if (v.getName().compareTo(value.getName()) == 0) {
+                            index.add(this, v);
+                            break;
+                        }
+                    }
+                }
                 updated();
             }
         }
@@ -107,7 +107,7 @@ public class ConfigListValueNode extends ConfigListNode<ConfigValueNode> {
      */
     @Override
     public void updateState(ENodeState state) {
-        getState().setState(state);
+        mutableState().setState(state);
     }
 
     /**
@@ -117,14 +117,14 @@ public class ConfigParametersNode extends ConfigKeyValueNode {
     }
 
     /**
-     * Get the Search path to reach this node.
+     * Build the Search path to reach this node.
      *
+     * @param parentPath - Search path of the parent node.
      * @return - Node search path.
      */
     @Override
-    public String getSearchPath() {
-        Preconditions.checkNotNull(getParent());
-        String path = getParent().getSearchPath();
-        return String.format("%s%s", path, NODE_ABBR_PREFIX);
+    protected String buildSearchPath(String parentPath) {
+        Preconditions.checkNotNull(parentPath);
+        return parentPath + NODE_ABBR_PREFIX;
     }
 }
@@ -25,6 +25,7 @@
 package com.codekutter.zconfig.common.model.nodes;
 
 import com.codekutter.zconfig.common.ConfigurationException;
+import com.codekutter.zconfig.common.model.ConfigPathIndex;
 import com.codekutter.zconfig.common.model.Configuration;
 import com.codekutter.zconfig.common.model.ConfigurationSettings;
 import com.fasterxml.jackson.annotation.JsonIgnore;
@@ -32,10 +33,7 @@ import com.google.common.base.Preconditions;
 import com.google.common.base.Strings;
 import com.codekutter.zconfig.common.model.ENodeState;
 
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
 
 /**
  * Class represents a configuration path node.
@@ -48,6 +46,16 @@ public class ConfigPathNode extends ConfigElementNode {
      * Map containing the child nodes.
      */
     private Map<String, AbstractConfigNode> children;
+    /**
+     * Cached property scope of this node.
+     */
+    @JsonIgnore
+    private volatile ConfigPropertyScope propertyScope = null;
+    /**
+     * Names of the synced child nodes removed since this node was synced.
+     */
+    @JsonIgnore
+    private Set<String> removedChildren = null;
 
     /**
      * Default constructor - Initialize the state object.
@@ -82,7 +90,18 @@ public class ConfigPathNode extends ConfigElementNode {
      * @param children - Map of child nodes.
      */
     public void setChildren(Map<String, AbstractConfigNode> children) {
+        ConfigPathIndex index = getPathIndex();
+        if (index != null && this.children != null) {
+            for (AbstractConfigNode node : this.children.values()) {
+                index.remove(this, node);
+            }
+        }
         this.children = children;
+        if (index != null && children != null) {
+            for (AbstractConfigNode node : children.values()) {
+                index.add(this, node);
+            }
+        }
     }
 
     /**
@@ -100,10 +119,72 @@ public class ConfigPathNode extends ConfigElementNode {
             children = new HashMap<>();
         }
         node.setParent(this);
-        children.put(node.getName(), node);
+        AbstractConfigNode prev = children.put(node.getName(), node);
+        ConfigPathIndex index = getPathIndex();
+        if (index != null) {
+            if (prev != null && prev != node) {
+                index.remove(this, prev);
+            }
+            index.add(this, node);
+        }
         updated();
     }
 
+    /**
+     * Create a shallow copy of this path node, the map of children is copied
+     * but the child nodes are shared.
+     *
+     * @return - Copy of this node.
+     */
+    @Override
+    public ConfigPathNode copy() {
+        ConfigPathNode node = (ConfigPathNode) super.copy();
+        if (children != null) {
+            node.children = new HashMap<>(children);
+        }
+        if (removedChildren != null) {
+            node.removedChildren = new HashSet<>(removedChildren);
+        }
+        return node;
+    }
+
+    /**
+     * Copy the child nodes into the copied path node.
+     *
+     * @param node   - Copy of this node.
+     * @param copies - Nodes copied so far (source node to copy).
+     */
+    @Override
+    protected void copyChildren(AbstractConfigNode node,
+                                Map<AbstractConfigNode, AbstractConfigNode> copies) {
+        ConfigPathNode pnode = (ConfigPathNode) node;
+        pnode.propertyScope = null;
+        pnode.removedChildren = (removedChildren != null ?
+                new HashSet<>(removedChildren) : null);
+        if (children != null) {
+            Map<String, AbstractConfigNode> map = new HashMap<>(children.size());
+            for (Map.Entry<String, AbstractConfigNode> entry : children.entrySet()) {
+                map.put(entry.getKey(), copyChild(entry.getValue(), node, copies));
+            }
+            pnode.children = map;
+        }
+    }
+
+    /**
+     * Convert this node and the child nodes to the compact representation.
+     * The map of children is replaced by a compact (sorted array) map.
+     */
+    @Override
+    public void compact() {
+        super.compact();
+        if (children != null) {
+            for (AbstractConfigNode node : children.values()) {
+                node.compact();
+            }
+            children = CompactNodeMap.compact(children, this::intern);
+        }
+    }
+
     /**
      * Get the child node (if any) with the specified node name.
      *
@@ -129,13 +210,38 @@ public class ConfigPathNode extends ConfigElementNode {
     public boolean removeChildNode(String name) {
         Preconditions.checkArgument(!Strings.isNullOrEmpty(name));
         if (children != null && children.containsKey(name)) {
-            children.remove(name);
+            AbstractConfigNode node = children.remove(name);
+            ConfigPathIndex index = getPathIndex();
+            if (index != null && node != null) {
+                index.remove(this, node);
+            }
+            if (node != null &&
+                    (node.getState().isSynced() || node.getState().isUpdated())) {
+                if (removedChildren == null) {
+                    removedChildren = new HashSet<>();
+                }
+                removedChildren.add(name);
+            }
             updated();
             return true;
         }
         return false;
     }
 
+    /**
+     * Get the names of the synced child nodes removed since this node was
+     * last synced.
+     *
+     * @return - Set of removed child names, empty if none.
+     */
+    @JsonIgnore
+    public Set<String> getRemovedChildren() {
+        if (removedChildren == null) {
+            return Collections.emptySet();
+        }
+        return Collections.unmodifiableSet(removedChildren);
+    }
+
     /**
      * Get the parameters, if any for this path node.
      *
@@ -166,6 +272,34 @@ public class ConfigPathNode extends ConfigElementNode {
         return null;
     }
 
+    /**
+     * Get the property scope of this path node, the scope includes the properties
+     * inherited from the ancestor path nodes.
+     * <p>
+     * Scopes are cached, a scope is re-created only if the properties of this node
+     * or of an ancestor path node have been added/removed.
+     *
+     * @return - Property scope.
+     */
+    @JsonIgnore
+    public ConfigPropertyScope getPropertyScope() {
+        ConfigPropertyScope pscope = null;
+        AbstractConfigNode parent = getParent();
+        while (parent != null && !(parent instanceof ConfigPathNode)) {
+            parent = parent.getParent();
+        }
+        if (parent != null) {
+            pscope = ((ConfigPathNode) parent).getPropertyScope();
+        }
+        ConfigPropertiesNode props = properties();
+        ConfigPropertyScope scope = propertyScope;
+        if (scope == null || !scope.isValid(props, pscope)) {
+            scope = new ConfigPropertyScope(props, pscope);
+            propertyScope = scope;
+        }
+        return scope;
+    }
+
     /**
      * Get the properties, if any for this path node.
      *
@@ -324,7 +458,10 @@ public class ConfigPathNode extends ConfigElementNode {
      */
     @Override
     public void updateState(ENodeState state) {
-        getState().setState(state);
+        mutableState().setState(state);
+        if (state == ENodeState.Synced) {
+            removedChildren = null;
+        }
 
         if (children != null && !children.isEmpty()) {
             for (String key : children.keySet()) {
@@ -380,6 +517,7 @@ public class ConfigPathNode extends ConfigElementNode {
      */
     @Override
     public void changeConfiguration(Configuration configuration) {
+        setConfiguration(configuration);
         if (children != null && !children.isEmpty()) {
             for (String key : children.keySet()) {
                 children.get(key).changeConfiguration(configuration);
@@ -28,9 +28,7 @@ import com.google.common.base.Preconditions;
 import com.google.common.base.Strings;
 import com.codekutter.zconfig.common.model.Configuration;
 
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 /**
  * Configuration node representing configuration properties. Properties can be defined for any path scope and used as
@@ -99,15 +97,9 @@ public class ConfigPropertiesNode extends ConfigKeyValueNode {
      *
      * @return - Copy of node.
      */
+    @Override
     public ConfigPropertiesNode copy() {
-        ConfigPropertiesNode node =
-                new ConfigPropertiesNode(getConfiguration(), getParent());
-        node.setName(this.getName());
-        Map<String, ConfigValueNode> properties =
-                new HashMap<>(this.getKeyValues());
-        node.setKeyValues(properties);
-
-        return node;
+        return (ConfigPropertiesNode) super.copy();
     }
 
 
@@ -136,14 +128,14 @@ public class ConfigPropertiesNode extends ConfigKeyValueNode {
     }
 
     /**
-     * Get the Search path to reach this node.
+     * Build the Search path to reach this node.
      *
+     * @param parentPath - Search path of the parent node.
      * @return - Node search path.
      */
     @Override
-    public String getSearchPath() {
-        Preconditions.checkNotNull(getParent());
-        String path = getParent().getSearchPath();
-        return String.format("%s%s", path, NODE_ABBR_PREFIX);
+    protected String buildSearchPath(String parentPath) {
+        Preconditions.checkNotNull(parentPath);
+        return parentPath + NODE_ABBR_PREFIX;
     }
 }
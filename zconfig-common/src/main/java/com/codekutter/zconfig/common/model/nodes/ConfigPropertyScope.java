@@ -0,0 +1,137 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ * Copyright (c) $year
+ * Date: 16/10/26 10:35 PM
+ * Subho Ghosh (subho dot ghosh at outlook.com)
+ *
+ */
+
+package com.codekutter.zconfig.common.model.nodes;
+
+import com.google.common.base.Preconditions;
+import com.google.common.base.Strings;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Layered (inherited) property scope of a configuration path node.
+ * <p>
+ * A scope references the properties defined on its path node (if any) and is
+ * chained to the scope of the parent path node, properties are not copied.
+ * Property lookups search the scopes from the nearest to the root scope.
+ * <p>
+ * Scopes are cached on the path nodes and re-created if the properties node or the
+ * parent scope changes (see {@link ConfigPathNode#getPropertyScope()}).
+ */
+public final class ConfigPropertyScope {
+    /**
+     * Properties defined on the path node of this scope.
+     */
+    private final ConfigPropertiesNode properties;
+    /**
+     * Scope of the parent path node.
+     */
+    private final ConfigPropertyScope parent;
+
+    /**
+     * Constructor with the properties and the parent scope.
+     *
+     * @param properties - Properties node (can be NULL).
+     * @param parent     - Parent scope (NULL for root).
+     */
+    ConfigPropertyScope(ConfigPropertiesNode properties,
+                        ConfigPropertyScope parent) {
+        this.properties = properties;
+        this.parent = parent;
+    }
+
+    /**
+     * Get the properties node defined for this scope.
+     *
+     * @return - Properties node or NULL.
+     */
+    public ConfigPropertiesNode getProperties() {
+        return properties;
+    }
+
+    /**
+     * Get the parent scope.
+     *
+     * @return - Parent scope or NULL.
+     */
+    public ConfigPropertyScope getParent() {
+        return parent;
+    }
+
+    /**
+     * Get the (closest) property value node for the specified key.
+     *
+     * @param key - Property key.
+     * @return - Value node or NULL if not defined.
+     */
+    public ConfigValueNode get(@Nonnull String key) {
+        Preconditions.checkArgument(!Strings.isNullOrEmpty(key));
+        ConfigPropertyScope scope = this;
+        while (scope != null) {
+            if (scope.properties != null) {
+                ConfigValueNode value = scope.properties.getValue(key);
+                if (value != null) {
+                    return value;
+                }
+            }
+            scope = scope.parent;
+        }
+        return null;
+    }
+
+    /**
+     * Get the (closest) property value for the specified key.
+     *
+     * @param key - Property key.
+     * @return - Property value or NULL if not defined.
+     */
+    public String getValue(@Nonnull String key) {
+        ConfigValueNode value = get(key);
+        if (value != null) {
+            return value.getValue();
+        }
+        return null;
+    }
+
+    /**
+     * Check if the property is defined in this or any parent scope.
+     *
+     * @param key - Property key.
+     * @return - Is defined?
+     */
+    public boolean hasKey(@Nonnull String key) {
+        return (get(key) != null);
+    }
+
+    /**
+     * Check if this scope is valid for the specified properties and parent scope.
+     *
+     * @param properties - Current properties node.
+     * @param parent     - Current parent scope.
+     * @return - Is valid?
+     */
+    boolean isValid(ConfigPropertiesNode properties, ConfigPropertyScope parent) {
+        return (this.properties == properties && this.parent == parent);
+    }
+}
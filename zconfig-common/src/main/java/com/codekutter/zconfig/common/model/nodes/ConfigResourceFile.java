@@ -28,6 +28,7 @@ import com.codekutter.zconfig.common.ConfigurationException;
 import com.codekutter.zconfig.common.model.Configuration;
 import com.google.common.base.Preconditions;
 import com.codekutter.zconfig.common.model.EResourceType;
+import com.codekutter.zconfig.common.utils.RemoteResourceLoader;
 
 import java.io.File;
 
@@ -40,6 +41,15 @@ public class ConfigResourceFile extends ConfigResourceNode {
      * File handle to the file pointed to by the URI.
      */
     private File resourceHandle;
+    /**
+     * Is the remote resource yet to be downloaded? (Download on demand)
+     */
+    private volatile boolean downloadPending = false;
+    /**
+     * Time taken to download the resource (in milliseconds), -1 if the
+     * resource wasn't downloaded by this node.
+     */
+    private volatile long fetchTime = -1;
 
     /**
      * Default constructor - Initialize the state object.
@@ -60,11 +70,29 @@ public class ConfigResourceFile extends ConfigResourceNode {
     }
 
     /**
-     * Get the file handle to the resource.
+     * Get the file handle to the resource. Pending remote resources are
+     * downloaded on first access.
      *
      * @return - File handle.
      */
     public File getResourceHandle() {
+        return getResourceHandle(true);
+    }
+
+    /**
+     * Get the file handle to the resource.
+     *
+     * @param download - Download the resource if pending?
+     * @return - File handle.
+     */
+    public File getResourceHandle(boolean download) {
+        if (download && downloadPending) {
+            try {
+                RemoteResourceLoader.shared().fetch(this);
+            } catch (ConfigurationException e) {
+                throw new RuntimeException(e);
+            }
+        }
         return resourceHandle;
     }
 
@@ -78,6 +106,42 @@ public class ConfigResourceFile extends ConfigResourceNode {
         this.resourceHandle = resourceHandle;
     }
 
+    /**
+     * Is the remote resource yet to be downloaded?
+     *
+     * @return - Download pending?
+     */
+    public boolean isDownloadPending() {
+        return downloadPending;
+    }
+
+    /**
+     * Set if the remote resource is yet to be downloaded.
+     *
+     * @param downloadPending - Download pending?
+     */
+    public void setDownloadPending(boolean downloadPending) {
+        this.downloadPending = downloadPending;
+    }
+
+    /**
+     * Get the time taken to download the resource.
+     *
+     * @return - Download time (in milliseconds), -1 if not downloaded.
+     */
+    public long getFetchTime() {
+        return fetchTime;
+    }
+
+    /**
+     * Set the time taken to download the resource.
+     *
+     * @param fetchTime - Download time (in milliseconds).
+     */
+    public void setFetchTime(long fetchTime) {
+        this.fetchTime = fetchTime;
+    }
+
     /**
      * Override the set type method, as this resource can only be of type FILE.
      *
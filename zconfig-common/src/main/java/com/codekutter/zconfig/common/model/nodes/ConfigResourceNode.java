@@ -30,7 +30,9 @@ import com.google.common.base.Preconditions;
 import com.google.common.base.Strings;
 import com.codekutter.zconfig.common.model.ENodeState;
 import com.codekutter.zconfig.common.model.EResourceType;
+import com.codekutter.zconfig.common.utils.RemoteFileDownloader;
 
+import java.io.IOException;
 import java.net.URI;
 import java.util.List;
 
@@ -39,7 +41,7 @@ import java.util.List;
  * via the configuration handle.
  * <p>
  * XML:
- * <resource name="resourceName" URI="uri" type="type" />
+ * <resource name="resourceName" URI="uri" type="type" checksum="sha256:digest" />
  * <p>
  * <pre>
  * JSON:
@@ -47,6 +49,7 @@ import java.util.List;
  *          resourceName : "name",
  *          URI : "uri",
  *          type : "type",
+ *          checksum : "sha256:digest", (optional)
  *          ...
  *      }
  * </pre>
@@ -56,6 +59,7 @@ public abstract class ConfigResourceNode extends ConfigElementNode {
     public static final String NODE_RESOURCE_TYPE = "type";
     public static final String NODE_RESOURCE_URL = "url";
     public static final String NODE_RESOURCE_NAME = "resourceName";
+    public static final String NODE_RESOURCE_CHECKSUM = "checksum";
 
     /**
      * Resource type of this node.
@@ -69,6 +73,10 @@ public abstract class ConfigResourceNode extends ConfigElementNode {
      * Name to be used to reference this resource.
      */
     private String resourceName;
+    /**
+     * Expected checksum of the (downloaded) resource.
+     */
+    private String checksum;
 
     /**
      * Default constructor - Initialize the state object.
@@ -144,6 +152,24 @@ public abstract class ConfigResourceNode extends ConfigElementNode {
         this.resourceName = resourceName;
     }
 
+    /**
+     * Get the expected checksum of the resource.
+     *
+     * @return - Checksum ([algorithm:]hex-digest) or NULL if not specified.
+     */
+    public String getChecksum() {
+        return checksum;
+    }
+
+    /**
+     * Set the expected checksum of the resource.
+     *
+     * @param checksum - Checksum ([algorithm:]hex-digest).
+     */
+    public void setChecksum(String checksum) {
+        this.checksum = checksum;
+    }
+
     /**
      * Check if this node if the terminal value specified in the path.
      *
@@ -167,7 +193,7 @@ public abstract class ConfigResourceNode extends ConfigElementNode {
      */
     @Override
     public void updateState(ENodeState state) {
-        getState().setState(state);
+        mutableState().setState(state);
     }
 
 
@@ -204,6 +230,13 @@ public abstract class ConfigResourceNode extends ConfigElementNode {
         if (location == null) {
             throw ConfigurationException.propertyNotFoundException("location");
         }
+        if (!Strings.isNullOrEmpty(checksum)) {
+            try {
+                RemoteFileDownloader.getDigestAlgorithm(checksum);
+            } catch (IOException e) {
+                throw new ConfigurationException(e);
+            }
+        }
     }
 
     /**
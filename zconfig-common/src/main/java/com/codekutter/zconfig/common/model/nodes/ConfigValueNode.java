@@ -24,6 +24,7 @@
 
 package com.codekutter.zconfig.common.model.nodes;
 
+import com.codekutter.zconfig.common.DateTimeUtils;
 import com.codekutter.zconfig.common.ZConfigEnv;
 import com.codekutter.zconfig.common.utils.CypherUtils;
 import com.fasterxml.jackson.annotation.JsonIgnore;
@@ -34,8 +35,6 @@ import com.codekutter.zconfig.common.GlobalConstants;
 import com.codekutter.zconfig.common.model.Configuration;
 import com.codekutter.zconfig.common.model.ENodeState;
 import org.joda.time.DateTime;
-import org.joda.time.format.DateTimeFormat;
-import org.joda.time.format.DateTimeFormatter;
 
 import java.util.List;
 
@@ -56,11 +55,39 @@ import java.util.List;
  */
 public class ConfigValueNode extends AbstractConfigNode
         implements IConfigValue<String> {
+    /**
+     * Typed value parsed from the value string.
+     */
+    private static final class ParsedValue {
+        /**
+         * Value string this value was parsed from.
+         */
+        private final String source;
+        /**
+         * Date format used to parse (NULL for non-date values).
+         */
+        private final String format;
+        /**
+         * Parsed value.
+         */
+        private final Object value;
+
+        private ParsedValue(String source, String format, Object value) {
+            this.source = source;
+            this.format = format;
+            this.value = value;
+        }
+    }
 
     /**
      * Configuration value element.
      */
     private String value;
+    /**
+     * Memoized typed value (last parsed type), reset when the value is set.
+     */
+    @JsonIgnore
+    private volatile ParsedValue parsed = null;
     /**
      * Is the data in this node encrypted?
      */
@@ -124,6 +151,8 @@ public class ConfigValueNode extends AbstractConfigNode
     public void setValue(String value) {
         Preconditions.checkArgument(!Strings.isNullOrEmpty(value));
         this.value = value;
+        this.parsed = null;
+        updated();
     }
 
     /**
@@ -153,8 +182,14 @@ public class ConfigValueNode extends AbstractConfigNode
      */
     @JsonIgnore
     public boolean getBooleanValue() {
+        String value = this.value;
         if (!Strings.isNullOrEmpty(value)) {
-            return Boolean.parseBoolean(value);
+            Object pv = getParsed(value, null, Boolean.class);
+            if (pv == null) {
+                pv = Boolean.parseBoolean(value);
+                parsed = new ParsedValue(value, null, pv);
+            }
+            return (Boolean) pv;
         }
         return false;
     }
@@ -168,8 +203,14 @@ public class ConfigValueNode extends AbstractConfigNode
      */
     @JsonIgnore
     public short getShortValue() {
+        String value = this.value;
         if (!Strings.isNullOrEmpty(value)) {
-            return Short.parseShort(value);
+            Object pv = getParsed(value, null, Short.class);
+            if (pv == null) {
+                pv = Short.parseShort(value);
+                parsed = new ParsedValue(value, null, pv);
+            }
+            return (Short) pv;
         }
         return Short.MIN_VALUE;
     }
@@ -183,8 +224,14 @@ public class ConfigValueNode extends AbstractConfigNode
      */
     @JsonIgnore
     public int getIntValue() {
+        String value = this.value;
         if (!Strings.isNullOrEmpty(value)) {
-            return Integer.parseInt(value);
+            Object pv = getParsed(value, null, Integer.class);
+            if (pv == null) {
+                pv = Integer.parseInt(value);
+                parsed = new ParsedValue(value, null, pv);
+            }
+            return (Integer) pv;
         }
         return Integer.MIN_VALUE;
     }
@@ -198,8 +245,14 @@ public class ConfigValueNode extends AbstractConfigNode
      */
     @JsonIgnore
     public long getLongValue() {
+        String value = this.value;
         if (!Strings.isNullOrEmpty(value)) {
-            return Long.parseLong(value);
+            Object pv = getParsed(value, null, Long.class);
+            if (pv == null) {
+                pv = Long.parseLong(value);
+                parsed = new ParsedValue(value, null, pv);
+            }
+            return (Long) pv;
         }
         return Long.MIN_VALUE;
     }
@@ -213,8 +266,14 @@ public class ConfigValueNode extends AbstractConfigNode
      */
     @JsonIgnore
     public float getFloatValue() {
+        String value = this.value;
         if (!Strings.isNullOrEmpty(value)) {
-            return Float.parseFloat(value);
+            Object pv = getParsed(value, null, Float.class);
+            if (pv == null) {
+                pv = Float.parseFloat(value);
+                parsed = new ParsedValue(value, null, pv);
+            }
+            return (Float) pv;
         }
         return Float.MIN_VALUE;
     }
@@ -228,8 +287,14 @@ public class ConfigValueNode extends AbstractConfigNode
      */
     @JsonIgnore
     public double getDoubleValue() {
+        String value = this.value;
         if (!Strings.isNullOrEmpty(value)) {
-            return Double.parseDouble(value);
+            Object pv = getParsed(value, null, Double.class);
+            if (pv == null) {
+                pv = Double.parseDouble(value);
+                parsed = new ParsedValue(value, null, pv);
+            }
+            return (Double) pv;
         }
         return Double.MIN_VALUE;
     }
@@ -245,13 +310,7 @@ public class ConfigValueNode extends AbstractConfigNode
      */
     @JsonIgnore
     public DateTime getDateValue() {
-        if (!Strings.isNullOrEmpty(value)) {
-            DateTimeFormatter formatter =
-                    DateTimeFormat
-                            .forPattern(GlobalConstants.DEFAULT_JODA_DATE_FORMAT);
-            return DateTime.parse(value, formatter);
-        }
-        return null;
+        return getDateValue(GlobalConstants.DEFAULT_JODA_DATE_FORMAT);
     }
 
     /**
@@ -266,10 +325,14 @@ public class ConfigValueNode extends AbstractConfigNode
     @JsonIgnore
     public DateTime getDateValue(String format) {
         Preconditions.checkArgument(!Strings.isNullOrEmpty(format));
+        String value = this.value;
         if (!Strings.isNullOrEmpty(value)) {
-            DateTimeFormatter formatter =
-                    DateTimeFormat.forPattern(format);
-            return DateTime.parse(value, formatter);
+            Object pv = getParsed(value, format, DateTime.class);
+            if (pv == null) {
+                pv = DateTime.parse(value, DateTimeUtils.getFormatter(format));
+                parsed = new ParsedValue(value, format, pv);
+            }
+            return (DateTime) pv;
         }
         return null;
     }
@@ -285,12 +348,23 @@ public class ConfigValueNode extends AbstractConfigNode
      */
     @JsonIgnore
     public DateTime getDateTimeValue() {
-        if (!Strings.isNullOrEmpty(value)) {
-            DateTimeFormatter formatter =
-                    DateTimeFormat
-                            .forPattern(
-                                    GlobalConstants.DEFAULT_JODA_DATETIME_FORMAT);
-            return DateTime.parse(value, formatter);
+        return getDateValue(GlobalConstants.DEFAULT_JODA_DATETIME_FORMAT);
+    }
+
+    /**
+     * Get the memoized typed value, if parsed from the specified value string.
+     *
+     * @param value  - Current value string.
+     * @param format - Date format (NULL for non-date values).
+     * @param type   - Expected value type.
+     * @return - Parsed value or NULL if not cached.
+     */
+    private Object getParsed(String value, String format, Class<?> type) {
+        ParsedValue pv = parsed;
+        if (pv != null && pv.source == value && type.isInstance(pv.value)) {
+            if (format == null ? pv.format == null : format.equals(pv.format)) {
+                return pv.value;
+            }
         }
         return null;
     }
@@ -333,7 +407,7 @@ public class ConfigValueNode extends AbstractConfigNode
      */
     @Override
     public void updateState(ENodeState state) {
-        getState().setState(state);
+        mutableState().setState(state);
     }
 
     /**
@@ -25,16 +25,21 @@
 package com.codekutter.zconfig.common.parsers;
 
 import com.codekutter.zconfig.common.ConfigurationException;
-import com.codekutter.zconfig.common.VariableRegexParser;
+import com.codekutter.zconfig.common.VariableTemplate;
 import com.codekutter.zconfig.common.model.Configuration;
 import com.codekutter.zconfig.common.model.ConfigurationSettings;
 import com.codekutter.zconfig.common.model.Version;
 import com.codekutter.zconfig.common.model.nodes.*;
+import com.codekutter.zconfig.common.ConfigProviderFactory;
 import com.codekutter.zconfig.common.readers.AbstractConfigReader;
+import com.codekutter.zconfig.common.readers.EReaderType;
+import com.codekutter.zconfig.common.utils.ConfigUtils;
+import com.codekutter.zconfig.common.utils.RemoteResourceLoader;
+import com.google.common.base.Preconditions;
 import com.google.common.base.Strings;
 
 import java.io.Closeable;
-import java.util.HashMap;
+import java.net.URI;
 import java.util.List;
 import java.util.Map;
 
@@ -52,6 +57,19 @@ public abstract class AbstractConfigParser implements Closeable {
      */
     protected Configuration configuration;
 
+    /**
+     * Resolver to load the included configurations.
+     */
+    private ConfigIncludeResolver includeResolver = null;
+    /**
+     * Was the include resolver created by this parser (top-level load)?
+     */
+    private boolean ownsIncludeResolver = false;
+    /**
+     * Cache of parsed included configurations, NULL if not cached.
+     */
+    private ConfigIncludeCache includeCache = ConfigIncludeCache.shared();
+
     /**
      * Get the handle to the parsed configuration.
      *
@@ -61,6 +79,129 @@ public abstract class AbstractConfigParser implements Closeable {
         return configuration;
     }
 
+    /**
+     * Get the cache used for included configurations.
+     *
+     * @return - Include cache, NULL if not cached.
+     */
+    public ConfigIncludeCache getIncludeCache() {
+        return includeCache;
+    }
+
+    /**
+     * Set the cache to use for included configurations.
+     *
+     * @param includeCache - Include cache, NULL to disable caching.
+     */
+    public void setIncludeCache(ConfigIncludeCache includeCache) {
+        this.includeCache = includeCache;
+    }
+
+    /**
+     * Set the include resolver to use, for parsers loading included configurations.
+     *
+     * @param includeResolver - Include resolver of the including configuration.
+     */
+    void setIncludeResolver(ConfigIncludeResolver includeResolver) {
+        this.includeResolver = includeResolver;
+        this.ownsIncludeResolver = false;
+    }
+
+    /**
+     * Get the include resolver for this load, the resolver is created if this
+     * is a top-level load.
+     *
+     * @return - Include resolver.
+     */
+    ConfigIncludeResolver getIncludeResolver() {
+        if (includeResolver == null) {
+            includeResolver =
+                    new ConfigIncludeResolver(configuration.getName(), settings);
+            ownsIncludeResolver = true;
+        }
+        return includeResolver;
+    }
+
+    /**
+     * Create a parser instance to parse an included configuration.
+     *
+     * @return - Include parser, NULL if includes are not supported.
+     */
+    protected abstract AbstractConfigParser createIncludeParser();
+
+    /**
+     * Submit the include to be loaded, the loaded configuration is attached
+     * by the handler once this configuration has been parsed.
+     *
+     * @param node     - Include node.
+     * @param password - Password, for encrypted values.
+     * @param handler  - Handler to attach the loaded configuration.
+     * @throws ConfigurationException
+     */
+    protected void submitInclude(ConfigIncludeNode node, String password,
+                                 ConfigIncludeResolver.IncludeHandler handler)
+    throws ConfigurationException {
+        ConfigurationSettings settings = this.settings;
+        ConfigIncludeCache cache = this.includeCache;
+        getIncludeResolver().submit(node, (resolver) -> {
+            AbstractConfigParser parser = createIncludeParser();
+            if (parser == null) {
+                throw new ConfigurationException(String.format(
+                        "Includes not supported by parser. [parser=%s]",
+                        getClass().getCanonicalName()));
+            }
+            parser.setIncludeResolver(resolver);
+            parser.setIncludeCache(cache);
+            if (cache != null) {
+                return cache.load(node, resolver, password, settings, (reader) -> {
+                    parser.parse(node.getConfigName(), reader, settings,
+                                 node.getVersion(), password);
+                    return parser.configuration;
+                });
+            }
+            URI uri = node.getURI();
+            AbstractConfigReader reader = ConfigProviderFactory.reader(uri, settings);
+            if (reader == null) {
+                throw new ConfigurationException(
+                        String.format("Error getting reader instance : [URI=%s]",
+                                      uri.toString()));
+            }
+            try {
+                parser.parse(node.getConfigName(), reader, settings,
+                             node.getVersion(), password);
+                return parser.configuration;
+            } finally {
+                reader.close();
+            }
+        }, (included) -> {
+            configuration.addResolvedVariables(included.getResolvedVariables());
+            handler.attach(included);
+        });
+    }
+
+    /**
+     * Wait for the included configurations to be loaded and attach them.
+     * To be called once the configuration has been parsed, before post load.
+     *
+     * @throws ConfigurationException
+     */
+    protected void resolveIncludes() throws ConfigurationException {
+        if (includeResolver != null) {
+            includeResolver.await();
+        }
+    }
+
+    /**
+     * Release the include resolver (if created by this parser).
+     */
+    protected void closeIncludes() {
+        if (includeResolver != null && ownsIncludeResolver) {
+            includeResolver.close();
+            includeResolver = null;
+            ownsIncludeResolver = false;
+        }
+    }
+
     /**
      * Method to be called post loading of the configuration.
      * <p>
@@ -71,55 +212,87 @@ public abstract class AbstractConfigParser implements Closeable {
     protected void doPostLoad() throws ConfigurationException {
         ConfigPathNode node = configuration.getRootConfigNode();
         if (node != null) {
-            Map<String, ConfigValueNode> properties = new HashMap<>();
-            nodePostLoad(node, properties);
+            nodePostLoad(node, null);
         }
         // Validate the configuration
         configuration.getRootConfigNode().validate();
         // Mark the configuration has been loaded.
         configuration.loaded();
+        fetchRemoteResources();
+    }
+
+    /**
+     * Setup the download of the remote resource. Resources not available
+     * locally are marked as pending, pending resources are downloaded once
+     * the configuration is loaded if the download option is OnStartUp, else
+     * on first access.
+     *
+     * @param node - Resource node, with the local resource handle set.
+     */
+    protected void setupRemoteResource(ConfigResourceFile node) {
+        if (RemoteResourceLoader.isAvailable(node)) {
+            return;
+        }
+        EReaderType type = EReaderType.parseFromUri(node.getLocation());
+        Preconditions.checkNotNull(type);
+        if (type != EReaderType.HTTP && type != EReaderType.HTTPS) {
+            return;
+        }
+        node.setDownloadPending(true);
+    }
+
+    /**
+     * Download the pending remote resources (concurrently) if the download
+     * option is OnStartUp, else start the background download if enabled in
+     * the settings.
+     *
+     * @throws ConfigurationException
+     */
+    protected void fetchRemoteResources() throws ConfigurationException {
+        ConfigurationSettings settings = configuration.getSettings();
+        if (settings == null) {
+            return;
+        }
+        if (settings.getDownloadRemoteFiles() ==
+                ConfigurationSettings.EStartupOptions.OnStartUp) {
+            RemoteResourceLoader.shared().fetchAll(configuration);
+        } else if (settings.isPrefetchResources()) {
+            RemoteResourceLoader.shared().prefetch(configuration);
+        }
     }
 
     /**
      * Replace variable values with the scoped property sets.
+     * <p>
+     * Property scopes are layered (see {@link ConfigPathNode#getPropertyScope()}),
+     * the properties are not copied for each level.
      *
-     * @param node       - Node to preform replacement on.
-     * @param inputProps - Input Property set.
+     * @param node  - Node to preform replacement on.
+     * @param scope - Property scope of the parent path node.
      * @throws ConfigurationException
      */
     private void nodePostLoad(AbstractConfigNode node,
-                              Map<String, ConfigValueNode> inputProps)
+                              ConfigPropertyScope scope)
     throws ConfigurationException {
-        Map<String, ConfigValueNode> properties = new HashMap<>(inputProps);
         if (node instanceof ConfigPathNode) {
             // Get defined properties, if any.
             ConfigPathNode cp = (ConfigPathNode) node;
-            ConfigPropertiesNode props = cp.properties();
-            if (props != null) {
-                Map<String, ConfigValueNode> pp = props.getKeyValues();
-                if (pp != null && !pp.isEmpty()) {
-                    properties.putAll(pp);
-                }
-            }
+            ConfigPropertyScope pscope = cp.getPropertyScope();
 
             // Do property replacement for all child nodes.
             Map<String, AbstractConfigNode> nodes = cp.getChildren();
             if (nodes != null && !nodes.isEmpty()) {
-                for (String key : nodes.keySet()) {
-                    nodePostLoad(nodes.get(key), properties);
+                for (AbstractConfigNode cn : nodes.values()) {
+                    nodePostLoad(cn, pscope);
                 }
             }
         } else if (node instanceof ConfigParametersNode) {
             // Check parameter value replacement.
             ConfigParametersNode params = (ConfigParametersNode) node;
             Map<String, ConfigValueNode> pp = params.getKeyValues();
-            for (String key : pp.keySet()) {
-                String value = pp.get(key).getValue();
-                if (!Strings.isNullOrEmpty(value)) {
-                    String nValue = replaceVariables(value, properties);
-                    if (value.compareTo(nValue) != 0) {
-                        params.addKeyValue(key, nValue);
-                    }
+            if (pp != null && !pp.isEmpty()) {
+                for (ConfigValueNode vn : pp.values()) {
+                    replaceVariables(vn, scope);
                 }
             }
         } else if (node instanceof ConfigListElementNode) {
@@ -127,7 +300,7 @@ public abstract class AbstractConfigParser implements Closeable {
             List<ConfigElementNode> nodes = le.getValues();
             if (nodes != null && !nodes.isEmpty()) {
                 for (ConfigElementNode nn : nodes) {
-                    nodePostLoad(nn, properties);
+                    nodePostLoad(nn, scope);
                 }
             }
         } else if (node instanceof ConfigListValueNode) {
@@ -135,57 +308,53 @@ public abstract class AbstractConfigParser implements Closeable {
             List<ConfigValueNode> nodes = le.getValues();
             if (nodes != null && !nodes.isEmpty()) {
                 for (ConfigValueNode nn : nodes) {
-                    nodePostLoad(nn, properties);
+                    replaceVariables(nn, scope);
                 }
             }
         } else if (node instanceof ConfigValueNode) {
-            ConfigValueNode cv = (ConfigValueNode) node;
-            String value = cv.getValue();
-            if (!Strings.isNullOrEmpty(value)) {
-                String nValue = replaceVariables(value, properties);
+            replaceVariables((ConfigValueNode) node, scope);
+        }
+    }
+
+    /**
+     * Replace all the variables, if any, defined in the node value with the
+     * property values in scope.
+     *
+     * @param node  - Value node to replace variables in.
+     * @param scope - Property scope to lookup variable values.
+     */
+    private void replaceVariables(ConfigValueNode node, ConfigPropertyScope scope) {
+        String value = node.getValue();
+        if (!Strings.isNullOrEmpty(value)) {
+            VariableTemplate template = VariableTemplate.compile(value);
+            if (template.hasVariables()) {
+                String nValue = template.apply(var -> resolveVariable(var, scope));
                 if (value.compareTo(nValue) != 0) {
-                    cv.setValue(nValue);
+                    node.setValue(nValue);
                 }
             }
         }
     }
 
     /**
-     * Replace all the variables, if any, defined in the value string with the property values specified.
+     * Get the value of the variable. Variables are resolved from the property
+     * scope, if not defined, from the System properties and environment (the
+     * System/environment values used are recorded with the configuration).
      *
-     * @param value      - Value String to replace variables in.
-     * @param properties - Property Map to lookup variable values.
-     * @return - Replaced String
+     * @param var   - Variable name.
+     * @param scope - Property scope to lookup variable values.
+     * @return - Variable value or NULL.
      */
-    private String replaceVariables(String value,
-                                    Map<String, ConfigValueNode> properties) {
-        if (!Strings.isNullOrEmpty(value)) {
-            if (VariableRegexParser.hasVariable(value)) {
-                List<String> vars = VariableRegexParser.getVariables(value);
-                if (vars != null && !vars.isEmpty()) {
-                    for (String var : vars) {
-                        ConfigValueNode vn = properties.get(var);
-                        if (vn != null) {
-                            String vv = vn.getValue();
-                            if (!Strings.isNullOrEmpty(vv)) {
-                                String rv = String.format("\\$\\{%s\\}", var);
-                                value = value.replaceAll(rv, vv);
-                            }
-                        } else {
-                            String vv = System.getProperty(var);
-                            if (Strings.isNullOrEmpty(vv)) {
-                                vv = System.getenv(var);
-                            }
-                            if (!Strings.isNullOrEmpty(vv)) {
-                                String rv = String.format("\\$\\{%s\\}", var);
-                                value = value.replaceAll(rv, vv);
-                            }
-                        }
-                    }
-                }
+    private String resolveVariable(String var, ConfigPropertyScope scope) {
+        if (scope != null) {
+            ConfigValueNode vn = scope.get(var);
+            if (vn != null) {
+                return vn.getValue();
             }
         }
-        return value;
+        String vv = ConfigUtils.getSystemVariable(var);
+        configuration.addResolvedVariable(var, vv);
+        return vv;
     }
 
     /**
@@ -0,0 +1,487 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ * Copyright (c) $year
+ * Date: 17/10/26 7:20 PM
+ * Subho Ghosh (subho dot ghosh at outlook.com)
+ *
+ */
+
+package com.codekutter.zconfig.common.parsers;
+
+import com.codekutter.zconfig.common.BinaryConfigConstants;
+import com.codekutter.zconfig.common.ConfigurationException;
+import com.codekutter.zconfig.common.ZConfigEnv;
+import com.codekutter.zconfig.common.model.*;
+import com.codekutter.zconfig.common.model.nodes.*;
+import com.codekutter.zconfig.common.readers.AbstractConfigReader;
+import com.codekutter.zconfig.common.readers.EReaderType;
+import com.codekutter.zconfig.common.utils.ConfigUtils;
+import com.codekutter.zconfig.common.utils.CypherUtils;
+import com.codekutter.zconfig.common.utils.IOUtils;
+import com.google.common.base.Preconditions;
+import com.google.common.base.Strings;
+
+import java.io.*;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Configuration parser to load a binary configuration snapshot (written by
+ * {@link com.codekutter.zconfig.common.writers.BinaryConfigWriter}).
+ * <p>
+ * The node tree is rebuilt directly from the snapshot, the included
+ * configurations are part of the snapshot and the values have already been
+ * substituted. The snapshot is rejected (stale) if it was written for another
+ * version, from a different source (if the source hash is set), if any of the
+ * included configurations has changed or if any of the System properties or
+ * environment variables the values were resolved with has changed.
+ */
+public class BinaryConfigParser extends AbstractConfigParser {
+    /**
+     * Expected content hash of the configuration source, NULL if not checked.
+     */
+    private String sourceHash = null;
+
+    /**
+     * Get the expected content hash of the configuration source.
+     *
+     * @return - Source hash, NULL if not checked.
+     */
+    public String getSourceHash() {
+        return sourceHash;
+    }
+
+    /**
+     * Set the expected content hash of the configuration source.
+     *
+     * @param sourceHash - Source hash, NULL if not checked.
+     */
+    public void setSourceHash(String sourceHash) {
+        this.sourceHash = sourceHash;
+    }
+
+    /**
+     * Snapshots have the included configurations inlined.
+     *
+     * @return - NULL, includes are not supported.
+     */
+    @Override
+    protected AbstractConfigParser createIncludeParser() {
+        return null;
+    }
+
+    /**
+     * Load the configuration from the snapshot.
+     *
+     * @param name     - Configuration name being loaded.
+     * @param reader   - Configuration reader handle to read input from.
+     * @param settings - Configuration Settings to use for parsing.
+     * @param version  - Configuration version to load.
+     * @param password - Password, if the configuration has encrypted values.
+     * @throws ConfigurationException
+     */
+    @Override
+    public void parse(String name, AbstractConfigReader reader,
+                      ConfigurationSettings settings, Version version,
+                      String password) throws ConfigurationException {
+        Preconditions.checkArgument(!Strings.isNullOrEmpty(name));
+        Preconditions.checkArgument(reader != null);
+        Preconditions.checkArgument(version != null);
+
+        try {
+            if (!reader.isOpen()) {
+                reader.open();
+            }
+            if (settings != null) {
+                this.settings = settings;
+            } else {
+                this.settings = new ConfigurationSettings();
+            }
+            try (DataInputStream in = new DataInputStream(
+                    new BufferedInputStream(reader.getInputStream()))) {
+                new SnapshotInput(in).read(name, version, password);
+            }
+            if (!Strings.isNullOrEmpty(configuration.getEncryptionHash())) {
+                ZConfigEnv.getVault().addPasscode(configuration, password);
+            }
+            configuration.loaded();
+            fetchRemoteResources();
+        } catch (IOException e) {
+            if (configuration != null)
+                configuration.getState().setError(e);
+            throw new ConfigurationException(e);
+        } catch (ConfigurationException e) {
+            if (configuration != null)
+                configuration.getState().setError(e);
+            throw e;
+        } catch (Exception e) {
+            if (configuration != null)
+                configuration.getState().setError(e);
+            throw new ConfigurationException(e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+
+    }
+
+    /**
+     * Snapshot input stream with the pool of the strings read.
+     */
+    private final class SnapshotInput {
+        private final DataInputStream in;
+        private final List<String> strings = new ArrayList<>();
+
+        private SnapshotInput(DataInputStream in) {
+            this.in = in;
+        }
+
+        /**
+         * Read the configuration snapshot.
+         *
+         * @param name     - Expected configuration name.
+         * @param version  - Configuration version to load.
+         * @param password - Password, if the configuration has encrypted values.
+         * @throws Exception
+         */
+        private void read(String name, Version version, String password)
+        throws Exception {
+            if (in.readInt() != BinaryConfigConstants.SNAPSHOT_MAGIC) {
+                throw new ConfigurationException(
+                        "Invalid snapshot : Snapshot header not found.");
+            }
+            short format = in.readShort();
+            if (format != BinaryConfigConstants.SNAPSHOT_FORMAT_VERSION) {
+                throw new ConfigurationException(String.format(
+                        "Invalid snapshot : Format not supported. [format=%d]",
+                        format));
+            }
+            String hash = readString();
+            if (sourceHash != null && sourceHash.compareTo(hash) != 0) {
+                throw new ConfigurationException(
+                        "Stale snapshot : Configuration source has changed.");
+            }
+            Version sversion = readVersion();
+            if (!version.equals(sversion)) {
+                throw new ConfigurationException(String.format(
+                        "Stale snapshot : Version does not match. [expected=%s][actual=%s]",
+                        version.toString(), String.valueOf(sversion)));
+            }
+            int count = in.readInt();
+            for (int ii = 0; ii < count; ii++) {
+                URI uri = new URI(readString());
+                String ihash = readString();
+                if (ihash.compareTo(IOUtils.getContentHash(
+                        IOUtils.readContent(uri))) != 0) {
+                    throw new ConfigurationException(String.format(
+                            "Stale snapshot : Included configuration has changed. [URI=%s]",
+                            uri.toString()));
+                }
+            }
+
+            count = in.readInt();
+            List<String> variables = new ArrayList<>(count);
+            for (int ii = 0; ii < count; ii++) {
+                variables.add(readString());
+            }
+            String vhash = readString();
+            if (vhash.compareTo(ConfigUtils.getSystemVariablesHash(variables)) != 0) {
+                throw new ConfigurationException(
+                        "Stale snapshot : System/environment variables have changed.");
+            }
+
+            configuration = new Configuration(settings);
+            for (String variable : variables) {
+                configuration.addResolvedVariable(variable,
+                                                  ConfigUtils.getSystemVariable(
+                                                          variable));
+            }
+            configuration.setId(readString());
+            configuration.setApplicationGroup(readString());
+            configuration.setApplication(readString());
+            String sname = readString();
+            if (name.compareTo(sname) != 0) {
+                throw new ConfigurationException(String.format(
+                        "Invalid configuration : Name does not match. [expected=%s][actual=%s]",
+                        name, sname));
+            }
+            configuration.setName(sname);
+            configuration.setDescription(readString());
+            configuration.setVersion(readVersion());
+            configuration.setCreatedBy(readModifiedBy());
+            configuration.setUpdatedBy(readModifiedBy());
+            String syncMode = readString();
+            if (syncMode != null) {
+                configuration.setSyncMode(ESyncMode.valueOf(syncMode));
+            }
+            String encryptionHash = readString();
+            if (encryptionHash != null) {
+                if (Strings.isNullOrEmpty(password)) {
+                    throw new ConfigurationException(String.format(
+                            "Configuration has encryption, but no passcode specified. [config=%s]",
+                            configuration.getName()));
+                }
+                if (encryptionHash.compareTo(CypherUtils.getKeyHash(password)) != 0) {
+                    throw new ConfigurationException(String.format(
+                            "Invalid Passcode: Doesn't match with passcode set in configuration. [config=%s]",
+                            configuration.getName()));
+                }
+                configuration.setEncryptionHash(encryptionHash);
+            }
+            configuration.getHeader().setTimestamp(in.readLong());
+
+            AbstractConfigNode root = readNode(null);
+            if (!(root instanceof ConfigPathNode)) {
+                throw new ConfigurationException(
+                        "Invalid snapshot : Root node is not a path node.");
+            }
+            configuration.setRootConfigNode((ConfigPathNode) root);
+        }
+
+        /**
+         * Read the next node (and child nodes) and attach it to the parent node.
+         *
+         * @param parent - Parent node, NULL for the root node.
+         * @return - Node read.
+         * @throws IOException
+         * @throws ConfigurationException
+         */
+        private AbstractConfigNode readNode(AbstractConfigNode parent)
+        throws IOException, ConfigurationException {
+            byte type = in.readByte();
+            ConfigIncludeNode include = null;
+            if (type == BinaryConfigConstants.NODE_INCLUDED) {
+                include = new ConfigIncludeNode(configuration, parent);
+                readInclude(include);
+                type = in.readByte();
+            }
+            String name = readString();
+            AbstractConfigNode node;
+            switch (type) {
+                case BinaryConfigConstants.NODE_PATH:
+                    node = new ConfigPathNode(configuration, parent);
+                    break;
+                case BinaryConfigConstants.NODE_VALUE:
+                    node = new ConfigValueNode(configuration, parent);
+                    break;
+                case BinaryConfigConstants.NODE_PROPERTIES:
+                    node = new ConfigPropertiesNode(configuration, parent);
+                    break;
+                case BinaryConfigConstants.NODE_PARAMETERS:
+                    node = new ConfigParametersNode(configuration, parent);
+                    break;
+                case BinaryConfigConstants.NODE_ATTRIBUTES:
+                    node = new ConfigAttributesNode(configuration, parent);
+                    break;
+                case BinaryConfigConstants.NODE_LIST_VALUE:
+                    node = new ConfigListValueNode(configuration, parent);
+                    break;
+                case BinaryConfigConstants.NODE_LIST_ELEMENT:
+                    node = new ConfigListElementNode(configuration, parent);
+                    break;
+                case BinaryConfigConstants.NODE_INCLUDE:
+                    node = new ConfigIncludeNode(configuration, parent);
+                    break;
+                case BinaryConfigConstants.NODE_RESOURCE_FILE:
+                    node = new ConfigResourceFile(configuration, parent);
+                    break;
+                case BinaryConfigConstants.NODE_RESOURCE_DIRECTORY:
+                    node = new ConfigResourceDirectory(configuration, parent);
+                    break;
+                case BinaryConfigConstants.NODE_RESOURCE_BLOB:
+                    node = new ConfigResourceBlob(configuration, parent);
+                    break;
+                default:
+                    throw new ConfigurationException(String.format(
+                            "Invalid snapshot : Unknown node type. [type=%d]",
+                            type));
+            }
+            node.setName(name);
+
+            if (node instanceof ConfigValueNode) {
+                ConfigValueNode vn = (ConfigValueNode) node;
+                String value = readString();
+                if (!Strings.isNullOrEmpty(value)) {
+                    vn.setValue(value);
+                }
+                vn.setEncrypted(in.readBoolean());
+            } else if (node instanceof ConfigIncludeNode) {
+                ConfigIncludeNode inode = (ConfigIncludeNode) node;
+                readInclude(inode);
+                if (in.readBoolean()) {
+                    readNode(inode);
+                }
+            } else if (node instanceof ConfigResourceFile) {
+                readResource((ConfigResourceFile) node);
+            } else {
+                int count = in.readInt();
+                for (int ii = 0; ii < count; ii++) {
+                    readNode(node);
+                }
+            }
+
+            if (parent != null) {
+                attach(parent, node);
+            }
+            if (include != null) {
+                include.setNode((ConfigPathNode) node);
+            }
+            return node;
+        }
+
+        /**
+         * Attach the node to the parent node.
+         *
+         * @param parent - Parent node.
+         * @param node   - Node to attach.
+         * @throws ConfigurationException
+         */
+        private void attach(AbstractConfigNode parent, AbstractConfigNode node)
+        throws ConfigurationException {
+            if (parent instanceof ConfigPathNode) {
+                ((ConfigPathNode) parent).addChildNode(node);
+            } else if (parent instanceof ConfigKeyValueNode &&
+                    node instanceof ConfigValueNode) {
+                ((ConfigKeyValueNode) parent).addKeyValue((ConfigValueNode) node);
+            } else if (parent instanceof ConfigListValueNode &&
+                    node instanceof ConfigValueNode) {
+                ((ConfigListValueNode) parent).addValue((ConfigValueNode) node);
+            } else if (parent instanceof ConfigListElementNode &&
+                    node instanceof ConfigElementNode) {
+                ((ConfigListElementNode) parent).addValue((ConfigElementNode) node);
+            } else if (parent instanceof ConfigIncludeNode &&
+                    node instanceof ConfigPathNode) {
+                ((ConfigIncludeNode) parent).setNode((ConfigPathNode) node);
+            } else {
+                throw new ConfigurationException(String.format(
+                        "Invalid snapshot : Cannot attach node. [parent=%s][node=%s]",
+                        parent.getClass().getCanonicalName(),
+                        node.getClass().getCanonicalName()));
+            }
+        }
+
+        /**
+         * Read the include definition.
+         *
+         * @param include - Include node.
+         * @throws IOException
+         */
+        private void readInclude(ConfigIncludeNode include) throws IOException {
+            include.setConfigName(readString());
+            include.setPath(readString());
+            String type = readString();
+            if (type != null) {
+                include.setReaderType(EReaderType.valueOf(type));
+            }
+            include.setVersion(readVersion());
+        }
+
+        /**
+         * Read the resource definition, the local resource handle must exist
+         * for local/directory resources.
+         *
+         * @param resource - Resource node.
+         * @throws IOException
+         * @throws ConfigurationException
+         */
+        private void readResource(ConfigResourceFile resource)
+        throws IOException, ConfigurationException {
+            String location = readString();
+            String resourceName = readString();
+            String handle = readString();
+            String checksum = readString();
+            try {
+                if (location != null) {
+                    resource.setLocation(new URI(location));
+                }
+            } catch (URISyntaxException e) {
+                throw new ConfigurationException(e);
+            }
+            resource.setType(null);
+            if (resourceName != null) {
+                resource.setResourceName(resourceName);
+            }
+            resource.setChecksum(checksum);
+            if (handle != null) {
+                File file = new File(handle);
+                if ((resource instanceof ConfigResourceDirectory ||
+                        (location != null &&
+                                IOUtils.isLocalFile(resource.getLocation()))) &&
+                        !file.exists()) {
+                    throw new ConfigurationException(String.format(
+                            "Stale snapshot : Resource not found. [path=%s]",
+                            file.getAbsolutePath()));
+                }
+                resource.setResourceHandle(file);
+                if (location != null && !IOUtils.isLocalFile(resource.getLocation())) {
+                    setupRemoteResource(resource);
+                }
+            }
+        }
+
+        private Version readVersion() throws IOException {
+            if (in.readBoolean()) {
+                return new Version(in.readInt(), in.readInt());
+            }
+            return null;
+        }
+
+        private ModifiedBy readModifiedBy() throws IOException {
+            if (in.readBoolean()) {
+                ModifiedBy modifiedBy = new ModifiedBy();
+                String user = readString();
+                if (!Strings.isNullOrEmpty(user)) {
+                    modifiedBy.setModifiedBy(user);
+                }
+                modifiedBy.setTimestamp(in.readLong());
+                return modifiedBy;
+            }
+            return null;
+        }
+
+        /**
+         * Read a (pooled) string value.
+         *
+         * @return - String value, can be NULL.
+         * @throws IOException
+         */
+        private String readString() throws IOException {
+            int index = in.readInt();
+            if (index == BinaryConfigConstants.STRING_NULL) {
+                return null;
+            } else if (index == BinaryConfigConstants.STRING_INLINE) {
+                byte[] data = new byte[in.readInt()];
+                in.readFully(data);
+                String value = new String(data, StandardCharsets.UTF_8);
+                strings.add(value);
+                return value;
+            }
+            if (index < 0 || index >= strings.size()) {
+                throw new IOException(String.format(
+                        "Invalid snapshot : Invalid string reference. [index=%d]",
+                        index));
+            }
+            return strings.get(index);
+        }
+    }
+}
@@ -0,0 +1,339 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ * Copyright (c) $year
+ * Date: 17/10/26 5:35 PM
+ * Subho Ghosh (subho dot ghosh at outlook.com)
+ *
+ */
+
+package com.codekutter.zconfig.common.parsers;
+
+import com.codekutter.zconfig.common.ConfigurationException;
+import com.codekutter.zconfig.common.LogUtils;
+import com.codekutter.zconfig.common.model.Configuration;
+import com.codekutter.zconfig.common.model.ConfigurationSettings;
+import com.codekutter.zconfig.common.model.Version;
+import com.codekutter.zconfig.common.model.nodes.ConfigIncludeNode;
+import com.codekutter.zconfig.common.model.nodes.ConfigPathNode;
+import com.codekutter.zconfig.common.readers.AbstractConfigReader;
+import com.codekutter.zconfig.common.readers.ConfigBufferReader;
+import com.codekutter.zconfig.common.utils.ConfigUtils;
+import com.codekutter.zconfig.common.utils.CypherUtils;
+import com.codekutter.zconfig.common.utils.IOUtils;
+import com.google.common.base.Preconditions;
+import com.google.common.base.Strings;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import javax.annotation.Nonnull;
+import java.net.URI;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache of parsed included configurations, shared across the configurations
+ * (and reloads) that include the same configuration.
+ * <p>
+ * Entries are keyed by the include URI, the included version, the hash of
+ * the included content, the hash of the passcode and the settings that affect
+ * the parsed configuration. A cache hit therefore never bypasses the passcode
+ * check of a load with a different (or no) passcode. Included configurations are re-read on every load to
+ * compute the content hash, only the parse is skipped. Entries for included
+ * configurations that have nested includes are only used if the content of
+ * the nested includes is unchanged, and entries are only used if the System
+ * properties/environment variables the values were resolved with are unchanged.
+ * <p>
+ * Cached configurations are never attached, each load gets a copy of the
+ * cached configuration tree.
+ */
+public class ConfigIncludeCache {
+    /**
+     * Default max number of cached configurations.
+     */
+    public static final int DEFAULT_CACHE_SIZE = 64;
+
+    /**
+     * Parses the included configuration on a cache miss.
+     */
+    interface IncludeParser {
+        /**
+         * Parse the included configuration.
+         *
+         * @param reader - Reader for the included content.
+         * @return - Parsed configuration.
+         * @throws ConfigurationException
+         */
+        Configuration parse(AbstractConfigReader reader)
+        throws ConfigurationException;
+    }
+
+    /**
+     * Included configuration content, used to validate cache entries.
+     */
+    static final class Dependency {
+        private final URI uri;
+        private final String hash;
+
+        private Dependency(URI uri, String hash) {
+            this.uri = uri;
+            this.hash = hash;
+        }
+    }
+
+    /**
+     * Cached configuration, the nested includes and the System/environment
+     * variables it was parsed with.
+     */
+    private static final class Entry {
+        private final Configuration configuration;
+        private final List<Dependency> dependencies;
+        private final Set<String> variables;
+        private final String variablesHash;
+
+        private Entry(Configuration configuration,
+                      List<Dependency> dependencies) {
+            this.configuration = configuration;
+            this.dependencies = dependencies;
+            Map<String, String> resolved = configuration.getResolvedVariables();
+            this.variables = new HashSet<>(resolved.keySet());
+            this.variablesHash = ConfigUtils.getVariablesHash(resolved);
+        }
+    }
+
+    private static final ConfigIncludeCache __shared =
+            new ConfigIncludeCache(DEFAULT_CACHE_SIZE);
+
+    private final Cache<String, Entry> cache;
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+
+    /**
+     * Constructor with the cache size.
+     *
+     * @param maximumSize - Max number of cached configurations.
+     */
+    public ConfigIncludeCache(int maximumSize) {
+        Preconditions.checkArgument(maximumSize > 0);
+        cache = CacheBuilder.newBuilder().maximumSize(maximumSize)
+                            .recordStats().build();
+    }
+
+    /**
+     * Get the include cache shared by the parsers.
+     *
+     * @return - Shared include cache.
+     */
+    public static ConfigIncludeCache shared() {
+        return __shared;
+    }
+
+    /**
+     * Get the number of loads served from the cache.
+     *
+     * @return - Hit count.
+     */
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    /**
+     * Get the number of loads that had to be parsed.
+     *
+     * @return - Miss count.
+     */
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    /**
+     * Get the number of entries evicted due to the cache size.
+     *
+     * @return - Eviction count.
+     */
+    public long getEvictionCount() {
+        return cache.stats().evictionCount();
+    }
+
+    /**
+     * Get the number of cached configurations.
+     *
+     * @return - Cache size.
+     */
+    public long size() {
+        return cache.size();
+    }
+
+    /**
+     * Remove all the cached configurations.
+     */
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    /**
+     * Load the included configuration, the cached configuration is used if the
+     * included content is unchanged.
+     *
+     * @param node     - Include node.
+     * @param resolver - Resolver the included configuration is being loaded with.
+     * @param password - Password the included configuration is loaded with.
+     * @param settings - Configuration Settings.
+     * @param parser   - Parser for the included configuration.
+     * @return - Copy of the included configuration.
+     * @throws ConfigurationException
+     */
+    Configuration load(@Nonnull ConfigIncludeNode node,
+                       @Nonnull ConfigIncludeResolver resolver,
+                       String password, ConfigurationSettings settings,
+                       @Nonnull IncludeParser parser)
+    throws ConfigurationException {
+        Preconditions.checkArgument(node != null);
+        Preconditions.checkArgument(resolver != null);
+        Preconditions.checkArgument(parser != null);
+
+        URI uri = node.getURI();
+        if (uri == null) {
+            throw new ConfigurationException(
+                    "Error getting URI for include node.");
+        }
+        byte[] data = IOUtils.readContent(uri);
+        String hash = IOUtils.getContentHash(data);
+        String key = getKey(uri, node.getVersion(), hash, password, settings);
+
+        Entry entry = cache.getIfPresent(key);
+        if (entry != null && isCurrent(entry)) {
+            hitCount.incrementAndGet();
+        } else {
+            missCount.incrementAndGet();
+            Configuration configuration =
+                    parser.parse(new ConfigBufferReader(data));
+            if (configuration == null) {
+                throw new ConfigurationException(String.format(
+                        "Error loading included configuration. [URI=%s]", uri));
+            }
+            entry = new Entry(configuration, resolver.getDependencies());
+            cache.put(key, entry);
+        }
+        ConfigIncludeResolver parent = resolver.getParent();
+        if (parent != null) {
+            parent.addDependencies(
+                    Collections.singletonList(new Dependency(uri, hash)));
+            parent.addDependencies(entry.dependencies);
+        }
+        return copy(entry.configuration);
+    }
+
+    /**
+     * Check if the nested includes of the cached configuration and the
+     * System/environment variables it was resolved with are unchanged.
+     *
+     * @param entry - Cache entry.
+     * @return - Is current?
+     */
+    private boolean isCurrent(Entry entry) {
+        if (!entry.variables.isEmpty()) {
+            String hash = ConfigUtils.getSystemVariablesHash(entry.variables);
+            if (hash.compareTo(entry.variablesHash) != 0) {
+                return false;
+            }
+        }
+        for (Dependency dependency : entry.dependencies) {
+            try {
+                String hash = IOUtils.getContentHash(
+                        IOUtils.readContent(dependency.uri));
+                if (hash.compareTo(dependency.hash) != 0) {
+                    return false;
+                }
+            } catch (ConfigurationException e) {
+                LogUtils.debug(getClass(), String.format(
+                        "Error reading nested include. [URI=%s][error=%s]",
+                        dependency.uri, e.getLocalizedMessage()));
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Create a copy of the cached configuration that can be attached.
+     *
+     * @param configuration - Cached configuration.
+     * @return - Configuration copy.
+     */
+    private Configuration copy(Configuration configuration) {
+        Configuration copy = configuration.copy();
+        ConfigPathNode root = configuration.getRootConfigNode();
+        if (root != null) {
+            copy.setRootConfigNode((ConfigPathNode) root.copyTree(copy, null));
+        }
+        return copy;
+    }
+
+    /**
+     * Get the cache key for the included content.
+     *
+     * @param uri      - Include URI.
+     * @param version  - Included version.
+     * @param hash     - Content hash.
+     * @param password - Password the configuration is loaded with.
+     * @param settings - Configuration Settings.
+     * @return - Cache key.
+     * @throws ConfigurationException
+     */
+    private static String getKey(URI uri, Version version, String hash,
+                                 String password, ConfigurationSettings settings)
+    throws ConfigurationException {
+        String keyHash = "";
+        if (!Strings.isNullOrEmpty(password)) {
+            try {
+                keyHash = CypherUtils.getKeyHash(password);
+            } catch (Exception e) {
+                throw new ConfigurationException(e);
+            }
+        }
+        return String.format("%s|%s|%s|%s|%s", uri.normalize().toString(),
+                             (version != null ? version.toString() : ""), hash,
+                             keyHash, getSettingsKey(settings));
+    }
+
+    /**
+     * Get the key of the settings that affect the parsed configuration.
+     *
+     * @param settings - Configuration Settings.
+     * @return - Settings key.
+     */
+    private static String getSettingsKey(ConfigurationSettings settings) {
+        if (settings == null) {
+            return "";
+        }
+        return String.format("%s:%s:%s:%s:%s:%s:%s:%s",
+                             settings.getPropertiesNodeName(),
+                             settings.getParametersNodeName(),
+                             settings.getAttributesNodeName(),
+                             settings.getTempDirectory(),
+                             settings.getDownloadRemoteFiles(),
+                             settings.getClearTempFolder(),
+                             settings.isCompactOnLoad(),
+                             settings.isPrefetchResources());
+    }
+}
@@ -0,0 +1,384 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ * Copyright (c) $year
+ * Date: 17/10/26 4:10 PM
+ * Subho Ghosh (subho dot ghosh at outlook.com)
+ *
+ */
+
+package com.codekutter.zconfig.common.parsers;
+
+import com.codekutter.zconfig.common.ConfigurationException;
+import com.codekutter.zconfig.common.LogUtils;
+import com.codekutter.zconfig.common.model.Configuration;
+import com.codekutter.zconfig.common.model.ConfigurationSettings;
+import com.codekutter.zconfig.common.model.nodes.ConfigIncludeNode;
+import com.google.common.base.Preconditions;
+import com.google.common.base.Strings;
+
+import javax.annotation.Nonnull;
+import java.net.URI;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Resolver to load the included configurations of a configuration load
+ * concurrently.
+ * <p>
+ * Includes are submitted as they are discovered by the parser and start loading
+ * on a bounded executor right away. Once the parse is complete the loaded
+ * configurations are attached in declaration order. Nested includes share the
+ * executor and the load deadline of the top-level resolver. Nested includes
+ * that haven't been picked up by the executor are run by the waiting (executor)
+ * thread, so nested loads don't starve the executor.
+ * <p>
+ * Includes that (directly or indirectly) include a configuration being loaded
+ * are rejected as cyclic.
+ */
+final class ConfigIncludeResolver {
+    /**
+     * Loads the included configuration.
+     */
+    interface IncludeLoader {
+        /**
+         * Load the included configuration.
+         *
+         * @param resolver - Resolver to use for the includes of the loaded configuration.
+         * @return - Loaded configuration.
+         * @throws ConfigurationException
+         */
+        Configuration load(ConfigIncludeResolver resolver)
+        throws ConfigurationException;
+    }
+
+    /**
+     * Attaches the loaded configuration to the including configuration.
+     */
+    interface IncludeHandler {
+        /**
+         * Attach the loaded configuration.
+         *
+         * @param included - Loaded configuration.
+         * @throws ConfigurationException
+         */
+        void attach(Configuration included) throws ConfigurationException;
+    }
+
+    /**
+     * Include that has been submitted for loading.
+     */
+    private static final class PendingInclude {
+        private final URI uri;
+        private final FutureTask<Configuration> task;
+        private final IncludeHandler handler;
+
+        private PendingInclude(URI uri, FutureTask<Configuration> task,
+                               IncludeHandler handler) {
+            this.uri = uri;
+            this.task = task;
+            this.handler = handler;
+        }
+    }
+
+    /**
+     * Executor thread used to load includes.
+     */
+    private static final class IncludeThread extends Thread {
+        private IncludeThread(Runnable runnable) {
+            super(runnable, String.format("zconfig-include-%d",
+                                          threadCounter.incrementAndGet()));
+            setDaemon(true);
+        }
+    }
+
+    private static final AtomicInteger threadCounter = new AtomicInteger();
+
+    /**
+     * Parent resolver, NULL for the top-level load.
+     */
+    private final ConfigIncludeResolver parent;
+    /**
+     * Key of the configuration being loaded (configuration name or URI).
+     */
+    private final Set<String> keys;
+    private final ConfigurationSettings settings;
+    /**
+     * Load deadline (System.nanoTime()).
+     */
+    private final long deadline;
+    private final List<PendingInclude> pending = new ArrayList<>();
+    /**
+     * Included configurations (direct and nested) loaded by this resolver,
+     * recorded by the include cache.
+     */
+    private final List<ConfigIncludeCache.Dependency> dependencies =
+            Collections.synchronizedList(new ArrayList<>());
+    /**
+     * Include executor, owned by the top-level resolver.
+     */
+    private ExecutorService executor = null;
+
+    /**
+     * Create the resolver for a top-level configuration load.
+     *
+     * @param name     - Configuration name being loaded.
+     * @param settings - Configuration Settings.
+     */
+    ConfigIncludeResolver(@Nonnull String name,
+                          @Nonnull ConfigurationSettings settings) {
+        Preconditions.checkArgument(!Strings.isNullOrEmpty(name));
+        Preconditions.checkArgument(settings != null);
+
+        this.parent = null;
+        this.keys = Collections.singleton(name);
+        this.settings = settings;
+        long timeout = settings.getIncludeLoadTimeout();
+        if (timeout <= 0) {
+            timeout = Long.MAX_VALUE / 2;
+        }
+        this.deadline = System.nanoTime() +
+                TimeUnit.MILLISECONDS.toNanos(timeout);
+    }
+
+    /**
+     * Create the resolver for an included configuration load.
+     *
+     * @param parent - Resolver of the including configuration.
+     * @param uri    - URI of the included configuration.
+     * @param name   - Included configuration name.
+     */
+    private ConfigIncludeResolver(ConfigIncludeResolver parent, URI uri,
+                                  String name) {
+        this.parent = parent;
+        Set<String> keys = new HashSet<>(2);
+        keys.add(uri.normalize().toString());
+        if (!Strings.isNullOrEmpty(name)) {
+            keys.add(name);
+        }
+        this.keys = keys;
+        this.settings = parent.settings;
+        this.deadline = parent.deadline;
+    }
+
+    /**
+     * Check if the key is being loaded by this resolver or one of its parents.
+     *
+     * @param key - Configuration name or URI.
+     * @return - Is being loaded?
+     */
+    private boolean isLoading(String key) {
+        for (ConfigIncludeResolver r = this; r != null; r = r.parent) {
+            if (r.keys.contains(key)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Get the resolver of the including configuration.
+     *
+     * @return - Parent resolver, NULL for the top-level load.
+     */
+    ConfigIncludeResolver getParent() {
+        return parent;
+    }
+
+    /**
+     * Record the included configurations loaded by this resolver.
+     *
+     * @param dependencies - Loaded configurations.
+     */
+    void addDependencies(@Nonnull Collection<ConfigIncludeCache.Dependency> dependencies) {
+        this.dependencies.addAll(dependencies);
+    }
+
+    /**
+     * Get the included configurations loaded by this resolver.
+     *
+     * @return - Loaded configurations.
+     */
+    List<ConfigIncludeCache.Dependency> getDependencies() {
+        synchronized (dependencies) {
+            return new ArrayList<>(dependencies);
+        }
+    }
+
+    /**
+     * Get the top-level resolver.
+     *
+     * @return - Top-level resolver.
+     */
+    private ConfigIncludeResolver root() {
+        ConfigIncludeResolver r = this;
+        while (r.parent != null) {
+            r = r.parent;
+        }
+        return r;
+    }
+
+    /**
+     * Get the include executor, NULL if includes are loaded in the parsing thread.
+     *
+     * @return - Executor Service.
+     */
+    private synchronized ExecutorService executor() {
+        if (executor == null) {
+            int threads = settings.getIncludeLoaderThreads();
+            if (threads <= 1) {
+                return null;
+            }
+            ThreadPoolExecutor pool = new ThreadPoolExecutor(
+                    threads, threads, 30, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<>(), IncludeThread::new);
+            pool.allowCoreThreadTimeOut(true);
+            executor = pool;
+        }
+        return executor;
+    }
+
+    /**
+     * Submit the include to be loaded.
+     *
+     * @param node    - Include node.
+     * @param loader  - Loader for the included configuration.
+     * @param handler - Handler to attach the loaded configuration.
+     * @throws ConfigurationException - If the include is cyclic.
+     */
+    void submit(@Nonnull ConfigIncludeNode node, @Nonnull IncludeLoader loader,
+                @Nonnull IncludeHandler handler)
+    throws ConfigurationException {
+        Preconditions.checkArgument(node != null);
+        Preconditions.checkArgument(loader != null);
+        Preconditions.checkArgument(handler != null);
+
+        URI uri = node.getURI();
+        if (uri == null) {
+            throw new ConfigurationException(
+                    "Error getting URI for include node.");
+        }
+        String name = node.getConfigName();
+        if (isLoading(uri.normalize().toString()) ||
+                (!Strings.isNullOrEmpty(name) && isLoading(name))) {
+            throw new ConfigurationException(String.format(
+                    "Cyclic include detected : [config=%s][URI=%s]", name,
+                    uri.toString()));
+        }
+        ConfigIncludeResolver resolver = new ConfigIncludeResolver(this, uri, name);
+        FutureTask<Configuration> task =
+                new FutureTask<>(() -> loader.load(resolver));
+        pending.add(new PendingInclude(uri, task, handler));
+
+        ExecutorService executor = root().executor();
+        if (executor != null) {
+            try {
+                executor.execute(task);
+            } catch (RejectedExecutionException e) {
+                // Will be run by the waiting thread.
+                LogUtils.debug(getClass(), String.format(
+                        "Include load rejected by executor. [URI=%s]", uri));
+            }
+        }
+    }
+
+    /**
+     * Wait for the submitted includes to be loaded and attach them, in the
+     * order they were submitted.
+     *
+     * @throws ConfigurationException - On load error or timeout.
+     */
+    void await() throws ConfigurationException {
+        boolean inline = (root().executor() == null ||
+                Thread.currentThread() instanceof IncludeThread);
+        try {
+            for (int ii = 0; ii < pending.size(); ii++) {
+                PendingInclude include = pending.get(ii);
+                if (inline) {
+                    // Run in this thread, if not yet started.
+                    include.task.run();
+                }
+                long remaining = deadline - System.nanoTime();
+                Configuration config;
+                try {
+                    config = include.task.get(Math.max(remaining, 0),
+                                              TimeUnit.NANOSECONDS);
+                } catch (TimeoutException e) {
+                    cancel(ii);
+                    throw new ConfigurationException(String.format(
+                            "Timeout loading included configuration. [URI=%s][timeout=%dms]",
+                            include.uri, settings.getIncludeLoadTimeout()));
+                } catch (ExecutionException e) {
+                    cancel(ii + 1);
+                    Throwable cause = e.getCause();
+                    if (cause instanceof ConfigurationException) {
+                        throw (ConfigurationException) cause;
+                    }
+                    throw new ConfigurationException(cause);
+                } catch (InterruptedException e) {
+                    cancel(ii);
+                    Thread.currentThread().interrupt();
+                    throw new ConfigurationException(e);
+                } catch (CancellationException e) {
+                    cancel(ii + 1);
+                    throw new ConfigurationException(String.format(
+                            "Include load cancelled. [URI=%s]", include.uri));
+                }
+                if (config == null) {
+                    throw new ConfigurationException(String.format(
+                            "Error loading included configuration. [URI=%s]",
+                            include.uri));
+                }
+                include.handler.attach(config);
+            }
+        } finally {
+            pending.clear();
+        }
+    }
+
+    /**
+     * Cancel the pending includes, starting at the specified index.
+     *
+     * @param start - Start index.
+     */
+    private void cancel(int start) {
+        for (int ii = start; ii < pending.size(); ii++) {
+            pending.get(ii).task.cancel(true);
+        }
+    }
+
+    /**
+     * Release the resolver resources. The executor is shutdown by the top-level
+     * resolver.
+     */
+    void close() {
+        if (parent == null) {
+            ExecutorService executor;
+            synchronized (this) {
+                executor = this.executor;
+                this.executor = null;
+            }
+            if (executor != null) {
+                executor.shutdownNow();
+            }
+        }
+        cancel(0);
+        pending.clear();
+    }
+}
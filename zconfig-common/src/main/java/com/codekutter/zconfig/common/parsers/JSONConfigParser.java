@@ -29,7 +29,9 @@ import com.codekutter.zconfig.common.model.*;
 import com.codekutter.zconfig.common.model.nodes.*;
 import com.codekutter.zconfig.common.readers.EReaderType;
 import com.codekutter.zconfig.common.utils.CypherUtils;
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
@@ -38,7 +40,6 @@ import com.google.common.base.Preconditions;
 import com.google.common.base.Strings;
 import com.codekutter.zconfig.common.readers.AbstractConfigReader;
 import com.codekutter.zconfig.common.utils.IOUtils;
-import com.codekutter.zconfig.common.utils.RemoteFileHelper;
 
 import java.io.BufferedReader;
 import java.io.File;
@@ -46,7 +47,6 @@ import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.nio.file.Paths;
-import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
 
@@ -54,8 +54,45 @@ import java.util.Map;
  * Configuration Parser implementation that reads the configuration from a JSON file.
  */
 public class JSONConfigParser extends AbstractConfigParser {
+    /**
+     * Parse the input as a token stream? (else the JSON tree is read first)
+     */
+    private boolean streaming = true;
 
-    private Map<Integer, JsonNode> processedNodes = null;
+    /**
+     * Is the input parsed as a token stream?
+     * <p>
+     * In streaming mode the configuration nodes are created directly from the
+     * JSON tokens, the complete JSON tree is not loaded in memory. Only the
+     * header, include and resource definitions are read as (small) JSON trees.
+     *
+     * @return - Is streaming?
+     */
+    public boolean isStreaming() {
+        return streaming;
+    }
+
+    /**
+     * Set the input to be parsed as a token stream.
+     *
+     * @param streaming - Is streaming?
+     */
+    public void setStreaming(boolean streaming) {
+        this.streaming = streaming;
+    }
+
+    /**
+     * Create a parser instance to parse an included configuration, the
+     * parser uses the same (streaming) mode.
+     *
+     * @return - Include parser.
+     */
+    @Override
+    protected AbstractConfigParser createIncludeParser() {
+        JSONConfigParser parser = new JSONConfigParser();
+        parser.setStreaming(streaming);
+        return parser;
+    }
 
     /**
      * Parse the configuration from the JSON file specified in the properties.
@@ -127,10 +164,6 @@ public class JSONConfigParser extends AbstractConfigParser {
         Preconditions.checkArgument(reader != null);
         Preconditions.checkArgument(version != null);
 
-        if (processedNodes == null) {
-            processedNodes = new HashMap<>();
-        }
-
         try {
             if (!reader.isOpen()) {
                 reader.open();
@@ -138,19 +171,27 @@ public class JSONConfigParser extends AbstractConfigParser {
 
             try (BufferedReader br = reader.getBufferedStream()) {
                 ObjectMapper mapper = new ObjectMapper();
-                JsonNode rootNode = mapper.readTree(br);
-
                 if (settings != null) {
                     this.settings = settings;
                 } else {
                     this.settings = new ConfigurationSettings();
                 }
-                parse(name, version, rootNode, password);
+                if (streaming) {
+                    try (JsonParser parser = mapper.getFactory().createParser(br)) {
+                        parse(name, version, parser, password);
+                    }
+                } else {
+                    JsonNode rootNode = mapper.readTree(br);
+                    parse(name, version, rootNode, password);
+                }
 
                 if (!Strings.isNullOrEmpty(configuration.getEncryptionHash())) {
                     ZConfigEnv.getVault().addPasscode(configuration, password);
                 }
 
+                // Attach the included configurations.
+                resolveIncludes();
+
                 // Call the load finish handler.
                 doPostLoad();
             }
@@ -170,24 +211,11 @@ public class JSONConfigParser extends AbstractConfigParser {
             if (configuration != null)
                 configuration.getState().setError(e);
             throw new ConfigurationException(e);
+        } finally {
+            closeIncludes();
         }
     }
 
-    /**
-     * Check if node has already been processed.
-     *
-     * @param node - JSON node to check for.
-     * @return - Is processed?
-     */
-    private boolean isProcessed(JsonNode node) {
-        int hashCode = System.identityHashCode(node);
-        if (processedNodes.containsKey(hashCode)) {
-            return true;
-        }
-        processedNodes.put(hashCode, node);
-        return false;
-    }
-
     /**
      * Parse the configuration from the specified JSON node.
      *
@@ -259,6 +287,298 @@ public class JSONConfigParser extends AbstractConfigParser {
         parseChildNodes(rootConfigNode, node, password);
     }
 
+    /**
+     * Parse the configuration from the JSON token stream.
+     * <p>
+     * Configuration nodes are created as the tokens are read, only the header
+     * node is read as a JSON tree. If the body precedes the header, the body
+     * is buffered as a JSON tree and parsed once the header has been read.
+     *
+     * @param name     - Expected Configuration name.
+     * @param version  - Expected Compatible version.
+     * @param parser   - JSON token parser.
+     * @param password - Password in case the Configuration has encrypted elements.
+     * @throws ConfigurationException
+     */
+    private synchronized void parse(String name, Version version,
+                                    JsonParser parser, String password)
+    throws ConfigurationException {
+        configuration = new Configuration(settings);
+        configuration.getState().setState(ENodeState.Loading);
+        configuration.setName(name);
+
+        try {
+            JsonToken token = parser.nextToken();
+            if (token != JsonToken.START_OBJECT) {
+                throw new ConfigurationException(String.format(
+                        "Invalid Configuration : [expected=%s][actual=%s]",
+                        JsonNodeType.OBJECT.name(), getNodeType(token).name()));
+            }
+            boolean header = false;
+            boolean body = false;
+            String bodyName = null;
+            JsonNode bodyNode = null;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String fname = parser.getCurrentName();
+                parser.nextToken();
+                if (fname.compareTo(JSONConfigConstants.CONFIG_HEADER_NODE) == 0) {
+                    JsonNode hnode = parser.readValueAsTree();
+                    readHeader(hnode, version, password);
+                    header = true;
+                    if (bodyNode != null) {
+                        parseConfiguration(bodyName, bodyNode, password);
+                        bodyNode = null;
+                    }
+                } else if (body) {
+                    parser.skipChildren();
+                } else if (!header) {
+                    bodyName = fname;
+                    bodyNode = parser.readValueAsTree();
+                    body = true;
+                } else {
+                    parseConfiguration(fname, parser, password);
+                    body = true;
+                }
+            }
+            if (!header) {
+                throw ConfigurationException
+                        .propertyNotFoundException(
+                                JSONConfigConstants.CONFIG_HEADER_NODE);
+            }
+        } catch (ConfigurationException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new ConfigurationException(e);
+        }
+        configuration.getRootConfigNode().updateState(ENodeState.Synced);
+    }
+
+    /**
+     * Read the root configuration node and then the child nodes from the
+     * token stream.
+     *
+     * @param name   - Name of the root node.
+     * @param parser - JSON token parser, positioned at the node value.
+     * @throws ConfigurationException
+     * @throws IOException
+     */
+    private void parseConfiguration(String name, JsonParser parser,
+                                    String password)
+    throws ConfigurationException, IOException {
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            throw new ConfigurationException(String.format(
+                    "Invalid Configuration Node : [expected=%s][actual=%s]",
+                    JsonNodeType.OBJECT.name(),
+                    getNodeType(parser.currentToken()).name()));
+        }
+        // Read the root configuration node.
+        ConfigPathNode rootConfigNode = new ConfigPathNode(configuration, null);
+        rootConfigNode.setName(name);
+        rootConfigNode.loading();
+
+        configuration.setRootConfigNode(rootConfigNode);
+
+        // Read the child nodes.
+        parseStreamFields(rootConfigNode, parser, password);
+    }
+
+    /**
+     * Parse the fields of the current JSON object and add the config nodes to
+     * the parent. The parser is positioned at the end of the object on return.
+     *
+     * @param parent - Config node to add children to.
+     * @param parser - JSON token parser, positioned at the object start.
+     * @throws ConfigurationException
+     * @throws IOException
+     */
+    private void parseStreamFields(AbstractConfigNode parent, JsonParser parser,
+                                   String password)
+    throws ConfigurationException, IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.getCurrentName();
+            parser.nextToken();
+            parseStreamNode(name, parser, parent, password);
+        }
+    }
+
+    /**
+     * Parse the current JSON value and create a configuration element.
+     *
+     * @param name   - Element name
+     * @param parser - JSON token parser, positioned at the value.
+     * @param parent - Parent configuration node.
+     * @throws ConfigurationException
+     * @throws IOException
+     */
+    private void parseStreamNode(String name, JsonParser parser,
+                                 AbstractConfigNode parent, String password)
+    throws ConfigurationException, IOException {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.START_OBJECT) {
+            AbstractConfigNode nn = readStreamObject(name, parser, parent, password);
+            if (nn == null) {
+                throw new ConfigurationException("Error reading object node.");
+            }
+        } else if (token == JsonToken.VALUE_STRING) {
+            addStringValue(name, parser.getText(), parent);
+        } else if (token == JsonToken.START_ARRAY) {
+            readStreamArray(name, parser, parent, password);
+        } else {
+            // Other value types are not supported, skip.
+            parser.skipChildren();
+        }
+    }
+
+    /**
+     * Read and process the current JSON Array from the token stream.
+     *
+     * @param name   - Name of the node.
+     * @param parser - JSON token parser, positioned at the array start.
+     * @param parent - Parent Config Node.
+     * @throws ConfigurationException
+     * @throws IOException
+     */
+    private void readStreamArray(String name, JsonParser parser,
+                                 AbstractConfigNode parent, String password)
+    throws ConfigurationException, IOException {
+        JsonToken type = parser.nextToken();
+        if (type == JsonToken.END_ARRAY) {
+            return;
+        }
+        ConfigListNode<?> listNode = null;
+        if (type == JsonToken.VALUE_STRING) {
+            listNode = new ConfigListValueNode(configuration, parent);
+        } else if (type == JsonToken.START_OBJECT) {
+            listNode = new ConfigListElementNode(configuration, parent);
+        } else {
+            throw new ConfigurationException(String.format(
+                    "Unsupported Array element type. [type=%s]",
+                    getNodeType(type).name()));
+        }
+        setupNode(name, listNode, parent);
+        int index = 0;
+        for (JsonToken token = type; token != JsonToken.END_ARRAY;
+             token = parser.nextToken()) {
+            if (token != type) {
+                throw new ConfigurationException(String.format(
+                        "Invalid Array Element : [expected type=%s][actual type=%s]",
+                        getNodeType(type).name(), getNodeType(token).name()));
+            }
+            parseStreamNode(String.valueOf(index), parser, listNode, password);
+            index++;
+        }
+    }
+
+    /**
+     * Read the current JSON Object from the token stream and parse the config data.
+     * <p>
+     * Include and Resource definitions are read as JSON trees. Path nodes are
+     * added to the parent once the object has been read, as the object might
+     * turn out to be an encrypted value.
+     *
+     * @param name   - Config Node name.
+     * @param parser - JSON token parser, positioned at the object start.
+     * @param parent - Parent config node.
+     * @return - Parsed config node.
+     * @throws ConfigurationException
+     * @throws IOException
+     */
+    private AbstractConfigNode readStreamObject(String name, JsonParser parser,
+                                                AbstractConfigNode parent,
+                                                String password)
+    throws ConfigurationException, IOException {
+        ConfigurationSettings csettings = configuration.getSettings();
+        AbstractConfigNode nn = null;
+        if (name.compareTo(csettings.getPropertiesNodeName()) == 0) {
+            nn = new ConfigPropertiesNode(configuration, parent);
+        } else if (name.compareTo(csettings.getParametersNodeName()) == 0) {
+            nn = new ConfigParametersNode(configuration, parent);
+        } else if (name.compareTo(csettings.getAttributesNodeName()) == 0) {
+            nn = new ConfigAttributesNode(configuration, parent);
+        } else if (name.compareTo(ConfigIncludeNode.NODE_NAME) == 0) {
+            ConfigIncludeNode pn = new ConfigIncludeNode(configuration, parent);
+            JsonNode node = parser.readValueAsTree();
+            setupIncludeNode(name, pn, parent, node, password);
+            return pn;
+        } else if (name.compareTo(ConfigResourceNode.NODE_NAME) == 0) {
+            JsonNode node = parser.readValueAsTree();
+            return readResourceNode(name, node, parent);
+        }
+        if (nn != null) {
+            setupNode(name, nn, parent);
+            parseStreamFields(nn, parser, password);
+            return nn;
+        }
+
+        ConfigPathNode pn = new ConfigPathNode(configuration, parent);
+        pn.setName(name);
+        pn.setParent(parent);
+        pn.setConfiguration(configuration);
+        pn.loading();
+
+        boolean encrypted = false;
+        String value = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String fname = parser.getCurrentName();
+            JsonToken token = parser.nextToken();
+            if (fname.compareTo(JSONConfigConstants.CONFIG_NODE_ENCRYPTED) == 0) {
+                encrypted = true;
+            } else if (fname.compareTo(
+                    JSONConfigConstants.CONFIG_NODE_ENCRYPTED_VALUE) == 0 &&
+                    token.isScalarValue()) {
+                value = parser.getText();
+            }
+            if (!encrypted) {
+                parseStreamNode(fname, parser, pn, password);
+            } else {
+                parser.skipChildren();
+            }
+        }
+        if (encrypted) {
+            if (value == null) {
+                throw new ConfigurationException(
+                        "Invalid Encrypted node: Value is NULL.");
+            }
+            ConfigValueNode vn = createEncryptedValue(name, parent, value);
+            addValueNode(vn, parent);
+            return vn;
+        }
+        addToParentNode(parent, pn);
+        return pn;
+    }
+
+    /**
+     * Get the JSON node type corresponding to the value token.
+     *
+     * @param token - JSON token.
+     * @return - JSON Node type.
+     */
+    private static JsonNodeType getNodeType(JsonToken token) {
+        if (token == null) {
+            return JsonNodeType.MISSING;
+        }
+        switch (token) {
+            case START_OBJECT:
+                return JsonNodeType.OBJECT;
+            case START_ARRAY:
+                return JsonNodeType.ARRAY;
+            case VALUE_STRING:
+                return JsonNodeType.STRING;
+            case VALUE_NUMBER_INT:
+            case VALUE_NUMBER_FLOAT:
+                return JsonNodeType.NUMBER;
+            case VALUE_TRUE:
+            case VALUE_FALSE:
+                return JsonNodeType.BOOLEAN;
+            case VALUE_NULL:
+                return JsonNodeType.NULL;
+            case VALUE_EMBEDDED_OBJECT:
+                return JsonNodeType.POJO;
+            default:
+                return JsonNodeType.MISSING;
+        }
+    }
+
     /**
      * Parse this JSON node and create a configuration element.
      *
@@ -272,32 +592,11 @@ public class JSONConfigParser extends AbstractConfigParser {
     throws ConfigurationException {
         if (node.getNodeType() == JsonNodeType.OBJECT) {
             AbstractConfigNode nn = readObjectNode(name, node, parent, password);
-            if (nn != null) {
-                isProcessed(node);
-            } else {
+            if (nn == null) {
                 throw new ConfigurationException("Error reading object node.");
             }
         } else if (node.getNodeType() == JsonNodeType.STRING) {
-            if (parent instanceof ConfigKeyValueNode) {
-                ((ConfigKeyValueNode) parent).addKeyValue(name, node.textValue());
-            } else {
-                ConfigValueNode cv = new ConfigValueNode(configuration, parent);
-                cv.setName(name);
-                cv.setParent(parent);
-                cv.setConfiguration(configuration);
-                cv.setValue(node.textValue());
-
-                if (parent instanceof ConfigPathNode) {
-                    ((ConfigPathNode) parent).addChildNode(cv);
-                } else if (parent instanceof ConfigListValueNode) {
-                    ((ConfigListValueNode) parent).addValue(cv);
-                } else {
-                    throw new ConfigurationException(String.format(
-                            "Cannot add string value to parent node. [type=%s]",
-                            parent.getClass().getCanonicalName()));
-                }
-            }
-            isProcessed(node);
+            addStringValue(name, node.textValue(), parent);
         } else if (node.getNodeType() == JsonNodeType.ARRAY) {
             readArrayNode(name, parent, (ArrayNode) node, password);
         }
@@ -347,7 +646,6 @@ public class JSONConfigParser extends AbstractConfigParser {
                         type.name()));
             }
         }
-        isProcessed(arrayNode);
     }
 
     /**
@@ -426,9 +724,6 @@ public class JSONConfigParser extends AbstractConfigParser {
         if (nnodes != null) {
             while (nnodes.hasNext()) {
                 Map.Entry<String, JsonNode> sn = nnodes.next();
-                if (isProcessed(sn.getValue())) {
-                    continue;
-                }
                 parseNode(sn.getKey(), sn.getValue(), parent, password);
             }
         }
@@ -493,40 +788,11 @@ public class JSONConfigParser extends AbstractConfigParser {
             setupIncludeNode(name, pn, parent, node, password);
             nn = pn;
         } else if (name.compareTo(ConfigResourceNode.NODE_NAME) == 0) {
-            EResourceType type = parseResourceType(node);
-            if (type == null) {
-                throw ConfigurationException.propertyNotFoundException(
-                        ConfigResourceNode.NODE_RESOURCE_TYPE);
-            }
-            ConfigResourceFile pn = null;
-            if (type == EResourceType.FILE) {
-                pn = new ConfigResourceFile(configuration, parent);
-                parseFileResourceNode(name, pn, parent, node);
-            } else if (type == EResourceType.BLOB) {
-                pn = new ConfigResourceBlob(configuration, parent);
-                parseFileResourceNode(name, pn, parent, node);
-            } else if (type == EResourceType.DIRECTORY) {
-                pn = new ConfigResourceDirectory(configuration, parent);
-                parseFolderResourceNode(name, (ConfigResourceDirectory) pn, parent,
-                                        node);
-            }
-            nn = pn;
+            nn = readResourceNode(name, node, parent);
         } else {
             ConfigValueNode vn = checkEncryptedValue(name, parent, node);
             if (vn != null) {
-                if (parent instanceof ConfigKeyValueNode) {
-                    ((ConfigKeyValueNode) parent).addKeyValue(vn);
-                } else {
-                    if (parent instanceof ConfigPathNode) {
-                        ((ConfigPathNode) parent).addChildNode(vn);
-                    } else if (parent instanceof ConfigListValueNode) {
-                        ((ConfigListValueNode) parent).addValue(vn);
-                    } else {
-                        throw new ConfigurationException(String.format(
-                                "Cannot add string value to parent node. [type=%s]",
-                                parent.getClass().getCanonicalName()));
-                    }
-                }
+                addValueNode(vn, parent);
                 nn = vn;
             } else {
                 ConfigPathNode pn = new ConfigPathNode(configuration, parent);
@@ -537,6 +803,94 @@ public class JSONConfigParser extends AbstractConfigParser {
         return nn;
     }
 
+    /**
+     * Read the resource definition and create the resource node.
+     *
+     * @param name   - Config Node name.
+     * @param node   - JSON node to read data from.
+     * @param parent - Parent config node.
+     * @return - Resource config node.
+     * @throws ConfigurationException
+     */
+    private ConfigResourceNode readResourceNode(String name, JsonNode node,
+                                                AbstractConfigNode parent)
+    throws ConfigurationException {
+        EResourceType type = parseResourceType(node);
+        if (type == null) {
+            throw ConfigurationException.propertyNotFoundException(
+                    ConfigResourceNode.NODE_RESOURCE_TYPE);
+        }
+        ConfigResourceFile pn = null;
+        if (type == EResourceType.FILE) {
+            pn = new ConfigResourceFile(configuration, parent);
+            parseFileResourceNode(name, pn, parent, node);
+        } else if (type == EResourceType.BLOB) {
+            pn = new ConfigResourceBlob(configuration, parent);
+            parseFileResourceNode(name, pn, parent, node);
+        } else if (type == EResourceType.DIRECTORY) {
+            pn = new ConfigResourceDirectory(configuration, parent);
+            parseFolderResourceNode(name, (ConfigResourceDirectory) pn, parent,
+                                    node);
+        }
+        return pn;
+    }
+
+    /**
+     * Create a value node with the specified string value and add it to the parent.
+     *
+     * @param name   - Node name.
+     * @param value  - String value.
+     * @param parent - Parent config node.
+     * @throws ConfigurationException
+     */
+    private void addStringValue(String name, String value,
+                                AbstractConfigNode parent)
+    throws ConfigurationException {
+        if (parent instanceof ConfigKeyValueNode) {
+            ((ConfigKeyValueNode) parent).addKeyValue(name, value);
+        } else {
+            ConfigValueNode cv = new ConfigValueNode(configuration, parent);
+            cv.setName(name);
+            cv.setParent(parent);
+            cv.setConfiguration(configuration);
+            cv.setValue(value);
+
+            if (parent instanceof ConfigPathNode) {
+                ((ConfigPathNode) parent).addChildNode(cv);
+            } else if (parent instanceof ConfigListValueNode) {
+                ((ConfigListValueNode) parent).addValue(cv);
+            } else {
+                throw new ConfigurationException(String.format(
+                        "Cannot add string value to parent node. [type=%s]",
+                        parent.getClass().getCanonicalName()));
+            }
+        }
+    }
+
+    /**
+     * Add the (encrypted) value node to the parent.
+     *
+     * @param vn     - Value node.
+     * @param parent - Parent config node.
+     * @throws ConfigurationException
+     */
+    private void addValueNode(ConfigValueNode vn, AbstractConfigNode parent)
+    throws ConfigurationException {
+        if (parent instanceof ConfigKeyValueNode) {
+            ((ConfigKeyValueNode) parent).addKeyValue(vn);
+        } else {
+            if (parent instanceof ConfigPathNode) {
+                ((ConfigPathNode) parent).addChildNode(vn);
+            } else if (parent instanceof ConfigListValueNode) {
+                ((ConfigListValueNode) parent).addValue(vn);
+            } else {
+                throw new ConfigurationException(String.format(
+                        "Cannot add string value to parent node. [type=%s]",
+                        parent.getClass().getCanonicalName()));
+            }
+        }
+    }
+
     /**
      * Check if the current node is an encrypted Text node.
      *
@@ -558,16 +912,30 @@ public class JSONConfigParser extends AbstractConfigParser {
                 throw new ConfigurationException(
                         "Invalid Encrypted node: Value is NULL.");
             }
-            ConfigValueNode valueNode = new ConfigValueNode(configuration, parent);
-            valueNode.setName(name);
-            valueNode.setEncrypted(true);
-            valueNode.setValue(vn.textValue());
-
-            return valueNode;
+            return createEncryptedValue(name, parent, vn.textValue());
         }
         return null;
     }
 
+    /**
+     * Create an encrypted value node.
+     *
+     * @param name   - Node name.
+     * @param parent - Parent Config Node.
+     * @param value  - Encrypted value.
+     * @return - Configuration Value Node.
+     */
+    private ConfigValueNode createEncryptedValue(String name,
+                                                 AbstractConfigNode parent,
+                                                 String value) {
+        ConfigValueNode valueNode = new ConfigValueNode(configuration, parent);
+        valueNode.setName(name);
+        valueNode.setEncrypted(true);
+        valueNode.setValue(value);
+
+        return valueNode;
+    }
+
     /**
      * Parse a file resource node.
      *
@@ -599,31 +967,7 @@ public class JSONConfigParser extends AbstractConfigParser {
             File file = new File(filename);
             IOUtils.CheckParentDirectory(file.getAbsolutePath());
             node.setResourceHandle(file);
-            if (!file.exists()) {
-                if (configuration.getSettings().getDownloadRemoteFiles() ==
-                        ConfigurationSettings.EStartupOptions.OnStartUp) {
-                    EReaderType type = EReaderType.parseFromUri(node.getLocation());
-                    Preconditions.checkNotNull(type);
-
-                    if (type == EReaderType.HTTP || type == EReaderType.HTTPS) {
-                        try {
-                            long bread = RemoteFileHelper
-                                    .downloadRemoteFile(node.getLocation(),
-                                                        node.getResourceHandle());
-                            if (bread <= 0) {
-                                throw new ConfigurationException(String.format(
-                                        "No bytes read for remote file. [url=%s]",
-                                        uri.toString()));
-                            }
-                            LogUtils.debug(getClass(), String.format(
-                                    "Downloaded remote file. [path=%s][size=%s]",
-                                    file.getAbsolutePath(), bread));
-                        } catch (IOException e) {
-                            throw new ConfigurationException(e);
-                        }
-                    }
-                }
-            }
+            setupRemoteResource(node);
         }
     }
 
@@ -659,28 +1003,7 @@ public class JSONConfigParser extends AbstractConfigParser {
             File file = new File(filename);
             IOUtils.CheckDirectory(file.getAbsolutePath());
             node.setResourceHandle(file);
-            if (!file.exists()) {
-                if (configuration.getSettings().getDownloadRemoteFiles() ==
-                        ConfigurationSettings.EStartupOptions.OnStartUp) {
-                    EReaderType type = EReaderType.parseFromUri(node.getLocation());
-                    Preconditions.checkNotNull(type);
-
-                    if (type == EReaderType.HTTP || type == EReaderType.HTTPS) {
-                        try {
-                            long bread = RemoteFileHelper
-                                    .downloadRemoteDirectory(node.getLocation(),
-                                                             node.getResourceHandle());
-                            if (bread <= 0) {
-                                throw new ConfigurationException(String.format(
-                                        "No bytes read for remote file. [url=%s]",
-                                        uri.toString()));
-                            }
-                        } catch (IOException e) {
-                            throw new ConfigurationException(e);
-                        }
-                    }
-                }
-            }
+            setupRemoteResource(node);
         }
     }
 
@@ -725,9 +1048,6 @@ public class JSONConfigParser extends AbstractConfigParser {
         if (nnodes != null) {
             while (nnodes.hasNext()) {
                 Map.Entry<String, JsonNode> sn = nnodes.next();
-                if (isProcessed(sn.getValue())) {
-                    continue;
-                }
                 String nname = sn.getKey();
                 JsonNode cnode = sn.getValue();
 
@@ -764,6 +1084,14 @@ public class JSONConfigParser extends AbstractConfigParser {
                             node.setResourceName(rname);
                         }
                     }
+                } else if (nname.compareTo(
+                        ConfigResourceNode.NODE_RESOURCE_CHECKSUM) == 0) {
+                    if (cnode.getNodeType() == JsonNodeType.STRING) {
+                        String checksum = cnode.textValue();
+                        if (!Strings.isNullOrEmpty(checksum)) {
+                            node.setChecksum(checksum.trim());
+                        }
+                    }
                 }
             }
         }
@@ -788,9 +1116,6 @@ public class JSONConfigParser extends AbstractConfigParser {
         if (nnodes != null) {
             while (nnodes.hasNext()) {
                 Map.Entry<String, JsonNode> sn = nnodes.next();
-                if (isProcessed(sn.getValue())) {
-                    continue;
-                }
                 String nname = sn.getKey();
                 JsonNode cnode = sn.getValue();
                 if (nname.compareTo(ConfigIncludeNode.NODE_TYPE) == 0) {
@@ -871,33 +1196,20 @@ public class JSONConfigParser extends AbstractConfigParser {
                 throw new ConfigurationException(
                         "Error getting URI for include node.");
             }
-            AbstractConfigReader reader = ConfigProviderFactory.reader(uri);
-            if (reader == null) {
-                throw new ConfigurationException(
-                        String.format("Error getting reader instance : [URI=%s]",
-                                      uri.toString()));
-            }
-            JSONConfigParser nparser = new JSONConfigParser();
-            nparser.parse(node.getConfigName(), reader, settings,
-                          node.getVersion(), password);
-            if (nparser.configuration != null) {
-                ConfigPathNode configPathNode =
-                        nparser.configuration.getRootConfigNode();
-                if (parent instanceof ConfigPathNode) {
-                    ((ConfigPathNode) parent).addChildNode(configPathNode);
-                    configPathNode.changeConfiguration(configuration);
-                    node.setNode(configPathNode);
-                } else {
-                    throw new ConfigurationException(String.format(
-                            "Error adding include node : [expected parent=%s][actual parent=%s]",
-                            ConfigPathNode.class.getCanonicalName(),
-                            parent.getClass().getCanonicalName()));
-                }
-            } else {
+            if (!(parent instanceof ConfigPathNode)) {
                 throw new ConfigurationException(String.format(
-                        "Error loading included configuration. [URI=%s]",
-                        uri.toString()));
+                        "Error adding include node : [expected parent=%s][actual parent=%s]",
+                        ConfigPathNode.class.getCanonicalName(),
+                        parent.getClass().getCanonicalName()));
             }
+            // Load the included configuration (concurrently), the loaded
+            // configuration is attached once this configuration has been parsed.
+            submitInclude(node, password, (included) -> {
+                ConfigPathNode configPathNode = included.getRootConfigNode();
+                ((ConfigPathNode) parent).addChildNode(configPathNode);
+                configPathNode.changeConfiguration(configuration);
+                node.setNode(configPathNode);
+            });
         } else {
             throw new ConfigurationException(
                     "Invalid include definition : No include configuration specified.");
@@ -918,127 +1230,138 @@ public class JSONConfigParser extends AbstractConfigParser {
      * @throws ConfigurationException
      */
     private void parseHeader(JsonNode node, Version version, String password)
+    throws ConfigurationException {
+        JsonNode header = node.get(JSONConfigConstants.CONFIG_HEADER_NODE);
+        if (header == null) {
+            throw ConfigurationException
+                    .propertyNotFoundException(
+                            JSONConfigConstants.CONFIG_HEADER_NODE);
+        }
+        readHeader(header, version, password);
+    }
+
+    /**
+     * Read the configuration header information from the header node.
+     *
+     * @param header   - JSON header node.
+     * @param version  - Expected Compatibility Version.
+     * @param password - Password in case the Configuration has encrypted elements.
+     * @throws ConfigurationException
+     */
+    private void readHeader(JsonNode header, Version version, String password)
     throws ConfigurationException {
         try {
-            JsonNode header = node.get(JSONConfigConstants.CONFIG_HEADER_NODE);
-            if (header == null) {
+            // Read the configuration ID
+            JsonNode hid = header.get(JSONConfigConstants.CONFIG_HEADER_ID);
+            if (hid == null) {
                 throw ConfigurationException
                         .propertyNotFoundException(
-                                JSONConfigConstants.CONFIG_HEADER_NODE);
+                                JSONConfigConstants.CONFIG_HEADER_ID);
             }
-            if (!isProcessed(header)) {
-                // Read the configuration ID
-                JsonNode hid = header.get(JSONConfigConstants.CONFIG_HEADER_ID);
-                if (hid == null) {
-                    throw ConfigurationException
-                            .propertyNotFoundException(
-                                    JSONConfigConstants.CONFIG_HEADER_ID);
-                }
-                String id = hid.textValue();
-                Preconditions.checkState(!Strings.isNullOrEmpty(id));
-                configuration.setId(id);
-                // Read the Application Group.
-                JsonNode hgrp = header.get(JSONConfigConstants.CONFIG_HEADER_GROUP);
-                if (hgrp == null) {
-                    throw ConfigurationException
-                            .propertyNotFoundException(
-                                    JSONConfigConstants.CONFIG_HEADER_GROUP);
-                }
-                String grp = hgrp.textValue();
-                Preconditions.checkState(!Strings.isNullOrEmpty(grp));
-                configuration.setApplicationGroup(grp);
-                // Read the Application.
-                JsonNode happ = header.get(JSONConfigConstants.CONFIG_HEADER_APP);
-                if (happ == null) {
-                    throw ConfigurationException
-                            .propertyNotFoundException(
-                                    JSONConfigConstants.CONFIG_HEADER_APP);
+            String id = hid.textValue();
+            Preconditions.checkState(!Strings.isNullOrEmpty(id));
+            configuration.setId(id);
+            // Read the Application Group.
+            JsonNode hgrp = header.get(JSONConfigConstants.CONFIG_HEADER_GROUP);
+            if (hgrp == null) {
+                throw ConfigurationException
+                        .propertyNotFoundException(
+                                JSONConfigConstants.CONFIG_HEADER_GROUP);
+            }
+            String grp = hgrp.textValue();
+            Preconditions.checkState(!Strings.isNullOrEmpty(grp));
+            configuration.setApplicationGroup(grp);
+            // Read the Application.
+            JsonNode happ = header.get(JSONConfigConstants.CONFIG_HEADER_APP);
+            if (happ == null) {
+                throw ConfigurationException
+                        .propertyNotFoundException(
+                                JSONConfigConstants.CONFIG_HEADER_APP);
+            }
+            String app = happ.textValue();
+            Preconditions.checkState(!Strings.isNullOrEmpty(app));
+            configuration.setApplication(app);
+
+            // Read the configuration name
+            JsonNode hname = header.get(JSONConfigConstants.CONFIG_HEADER_NAME);
+            if (hname == null) {
+                throw ConfigurationException
+                        .propertyNotFoundException(
+                                JSONConfigConstants.CONFIG_HEADER_NAME);
+            }
+            String sname = hname.textValue();
+            // Configuration name in resource should match the expected configuration name.
+            if (configuration.getName().compareTo(sname) != 0) {
+                throw new ConfigurationException(String.format(
+                        "Invalid configuration : Name does not match. [expected=%s][actual=%s]",
+                        configuration.getName(), sname));
+            }
+            // Read the configuration version.
+            JsonNode vnode =
+                    header.get(JSONConfigConstants.CONFIG_HEADER_VERSION);
+            if (vnode == null) {
+                throw ConfigurationException
+                        .propertyNotFoundException(
+                                JSONConfigConstants.CONFIG_HEADER_VERSION);
+            }
+            String vstring = vnode.textValue();
+            Version cversion = Version.parse(vstring);
+            // Check version compatibility
+            if (!version.isCompatible(cversion)) {
+                throw new ConfigurationException(String.format(
+                        "Incompatible Configuration Version. [expected=%s][actual=%s]",
+                        version.toString(), cversion.toString()));
+            }
+            configuration.setVersion(cversion);
+
+            // Read the configuration creation info.
+            JsonNode cnode = header.get(JSONConfigConstants.CONFIG_CREATED_BY);
+            if (cnode == null) {
+                throw ConfigurationException
+                        .propertyNotFoundException(
+                                JSONConfigConstants.CONFIG_CREATED_BY);
+            }
+            ModifiedBy createdBy = parseUpdateInfo(cnode);
+            configuration.setCreatedBy(createdBy);
+
+            // Read the configuration Last updation info.
+            JsonNode unode = header.get(JSONConfigConstants.CONFIG_UPDATED_BY);
+            if (unode == null) {
+                throw ConfigurationException
+                        .propertyNotFoundException(
+                                JSONConfigConstants.CONFIG_UPDATED_BY);
+            }
+            ModifiedBy updatedBy = parseUpdateInfo(unode);
+            configuration.setUpdatedBy(updatedBy);
+
+            JsonNode dnode = header.get(JSONConfigConstants.CONFIG_HEADER_DESC);
+            if (dnode != null) {
+                String desc = dnode.textValue();
+                if (!Strings.isNullOrEmpty(desc)) {
+                    configuration.setDescription(desc);
                 }
-                String app = happ.textValue();
-                Preconditions.checkState(!Strings.isNullOrEmpty(app));
-                configuration.setApplication(app);
-
-                // Read the configuration name
-                JsonNode hname = header.get(JSONConfigConstants.CONFIG_HEADER_NAME);
-                if (hname == null) {
-                    throw ConfigurationException
-                            .propertyNotFoundException(
-                                    JSONConfigConstants.CONFIG_HEADER_NAME);
+            }
+            // Check if an encryption hash is specified.
+            JsonNode phnode =
+                    header.get(JSONConfigConstants.CONFIG_HEADER_PASSWD_HASH);
+            if (phnode != null) {
+                String hash = phnode.textValue();
+                if (Strings.isNullOrEmpty(hash)) {
+                    throw new ConfigurationException(
+                            "Invalid Password Hash: NULL or Empty.");
                 }
-                String sname = hname.textValue();
-                // Configuration name in resource should match the expected configuration name.
-                if (configuration.getName().compareTo(sname) != 0) {
+                if (Strings.isNullOrEmpty(password)) {
                     throw new ConfigurationException(String.format(
-                            "Invalid configuration : Name does not match. [expected=%s][actual=%s]",
-                            configuration.getName(), sname));
+                            "Configuration has encryption, but no passcode specified. [config=%s]",
+                            configuration.getName()));
                 }
-                // Read the configuration version.
-                JsonNode vnode =
-                        header.get(JSONConfigConstants.CONFIG_HEADER_VERSION);
-                if (vnode == null) {
-                    throw ConfigurationException
-                            .propertyNotFoundException(
-                                    JSONConfigConstants.CONFIG_HEADER_VERSION);
-                }
-                String vstring = vnode.textValue();
-                Version cversion = Version.parse(vstring);
-                // Check version compatibility
-                if (!version.isCompatible(cversion)) {
+                String chash = CypherUtils.getKeyHash(password);
+                if (hash.compareTo(chash) != 0) {
                     throw new ConfigurationException(String.format(
-                            "Incompatible Configuration Version. [expected=%s][actual=%s]",
-                            version.toString(), cversion.toString()));
-                }
-                configuration.setVersion(cversion);
-
-                // Read the configuration creation info.
-                JsonNode cnode = header.get(JSONConfigConstants.CONFIG_CREATED_BY);
-                if (cnode == null) {
-                    throw ConfigurationException
-                            .propertyNotFoundException(
-                                    JSONConfigConstants.CONFIG_CREATED_BY);
-                }
-                ModifiedBy createdBy = parseUpdateInfo(cnode);
-                configuration.setCreatedBy(createdBy);
-
-                // Read the configuration Last updation info.
-                JsonNode unode = header.get(JSONConfigConstants.CONFIG_UPDATED_BY);
-                if (unode == null) {
-                    throw ConfigurationException
-                            .propertyNotFoundException(
-                                    JSONConfigConstants.CONFIG_UPDATED_BY);
-                }
-                ModifiedBy updatedBy = parseUpdateInfo(unode);
-                configuration.setUpdatedBy(updatedBy);
-
-                JsonNode dnode = header.get(JSONConfigConstants.CONFIG_HEADER_DESC);
-                if (dnode != null) {
-                    String desc = dnode.textValue();
-                    if (!Strings.isNullOrEmpty(desc)) {
-                        configuration.setDescription(desc);
-                    }
-                }
-                // Check if an encryption hash is specified.
-                JsonNode phnode =
-                        header.get(JSONConfigConstants.CONFIG_HEADER_PASSWD_HASH);
-                if (phnode != null) {
-                    String hash = phnode.textValue();
-                    if (Strings.isNullOrEmpty(hash)) {
-                        throw new ConfigurationException(
-                                "Invalid Password Hash: NULL or Empty.");
-                    }
-                    if (Strings.isNullOrEmpty(password)) {
-                        throw new ConfigurationException(String.format(
-                                "Configuration has encryption, but no passcode specified. [config=%s]",
-                                configuration.getName()));
-                    }
-                    String chash = CypherUtils.getKeyHash(password);
-                    if (hash.compareTo(chash) != 0) {
-                        throw new ConfigurationException(String.format(
-                                "Invalid Passcode: Doesn't match with passcode set in configuration. [config=%s]",
-                                configuration.getName()));
-                    }
-                    configuration.setEncryptionHash(hash);
+                            "Invalid Passcode: Doesn't match with passcode set in configuration. [config=%s]",
+                            configuration.getName()));
                 }
+                configuration.setEncryptionHash(hash);
             }
         } catch (ConfigurationException e) {
             throw e;
@@ -1056,10 +1379,6 @@ public class JSONConfigParser extends AbstractConfigParser {
      */
     private ModifiedBy parseUpdateInfo(JsonNode node)
     throws ConfigurationException {
-        if (isProcessed(node)) {
-            return null;
-        }
-
         JsonNode jn = node.get(JSONConfigConstants.CONFIG_UPDATE_OWNER);
         if (jn == null) {
             throw ConfigurationException
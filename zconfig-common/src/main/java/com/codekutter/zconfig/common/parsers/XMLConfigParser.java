@@ -33,27 +33,74 @@ import com.google.common.base.Preconditions;
 import com.google.common.base.Strings;
 import com.codekutter.zconfig.common.readers.AbstractConfigReader;
 import com.codekutter.zconfig.common.utils.IOUtils;
-import com.codekutter.zconfig.common.utils.RemoteFileHelper;
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
-import org.w3c.dom.Node;
-import org.w3c.dom.NodeList;
+import org.w3c.dom.*;
 import org.xml.sax.SAXException;
 
+import javax.xml.namespace.QName;
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Configuration Parser implementation that reads the configuration from a XML file.
  */
 public class XMLConfigParser extends AbstractConfigParser {
+    /**
+     * Parse the input using the StAX stream reader? (else a DOM is built)
+     */
+    private boolean streaming = true;
+
+    /**
+     * Is the input parsed using the StAX stream reader?
+     * <p>
+     * In streaming mode the configuration nodes are created in a single forward
+     * pass over the XML events, no DOM is built. The type of an element (value,
+     * list or path) is decided when the element end is reached, using only the
+     * already created child nodes.
+     *
+     * @return - Is streaming?
+     */
+    public boolean isStreaming() {
+        return streaming;
+    }
+
+    /**
+     * Set the input to be parsed using the StAX stream reader.
+     *
+     * @param streaming - Is streaming?
+     */
+    public void setStreaming(boolean streaming) {
+        this.streaming = streaming;
+    }
+
+    /**
+     * Create a parser instance to parse an included configuration, the
+     * parser uses the same (streaming) mode.
+     *
+     * @return - Include parser.
+     */
+    @Override
+    protected AbstractConfigParser createIncludeParser() {
+        XMLConfigParser parser = new XMLConfigParser();
+        parser.setStreaming(streaming);
+        return parser;
+    }
+
     /**
      * Parse and load the configuration instance using the specified properties.
      *
@@ -84,45 +131,22 @@ public class XMLConfigParser extends AbstractConfigParser {
             }
 
             try (InputStream stream = reader.getInputStream()) {
-                DocumentBuilderFactory dbf = DocumentBuilderFactory.newInstance();
-                dbf.setValidating(true);
-                DocumentBuilder db = dbf.newDocumentBuilder();
-                Document doc = db.parse(stream);
-
-                // optional, but recommended
-                // read this -
-                // http://stackoverflow.com/questions/13786607/normalization-in-dom-parsing-with-java-how-does-it-work
-                doc.getDocumentElement().normalize();
-
-                Element rootNode = doc.getDocumentElement();
-
-                configuration = new Configuration(this.settings);
-                configuration.getState().setState(ENodeState.Loading);
-                configuration.setName(name);
-
-                parseHeader(rootNode, version, password);
-
-                NodeList children = rootNode.getChildNodes();
-                for (int ii = 0; ii < children.getLength(); ii++) {
-                    Node nn = children.item(ii);
-                    if (nn.getNodeName()
-                          .compareTo(XMLConfigConstants.CONFIG_HEADER_NODE) == 0) {
-                        continue;
-                    }
-                    if (!(nn instanceof Element)) {
-                        continue;
-                    }
-                    parseBody((Element) nn, password);
-                    break;
+                if (streaming) {
+                    parseStream(name, stream, version, password);
+                } else {
+                    parseDocument(name, stream, version, password);
                 }
 
+                // Attach the included configurations.
+                resolveIncludes();
+
                 doPostLoad();
 
                 if (!Strings.isNullOrEmpty(configuration.getEncryptionHash())) {
                     ZConfigEnv.getVault().addPasscode(configuration, password);
                 }
             }
-        } catch (IOException | ParserConfigurationException | SAXException e) {
+        } catch (IOException | ParserConfigurationException | SAXException | XMLStreamException e) {
             if (configuration != null)
                 configuration.getState().setError(e);
             throw new ConfigurationException(e);
@@ -134,6 +158,54 @@ public class XMLConfigParser extends AbstractConfigParser {
             if (configuration != null)
                 configuration.getState().setError(e);
             throw new ConfigurationException(e);
+        } finally {
+            closeIncludes();
+        }
+    }
+
+    /**
+     * Parse the configuration from the XML DOM.
+     *
+     * @param name     - Configuration name being loaded.
+     * @param stream   - XML input stream.
+     * @param version  - Configuration version to load.
+     * @param password - Password in case the Configuration has encrypted elements.
+     * @throws ConfigurationException
+     */
+    private void parseDocument(String name, InputStream stream, Version version,
+                               String password)
+    throws ConfigurationException, ParserConfigurationException, IOException,
+           SAXException {
+        DocumentBuilderFactory dbf = DocumentBuilderFactory.newInstance();
+        dbf.setValidating(true);
+        DocumentBuilder db = dbf.newDocumentBuilder();
+        Document doc = db.parse(stream);
+
+        // optional, but recommended
+        // read this -
+        // http://stackoverflow.com/questions/13786607/normalization-in-dom-parsing-with-java-how-does-it-work
+        doc.getDocumentElement().normalize();
+
+        Element rootNode = doc.getDocumentElement();
+
+        configuration = new Configuration(this.settings);
+        configuration.getState().setState(ENodeState.Loading);
+        configuration.setName(name);
+
+        parseHeader(rootNode, version, password);
+
+        NodeList children = rootNode.getChildNodes();
+        for (int ii = 0; ii < children.getLength(); ii++) {
+            Node nn = children.item(ii);
+            if (nn.getNodeName()
+                  .compareTo(XMLConfigConstants.CONFIG_HEADER_NODE) == 0) {
+                continue;
+            }
+            if (!(nn instanceof Element)) {
+                continue;
+            }
+            parseBody((Element) nn, password);
+            break;
         }
     }
 
@@ -248,28 +320,12 @@ public class XMLConfigParser extends AbstractConfigParser {
                     ConfigIncludeNode pnode =
                             new ConfigIncludeNode(configuration, parent);
                     ((ConfigPathNode) parent).addChildNode(pnode);
-                    parseIncludeNode(node, pnode, password);
+                    parseIncludeNode(getAttributes(node), pnode, password);
                 } else if (nodeName.compareTo(ConfigResourceNode.NODE_NAME) == 0) {
-                    EResourceType type = parseResourceType(node);
-                    if (type == null) {
-                        throw ConfigurationException.propertyNotFoundException(
-                                ConfigResourceNode.NODE_RESOURCE_TYPE);
-                    }
-                    ConfigResourceFile pnode = null;
-                    if (type == EResourceType.FILE) {
-                        pnode = new ConfigResourceFile(configuration, parent);
-                        ((ConfigPathNode) parent).addChildNode(pnode);
-                        parseResourceFileNode(node, pnode);
-                    } else if (type == EResourceType.BLOB) {
-                        pnode = new ConfigResourceBlob(configuration, parent);
-                        ((ConfigPathNode) parent).addChildNode(pnode);
-                        parseResourceFileNode(node, pnode);
-                    } else if (type == EResourceType.DIRECTORY) {
-                        pnode = new ConfigResourceDirectory(configuration, parent);
-                        ((ConfigPathNode) parent).addChildNode(pnode);
-                        parseResourceDirNode(node, (ConfigResourceDirectory) pnode);
-                    }
-                    pnode.setName(nodeName);
+                    ConfigResourceNode pnode =
+                            readResourceNode(nodeName, getAttributes(node),
+                                             getResourceUrl(node), parent);
+                    ((ConfigPathNode) parent).addChildNode(pnode);
                 } else {
                     ConfigPathNode pnode =
                             new ConfigPathNode(configuration, parent);
@@ -309,16 +365,50 @@ public class XMLConfigParser extends AbstractConfigParser {
         }
     }
 
+    /**
+     * Create the resource node and read the resource definition.
+     *
+     * @param name       - Resource node name.
+     * @param attributes - Attributes of the resource element.
+     * @param url        - Resource URL text (can be NULL).
+     * @param parent     - Parent Config Node.
+     * @return - Resource config node.
+     * @throws ConfigurationException
+     */
+    private ConfigResourceNode readResourceNode(String name,
+                                                Map<String, String> attributes,
+                                                String url,
+                                                AbstractConfigNode parent)
+    throws ConfigurationException {
+        EResourceType type = parseResourceType(attributes);
+        ConfigResourceFile pnode = null;
+        if (type == EResourceType.FILE) {
+            pnode = new ConfigResourceFile(configuration, parent);
+            pnode.setName(name);
+            parseResourceFileNode(attributes, url, pnode);
+        } else if (type == EResourceType.BLOB) {
+            pnode = new ConfigResourceBlob(configuration, parent);
+            pnode.setName(name);
+            parseResourceFileNode(attributes, url, pnode);
+        } else if (type == EResourceType.DIRECTORY) {
+            pnode = new ConfigResourceDirectory(configuration, parent);
+            pnode.setName(name);
+            parseResourceDirNode(attributes, url,
+                                 (ConfigResourceDirectory) pnode);
+        }
+        return pnode;
+    }
+
     /**
      * Extract and parse the resource node type.
      *
-     * @param node - JsonNode to extract from.
+     * @param attributes - Attributes of the resource element.
      * @return - Parsed Resource node type.
      * @throws ConfigurationException
      */
-    private EResourceType parseResourceType(Element node)
+    private EResourceType parseResourceType(Map<String, String> attributes)
     throws ConfigurationException {
-        String nt = node.getAttribute(ConfigResourceNode.NODE_RESOURCE_TYPE);
+        String nt = attributes.get(ConfigResourceNode.NODE_RESOURCE_TYPE);
         if (Strings.isNullOrEmpty(nt)) {
             throw ConfigurationException.propertyNotFoundException(
                     ConfigResourceNode.NODE_RESOURCE_TYPE);
@@ -326,17 +416,45 @@ public class XMLConfigParser extends AbstractConfigParser {
         return EResourceType.valueOf(nt);
     }
 
+    /**
+     * Get the resource URL text from the resource XML Element.
+     *
+     * @param node - XML resource element.
+     * @return - URL text, NULL if not specified.
+     * @throws ConfigurationException
+     */
+    private String getResourceUrl(Element node) throws ConfigurationException {
+        if (!node.hasChildNodes()) {
+            throw new ConfigurationException(
+                    String.format("No child nodes found : [path=%s]",
+                                  node.toString()));
+        }
+        NodeList children = node.getChildNodes();
+        for (int ii = 0; ii < children.getLength(); ii++) {
+            Node cnode = children.item(ii);
+            if (!isTextNode(cnode)) {
+                continue;
+            }
+            String name = cnode.getNodeName();
+            if (name.compareTo(ConfigResourceNode.NODE_RESOURCE_URL) == 0) {
+                return cnode.getTextContent().trim();
+            }
+        }
+        return null;
+    }
+
     /**
      * Parse a Resource Directory node.
      *
-     * @param node     - XML Node to parse
-     * @param resource - Config Directory resource handle.
+     * @param attributes - Attributes of the resource element.
+     * @param url        - Resource URL text.
+     * @param resource   - Config Directory resource handle.
      * @throws ConfigurationException
      */
-    private void parseResourceDirNode(Element node,
+    private void parseResourceDirNode(Map<String, String> attributes, String url,
                                       ConfigResourceDirectory resource)
     throws ConfigurationException {
-        setupResourceNode(node, resource);
+        setupResourceNode(attributes, url, resource);
         URI uri = resource.getLocation();
         if (uri == null) {
             throw ConfigurationException.propertyNotFoundException("location");
@@ -355,42 +473,22 @@ public class XMLConfigParser extends AbstractConfigParser {
             File file = new File(filename);
             IOUtils.CheckDirectory(file.getAbsolutePath());
             resource.setResourceHandle(file);
-            if (!file.exists()) {
-                if (configuration.getSettings().getDownloadRemoteFiles() ==
-                        ConfigurationSettings.EStartupOptions.OnStartUp) {
-                    EReaderType type =
-                            EReaderType.parseFromUri(resource.getLocation());
-                    Preconditions.checkNotNull(type);
-
-                    if (type == EReaderType.HTTP || type == EReaderType.HTTPS) {
-                        try {
-                            long bread = RemoteFileHelper
-                                    .downloadRemoteDirectory(resource.getLocation(),
-                                                             resource.getResourceHandle());
-                            if (bread <= 0) {
-                                throw new ConfigurationException(String.format(
-                                        "No bytes read for remote file. [url=%s]",
-                                        uri.toString()));
-                            }
-                        } catch (IOException e) {
-                            throw new ConfigurationException(e);
-                        }
-                    }
-                }
-            }
+            setupRemoteResource(resource);
         }
     }
 
     /**
      * Parse a Resource File/Blob node.
      *
-     * @param node     - XML Node to parse
-     * @param resource - Config File/Blob resource handle.
+     * @param attributes - Attributes of the resource element.
+     * @param url        - Resource URL text.
+     * @param resource   - Config File/Blob resource handle.
      * @throws ConfigurationException
      */
-    private void parseResourceFileNode(Element node, ConfigResourceFile resource)
+    private void parseResourceFileNode(Map<String, String> attributes, String url,
+                                       ConfigResourceFile resource)
     throws ConfigurationException {
-        setupResourceNode(node, resource);
+        setupResourceNode(attributes, url, resource);
         URI uri = resource.getLocation();
         if (uri == null) {
             throw ConfigurationException.propertyNotFoundException("location");
@@ -409,50 +507,27 @@ public class XMLConfigParser extends AbstractConfigParser {
             File file = new File(filename);
             IOUtils.CheckParentDirectory(file.getAbsolutePath());
             resource.setResourceHandle(file);
-            if (!file.exists()) {
-                if (configuration.getSettings().getDownloadRemoteFiles() ==
-                        ConfigurationSettings.EStartupOptions.OnStartUp) {
-                    EReaderType type =
-                            EReaderType.parseFromUri(resource.getLocation());
-                    Preconditions.checkNotNull(type);
-
-                    if (type == EReaderType.HTTP || type == EReaderType.HTTPS) {
-                        try {
-                            long bread = RemoteFileHelper
-                                    .downloadRemoteFile(resource.getLocation(),
-                                                        resource.getResourceHandle());
-                            if (bread <= 0) {
-                                throw new ConfigurationException(String.format(
-                                        "No bytes read for remote file. [url=%s]",
-                                        uri.toString()));
-                            }
-                            LogUtils.debug(getClass(), String.format(
-                                    "Downloaded remote file. [path=%s][size=%s]",
-                                    file.getAbsolutePath(), bread));
-                        } catch (IOException e) {
-                            throw new ConfigurationException(e);
-                        }
-                    }
-                }
-            }
+            setupRemoteResource(resource);
         }
     }
 
     /**
      * Setup the common resource information.
      *
-     * @param node     - XML Node to parse
-     * @param resource - Config resource handle.
+     * @param attributes - Attributes of the resource element.
+     * @param url        - Resource URL text.
+     * @param resource   - Config resource handle.
      * @throws ConfigurationException
      */
-    private void setupResourceNode(Element node, ConfigResourceNode resource)
+    private void setupResourceNode(Map<String, String> attributes, String url,
+                                   ConfigResourceNode resource)
     throws ConfigurationException {
-        if (!node.hasAttributes()) {
+        if (attributes.isEmpty()) {
             throw new ConfigurationException(
-                    String.format("No attributes found : [path=%s]",
-                                  node.toString()));
+                    String.format("No attributes found : [node=%s]",
+                                  resource.getName()));
         }
-        String attr = node.getAttribute(ConfigResourceNode.NODE_RESOURCE_TYPE);
+        String attr = attributes.get(ConfigResourceNode.NODE_RESOURCE_TYPE);
         if (Strings.isNullOrEmpty(attr)) {
             throw ConfigurationException.propertyNotFoundException(
                     ConfigResourceNode.NODE_RESOURCE_TYPE);
@@ -464,38 +539,25 @@ public class XMLConfigParser extends AbstractConfigParser {
         }
         resource.setType(type);
 
-        attr = node.getAttribute(ConfigResourceNode.NODE_RESOURCE_NAME);
+        attr = attributes.get(ConfigResourceNode.NODE_RESOURCE_NAME);
         if (Strings.isNullOrEmpty(attr)) {
             throw ConfigurationException.propertyNotFoundException(
                     ConfigResourceNode.NODE_RESOURCE_NAME);
         }
         resource.setResourceName(attr);
-        if (!node.hasChildNodes()) {
-            throw new ConfigurationException(
-                    String.format("No child nodes found : [path=%s]",
-                                  node.toString()));
+        attr = attributes.get(ConfigResourceNode.NODE_RESOURCE_CHECKSUM);
+        if (!Strings.isNullOrEmpty(attr)) {
+            resource.setChecksum(attr.trim());
         }
-        NodeList children = node.getChildNodes();
-        for (int ii = 0; ii < children.getLength(); ii++) {
-            Node cnode = children.item(ii);
-            if (!isTextNode(cnode)) {
-                continue;
+        if (url != null) {
+            if (Strings.isNullOrEmpty(url)) {
+                throw ConfigurationException.propertyNotFoundException(
+                        ConfigResourceNode.NODE_RESOURCE_URL);
             }
-            if (node instanceof Element) {
-                String name = cnode.getNodeName();
-                if (name.compareTo(ConfigResourceNode.NODE_RESOURCE_URL) == 0) {
-                    String url = cnode.getTextContent().trim();
-                    if (Strings.isNullOrEmpty(url)) {
-                        throw ConfigurationException.propertyNotFoundException(
-                                ConfigResourceNode.NODE_RESOURCE_URL);
-                    }
-                    try {
-                        resource.setLocation(new URI(url));
-                    } catch (URISyntaxException e) {
-                        throw new ConfigurationException(e);
-                    }
-                    break;
-                }
+            try {
+                resource.setLocation(new URI(url));
+            } catch (URISyntaxException e) {
+                throw new ConfigurationException(e);
             }
         }
     }
@@ -503,28 +565,28 @@ public class XMLConfigParser extends AbstractConfigParser {
     /**
      * Parse a included configuration node.
      *
-     * @param node   - XML Node Element.
-     * @param parent - Config Include Node.
+     * @param attributes - Attributes of the include element.
+     * @param parent     - Config Include Node.
      * @throws ConfigurationException
      */
-    private void parseIncludeNode(Element node, ConfigIncludeNode parent,
-                                  String password)
+    private void parseIncludeNode(Map<String, String> attributes,
+                                  ConfigIncludeNode parent, String password)
     throws ConfigurationException {
-        String attr = node.getAttribute(ConfigIncludeNode.NODE_CONFIG_NAME);
+        String attr = attributes.get(ConfigIncludeNode.NODE_CONFIG_NAME);
         if (Strings.isNullOrEmpty(attr)) {
             throw ConfigurationException
                     .propertyNotFoundException(ConfigIncludeNode.NODE_CONFIG_NAME);
         }
         parent.setConfigName(attr);
 
-        attr = node.getAttribute(ConfigIncludeNode.NODE_PATH);
+        attr = attributes.get(ConfigIncludeNode.NODE_PATH);
         if (Strings.isNullOrEmpty(attr)) {
             throw ConfigurationException
                     .propertyNotFoundException(ConfigIncludeNode.NODE_PATH);
         }
         parent.setPath(attr);
 
-        attr = node.getAttribute(ConfigIncludeNode.NODE_TYPE);
+        attr = attributes.get(ConfigIncludeNode.NODE_TYPE);
         if (Strings.isNullOrEmpty(attr)) {
             throw ConfigurationException
                     .propertyNotFoundException(ConfigIncludeNode.NODE_TYPE);
@@ -535,7 +597,7 @@ public class XMLConfigParser extends AbstractConfigParser {
                     String.format("Invalid Reader Type : [value=%s]", attr));
         }
         parent.setReaderType(type);
-        attr = node.getAttribute(ConfigIncludeNode.NODE_VERSION);
+        attr = attributes.get(ConfigIncludeNode.NODE_VERSION);
         if (Strings.isNullOrEmpty(attr)) {
             throw ConfigurationException
                     .propertyNotFoundException(ConfigIncludeNode.NODE_VERSION);
@@ -552,25 +614,13 @@ public class XMLConfigParser extends AbstractConfigParser {
             throw new ConfigurationException(
                     "Error getting URI for include node.");
         }
-        AbstractConfigReader reader = ConfigProviderFactory.reader(uri);
-        if (reader == null) {
-            throw new ConfigurationException(
-                    String.format("Error getting reader instance : [URI=%s]",
-                                  uri.toString()));
-        }
-        XMLConfigParser nparser = new XMLConfigParser();
-        nparser.parse(parent.getConfigName(), reader, settings,
-                      parent.getVersion(), password);
-        if (nparser.configuration != null) {
-            ConfigPathNode configPathNode =
-                    nparser.configuration.getRootConfigNode();
+        // Load the included configuration (concurrently), the loaded
+        // configuration is attached once this configuration has been parsed.
+        submitInclude(parent, password, (included) -> {
+            ConfigPathNode configPathNode = included.getRootConfigNode();
             parent.setNode(configPathNode);
             configPathNode.changeConfiguration(configuration);
-        } else {
-            throw new ConfigurationException(String.format(
-                    "Error loading included configuration. [URI=%s]",
-                    uri.toString()));
-        }
+        });
     }
 
     /**
@@ -688,35 +738,92 @@ public class XMLConfigParser extends AbstractConfigParser {
         }
         try {
             Element header = (Element) hnode.item(0);
-            if (header.hasAttribute(XMLConfigConstants.CONFIG_HEADER_ID)) {
+            readHeader(getAttributes(header), version, password);
+
+            NodeList children = header.getChildNodes();
+            if (children != null && children.getLength() > 0) {
+                for (int ii = 0; ii < children.getLength(); ii++) {
+                    Node nn = children.item(ii);
+                    if (nn.getNodeName()
+                          .compareTo(XMLConfigConstants.CONFIG_CREATED_BY) ==
+                            0) {
+                        ModifiedBy modifiedBy =
+                                parseUpdateInfo(getAttributes((Element) nn));
+                        if (modifiedBy == null) {
+                            throw ConfigurationException
+                                    .propertyNotFoundException(
+                                            XMLConfigConstants.CONFIG_CREATED_BY);
+                        }
+                        configuration.setCreatedBy(modifiedBy);
+                    } else if (nn.getNodeName()
+                                 .compareTo(XMLConfigConstants.CONFIG_UPDATED_BY) ==
+                            0) {
+                        ModifiedBy modifiedBy =
+                                parseUpdateInfo(getAttributes((Element) nn));
+                        if (modifiedBy == null) {
+                            throw ConfigurationException
+                                    .propertyNotFoundException(
+                                            XMLConfigConstants.CONFIG_UPDATED_BY);
+                        }
+                        configuration.setUpdatedBy(modifiedBy);
+                    } else if (nn.getNodeName()
+                                 .compareTo(
+                                         XMLConfigConstants.CONFIG_HEADER_DESC) ==
+                            0) {
+                        String name = nn.getTextContent();
+                        Preconditions.checkState(!Strings.isNullOrEmpty(name));
+                        configuration.setDescription(name);
+                    }
+                }
+            }
+        } catch (ConfigurationException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new ConfigurationException(e);
+        }
+    }
+
+    /**
+     * Read the Configuration header attributes.
+     * Will also do a version compatibility check.
+     *
+     * @param header  - Attributes of the header element.
+     * @param version - Expected Version.
+     * @throws ConfigurationException
+     */
+    private void readHeader(Map<String, String> header, Version version,
+                            String password)
+    throws ConfigurationException {
+        try {
+            if (header.containsKey(XMLConfigConstants.CONFIG_HEADER_ID)) {
                 String id =
-                        header.getAttribute(XMLConfigConstants.CONFIG_HEADER_ID);
+                        header.get(XMLConfigConstants.CONFIG_HEADER_ID);
                 Preconditions.checkState(!Strings.isNullOrEmpty(id));
                 configuration.setId(id);
             }
-            if (header.hasAttribute(
+            if (header.containsKey(
                     XMLConfigConstants.CONFIG_HEADER_NAME)) {
                 String name =
-                        header.getAttribute(XMLConfigConstants.CONFIG_HEADER_NAME);
+                        header.get(XMLConfigConstants.CONFIG_HEADER_NAME);
                 Preconditions.checkState(!Strings.isNullOrEmpty(name));
                 configuration.setName(name);
             }
-            if (header.hasAttribute(
+            if (header.containsKey(
                     XMLConfigConstants.CONFIG_HEADER_GROUP)) {
-                String name = header.getAttribute(
+                String name = header.get(
                         XMLConfigConstants.CONFIG_HEADER_GROUP);
                 Preconditions.checkState(!Strings.isNullOrEmpty(name));
                 configuration.setApplicationGroup(name);
             }
-            if (header.hasAttribute(XMLConfigConstants.CONFIG_HEADER_APP)) {
+            if (header.containsKey(XMLConfigConstants.CONFIG_HEADER_APP)) {
                 String name =
-                        header.getAttribute(XMLConfigConstants.CONFIG_HEADER_APP);
+                        header.get(XMLConfigConstants.CONFIG_HEADER_APP);
                 Preconditions.checkState(!Strings.isNullOrEmpty(name));
                 configuration.setApplication(name);
             }
-            if (header.hasAttribute(
+            if (header.containsKey(
                     XMLConfigConstants.CONFIG_HEADER_VERSION)) {
-                String vstring = header.getAttribute(
+                String vstring = header.get(
                         XMLConfigConstants.CONFIG_HEADER_VERSION);
                 Preconditions.checkState(!Strings.isNullOrEmpty(vstring));
                 Version cversion = Version.parse(vstring);
@@ -728,8 +835,8 @@ public class XMLConfigParser extends AbstractConfigParser {
                 }
                 configuration.setVersion(cversion);
             }
-            if (header.hasAttribute(XMLConfigConstants.CONFIG_HEADER_PASSWD_HASH)) {
-                String hash = header.getAttribute(
+            if (header.containsKey(XMLConfigConstants.CONFIG_HEADER_PASSWD_HASH)) {
+                String hash = header.get(
                         XMLConfigConstants.CONFIG_HEADER_PASSWD_HASH);
                 if (Strings.isNullOrEmpty(hash)) {
                     throw new ConfigurationException(
@@ -748,40 +855,6 @@ public class XMLConfigParser extends AbstractConfigParser {
                 }
                 configuration.setEncryptionHash(hash);
             }
-            NodeList children = header.getChildNodes();
-            if (children != null && children.getLength() > 0) {
-                for (int ii = 0; ii < children.getLength(); ii++) {
-                    Node nn = children.item(ii);
-                    if (nn.getNodeName()
-                          .compareTo(XMLConfigConstants.CONFIG_CREATED_BY) ==
-                            0) {
-                        ModifiedBy modifiedBy = parseUpdateInfo((Element) nn);
-                        if (modifiedBy == null) {
-                            throw ConfigurationException
-                                    .propertyNotFoundException(
-                                            XMLConfigConstants.CONFIG_CREATED_BY);
-                        }
-                        configuration.setCreatedBy(modifiedBy);
-                    } else if (nn.getNodeName()
-                                 .compareTo(XMLConfigConstants.CONFIG_UPDATED_BY) ==
-                            0) {
-                        ModifiedBy modifiedBy = parseUpdateInfo((Element) nn);
-                        if (modifiedBy == null) {
-                            throw ConfigurationException
-                                    .propertyNotFoundException(
-                                            XMLConfigConstants.CONFIG_UPDATED_BY);
-                        }
-                        configuration.setUpdatedBy(modifiedBy);
-                    } else if (nn.getNodeName()
-                                 .compareTo(
-                                         XMLConfigConstants.CONFIG_HEADER_DESC) ==
-                            0) {
-                        String name = nn.getTextContent();
-                        Preconditions.checkState(!Strings.isNullOrEmpty(name));
-                        configuration.setDescription(name);
-                    }
-                }
-            }
         } catch (ConfigurationException e) {
             throw e;
         } catch (Exception e) {
@@ -792,22 +865,22 @@ public class XMLConfigParser extends AbstractConfigParser {
     /**
      * Parse an Update Info node from the XML Element.
      *
-     * @param node - XML Node Element.
+     * @param node - Attributes of the XML Node Element.
      * @return - Update Info.
      * @throws ConfigurationException
      */
-    private ModifiedBy parseUpdateInfo(Element node)
+    private ModifiedBy parseUpdateInfo(Map<String, String> node)
     throws ConfigurationException {
-        if (node.hasAttributes()) {
+        if (!node.isEmpty()) {
             ModifiedBy mb = new ModifiedBy();
-            if (node.hasAttribute(XMLConfigConstants.CONFIG_CREATED_BY)) {
+            if (node.containsKey(XMLConfigConstants.CONFIG_CREATED_BY)) {
                 String user =
-                        node.getAttribute(XMLConfigConstants.CONFIG_CREATED_BY);
+                        node.get(XMLConfigConstants.CONFIG_CREATED_BY);
                 Preconditions.checkState(!Strings.isNullOrEmpty(user));
                 mb.setModifiedBy(user);
             }
-            if (node.hasAttribute(XMLConfigConstants.CONFIG_UPDATE_TIMESTAMP)) {
-                String ts = node.getAttribute(
+            if (node.containsKey(XMLConfigConstants.CONFIG_UPDATE_TIMESTAMP)) {
+                String ts = node.get(
                         XMLConfigConstants.CONFIG_UPDATE_TIMESTAMP);
                 Preconditions.checkState(!Strings.isNullOrEmpty(ts));
                 long dt = Long.parseLong(ts);
@@ -818,6 +891,540 @@ public class XMLConfigParser extends AbstractConfigParser {
         return null;
     }
 
+    /**
+     * Get the attributes of the XML Element.
+     *
+     * @param node - XML Node Element.
+     * @return - Map of attribute name/value.
+     */
+    private Map<String, String> getAttributes(Element node) {
+        Map<String, String> attributes = new HashMap<>();
+        if (node.hasAttributes()) {
+            NamedNodeMap nodeMap = node.getAttributes();
+            for (int ii = 0; ii < nodeMap.getLength(); ii++) {
+                Node attr = nodeMap.item(ii);
+                attributes.put(attr.getNodeName(), attr.getNodeValue());
+            }
+        }
+        return attributes;
+    }
+
+    /**
+     * Type of the config node an XML element maps to.
+     */
+    private enum EStreamNodeType {
+        Value, List, KeyValue, Include, Resource, Path
+    }
+
+    /**
+     * Element read from the XML stream, with the config node created for it.
+     * <p>
+     * Nodes are created at the element end, but attached when the parent element
+     * ends (the type of the parent is not known till then). Include and Resource
+     * nodes are only created once attached.
+     */
+    private static final class StreamElement {
+        private final String name;
+        private Map<String, String> attributes;
+        private EStreamNodeType type;
+        private AbstractConfigNode node;
+        /**
+         * Number of child nodes (elements, text runs, comments).
+         */
+        private int childNodes = 0;
+        /**
+         * Child elements, retained only if the node might have to be
+         * re-created as a path node.
+         */
+        private List<StreamElement> children;
+
+        private StreamElement(String name) {
+            this.name = name;
+        }
+    }
+
+    /**
+     * Parse the configuration in a single pass over the XML stream events.
+     *
+     * @param name     - Configuration name being loaded.
+     * @param stream   - XML input stream.
+     * @param version  - Configuration version to load.
+     * @param password - Password in case the Configuration has encrypted elements.
+     * @throws ConfigurationException
+     * @throws XMLStreamException
+     */
+    private void parseStream(String name, InputStream stream, Version version,
+                             String password)
+    throws ConfigurationException, XMLStreamException {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES,
+                            false);
+        XMLStreamReader reader = factory.createXMLStreamReader(stream);
+        try {
+            configuration = new Configuration(this.settings);
+            configuration.getState().setState(ENodeState.Loading);
+            configuration.setName(name);
+
+            if (nextElement(reader) != XMLStreamConstants.START_ELEMENT) {
+                throw new ConfigurationException(
+                        "Invalid Configuration : No root element found.");
+            }
+            boolean header = false;
+            boolean body = false;
+            while (nextElement(reader) == XMLStreamConstants.START_ELEMENT) {
+                String ename = getName(reader.getName());
+                if (ename.compareTo(XMLConfigConstants.CONFIG_HEADER_NODE) == 0 &&
+                        !header) {
+                    readStreamHeader(reader, version, password);
+                    header = true;
+                } else if (!body) {
+                    parseStreamBody(reader, password);
+                    body = true;
+                } else {
+                    skipElement(reader);
+                }
+            }
+            if (!header) {
+                throw ConfigurationException
+                        .propertyNotFoundException(
+                                XMLConfigConstants.CONFIG_HEADER_NODE);
+            }
+        } finally {
+            reader.close();
+        }
+    }
+
+    /**
+     * Read the Configuration header from the XML stream.
+     *
+     * @param reader  - XML stream reader, positioned at the header element start.
+     * @param version - Expected Version.
+     * @throws ConfigurationException
+     * @throws XMLStreamException
+     */
+    private void readStreamHeader(XMLStreamReader reader, Version version,
+                                  String password)
+    throws ConfigurationException, XMLStreamException {
+        readHeader(getAttributes(reader), version, password);
+        while (nextElement(reader) == XMLStreamConstants.START_ELEMENT) {
+            String ename = getName(reader.getName());
+            if (ename.compareTo(XMLConfigConstants.CONFIG_CREATED_BY) == 0) {
+                ModifiedBy modifiedBy = parseUpdateInfo(getAttributes(reader));
+                if (modifiedBy == null) {
+                    throw ConfigurationException
+                            .propertyNotFoundException(
+                                    XMLConfigConstants.CONFIG_CREATED_BY);
+                }
+                configuration.setCreatedBy(modifiedBy);
+                skipElement(reader);
+            } else if (ename.compareTo(XMLConfigConstants.CONFIG_UPDATED_BY) == 0) {
+                ModifiedBy modifiedBy = parseUpdateInfo(getAttributes(reader));
+                if (modifiedBy == null) {
+                    throw ConfigurationException
+                            .propertyNotFoundException(
+                                    XMLConfigConstants.CONFIG_UPDATED_BY);
+                }
+                configuration.setUpdatedBy(modifiedBy);
+                skipElement(reader);
+            } else if (ename.compareTo(XMLConfigConstants.CONFIG_HEADER_DESC) == 0) {
+                String desc = readText(reader);
+                Preconditions.checkState(!Strings.isNullOrEmpty(desc));
+                configuration.setDescription(desc);
+            } else {
+                skipElement(reader);
+            }
+        }
+    }
+
+    /**
+     * Parse the XML body from the stream to create the configuration nodes.
+     *
+     * @param reader - XML stream reader, positioned at the body element start.
+     * @throws ConfigurationException
+     * @throws XMLStreamException
+     */
+    private void parseStreamBody(XMLStreamReader reader, String password)
+    throws ConfigurationException, XMLStreamException {
+        ConfigPathNode rootNode = new ConfigPathNode(configuration, null);
+        rootNode.setName(getName(reader.getName()));
+        configuration.setRootConfigNode(rootNode);
+
+        while (nextElement(reader) == XMLStreamConstants.START_ELEMENT) {
+            StreamElement element = readStreamElement(reader, password);
+            attachStreamElement(element, rootNode, password);
+        }
+    }
+
+    /**
+     * Read the current element (and sub-tree) from the XML stream and create the
+     * config node for it. The created node is not attached to a parent.
+     *
+     * @param reader - XML stream reader, positioned at the element start.
+     * @return - Stream element.
+     * @throws ConfigurationException
+     * @throws XMLStreamException
+     */
+    private StreamElement readStreamElement(XMLStreamReader reader,
+                                            String password)
+    throws ConfigurationException, XMLStreamException {
+        StreamElement element = new StreamElement(getName(reader.getName()));
+        element.attributes = getAttributes(reader);
+
+        List<StreamElement> children = null;
+        StringBuilder text = null;
+        boolean inText = false;
+        while (reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.END_ELEMENT) {
+                break;
+            }
+            if (event == XMLStreamConstants.CHARACTERS ||
+                    event == XMLStreamConstants.CDATA ||
+                    event == XMLStreamConstants.SPACE) {
+                if (!inText) {
+                    element.childNodes++;
+                    inText = true;
+                }
+                if (children == null) {
+                    if (text == null) {
+                        text = new StringBuilder();
+                    }
+                    text.append(reader.getText());
+                }
+                continue;
+            }
+            inText = false;
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                element.childNodes++;
+                if (children == null) {
+                    children = new ArrayList<>();
+                }
+                children.add(readStreamElement(reader, password));
+            } else if (event == XMLStreamConstants.COMMENT ||
+                    event == XMLStreamConstants.PROCESSING_INSTRUCTION ||
+                    event == XMLStreamConstants.ENTITY_REFERENCE) {
+                element.childNodes++;
+            }
+        }
+        String value = null;
+        if (element.childNodes == 1 && text != null) {
+            value = text.toString().trim();
+        }
+        createStreamNode(element, value, children, password);
+        return element;
+    }
+
+    /**
+     * Create the config node for the element that has been read.
+     *
+     * @param element  - Stream element.
+     * @param value    - Trimmed text value, if the element only contains text.
+     * @param children - Child elements (can be NULL).
+     * @throws ConfigurationException
+     */
+    private void createStreamNode(StreamElement element, String value,
+                                  List<StreamElement> children, String password)
+    throws ConfigurationException {
+        String name = element.name;
+        boolean keyValue = isKeyValueNode(name);
+        if (!keyValue && isStreamList(children)) {
+            ConfigListNode<?> nodeList = null;
+            if (children.get(0).type == EStreamNodeType.Value) {
+                nodeList = new ConfigListValueNode(configuration, null);
+            } else {
+                nodeList = new ConfigListElementNode(configuration, null);
+            }
+            nodeList.setName(name);
+            attachStreamElements(children, nodeList, password);
+            element.type = EStreamNodeType.List;
+            element.node = nodeList;
+        } else if (!Strings.isNullOrEmpty(value)) {
+            ConfigValueNode vn = new ConfigValueNode(configuration, null);
+            vn.setName(name);
+            vn.setValue(value);
+            String en = element.attributes.get(
+                    XMLConfigConstants.CONFIG_NODE_ENCRYPTED);
+            if (en != null && en.compareToIgnoreCase("true") == 0) {
+                vn.setEncrypted(true);
+            }
+            element.type = EStreamNodeType.Value;
+            element.node = vn;
+        } else if (keyValue) {
+            ConfigKeyValueNode pnode = null;
+            if (name.compareTo(settings.getPropertiesNodeName()) == 0) {
+                pnode = new ConfigPropertiesNode(configuration, null);
+            } else if (name.compareTo(settings.getParametersNodeName()) == 0) {
+                pnode = new ConfigParametersNode(configuration, null);
+            } else {
+                pnode = new ConfigAttributesNode(configuration, null);
+            }
+            pnode.setName(name);
+            element.type = EStreamNodeType.KeyValue;
+            element.node = pnode;
+            element.children = children;
+            if (children != null) {
+                for (StreamElement child : children) {
+                    attachStreamElement(child, pnode, password);
+                }
+            }
+        } else if (name.compareTo(ConfigIncludeNode.NODE_NAME) == 0) {
+            element.type = EStreamNodeType.Include;
+            element.children = children;
+        } else if (name.compareTo(ConfigResourceNode.NODE_NAME) == 0) {
+            element.type = EStreamNodeType.Resource;
+            element.children = children;
+        } else {
+            element.type = EStreamNodeType.Path;
+            element.node = createStreamPathNode(name, children, password);
+        }
+    }
+
+    /**
+     * Create a path node with the specified child elements.
+     *
+     * @param name     - Node name.
+     * @param children - Child elements (can be NULL).
+     * @return - Path node.
+     * @throws ConfigurationException
+     */
+    private ConfigPathNode createStreamPathNode(String name,
+                                                List<StreamElement> children,
+                                                String password)
+    throws ConfigurationException {
+        ConfigPathNode pnode = new ConfigPathNode(configuration, null);
+        pnode.setName(name);
+        attachStreamElements(children, pnode, password);
+        return pnode;
+    }
+
+    /**
+     * Attach the child elements to the parent node. Nested children are released
+     * once attached.
+     *
+     * @param children - Child elements (can be NULL).
+     * @param parent   - Parent Config Node.
+     * @throws ConfigurationException
+     */
+    private void attachStreamElements(List<StreamElement> children,
+                                      AbstractConfigNode parent,
+                                      String password)
+    throws ConfigurationException {
+        if (children != null) {
+            for (StreamElement child : children) {
+                attachStreamElement(child, parent, password);
+                child.children = null;
+            }
+        }
+    }
+
+    /**
+     * Attach the config node of the element to the parent node.
+     *
+     * @param element - Stream element.
+     * @param parent  - Parent Config Node.
+     * @throws ConfigurationException
+     */
+    private void attachStreamElement(StreamElement element,
+                                     AbstractConfigNode parent, String password)
+    throws ConfigurationException {
+        if (element.type == EStreamNodeType.Value) {
+            ConfigValueNode vn = (ConfigValueNode) element.node;
+            if (parent instanceof ConfigPathNode) {
+                ((ConfigPathNode) parent).addChildNode(vn);
+            } else if (parent instanceof ConfigListValueNode) {
+                vn.setParent(parent);
+                ((ConfigListValueNode) parent).addValue(vn);
+            } else if (parent instanceof ConfigKeyValueNode) {
+                ((ConfigKeyValueNode) parent)
+                        .addKeyValue(vn.getName(), vn.getValue());
+            } else {
+                throw new ConfigurationException(String.format(
+                        "Cannot add ConfigValue to parent : [parent=%s][path=%s]",
+                        parent.getClass().getCanonicalName(),
+                        parent.getAbsolutePath()));
+            }
+        } else if (element.type == EStreamNodeType.List) {
+            if (!(parent instanceof ConfigPathNode)) {
+                throw new ConfigurationException(String.format(
+                        "Cannot add Config Node List to parent : [parent=%s][path=%s]",
+                        parent.getClass().getCanonicalName(),
+                        parent.getAbsolutePath()));
+            }
+            ((ConfigPathNode) parent).addChildNode(element.node);
+        } else if (parent instanceof ConfigListElementNode) {
+            // List elements are always path nodes.
+            AbstractConfigNode pnode = element.node;
+            if (element.type != EStreamNodeType.Path) {
+                pnode = createStreamPathNode(element.name, element.children,
+                                             password);
+            }
+            pnode.setParent(parent);
+            ((ConfigListElementNode) parent).addValue((ConfigPathNode) pnode);
+        } else if (!(parent instanceof ConfigPathNode)) {
+            throw new ConfigurationException(String.format(
+                    "Cannot add Config Node to parent : [parent=%s][path=%s]",
+                    parent.getClass().getCanonicalName(),
+                    parent.getAbsolutePath()));
+        } else if (element.type == EStreamNodeType.Include) {
+            ConfigIncludeNode pnode = new ConfigIncludeNode(configuration, parent);
+            ((ConfigPathNode) parent).addChildNode(pnode);
+            parseIncludeNode(element.attributes, pnode, password);
+        } else if (element.type == EStreamNodeType.Resource) {
+            String url = null;
+            if (element.children == null) {
+                throw new ConfigurationException(
+                        String.format("No child nodes found : [path=%s]",
+                                      element.name));
+            }
+            for (StreamElement child : element.children) {
+                if (child.type == EStreamNodeType.Value &&
+                        child.name.compareTo(
+                                ConfigResourceNode.NODE_RESOURCE_URL) == 0) {
+                    url = ((ConfigValueNode) child.node).getValue();
+                    break;
+                }
+            }
+            ConfigResourceNode pnode =
+                    readResourceNode(element.name, element.attributes, url,
+                                     parent);
+            ((ConfigPathNode) parent).addChildNode(pnode);
+        } else {
+            ((ConfigPathNode) parent).addChildNode(element.node);
+        }
+    }
+
+    /**
+     * Check if the child elements form a list: at least two non-empty elements
+     * with the same name, all values or all nodes.
+     *
+     * @param children - Child elements (can be NULL).
+     * @return - Is List?
+     */
+    private boolean isStreamList(List<StreamElement> children) {
+        if (children == null || children.size() < 2) {
+            return false;
+        }
+        StreamElement first = children.get(0);
+        boolean value = (first.type == EStreamNodeType.Value);
+        for (StreamElement child : children) {
+            if (child.childNodes == 0) {
+                return false;
+            }
+            if (child.name.compareTo(first.name) != 0 ||
+                    (child.type == EStreamNodeType.Value) != value) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Check if the name is that of a Properties/Parameters/Attributes node.
+     *
+     * @param name - Element name.
+     * @return - Is Key/Value node?
+     */
+    private boolean isKeyValueNode(String name) {
+        return name.compareTo(settings.getAttributesNodeName()) == 0 ||
+                name.compareTo(settings.getParametersNodeName()) == 0 ||
+                name.compareTo(settings.getPropertiesNodeName()) == 0;
+    }
+
+    /**
+     * Get the attributes of the current XML stream element.
+     *
+     * @param reader - XML stream reader, positioned at the element start.
+     * @return - Map of attribute name/value.
+     */
+    private Map<String, String> getAttributes(XMLStreamReader reader) {
+        int count = reader.getAttributeCount();
+        if (count == 0) {
+            return Collections.emptyMap();
+        }
+        Map<String, String> attributes = new HashMap<>(count * 2);
+        for (int ii = 0; ii < count; ii++) {
+            attributes.put(getName(reader.getAttributeName(ii)),
+                           reader.getAttributeValue(ii));
+        }
+        return attributes;
+    }
+
+    /**
+     * Get the qualified (prefix:name) name string.
+     *
+     * @param name - XML Name.
+     * @return - Name string.
+     */
+    private String getName(QName name) {
+        if (Strings.isNullOrEmpty(name.getPrefix())) {
+            return name.getLocalPart();
+        }
+        return String.format("%s:%s", name.getPrefix(), name.getLocalPart());
+    }
+
+    /**
+     * Move to the next element start/end event.
+     *
+     * @param reader - XML stream reader.
+     * @return - Event type (END_DOCUMENT if no more elements).
+     * @throws XMLStreamException
+     */
+    private int nextElement(XMLStreamReader reader) throws XMLStreamException {
+        while (reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT ||
+                    event == XMLStreamConstants.END_ELEMENT) {
+                return event;
+            }
+        }
+        return XMLStreamConstants.END_DOCUMENT;
+    }
+
+    /**
+     * Read the text content of the current element (and sub-elements).
+     *
+     * @param reader - XML stream reader, positioned at the element start.
+     * @return - Text content.
+     * @throws XMLStreamException
+     */
+    private String readText(XMLStreamReader reader) throws XMLStreamException {
+        StringBuilder buffer = new StringBuilder();
+        int depth = 1;
+        while (depth > 0 && reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            } else if (event == XMLStreamConstants.CHARACTERS ||
+                    event == XMLStreamConstants.CDATA ||
+                    event == XMLStreamConstants.SPACE) {
+                buffer.append(reader.getText());
+            }
+        }
+        return buffer.toString();
+    }
+
+    /**
+     * Skip the current element (and sub-elements).
+     *
+     * @param reader - XML stream reader, positioned at the element start.
+     * @throws XMLStreamException
+     */
+    private void skipElement(XMLStreamReader reader) throws XMLStreamException {
+        int depth = 1;
+        while (depth > 0 && reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            }
+        }
+    }
+
     @Override
     public void close() throws IOException {
 
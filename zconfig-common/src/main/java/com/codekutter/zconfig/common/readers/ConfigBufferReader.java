@@ -0,0 +1,103 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ * Copyright (c) $year
+ * Date: 17/10/26 5:20 PM
+ * Subho Ghosh (subho dot ghosh at outlook.com)
+ *
+ */
+
+package com.codekutter.zconfig.common.readers;
+
+import com.codekutter.zconfig.common.ConfigurationException;
+import com.google.common.base.Preconditions;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Configuration reader to read from an in-memory (UTF-8) data buffer.
+ */
+public class ConfigBufferReader extends AbstractConfigReader {
+    /**
+     * Configuration data.
+     */
+    private final byte[] data;
+
+    /**
+     * Initialize the reader with the configuration data.
+     *
+     * @param data - Configuration data.
+     */
+    public ConfigBufferReader(byte[] data) {
+        Preconditions.checkArgument(data != null);
+        this.data = data;
+    }
+
+    /**
+     * Open this configuration reader instance.
+     *
+     * @throws ConfigurationException
+     */
+    @Override
+    public void open() throws ConfigurationException {
+        if (!state.isOpen()) {
+            state.setState(EReaderState.Open);
+        }
+    }
+
+    /**
+     * Get the buffered reader over the configuration data.
+     *
+     * @return - Buffered reader.
+     * @throws ConfigurationException
+     */
+    @Override
+    public BufferedReader getBufferedStream() throws ConfigurationException {
+        if (state.isOpen()) {
+            return new BufferedReader(
+                    new InputStreamReader(new ByteArrayInputStream(data),
+                                          StandardCharsets.UTF_8));
+        }
+        throw new ConfigurationException("Reader not opened or has exception.");
+    }
+
+    /**
+     * Get the input stream over the configuration data.
+     *
+     * @return - Input stream.
+     * @throws ConfigurationException
+     */
+    @Override
+    public InputStream getInputStream() throws ConfigurationException {
+        if (state.isOpen()) {
+            return new ByteArrayInputStream(data);
+        }
+        throw new ConfigurationException("Reader not opened or has exception.");
+    }
+
+    /**
+     * Close this configuration reader instance.
+     */
+    @Override
+    public void close() {
+        if (state.isOpen()) {
+            state.setState(EReaderState.Closed);
+        }
+    }
+}
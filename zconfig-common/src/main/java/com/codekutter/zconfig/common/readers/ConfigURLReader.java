@@ -22,30 +22,83 @@
  *
  */
 
+
 package com.codekutter.zconfig.common.readers;
 
 import com.google.common.base.Preconditions;
 import com.google.common.base.Strings;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
+import com.google.common.io.ByteStreams;
 import com.codekutter.zconfig.common.ConfigurationException;
+import com.codekutter.zconfig.common.LogUtils;
+import com.codekutter.zconfig.common.model.ConfigurationSettings;
+import com.codekutter.zconfig.common.utils.IOUtils;
 
-import java.io.BufferedReader;
-import java.io.IOException;
-import java.io.InputStream;
-import java.io.InputStreamReader;
+import java.io.*;
+import java.net.HttpURLConnection;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.net.URLConnection;
+import java.nio.charset.StandardCharsets;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
 
 /**
  * Configuration reader to read from a remote HTTP location.
+ * <p>
+ * Responses are cached on the local disk (under the configuration temp
+ * directory), subsequent reads send a conditional request (If-None-Match /
+ * If-Modified-Since) and a 304 (Not Modified) response is served from the
+ * cached content. Content is requested using gzip transfer encoding.
  */
 public class ConfigURLReader extends AbstractConfigReader {
+    /**
+     * Sub-directory of the temp directory for the cached responses.
+     */
+    public static final String HTTP_CACHE_DIR = "http-cache";
+
+    private static final String HEADER_ACCEPT_ENCODING = "Accept-Encoding";
+    private static final String HEADER_CONTENT_ENCODING = "Content-Encoding";
+    private static final String HEADER_IF_NONE_MATCH = "If-None-Match";
+    private static final String HEADER_IF_MODIFIED_SINCE = "If-Modified-Since";
+    private static final String HEADER_ETAG = "ETag";
+    private static final String HEADER_LAST_MODIFIED = "Last-Modified";
+    private static final String ENCODING_GZIP = "gzip";
+
+    private static final String CACHE_CONTENT_EXT = ".content";
+    private static final String CACHE_META_EXT = ".meta";
+    private static final String META_URL = "url";
+    private static final String META_ETAG = "etag";
+    private static final String META_LAST_MODIFIED = "last-modified";
+    private static final String META_HASH = "hash";
+    private static final String META_SIZE = "size";
+    private static final String META_MODIFIED = "modified";
+    private static final String HASH_ALGO = "SHA-256";
+
     /**
      * Formatted HTTP location to read from.
      */
     private URL remoteURL;
 
-    private URLConnection connection = null;
+    /**
+     * Directory to cache the responses in.
+     */
+    private String cacheDirectory;
+
+    /**
+     * Local file with the (cached) response content.
+     */
+    private File contentFile = null;
+
+    /**
+     * Was the content served from the cache (304 response)?
+     */
+    private boolean notModified = false;
 
     /**
      * Create this instance with the specified HTTP string.
@@ -59,6 +112,7 @@ public class ConfigURLReader extends AbstractConfigReader {
         } catch (MalformedURLException e) {
             throw new RuntimeException(e);
         }
+        cacheDirectory = IOUtils.getTempDirectory(HTTP_CACHE_DIR);
     }
 
     /**
@@ -69,10 +123,60 @@ public class ConfigURLReader extends AbstractConfigReader {
     public ConfigURLReader(URL url) {
         Preconditions.checkArgument(url != null);
         remoteURL = url;
+        cacheDirectory = IOUtils.getTempDirectory(HTTP_CACHE_DIR);
+    }
+
+    /**
+     * Create this instance with the specified HTTP, responses are cached under
+     * the temp directory of the configuration settings.
+     *
+     * @param url      - Remote HTTP
+     * @param settings - Configuration settings.
+     * @throws ConfigurationException
+     */
+    public ConfigURLReader(URL url, ConfigurationSettings settings)
+    throws ConfigurationException {
+        Preconditions.checkArgument(url != null);
+        Preconditions.checkArgument(settings != null);
+        remoteURL = url;
+        try {
+            cacheDirectory = settings.getConfigTempFolder(HTTP_CACHE_DIR);
+        } catch (IOException e) {
+            throw new ConfigurationException(e);
+        }
+    }
+
+    /**
+     * Get the directory the responses are cached in.
+     *
+     * @return - Cache directory.
+     */
+    public String getCacheDirectory() {
+        return cacheDirectory;
     }
 
     /**
-     * Open this configuration reader instance.
+     * Get the local file with the response content.
+     *
+     * @return - Content file, NULL if not opened.
+     */
+    public File getContentFile() {
+        return contentFile;
+    }
+
+    /**
+     * Was the content served from the local cache (not modified on the
+     * server)?
+     *
+     * @return - Not modified?
+     */
+    public boolean isNotModified() {
+        return notModified;
+    }
+
+    /**
+     * Open this configuration reader instance. The content is fetched (or
+     * validated against the cached content) when opened.
      *
      * @throws ConfigurationException
      */
@@ -80,7 +184,7 @@ public class ConfigURLReader extends AbstractConfigReader {
     public void open() throws ConfigurationException {
         if (!state.isOpen()) {
             try {
-                connection = remoteURL.openConnection();
+                fetch();
                 state.setState(EReaderState.Open);
             } catch (IOException e) {
                 state.setError(e);
@@ -89,6 +193,169 @@ public class ConfigURLReader extends AbstractConfigReader {
         }
     }
 
+    /**
+     * Fetch the content, using a conditional request if the content is
+     * already cached.
+     *
+     * @throws IOException
+     */
+    private void fetch() throws IOException {
+        String key = Hashing.sha256()
+                            .hashString(remoteURL.toExternalForm(),
+                                        StandardCharsets.UTF_8).toString();
+        File content = new File(cacheDirectory, key + CACHE_CONTENT_EXT);
+        File metafile = new File(cacheDirectory, key + CACHE_META_EXT);
+        Properties meta = readMeta(content, metafile);
+
+        URLConnection connection = remoteURL.openConnection();
+        connection.setRequestProperty(HEADER_ACCEPT_ENCODING, ENCODING_GZIP);
+        if (meta != null) {
+            String etag = meta.getProperty(META_ETAG);
+            if (!Strings.isNullOrEmpty(etag)) {
+                connection.setRequestProperty(HEADER_IF_NONE_MATCH, etag);
+            }
+            String modified = meta.getProperty(META_LAST_MODIFIED);
+            if (!Strings.isNullOrEmpty(modified)) {
+                connection.setRequestProperty(HEADER_IF_MODIFIED_SINCE, modified);
+            }
+        }
+        try {
+            if (connection instanceof HttpURLConnection) {
+                int code = ((HttpURLConnection) connection).getResponseCode();
+                if (code == HttpURLConnection.HTTP_NOT_MODIFIED) {
+                    if (meta == null) {
+                        throw new IOException(String.format(
+                                "Not modified response without cached content. [url=%s]",
+                                remoteURL.toExternalForm()));
+                    }
+                    LogUtils.debug(getClass(), String.format(
+                            "Content not modified, using cached content. [url=%s]",
+                            remoteURL.toExternalForm()));
+                    contentFile = content;
+                    notModified = true;
+                    return;
+                } else if (code != HttpURLConnection.HTTP_OK) {
+                    throw new IOException(String.format(
+                            "Error fetching content. [url=%s][response=%d]",
+                            remoteURL.toExternalForm(), code));
+                }
+            }
+            download(connection, content, metafile);
+            contentFile = content;
+            notModified = false;
+        } finally {
+            if (connection instanceof HttpURLConnection) {
+                ((HttpURLConnection) connection).disconnect();
+            }
+        }
+    }
+
+    /**
+     * Download the response content to the cache.
+     *
+     * @param connection - Opened connection.
+     * @param content    - Cached content file.
+     * @param metafile   - Cached response headers file.
+     * @throws IOException
+     */
+    private void download(URLConnection connection, File content, File metafile)
+    throws IOException {
+        File tmpfile = new File(String.format("%s.%s.tmp", content.getAbsolutePath(),
+                                              UUID.randomUUID().toString()));
+        try {
+            MessageDigest digest;
+            try {
+                digest = MessageDigest.getInstance(HASH_ALGO);
+            } catch (NoSuchAlgorithmException e) {
+                throw new IOException(e);
+            }
+            try (InputStream input = getResponseStream(connection);
+                 OutputStream output = new DigestOutputStream(
+                         new BufferedOutputStream(new FileOutputStream(tmpfile)),
+                         digest)) {
+                ByteStreams.copy(input, output);
+            }
+            IOUtils.moveFile(tmpfile, content);
+
+            Properties meta = new Properties();
+            meta.setProperty(META_URL, remoteURL.toExternalForm());
+            meta.setProperty(META_HASH,
+                             HashCode.fromBytes(digest.digest()).toString());
+            meta.setProperty(META_SIZE, String.valueOf(content.length()));
+            meta.setProperty(META_MODIFIED, String.valueOf(content.lastModified()));
+            String etag = connection.getHeaderField(HEADER_ETAG);
+            if (!Strings.isNullOrEmpty(etag)) {
+                meta.setProperty(META_ETAG, etag);
+            }
+            String modified = connection.getHeaderField(HEADER_LAST_MODIFIED);
+            if (!Strings.isNullOrEmpty(modified)) {
+                meta.setProperty(META_LAST_MODIFIED, modified);
+            }
+            File tmpmeta = new File(String.format("%s.%s.tmp",
+                                                  metafile.getAbsolutePath(),
+                                                  UUID.randomUUID().toString()));
+            try (OutputStream output = new FileOutputStream(tmpmeta)) {
+                meta.store(output, null);
+            }
+            IOUtils.moveFile(tmpmeta, metafile);
+        } finally {
+            if (tmpfile.exists() && !tmpfile.delete()) {
+                tmpfile.deleteOnExit();
+            }
+        }
+    }
+
+    /**
+     * Get the response stream, decoding the gzip transfer encoding if used.
+     *
+     * @param connection - Opened connection.
+     * @return - Response stream.
+     * @throws IOException
+     */
+    private InputStream getResponseStream(URLConnection connection)
+    throws IOException {
+        InputStream input = connection.getInputStream();
+        String encoding = connection.getHeaderField(HEADER_CONTENT_ENCODING);
+        if (encoding != null && encoding.trim().equalsIgnoreCase(ENCODING_GZIP)) {
+            return new GZIPInputStream(input);
+        }
+        return input;
+    }
+
+    /**
+     * Read the cached response headers. The headers are only used if the size
+     * and modified timestamp of the cached content match the ones recorded
+     * when the response was cached (the content isn't re-hashed).
+     *
+     * @param content  - Cached content file.
+     * @param metafile - Cached response headers file.
+     * @return - Cached headers or NULL if not cached.
+     */
+    private Properties readMeta(File content, File metafile) {
+        if (!content.exists() || !metafile.exists()) {
+            return null;
+        }
+        try {
+            Properties meta = new Properties();
+            try (InputStream input = new FileInputStream(metafile)) {
+                meta.load(input);
+            }
+            String size = meta.getProperty(META_SIZE);
+            String modified = meta.getProperty(META_MODIFIED);
+            if (size == null || modified == null ||
+                    Long.parseLong(size) != content.length() ||
+                    Long.parseLong(modified) != content.lastModified()) {
+                return null;
+            }
+            return meta;
+        } catch (IOException | NumberFormatException e) {
+            LogUtils.debug(getClass(), String.format(
+                    "Error reading cached response. [url=%s][error=%s]",
+                    remoteURL.toExternalForm(), e.getLocalizedMessage()));
+            return null;
+        }
+    }
+
     /**
      * Get the buffered input stream associated with this reader.
      *
@@ -97,16 +364,8 @@ public class ConfigURLReader extends AbstractConfigReader {
      */
     @Override
     public BufferedReader getBufferedStream() throws ConfigurationException {
-        if (state.isOpen()) {
-            try {
-                return new BufferedReader(
-                        new InputStreamReader(connection.getInputStream()));
-            } catch (IOException e) {
-                state.setError(e);
-                throw new ConfigurationException(e);
-            }
-        }
-        throw new ConfigurationException("Reader not opened or has exception.");
+        return new BufferedReader(
+                new InputStreamReader(getInputStream(), StandardCharsets.UTF_8));
     }
 
     /**
@@ -119,7 +378,7 @@ public class ConfigURLReader extends AbstractConfigReader {
     public InputStream getInputStream() throws ConfigurationException {
         if (state.isOpen()) {
             try {
-                return connection.getInputStream();
+                return new FileInputStream(contentFile);
             } catch (IOException e) {
                 state.setError(e);
                 throw new ConfigurationException(e);
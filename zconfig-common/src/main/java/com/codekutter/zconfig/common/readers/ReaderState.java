@@ -27,6 +27,14 @@ package com.codekutter.zconfig.common.readers;
 import com.codekutter.zconfig.common.AbstractState;
 
 public class ReaderState extends AbstractState<EReaderState> {
+
+    /**
+     * Default Constructor - Initialize state to Unknown
+     */
+    public ReaderState() {
+        setState(EReaderState.Unknown);
+    }
+
     /**
      * Check if this reader is open.
      *
@@ -75,41 +75,52 @@ public class CollectionUtils {
         }
         Class<?> ptype = ReflectionUtils.getGenericListType(field);
         Preconditions.checkNotNull(ptype);
-        if (ptype.equals(String.class)) {
-            ReflectionUtils.setObjectValue(source, field, values);
-        } else if (ptype.equals(Boolean.class)) {
-            List<Boolean> bl = createBoolList(values);
-            ReflectionUtils.setObjectValue(source, field, bl);
-        } else if (ptype.equals(Character.class)) {
-            List<Character> bl = createCharList(values);
-            ReflectionUtils.setObjectValue(source, field, bl);
-        } else if (ptype.equals(Short.class)) {
-            List<Short> bl = createShortList(values);
-            ReflectionUtils.setObjectValue(source, field, bl);
-        } else if (ptype.equals(Integer.class)) {
-            List<Integer> bl = createIntList(values);
-            ReflectionUtils.setObjectValue(source, field, bl);
-        } else if (ptype.equals(Long.class)) {
-            List<Long> bl = createLongList(values);
-            ReflectionUtils.setObjectValue(source, field, bl);
-        } else if (ptype.equals(Float.class)) {
-            List<Float> bl = createFloatList(values);
-            ReflectionUtils.setObjectValue(source, field, bl);
-        } else if (ptype.equals(Double.class)) {
-            List<Double> bl = createDoubleList(values);
-            ReflectionUtils.setObjectValue(source, field, bl);
-        } else if (ptype.equals(BigInteger.class)) {
-            List<BigInteger> bl = createBigIntegerList(values);
-            ReflectionUtils.setObjectValue(source, field, bl);
-        } else if (ptype.equals(BigDecimal.class)) {
-            List<BigDecimal> bl = createBigDecimalList(values);
-            ReflectionUtils.setObjectValue(source, field, bl);
-        } else if (ptype.equals(Date.class)) {
-            List<Date> bl = createDateList(values);
-            ReflectionUtils.setObjectValue(source, field, bl);
+        List<?> nvalues = createList(values, ptype);
+        if (nvalues != null) {
+            FieldAccessor.get(source.getClass(), field).set(source, nvalues);
         }
     }
 
+    /**
+     * Create a List of elements converted from the List of input strings.
+     *
+     * @param values - List of string values to convert from.
+     * @param type   - Element type (see supported types above).
+     * @param <T>    - Element type.
+     * @return - Converted List, NULL if the element type isn't supported.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> List<T> createList(@Nonnull List<String> values,
+                                         @Nonnull Class<T> type) {
+        Preconditions.checkArgument(values != null);
+        Preconditions.checkArgument(type != null);
+
+        if (type.equals(String.class)) {
+            return (List<T>) values;
+        } else if (type.equals(Boolean.class)) {
+            return (List<T>) createBoolList(values);
+        } else if (type.equals(Character.class)) {
+            return (List<T>) createCharList(values);
+        } else if (type.equals(Short.class)) {
+            return (List<T>) createShortList(values);
+        } else if (type.equals(Integer.class)) {
+            return (List<T>) createIntList(values);
+        } else if (type.equals(Long.class)) {
+            return (List<T>) createLongList(values);
+        } else if (type.equals(Float.class)) {
+            return (List<T>) createFloatList(values);
+        } else if (type.equals(Double.class)) {
+            return (List<T>) createDoubleList(values);
+        } else if (type.equals(BigInteger.class)) {
+            return (List<T>) createBigIntegerList(values);
+        } else if (type.equals(BigDecimal.class)) {
+            return (List<T>) createBigDecimalList(values);
+        } else if (type.equals(Date.class)) {
+            return (List<T>) createDateList(values);
+        }
+        return null;
+    }
+
     private static List<Boolean> createBoolList(List<String> values) {
         List<Boolean> nvalues = new ArrayList<>(values.size());
         for (String value : values) {
@@ -235,41 +246,52 @@ public class CollectionUtils {
         }
         Class<?> ptype = ReflectionUtils.getGenericSetType(field);
         Preconditions.checkNotNull(ptype);
-        if (ptype.equals(String.class)) {
+        Set<?> nvalues = createSet(values, ptype);
+        if (nvalues != null) {
+            FieldAccessor.get(source.getClass(), field).set(source, nvalues);
+        }
+    }
+
+    /**
+     * Create a Set of elements converted from the List of input strings.
+     *
+     * @param values - List of string values to convert from.
+     * @param type   - Element type (see supported types above).
+     * @param <T>    - Element type.
+     * @return - Converted Set, NULL if the element type isn't supported.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> Set<T> createSet(@Nonnull List<String> values,
+                                       @Nonnull Class<T> type) {
+        Preconditions.checkArgument(values != null);
+        Preconditions.checkArgument(type != null);
+
+        if (type.equals(String.class)) {
             Set<String> nvalues = new HashSet<>(values.size());
             nvalues.addAll(values);
-            ReflectionUtils.setObjectValue(source, field, nvalues);
-        } else if (ptype.equals(Boolean.class)) {
-            Set<Boolean> bl = createBoolSet(values);
-            ReflectionUtils.setObjectValue(source, field, bl);
-        } else if (ptype.equals(Character.class)) {
-            Set<Character> bl = createCharSet(values);
-            ReflectionUtils.setObjectValue(source, field, bl);
-        } else if (ptype.equals(Short.class)) {
-            Set<Short> bl = createShortSet(values);
-            ReflectionUtils.setObjectValue(source, field, bl);
-        } else if (ptype.equals(Integer.class)) {
-            Set<Integer> bl = createIntSet(values);
-            ReflectionUtils.setObjectValue(source, field, bl);
-        } else if (ptype.equals(Long.class)) {
-            Set<Long> bl = createLongSet(values);
-            ReflectionUtils.setObjectValue(source, field, bl);
-        } else if (ptype.equals(Float.class)) {
-            Set<Float> bl = createFloatSet(values);
-            ReflectionUtils.setObjectValue(source, field, bl);
-        } else if (ptype.equals(Double.class)) {
-            Set<Double> bl = createDoubleSet(values);
-            ReflectionUtils.setObjectValue(source, field, bl);
-        } else if (ptype.equals(BigInteger.class)) {
-            Set<BigInteger> bl = createBigIntegerSet(values);
-            ReflectionUtils.setObjectValue(source, field, bl);
-        } else if (ptype.equals(BigDecimal.class)) {
-            Set<BigDecimal> bl = createBigDecimalSet(values);
-            ReflectionUtils.setObjectValue(source, field, bl);
-        } else if (ptype.equals(Date.class)) {
-            Set<Date> bl = createDateSet(values);
-            ReflectionUtils.setObjectValue(source, field, bl);
+            return (Set<T>) nvalues;
+        } else if (type.equals(Boolean.class)) {
+            return (Set<T>) createBoolSet(values);
+        } else if (type.equals(Character.class)) {
+            return (Set<T>) createCharSet(values);
+        } else if (type.equals(Short.class)) {
+            return (Set<T>) createShortSet(values);
+        } else if (type.equals(Integer.class)) {
+            return (Set<T>) createIntSet(values);
+        } else if (type.equals(Long.class)) {
+            return (Set<T>) createLongSet(values);
+        } else if (type.equals(Float.class)) {
+            return (Set<T>) createFloatSet(values);
+        } else if (type.equals(Double.class)) {
+            return (Set<T>) createDoubleSet(values);
+        } else if (type.equals(BigInteger.class)) {
+            return (Set<T>) createBigIntegerSet(values);
+        } else if (type.equals(BigDecimal.class)) {
+            return (Set<T>) createBigDecimalSet(values);
+        } else if (type.equals(Date.class)) {
+            return (Set<T>) createDateSet(values);
         }
+        return null;
     }
 
     private static Set<Boolean> createBoolSet(List<String> values) {
@@ -28,14 +28,25 @@ import com.codekutter.zconfig.common.ConfigurationException;
 import com.codekutter.zconfig.common.model.ConfigurationSettings;
 import com.google.common.base.Preconditions;
 import com.google.common.base.Strings;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
 import com.codekutter.zconfig.common.model.nodes.AbstractConfigNode;
+import com.codekutter.zconfig.common.model.nodes.ConfigIncludeNode;
 import com.codekutter.zconfig.common.model.nodes.ConfigKeyValueNode;
+import com.codekutter.zconfig.common.model.nodes.ConfigListNode;
 import com.codekutter.zconfig.common.model.nodes.ConfigPathNode;
 import com.codekutter.zconfig.common.model.nodes.ConfigValueNode;
 
 import javax.annotation.Nonnull;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
 import java.util.regex.Matcher;
 
 /**
@@ -201,4 +212,100 @@ public class ConfigUtils {
         }
         return null;
     }
+
+    /**
+     * Get the value of the variable from the System properties, if not defined,
+     * from the environment.
+     *
+     * @param name - Variable name.
+     * @return - Variable value or NULL.
+     */
+    public static String getSystemVariable(@Nonnull String name) {
+        Preconditions.checkArgument(!Strings.isNullOrEmpty(name));
+        String value = System.getProperty(name);
+        if (Strings.isNullOrEmpty(value)) {
+            value = System.getenv(name);
+        }
+        return value;
+    }
+
+    /**
+     * Get the fingerprint of the variable values, used to check if the
+     * System/environment variables a configuration was resolved with have
+     * changed. Values are not recoverable from the fingerprint.
+     *
+     * @param variables - Variable values (NULL if undefined).
+     * @return - Fingerprint (SHA-256 hex).
+     */
+    public static String getVariablesHash(@Nonnull Map<String, String> variables) {
+        Preconditions.checkArgument(variables != null);
+        Hasher hasher = Hashing.sha256().newHasher();
+        for (Map.Entry<String, String> entry : new TreeMap<>(variables).entrySet()) {
+            hasher.putString(entry.getKey(), StandardCharsets.UTF_8);
+            hasher.putByte((byte) 0);
+            if (entry.getValue() != null) {
+                hasher.putByte((byte) 1);
+                hasher.putString(entry.getValue(), StandardCharsets.UTF_8);
+            }
+            hasher.putByte((byte) 0);
+        }
+        return hasher.hash().toString();
+    }
+
+    /**
+     * Get the fingerprint of the current values of the specified variables.
+     *
+     * @param names - Variable names.
+     * @return - Fingerprint (SHA-256 hex).
+     */
+    public static String getSystemVariablesHash(@Nonnull Collection<String> names) {
+        Preconditions.checkArgument(names != null);
+        Map<String, String> variables = new HashMap<>();
+        for (String name : names) {
+            variables.put(name, getSystemVariable(name));
+        }
+        return getVariablesHash(variables);
+    }
+
+    /**
+     * Collect the URIs of the configurations included by the node tree.
+     *
+     * @param node     - Configuration node.
+     * @param includes - Collected include URIs.
+     * @throws ConfigurationException
+     */
+    public static void collectIncludes(@Nonnull AbstractConfigNode node,
+                                       @Nonnull Set<URI> includes)
+    throws ConfigurationException {
+        Preconditions.checkArgument(node != null);
+        Preconditions.checkArgument(includes != null);
+
+        if (node instanceof ConfigIncludeNode) {
+            ConfigIncludeNode include = (ConfigIncludeNode) node;
+            includes.add(include.getURI());
+            if (include.getNode() != null) {
+                collectIncludes(include.getNode(), includes);
+            }
+        } else if (node instanceof ConfigPathNode) {
+            Map<String, AbstractConfigNode> children =
+                    ((ConfigPathNode) node).getChildren();
+            if (children != null) {
+                for (AbstractConfigNode child : children.values()) {
+                    if (child.getParent() instanceof ConfigIncludeNode &&
+                            child.getParent() != node) {
+                        includes.add(((ConfigIncludeNode) child.getParent())
+                                             .getURI());
+                    }
+                    collectIncludes(child, includes);
+                }
+            }
+        } else if (node instanceof ConfigListNode) {
+            List<?> values = ((ConfigListNode<?>) node).getValues();
+            if (values != null) {
+                for (Object value : values) {
+                    collectIncludes((AbstractConfigNode) value, includes);
+                }
+            }
+        }
+    }
 }
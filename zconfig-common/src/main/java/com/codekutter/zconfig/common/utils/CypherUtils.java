@@ -4,6 +4,9 @@ import com.codekutter.zconfig.common.LogUtils;
 import com.codekutter.zconfig.common.model.Configuration;
 import com.google.common.base.Preconditions;
 import com.google.common.base.Strings;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalListener;
 import org.apache.commons.codec.binary.Base64;
 import org.kohsuke.args4j.*;
 import org.kohsuke.args4j.spi.BooleanOptionHandler;
@@ -19,15 +22,78 @@ import java.nio.charset.StandardCharsets;
 import java.security.Key;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class CypherUtils {
     private static final String HASH_ALGO = "MD5";
     private static final String CIPHER_ALGO = "AES/CBC/PKCS5Padding";
     private static final String CIPHER_TYPE = "AES";
+    /**
+     * Max number of initialized ciphers pooled per thread.
+     */
+    private static final int CIPHER_POOL_SIZE = 16;
+
+    /**
+     * Digest used to key the cipher pool, so the pool doesn't hold the passcode.
+     */
+    private static final String POOL_HASH_ALGO = "SHA-256";
+
+    /**
+     * Generation of the cipher pools, pooled ciphers of an older generation
+     * are dropped (see clearCipherPools()).
+     */
+    private static final AtomicLong poolGeneration = new AtomicLong();
+
+    /**
+     * Per-thread pool of initialized ciphers (keyed by mode and a hash of the
+     * passcode and IV), to avoid repeating the key setup for every call.
+     */
+    private static final ThreadLocal<CipherPool> cipherPool =
+            ThreadLocal.withInitial(CipherPool::new);
+
+    /**
+     * LRU pool of initialized ciphers, tagged with the pool generation it was
+     * populated in.
+     */
+    private static final class CipherPool extends LinkedHashMap<String, Cipher> {
+        private long generation = poolGeneration.get();
+
+        private CipherPool() {
+            super(CIPHER_POOL_SIZE, 0.75f, true);
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Cipher> eldest) {
+            return size() > CIPHER_POOL_SIZE;
+        }
+
+        /**
+         * Drop the pooled ciphers if the pools have been cleared since this
+         * pool was populated.
+         *
+         * @return - Self.
+         */
+        private CipherPool validate() {
+            long current = poolGeneration.get();
+            if (generation != current) {
+                clear();
+                generation = current;
+            }
+            return this;
+        }
+    }
+
+    /**
+     * Invalidate the pooled ciphers of all threads. Each thread drops its pooled
+     * ciphers on the next cipher operation.
+     */
+    public static void clearCipherPools() {
+        poolGeneration.incrementAndGet();
+        cipherPool.remove();
+    }
 
     /**
      * Get an MD5 hash of the specified key.
@@ -61,9 +127,7 @@ public class CypherUtils {
         Preconditions.checkArgument(!Strings.isNullOrEmpty(password));
         Preconditions.checkArgument(!Strings.isNullOrEmpty(iv));
 
-        Cipher cipher = getCipher(password, iv, Cipher.ENCRYPT_MODE);
-
-        return cipher.doFinal(data);
+        return doFinal(data, password, iv, Cipher.ENCRYPT_MODE);
     }
 
     /**
@@ -121,10 +185,54 @@ public class CypherUtils {
         Preconditions.checkArgument(!Strings.isNullOrEmpty(password));
         Preconditions.checkArgument(!Strings.isNullOrEmpty(iv));
 
-        Cipher cipher = getCipher(password, iv, Cipher.DECRYPT_MODE);
         // decrypt the text
+        return doFinal(data, password, iv, Cipher.DECRYPT_MODE);
+    }
+
+    /**
+     * Run the cipher operation using a pooled cipher instance. The cipher is
+     * removed from the pool while in use and only returned if the operation
+     * succeeds (doFinal() resets the cipher to its initialized state).
+     *
+     * @param data     - Input Data buffer.
+     * @param password - Passcode
+     * @param iv       - IV Key
+     * @param mode     - Cipher mode.
+     * @return - Output Data Buffer.
+     * @throws Exception
+     */
+    private static byte[] doFinal(byte[] data, String password, String iv, int mode)
+            throws Exception {
+        CipherPool pool = cipherPool.get().validate();
+        String key = getPoolKey(password, iv, mode);
+        Cipher cipher = pool.remove(key);
+        if (cipher == null) {
+            cipher = getCipher(password, iv, mode);
+        }
+        byte[] result = cipher.doFinal(data);
+        pool.put(key, cipher);
 
-        return cipher.doFinal(data);
+        return result;
+    }
+
+    /**
+     * Get the pool key for the passcode/IV pair, the passcode itself is only
+     * retained as part of the digest.
+     *
+     * @param password - Passcode
+     * @param iv       - IV Key
+     * @param mode     - Cipher mode.
+     * @return - Pool key.
+     * @throws Exception
+     */
+    private static String getPoolKey(String password, String iv, int mode)
+            throws Exception {
+        MessageDigest digest = MessageDigest.getInstance(POOL_HASH_ALGO);
+        digest.update(password.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+        digest.update(iv.getBytes(StandardCharsets.UTF_8));
+        byte[] d = Base64.encodeBase64(digest.digest());
+        return mode + ":" + new String(d, StandardCharsets.UTF_8);
     }
 
     private static Cipher getCipher(String password, String iv, int mode) throws Exception {
@@ -157,12 +265,60 @@ public class CypherUtils {
     }
 
     public static class ConfigVault {
-        private Map<String, String> vault = new HashMap<>();
+        /**
+         * Default expiry (in milliseconds) of cached decrypted values.
+         */
+        public static final long DEFAULT_CACHE_TIMEOUT = 5 * 60 * 1000;
+        /**
+         * Default max number of cached decrypted values.
+         */
+        public static final int DEFAULT_CACHE_SIZE = 1024;
+
+        private Map<String, String> vault = new ConcurrentHashMap<>();
+        /**
+         * Cache of decrypted values, keyed by configuration instance and encrypted
+         * value. Values are held as character arrays that are cleared when the entry
+         * is evicted, expired or wiped.
+         */
+        private final Cache<String, char[]> cache;
+
+        /**
+         * Default constructor - Cache decrypted values with the default timeout.
+         */
+        public ConfigVault() {
+            this(DEFAULT_CACHE_TIMEOUT);
+        }
+
+        /**
+         * Constructor with the cache timeout.
+         *
+         * @param cacheTimeout - Cached value expiry (in milliseconds), values are
+         *                     not cached if <= 0.
+         */
+        public ConfigVault(long cacheTimeout) {
+            if (cacheTimeout > 0) {
+                cache = CacheBuilder.newBuilder()
+                                    .maximumSize(DEFAULT_CACHE_SIZE)
+                                    .expireAfterWrite(cacheTimeout,
+                                                      TimeUnit.MILLISECONDS)
+                                    .removalListener(
+                                            (RemovalListener<String, char[]>) n -> {
+                                                char[] value = n.getValue();
+                                                if (value != null) {
+                                                    Arrays.fill(value, '\0');
+                                                }
+                                            })
+                                    .build();
+            } else {
+                cache = null;
+            }
+        }
 
         public ConfigVault addPasscode(Configuration config, String passcode)
                 throws Exception {
             Preconditions.checkArgument(config != null);
             Preconditions.checkArgument(!Strings.isNullOrEmpty(passcode));
+            wipe(config);
             String key = getEncodingKey(config);
             String iv = getIvSpec(config);
 
@@ -186,6 +342,78 @@ public class CypherUtils {
 
         public String decrypt(String data, Configuration config) throws Exception {
             Preconditions.checkArgument(!Strings.isNullOrEmpty(data));
+            Preconditions.checkArgument(config != null);
+            if (cache == null) {
+                return decryptValue(data, config);
+            }
+            String key = getCacheKey(config, data);
+            char[] cached = cache.getIfPresent(key);
+            if (cached != null) {
+                String value = new String(cached);
+                // Make sure the entry wasn't wiped while being read.
+                if (cache.getIfPresent(key) == cached) {
+                    return value;
+                }
+            }
+            String value = decryptValue(data, config);
+            if (value != null) {
+                cache.put(key, value.toCharArray());
+            }
+            return value;
+        }
+
+        /**
+         * Get the number of decrypted values currently cached.
+         *
+         * @return - Number of cached values.
+         */
+        public long getCachedCount() {
+            if (cache != null) {
+                // Drop the expired entries, size() still counts them.
+                cache.cleanUp();
+                return cache.size();
+            }
+            return 0;
+        }
+
+        /**
+         * Clear the cached decrypted values of the specified configuration (and
+         * the pooled ciphers).
+         *
+         * @param config - Configuration instance.
+         */
+        public void wipe(Configuration config) {
+            Preconditions.checkArgument(config != null);
+            if (cache != null) {
+                String prefix = getCacheKey(config, "");
+                List<String> keys = new ArrayList<>();
+                for (String key : cache.asMap().keySet()) {
+                    if (key.startsWith(prefix)) {
+                        keys.add(key);
+                    }
+                }
+                cache.invalidateAll(keys);
+            }
+            clearCipherPools();
+        }
+
+        /**
+         * Clear all the cached decrypted values (and the pooled ciphers).
+         */
+        public void wipe() {
+            if (cache != null) {
+                cache.invalidateAll();
+                cache.cleanUp();
+            }
+            clearCipherPools();
+        }
+
+        private String getCacheKey(Configuration config, String data) {
+            return config.getInstanceId() + ":" + data;
+        }
+
+        private String decryptValue(String data, Configuration config)
+                throws Exception {
             String passcode = getPasscode(config);
             if (Strings.isNullOrEmpty(passcode)) {
                 throw new Exception(
@@ -0,0 +1,379 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ * Copyright (c) $year
+ * Date: 18/10/26 4:10 AM
+ * Subho Ghosh (subho dot ghosh at outlook.com)
+ *
+ */
+
+package com.codekutter.zconfig.common.utils;
+
+import com.google.common.base.Preconditions;
+import com.google.common.primitives.Primitives;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.reflect.MethodUtils;
+
+import javax.annotation.Nonnull;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Accessor for a field using the bean Getter/Setter methods.
+ * <p>
+ * The accessor methods are resolved once (per type and field) and invoked
+ * through method handles. Primitive values are passed to the setter without
+ * boxing.
+ */
+public final class FieldAccessor {
+    /**
+     * Cached field accessors of the types.
+     */
+    private static final ClassValue<ConcurrentMap<Field, FieldAccessor>> accessors =
+            new ClassValue<ConcurrentMap<Field, FieldAccessor>>() {
+                @Override
+                protected ConcurrentMap<Field, FieldAccessor> computeValue(
+                        Class<?> type) {
+                    return new ConcurrentHashMap<>();
+                }
+            };
+
+    private static final MethodType GETTER_TYPE =
+            MethodType.methodType(Object.class, Object.class);
+    private static final MethodType SETTER_TYPE =
+            MethodType.methodType(void.class, Object.class, Object.class);
+
+    private final Class<?> type;
+    private final Field field;
+    /**
+     * Getter handle (Object)Object, resolved when first used.
+     */
+    private volatile MethodHandle getter = null;
+    /**
+     * Setter handle (Object, Object)void, resolved when first used.
+     */
+    private volatile MethodHandle setter = null;
+    /**
+     * Setter handle (Object, primitive)void, NULL if the field type isn't
+     * a primitive/wrapper type.
+     */
+    private volatile MethodHandle primitiveSetter = null;
+
+    private FieldAccessor(Class<?> type, Field field) {
+        this.type = type;
+        this.field = field;
+    }
+
+    /**
+     * Get the (cached) accessor for the field of the specified type.
+     *
+     * @param type  - Type of the object instances accessed.
+     * @param field - Field to access.
+     * @return - Field accessor.
+     */
+    public static FieldAccessor get(@Nonnull Class<?> type, @Nonnull Field field) {
+        Preconditions.checkArgument(type != null);
+        Preconditions.checkArgument(field != null);
+
+        ConcurrentMap<Field, FieldAccessor> map = accessors.get(type);
+        FieldAccessor accessor = map.get(field);
+        if (accessor == null) {
+            accessor = new FieldAccessor(type, field);
+            FieldAccessor current = map.putIfAbsent(field, accessor);
+            if (current != null) {
+                accessor = current;
+            }
+        }
+        return accessor;
+    }
+
+    /**
+     * Get the accessed field.
+     *
+     * @return - Field.
+     */
+    public Field getField() {
+        return field;
+    }
+
+    /**
+     * Get the value of the field from the object passed.
+     *
+     * @param o - Object to get the field value from.
+     * @return - Field value.
+     * @throws Exception
+     */
+    public Object get(@Nonnull Object o) throws Exception {
+        try {
+            return (Object) getter().invokeExact(o);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    /**
+     * Set the value of the field in the object passed.
+     *
+     * @param o     - Object to set the field value for.
+     * @param value - Value to set.
+     * @throws Exception
+     */
+    public void set(@Nonnull Object o, Object value) throws Exception {
+        try {
+            setter().invokeExact(o, value);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    /**
+     * Set the value of a boolean field.
+     *
+     * @param o     - Object to set the field value for.
+     * @param value - Value to set.
+     * @throws Exception
+     */
+    public void setBoolean(@Nonnull Object o, boolean value) throws Exception {
+        MethodHandle handle = primitiveSetter(boolean.class);
+        if (handle == null) {
+            set(o, value);
+            return;
+        }
+        try {
+            handle.invokeExact(o, value);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    /**
+     * Set the value of a char field.
+     *
+     * @param o     - Object to set the field value for.
+     * @param value - Value to set.
+     * @throws Exception
+     */
+    public void setChar(@Nonnull Object o, char value) throws Exception {
+        MethodHandle handle = primitiveSetter(char.class);
+        if (handle == null) {
+            set(o, value);
+            return;
+        }
+        try {
+            handle.invokeExact(o, value);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    /**
+     * Set the value of a short field.
+     *
+     * @param o     - Object to set the field value for.
+     * @param value - Value to set.
+     * @throws Exception
+     */
+    public void setShort(@Nonnull Object o, short value) throws Exception {
+        MethodHandle handle = primitiveSetter(short.class);
+        if (handle == null) {
+            set(o, value);
+            return;
+        }
+        try {
+            handle.invokeExact(o, value);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    /**
+     * Set the value of an int field.
+     *
+     * @param o     - Object to set the field value for.
+     * @param value - Value to set.
+     * @throws Exception
+     */
+    public void setInt(@Nonnull Object o, int value) throws Exception {
+        MethodHandle handle = primitiveSetter(int.class);
+        if (handle == null) {
+            set(o, value);
+            return;
+        }
+        try {
+            handle.invokeExact(o, value);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    /**
+     * Set the value of a long field.
+     *
+     * @param o     - Object to set the field value for.
+     * @param value - Value to set.
+     * @throws Exception
+     */
+    public void setLong(@Nonnull Object o, long value) throws Exception {
+        MethodHandle handle = primitiveSetter(long.class);
+        if (handle == null) {
+            set(o, value);
+            return;
+        }
+        try {
+            handle.invokeExact(o, value);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    /**
+     * Set the value of a float field.
+     *
+     * @param o     - Object to set the field value for.
+     * @param value - Value to set.
+     * @throws Exception
+     */
+    public void setFloat(@Nonnull Object o, float value) throws Exception {
+        MethodHandle handle = primitiveSetter(float.class);
+        if (handle == null) {
+            set(o, value);
+            return;
+        }
+        try {
+            handle.invokeExact(o, value);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    /**
+     * Set the value of a double field.
+     *
+     * @param o     - Object to set the field value for.
+     * @param value - Value to set.
+     * @throws Exception
+     */
+    public void setDouble(@Nonnull Object o, double value) throws Exception {
+        MethodHandle handle = primitiveSetter(double.class);
+        if (handle == null) {
+            set(o, value);
+            return;
+        }
+        try {
+            handle.invokeExact(o, value);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    /**
+     * Get the getter handle, the getter is resolved when first used.
+     * Looks for get[Name](), [name]() or is[Name]() (boolean fields).
+     *
+     * @return - Getter handle.
+     * @throws Exception
+     */
+    private MethodHandle getter() throws Exception {
+        MethodHandle handle = getter;
+        if (handle == null) {
+            String name = StringUtils.capitalize(field.getName());
+            Method m = MethodUtils.getAccessibleMethod(type, "get" + name);
+            if (m == null) {
+                m = MethodUtils.getAccessibleMethod(type, field.getName());
+            }
+            if (m == null) {
+                Class<?> ftype = field.getType();
+                if (ftype.equals(boolean.class) || ftype.equals(Boolean.class)) {
+                    m = MethodUtils.getAccessibleMethod(type, "is" + name);
+                }
+            }
+            if (m == null)
+                throw new Exception("No accessable method found for field. [field="
+                                            + field.getName() + "][class="
+                                            + type.getCanonicalName() + "]");
+            handle = MethodHandles.publicLookup().unreflect(m).asType(GETTER_TYPE);
+            getter = handle;
+        }
+        return handle;
+    }
+
+    /**
+     * Get the setter handle, the setter is resolved when first used.
+     * Looks for set[Name](value) or [name](value).
+     *
+     * @return - Setter handle.
+     * @throws Exception
+     */
+    private MethodHandle setter() throws Exception {
+        MethodHandle handle = setter;
+        if (handle == null) {
+            handle = unreflectSetter().asType(SETTER_TYPE);
+            setter = handle;
+        }
+        return handle;
+    }
+
+    /**
+     * Get the primitive setter handle for primitive/wrapper type fields.
+     *
+     * @param ptype - Primitive value type.
+     * @return - Setter handle or NULL if the field isn't of the primitive type.
+     * @throws Exception
+     */
+    private MethodHandle primitiveSetter(Class<?> ptype) throws Exception {
+        if (Primitives.unwrap(field.getType()) != ptype) {
+            return null;
+        }
+        MethodHandle handle = primitiveSetter;
+        if (handle == null) {
+            handle = unreflectSetter().asType(
+                    MethodType.methodType(void.class, Object.class, ptype));
+            primitiveSetter = handle;
+        }
+        return handle;
+    }
+
+    private MethodHandle unreflectSetter() throws Exception {
+        Method m = MethodUtils.getAccessibleMethod(type, "set" +
+                StringUtils.capitalize(field.getName()), field.getType());
+        if (m == null) {
+            m = MethodUtils.getAccessibleMethod(type, field.getName(),
+                                                field.getType());
+        }
+        if (m == null)
+            throw new Exception("No accessable method found for field. [field="
+                                        + field.getName() + "][class=" +
+                                        type.getCanonicalName()
+                                        + "]");
+        return MethodHandles.publicLookup().unreflect(m);
+    }
+
+    private static Exception rethrow(Throwable t) {
+        if (t instanceof Error) {
+            throw (Error) t;
+        } else if (t instanceof Exception) {
+            return (Exception) t;
+        }
+        return new Exception(t);
+    }
+}
@@ -24,17 +24,22 @@
 
 package com.codekutter.zconfig.common.utils;
 
+import com.codekutter.zconfig.common.ConfigProviderFactory;
+import com.codekutter.zconfig.common.ConfigurationException;
+import com.codekutter.zconfig.common.readers.AbstractConfigReader;
 import com.codekutter.zconfig.common.readers.EReaderType;
 import com.google.common.base.Preconditions;
 import com.google.common.base.Strings;
+import com.google.common.hash.Hashing;
+import com.google.common.io.ByteStreams;
 
 import javax.annotation.Nonnull;
-import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileOutputStream;
-import java.io.IOException;
+import java.io.*;
 import java.net.URI;
 import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.util.UUID;
 
 /**
@@ -207,4 +212,66 @@ public class IOUtils {
             destChannel.close();
         }
     }
+
+    /**
+     * Read the content of the configuration resource at the specified URI.
+     *
+     * @param uri - Resource URI (File/HTTP).
+     * @return - Content data.
+     * @throws ConfigurationException
+     */
+    public static byte[] readContent(@Nonnull URI uri)
+    throws ConfigurationException {
+        Preconditions.checkArgument(uri != null);
+        AbstractConfigReader reader = ConfigProviderFactory.reader(uri);
+        if (reader == null) {
+            throw new ConfigurationException(
+                    String.format("Error getting reader instance : [URI=%s]",
+                                  uri.toString()));
+        }
+        try {
+            reader.open();
+            try (InputStream stream = reader.getInputStream()) {
+                return ByteStreams.toByteArray(stream);
+            }
+        } catch (IOException e) {
+            throw new ConfigurationException(e);
+        } finally {
+            reader.close();
+        }
+    }
+
+    /**
+     * Get the (SHA-256) hash of the content data.
+     *
+     * @param data - Content data.
+     * @return - Hex string of the hash.
+     */
+    public static String getContentHash(@Nonnull byte[] data) {
+        Preconditions.checkArgument(data != null);
+        return Hashing.sha256().hashBytes(data).toString();
+    }
+
+    /**
+     * Move the (completely written) source file to the target file, replacing
+     * the target if it exists. The move is atomic if supported by the file
+     * system, so that readers never see a partially written target.
+     *
+     * @param source - Source file.
+     * @param target - Target file.
+     * @throws IOException
+     */
+    public static void moveFile(@Nonnull File source, @Nonnull File target)
+    throws IOException {
+        Preconditions.checkArgument(source != null);
+        Preconditions.checkArgument(target != null);
+        try {
+            Files.move(source.toPath(), target.toPath(),
+                       StandardCopyOption.REPLACE_EXISTING,
+                       StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source.toPath(), target.toPath(),
+                       StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
 }
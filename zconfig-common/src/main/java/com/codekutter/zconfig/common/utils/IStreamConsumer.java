@@ -0,0 +1,56 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ * Copyright (c) $year
+ * Date: 18/10/26 12:20 AM
+ * Subho Ghosh (subho dot ghosh at outlook.com)
+ *
+ */
+
+package com.codekutter.zconfig.common.utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Consumer of remote content streamed by the {@link RemoteFileDownloader}.
+ * <p>
+ * The content is consumed before it is verified, consumers should stage the
+ * processed content and only apply it when committed.
+ */
+public interface IStreamConsumer {
+    /**
+     * Consume the complete content stream.
+     *
+     * @param input - Content stream.
+     * @throws IOException
+     */
+    void consume(InputStream input) throws IOException;
+
+    /**
+     * Apply the consumed content, called once the content has been verified.
+     *
+     * @throws IOException
+     */
+    void commit() throws IOException;
+
+    /**
+     * Discard the consumed content (failed download or verification).
+     */
+    void discard();
+}
@@ -36,8 +36,6 @@ import java.util.Set;
 
 import com.google.common.base.Strings;
 import com.codekutter.zconfig.common.ConfigurationException;
-import org.apache.commons.lang3.StringUtils;
-import org.apache.commons.lang3.reflect.MethodUtils;
 
 import com.google.common.base.Preconditions;
 
@@ -192,27 +190,7 @@ public class ReflectionUtils {
         Preconditions.checkArgument(o != null);
         Preconditions.checkArgument(field != null);
 
-        String method = "get" + StringUtils.capitalize(field.getName());
-
-        Method m = MethodUtils.getAccessibleMethod(o.getClass(), method);
-        if (m == null) {
-            method = field.getName();
-            m = MethodUtils.getAccessibleMethod(o.getClass(), method);
-        }
-
-        if (m == null) {
-            Class<?> type = field.getType();
-            if (type.equals(boolean.class) || type.equals(Boolean.class)) {
-                method = "is" + StringUtils.capitalize(field.getName());
-                m = MethodUtils.getAccessibleMethod(o.getClass(), method);
-            }
-        }
-
-        if (m == null)
-            throw new Exception("No accessable method found for field. [field="
-                                        + field.getName() + "][class="
-                                        + o.getClass().getCanonicalName() + "]");
-        return MethodUtils.invokeMethod(o, method);
+        return FieldAccessor.get(o.getClass(), field).get(o);
     }
 
     /**
@@ -344,21 +322,7 @@ public class ReflectionUtils {
         Preconditions.checkArgument(o != null);
         Preconditions.checkArgument(f != null);
 
-        String method = "set" + StringUtils.capitalize(f.getName());
-        Method m = MethodUtils.getAccessibleMethod(o.getClass(), method,
-                                                   f.getType());
-        if (m == null) {
-            method = f.getName();
-            m = MethodUtils.getAccessibleMethod(o.getClass(), method,
-                                                f.getType());
-        }
-
-        if (m == null)
-            throw new Exception("No accessable method found for field. [field="
-                                        + f.getName() + "][class=" +
-                                        o.getClass().getCanonicalName()
-                                        + "]");
-        MethodUtils.invokeMethod(o, method, value);
+        FieldAccessor.get(o.getClass(), f).set(o, value);
     }
 
     /**
@@ -394,7 +358,7 @@ public class ReflectionUtils {
         Preconditions.checkArgument(!Strings.isNullOrEmpty(value));
 
         boolean bv = Boolean.valueOf(value);
-        setObjectValue(o, f, bv);
+        FieldAccessor.get(o.getClass(), f).setBoolean(o, bv);
     }
 
     /**
@@ -413,7 +377,7 @@ public class ReflectionUtils {
         Preconditions.checkArgument(!Strings.isNullOrEmpty(value));
 
         short sv = Short.parseShort(value);
-        setObjectValue(o, f, sv);
+        FieldAccessor.get(o.getClass(), f).setShort(o, sv);
     }
 
     /**
@@ -432,7 +396,7 @@ public class ReflectionUtils {
         Preconditions.checkArgument(!Strings.isNullOrEmpty(value));
 
         int iv = Integer.parseInt(value);
-        setObjectValue(o, f, iv);
+        FieldAccessor.get(o.getClass(), f).setInt(o, iv);
     }
 
     /**
@@ -451,7 +415,7 @@ public class ReflectionUtils {
         Preconditions.checkArgument(!Strings.isNullOrEmpty(value));
 
         long lv = Long.parseLong(value);
-        setObjectValue(o, f, lv);
+        FieldAccessor.get(o.getClass(), f).setLong(o, lv);
     }
 
     /**
@@ -470,7 +434,7 @@ public class ReflectionUtils {
         Preconditions.checkArgument(!Strings.isNullOrEmpty(value));
 
         float fv = Float.parseFloat(value);
-        setObjectValue(o, f, fv);
+        FieldAccessor.get(o.getClass(), f).setFloat(o, fv);
     }
 
     /**
@@ -489,7 +453,7 @@ public class ReflectionUtils {
         Preconditions.checkArgument(!Strings.isNullOrEmpty(value));
 
         double dv = Double.parseDouble(value);
-        setObjectValue(o, f, dv);
+        FieldAccessor.get(o.getClass(), f).setDouble(o, dv);
     }
 
     /**
@@ -508,7 +472,7 @@ public class ReflectionUtils {
         Preconditions.checkArgument(!Strings.isNullOrEmpty(value));
 
         char cv = value.charAt(0);
-        setObjectValue(o, f, cv);
+        FieldAccessor.get(o.getClass(), f).setChar(o, cv);
     }
 
     /**
@@ -0,0 +1,880 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ * Copyright (c) $year
+ * Date: 17/10/26 11:20 PM
+ * Subho Ghosh (subho dot ghosh at outlook.com)
+ *
+ */
+
+package com.codekutter.zconfig.common.utils;
+
+import com.codekutter.zconfig.common.LogUtils;
+import com.codekutter.zconfig.common.readers.EReaderType;
+import com.google.common.base.Preconditions;
+import com.google.common.base.Strings;
+import com.google.common.io.ByteStreams;
+import com.google.common.io.CountingInputStream;
+
+import javax.annotation.Nonnull;
+import java.io.*;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.net.URL;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Properties;
+import java.util.UUID;
+
+/**
+ * Downloader for remote (HTTP/HTTPS) files.
+ * <p>
+ * Files are downloaded to a partial file ({@code <file>.part}) and moved to
+ * the target once complete. An interrupted download is resumed from the
+ * partial file using a range request, failed downloads are retried.
+ * <p>
+ * Download state (ETag, Last-Modified, size and verified checksum) is kept in
+ * a state file ({@code <file>.download}). An existing target is re-validated
+ * with a conditional request and is not downloaded again if unchanged.
+ * <p>
+ * Content can also be streamed to a consumer (see {@link IStreamConsumer}),
+ * without storing the downloaded content locally.
+ * <p>
+ * Checksums are specified as {@code [algorithm:]hex-digest}, supported
+ * algorithms are md5, sha1, sha256 and sha512. If the algorithm isn't
+ * specified it is derived from the digest length.
+ */
+public class RemoteFileDownloader {
+    /**
+     * Default number of retries of a failed download.
+     */
+    public static final int DEFAULT_RETRIES = 3;
+    /**
+     * Default interval between retries (in milliseconds), the interval is
+     * increased for each retry.
+     */
+    public static final long DEFAULT_RETRY_INTERVAL = 500;
+    /**
+     * Default connect/read timeout (in milliseconds).
+     */
+    public static final int DEFAULT_TIMEOUT = 30 * 1000;
+
+    public static final String PART_FILE_EXT = ".part";
+    public static final String STATE_FILE_EXT = ".download";
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final String HEADER_RANGE = "Range";
+    private static final String HEADER_IF_RANGE = "If-Range";
+    private static final String HEADER_CONTENT_RANGE = "Content-Range";
+    private static final String HEADER_IF_NONE_MATCH = "If-None-Match";
+    private static final String HEADER_IF_MODIFIED_SINCE = "If-Modified-Since";
+    private static final String HEADER_ACCEPT_ENCODING = "Accept-Encoding";
+    private static final String HEADER_ETAG = "ETag";
+    private static final String HEADER_LAST_MODIFIED = "Last-Modified";
+    private static final String ENCODING_IDENTITY = "identity";
+    private static final int HTTP_RANGE_NOT_SATISFIABLE = 416;
+
+    private static final String STATE_URL = "url";
+    private static final String STATE_ETAG = "etag";
+    private static final String STATE_LAST_MODIFIED = "last-modified";
+    private static final String STATE_SIZE = "size";
+    private static final String STATE_CHECKSUM = "checksum";
+    private static final String STATE_COMPLETE = "complete";
+
+    private static final RemoteFileDownloader __shared = new RemoteFileDownloader();
+
+    /**
+     * Error response from the server.
+     */
+    private static final class ResponseException extends IOException {
+        private final int code;
+
+        private ResponseException(String mesg, int code) {
+            super(mesg);
+            this.code = code;
+        }
+
+        /**
+         * Is the request worth retrying (server error)?
+         *
+         * @return - Retry?
+         */
+        private boolean isRetryable() {
+            return (code >= 500 || code == HttpURLConnection.HTTP_CLIENT_TIMEOUT);
+        }
+    }
+
+    private int retries = DEFAULT_RETRIES;
+    private long retryInterval = DEFAULT_RETRY_INTERVAL;
+    private int timeout = DEFAULT_TIMEOUT;
+
+    /**
+     * Get the downloader shared by the resource loaders.
+     *
+     * @return - Shared downloader.
+     */
+    public static RemoteFileDownloader shared() {
+        return __shared;
+    }
+
+    /**
+     * Get the number of retries of a failed download.
+     *
+     * @return - Number of retries.
+     */
+    public int getRetries() {
+        return retries;
+    }
+
+    /**
+     * Set the number of retries of a failed download.
+     *
+     * @param retries - Number of retries.
+     */
+    public void setRetries(int retries) {
+        Preconditions.checkArgument(retries >= 0);
+        this.retries = retries;
+    }
+
+    /**
+     * Get the interval between retries.
+     *
+     * @return - Retry interval (in milliseconds).
+     */
+    public long getRetryInterval() {
+        return retryInterval;
+    }
+
+    /**
+     * Set the interval between retries.
+     *
+     * @param retryInterval - Retry interval (in milliseconds).
+     */
+    public void setRetryInterval(long retryInterval) {
+        Preconditions.checkArgument(retryInterval >= 0);
+        this.retryInterval = retryInterval;
+    }
+
+    /**
+     * Get the connect/read timeout.
+     *
+     * @return - Timeout (in milliseconds).
+     */
+    public int getTimeout() {
+        return timeout;
+    }
+
+    /**
+     * Set the connect/read timeout.
+     *
+     * @param timeout - Timeout (in milliseconds).
+     */
+    public void setTimeout(int timeout) {
+        Preconditions.checkArgument(timeout > 0);
+        this.timeout = timeout;
+    }
+
+    /**
+     * Download the remote file to the target file. The download is skipped if
+     * the target is unchanged.
+     *
+     * @param remoteUri - URI of the HTTP endpoint to download from.
+     * @param target    - Local file to create.
+     * @param checksum  - Expected checksum of the file (can be NULL).
+     * @return - Number of bytes downloaded, 0 if the target is unchanged.
+     * @throws IOException
+     */
+    public long download(@Nonnull URI remoteUri, @Nonnull File target,
+                         String checksum) throws IOException {
+        Preconditions.checkArgument(remoteUri != null);
+        Preconditions.checkArgument(target != null);
+        checkLocation(remoteUri);
+        if (!Strings.isNullOrEmpty(checksum)) {
+            getDigestAlgorithm(checksum);
+        }
+        File parent = target.getAbsoluteFile().getParentFile();
+        if (parent != null && !parent.exists() && !parent.mkdirs() &&
+                !parent.exists()) {
+            throw new IOException(String.format(
+                    "Error creating directory. [path=%s]",
+                    parent.getAbsolutePath()));
+        }
+
+        return retry(remoteUri, () -> transfer(remoteUri, target, checksum));
+    }
+
+    /**
+     * Stream the remote content to the consumer, the content is not stored
+     * locally. The download state is kept for the target (created by the
+     * consumer) and the download is skipped if the remote content is
+     * unchanged. Failed downloads are retried from the start.
+     *
+     * @param remoteUri - URI of the HTTP endpoint to download from.
+     * @param target    - Local file/directory created by the consumer.
+     * @param checksum  - Expected checksum of the content (can be NULL).
+     * @param consumer  - Content consumer.
+     * @return - Number of bytes downloaded, 0 if the content is unchanged.
+     * @throws IOException
+     */
+    public long stream(@Nonnull URI remoteUri, @Nonnull File target,
+                       String checksum, @Nonnull IStreamConsumer consumer)
+    throws IOException {
+        Preconditions.checkArgument(remoteUri != null);
+        Preconditions.checkArgument(target != null);
+        Preconditions.checkArgument(consumer != null);
+        checkLocation(remoteUri);
+        if (!Strings.isNullOrEmpty(checksum)) {
+            getDigestAlgorithm(checksum);
+        }
+        return retry(remoteUri, () -> {
+            try {
+                return transfer(remoteUri, target, checksum, consumer);
+            } catch (IOException | RuntimeException e) {
+                consumer.discard();
+                throw e;
+            }
+        });
+    }
+
+    /**
+     * Download attempt.
+     */
+    private interface Attempt {
+        long run() throws IOException;
+    }
+
+    /**
+     * Run the download attempt, retrying on failure.
+     *
+     * @param remoteUri - URI being downloaded.
+     * @param attempt   - Download attempt.
+     * @return - Number of bytes downloaded.
+     * @throws IOException
+     */
+    private long retry(URI remoteUri, Attempt attempt) throws IOException {
+        int count = 0;
+        while (true) {
+            try {
+                return attempt.run();
+            } catch (IOException e) {
+                if (count >= retries || (e instanceof ResponseException &&
+                        !((ResponseException) e).isRetryable())) {
+                    throw e;
+                }
+                count++;
+                LogUtils.warn(getClass(), String.format(
+                        "Download failed, retrying. [url=%s][attempt=%d][error=%s]",
+                        remoteUri.toString(), count, e.getLocalizedMessage()));
+                try {
+                    Thread.sleep(retryInterval * count);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException(String.format(
+                            "Download interrupted. [url=%s]", remoteUri.toString()));
+                }
+            }
+        }
+    }
+
+    /**
+     * Check that the location is a HTTP(S) location.
+     *
+     * @param remoteUri - Remote location.
+     * @throws IOException
+     */
+    private static void checkLocation(URI remoteUri) throws IOException {
+        EReaderType type = EReaderType.parseFromUri(remoteUri);
+        Preconditions.checkNotNull(type);
+        if (type != EReaderType.HTTP && type != EReaderType.HTTPS) {
+            throw new IOException(String.format(
+                    "Method should be only called for HTTP(S) channel. [passed channel=%s]",
+                    type.name()));
+        }
+    }
+
+    /**
+     * Check if the target has been completely downloaded (and verified against
+     * the checksum, if specified).
+     *
+     * @param target   - Downloaded file/directory.
+     * @param checksum - Expected checksum (can be NULL).
+     * @return - Is downloaded?
+     */
+    public static boolean isDownloaded(@Nonnull File target, String checksum) {
+        Preconditions.checkArgument(target != null);
+        if (!target.exists()) {
+            return false;
+        }
+        Properties state = readState(target);
+        if (state == null ||
+                !Boolean.parseBoolean(state.getProperty(STATE_COMPLETE))) {
+            return false;
+        }
+        if (target.isFile() &&
+                !String.valueOf(target.length())
+                       .equals(state.getProperty(STATE_SIZE))) {
+            return false;
+        }
+        if (!Strings.isNullOrEmpty(checksum)) {
+            return checksum.equalsIgnoreCase(state.getProperty(STATE_CHECKSUM));
+        }
+        return true;
+    }
+
+    /**
+     * Get the digest algorithm of the checksum.
+     *
+     * @param checksum - Checksum ([algorithm:]hex-digest).
+     * @return - Message digest algorithm name.
+     * @throws IOException - If the checksum format/algorithm is invalid.
+     */
+    public static String getDigestAlgorithm(@Nonnull String checksum)
+    throws IOException {
+        Preconditions.checkArgument(!Strings.isNullOrEmpty(checksum));
+        int index = checksum.indexOf(':');
+        String digest = (index >= 0 ? checksum.substring(index + 1) : checksum);
+        if (!digest.matches("[0-9a-fA-F]+")) {
+            throw new IOException(String.format(
+                    "Invalid checksum digest. [checksum=%s]", checksum));
+        }
+        if (index >= 0) {
+            String algorithm = checksum.substring(0, index).trim().toLowerCase();
+            switch (algorithm) {
+                case "md5":
+                    return "MD5";
+                case "sha1":
+                case "sha-1":
+                    return "SHA-1";
+                case "sha256":
+                case "sha-256":
+                    return "SHA-256";
+                case "sha512":
+                case "sha-512":
+                    return "SHA-512";
+                default:
+                    throw new IOException(String.format(
+                            "Unsupported checksum algorithm. [algorithm=%s]",
+                            algorithm));
+            }
+        }
+        switch (digest.length()) {
+            case 32:
+                return "MD5";
+            case 40:
+                return "SHA-1";
+            case 64:
+                return "SHA-256";
+            case 128:
+                return "SHA-512";
+            default:
+                throw new IOException(String.format(
+                        "Cannot derive checksum algorithm. [checksum=%s]", checksum));
+        }
+    }
+
+    /**
+     * Verify the file content against the checksum.
+     *
+     * @param file     - File to verify.
+     * @param checksum - Expected checksum.
+     * @return - Checksum matched?
+     * @throws IOException
+     */
+    public static boolean verify(@Nonnull File file, @Nonnull String checksum)
+    throws IOException {
+        Preconditions.checkArgument(file != null);
+        MessageDigest digest = getDigest(checksum);
+        byte[] buffer = new byte[BUFFER_SIZE];
+        try (InputStream input = new FileInputStream(file)) {
+            int count;
+            while ((count = input.read(buffer)) > 0) {
+                digest.update(buffer, 0, count);
+            }
+        }
+        return matches(digest, checksum);
+    }
+
+    /**
+     * Get the message digest for the checksum algorithm.
+     *
+     * @param checksum - Checksum ([algorithm:]hex-digest).
+     * @return - Message digest.
+     * @throws IOException
+     */
+    private static MessageDigest getDigest(String checksum) throws IOException {
+        try {
+            return MessageDigest.getInstance(getDigestAlgorithm(checksum));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IOException(e);
+        }
+    }
+
+    /**
+     * Check if the computed digest matches the checksum.
+     *
+     * @param digest   - Computed digest.
+     * @param checksum - Expected checksum ([algorithm:]hex-digest).
+     * @return - Matched?
+     */
+    private static boolean matches(MessageDigest digest, String checksum) {
+        StringBuilder hex = new StringBuilder();
+        for (byte b : digest.digest()) {
+            hex.append(String.format("%02x", b));
+        }
+        int index = checksum.indexOf(':');
+        String expected = (index >= 0 ? checksum.substring(index + 1) : checksum);
+        return hex.toString().equalsIgnoreCase(expected.trim());
+    }
+
+    /**
+     * Download attempt, resuming from the partial file if possible.
+     *
+     * @param remoteUri - URI of the HTTP endpoint to download from.
+     * @param target    - Local file to create.
+     * @param checksum  - Expected checksum of the file (can be NULL).
+     * @return - Number of bytes downloaded, 0 if the target is unchanged.
+     * @throws IOException
+     */
+    private long transfer(URI remoteUri, File target, String checksum)
+    throws IOException {
+        URL url = remoteUri.toURL();
+        File part = new File(target.getAbsolutePath() + PART_FILE_EXT);
+        Properties state = readState(target);
+        if (state != null &&
+                url.toExternalForm().compareTo(state.getProperty(STATE_URL, "")) != 0) {
+            state = null;
+        }
+        boolean complete = (state != null &&
+                Boolean.parseBoolean(state.getProperty(STATE_COMPLETE)));
+
+        // Existing target verified against the specified checksum, no need to
+        // check with the server.
+        if (target.exists() && !Strings.isNullOrEmpty(checksum)) {
+            if (complete && isDownloaded(target, checksum)) {
+                return 0;
+            }
+            if (verify(target, checksum)) {
+                Properties verified = (complete ? state : new Properties());
+                verified.setProperty(STATE_URL, url.toExternalForm());
+                verified.setProperty(STATE_SIZE, String.valueOf(target.length()));
+                verified.setProperty(STATE_CHECKSUM, checksum);
+                verified.setProperty(STATE_COMPLETE, String.valueOf(true));
+                writeState(target, verified);
+                return 0;
+            }
+            complete = false;
+        }
+        boolean validate = (complete && target.exists() &&
+                String.valueOf(target.length()).equals(state.getProperty(STATE_SIZE)));
+
+        long offset = 0;
+        String validator = null;
+        if (!complete && state != null && part.exists()) {
+            validator = state.getProperty(STATE_ETAG,
+                                          state.getProperty(STATE_LAST_MODIFIED));
+            if (!Strings.isNullOrEmpty(validator)) {
+                offset = part.length();
+            }
+        }
+        if (offset == 0 && part.exists() && !part.delete()) {
+            throw new IOException(String.format(
+                    "Error deleting partial file. [path=%s]", part.getAbsolutePath()));
+        }
+
+        HttpURLConnection connection = openConnection(url);
+        if (offset > 0) {
+            connection.setRequestProperty(HEADER_RANGE,
+                                          String.format("bytes=%d-", offset));
+            connection.setRequestProperty(HEADER_IF_RANGE, validator);
+        } else if (validate) {
+            setConditional(connection, state);
+        }
+        try {
+            int code = connection.getResponseCode();
+            String etag = connection.getHeaderField(HEADER_ETAG);
+            long length = connection.getContentLengthLong();
+            if (code == HttpURLConnection.HTTP_NOT_MODIFIED && validate) {
+                LogUtils.debug(getClass(), String.format(
+                        "Remote file not modified. [url=%s]", url.toString()));
+                return 0;
+            } else if (code == HttpURLConnection.HTTP_OK) {
+                if (validate && !Strings.isNullOrEmpty(etag) &&
+                        etag.equals(state.getProperty(STATE_ETAG)) &&
+                        length == target.length()) {
+                    LogUtils.debug(getClass(), String.format(
+                            "Remote file unchanged (ETag/size). [url=%s]",
+                            url.toString()));
+                    return 0;
+                }
+                offset = 0;
+            } else if (code == HttpURLConnection.HTTP_PARTIAL) {
+                long start = getRangeStart(
+                        connection.getHeaderField(HEADER_CONTENT_RANGE));
+                if (start != offset) {
+                    deletePartial(target, part);
+                    throw new IOException(String.format(
+                            "Invalid range response. [url=%s][expected=%d][start=%d]",
+                            url.toString(), offset, start));
+                }
+                LogUtils.debug(getClass(), String.format(
+                        "Resuming download. [url=%s][offset=%d]", url.toString(),
+                        offset));
+            } else if (code == HTTP_RANGE_NOT_SATISFIABLE && offset > 0) {
+                // Partial file already complete (or invalid), restart on retry
+                // if not complete.
+                String size = state.getProperty(STATE_SIZE);
+                if (size == null || Long.parseLong(size) != offset) {
+                    deletePartial(target, part);
+                    throw new IOException(String.format(
+                            "Range not satisfiable. [url=%s][offset=%d]",
+                            url.toString(), offset));
+                }
+                return complete(target, part, state, checksum, 0);
+            } else {
+                throw new ResponseException(String.format(
+                        "Error downloading file. [url=%s][response=%d]",
+                        url.toString(), code), code);
+            }
+
+            Properties download = getState(url, connection);
+            if (offset > 0 && state.getProperty(STATE_SIZE) != null) {
+                download.setProperty(STATE_SIZE, state.getProperty(STATE_SIZE));
+            } else if (length >= 0) {
+                download.setProperty(STATE_SIZE, String.valueOf(offset + length));
+            }
+            download.setProperty(STATE_COMPLETE, String.valueOf(false));
+            writeState(target, download);
+
+            long bread = 0;
+            byte[] buffer = new byte[BUFFER_SIZE];
+            try (InputStream input = connection.getInputStream();
+                 OutputStream output = new FileOutputStream(part, offset > 0)) {
+                int count;
+                while ((count = input.read(buffer)) > 0) {
+                    output.write(buffer, 0, count);
+                    bread += count;
+                }
+            }
+            return complete(target, part, download, checksum, bread);
+        } finally {
+            connection.disconnect();
+        }
+    }
+
+    /**
+     * Stream attempt, the consumer is committed once the complete content has
+     * been read (and verified).
+     *
+     * @param remoteUri - URI of the HTTP endpoint to download from.
+     * @param target    - Local file/directory created by the consumer.
+     * @param checksum  - Expected checksum of the content (can be NULL).
+     * @param consumer  - Content consumer.
+     * @return - Number of bytes downloaded, 0 if the content is unchanged.
+     * @throws IOException
+     */
+    private long transfer(URI remoteUri, File target, String checksum,
+                          IStreamConsumer consumer) throws IOException {
+        URL url = remoteUri.toURL();
+        Properties state = readState(target);
+        boolean validate = (state != null &&
+                url.toExternalForm().compareTo(state.getProperty(STATE_URL, "")) == 0 &&
+                Boolean.parseBoolean(state.getProperty(STATE_COMPLETE)) &&
+                hasContent(target) &&
+                (Strings.isNullOrEmpty(checksum) ||
+                        checksum.equalsIgnoreCase(state.getProperty(STATE_CHECKSUM))));
+
+        HttpURLConnection connection = openConnection(url);
+        if (validate) {
+            setConditional(connection, state);
+        }
+        try {
+            int code = connection.getResponseCode();
+            String etag = connection.getHeaderField(HEADER_ETAG);
+            if (code == HttpURLConnection.HTTP_NOT_MODIFIED && validate) {
+                LogUtils.debug(getClass(), String.format(
+                        "Remote content not modified. [url=%s]", url.toString()));
+                return 0;
+            } else if (code != HttpURLConnection.HTTP_OK) {
+                throw new ResponseException(String.format(
+                        "Error downloading content. [url=%s][response=%d]",
+                        url.toString(), code), code);
+            }
+            if (validate && !Strings.isNullOrEmpty(etag) &&
+                    etag.equals(state.getProperty(STATE_ETAG))) {
+                LogUtils.debug(getClass(), String.format(
+                        "Remote content unchanged (ETag). [url=%s]", url.toString()));
+                return 0;
+            }
+
+            MessageDigest digest =
+                    (Strings.isNullOrEmpty(checksum) ? null : getDigest(checksum));
+            long bread;
+            try (CountingInputStream input =
+                         new CountingInputStream(connection.getInputStream())) {
+                InputStream stream = (digest != null ?
+                        new DigestInputStream(input, digest) : input);
+                consumer.consume(stream);
+                // Read any trailing content not read by the consumer, so that
+                // the complete content is verified.
+                ByteStreams.exhaust(stream);
+                bread = input.getCount();
+            }
+            long length = connection.getContentLengthLong();
+            if (length >= 0 && bread != length) {
+                throw new IOException(String.format(
+                        "Incomplete download. [url=%s][expected=%d][size=%d]",
+                        url.toString(), length, bread));
+            }
+            if (digest != null && !matches(digest, checksum)) {
+                throw new IOException(String.format(
+                        "Checksum mismatch for downloaded content. [url=%s][checksum=%s]",
+                        url.toString(), checksum));
+            }
+            // Clear the state while the content is applied, the state is only
+            // valid once committed.
+            File statefile = getStateFile(target);
+            if (statefile.exists() && !statefile.delete()) {
+                throw new IOException(String.format(
+                        "Error deleting download state. [path=%s]",
+                        statefile.getAbsolutePath()));
+            }
+            consumer.commit();
+
+            Properties download = getState(url, connection);
+            download.setProperty(STATE_SIZE, String.valueOf(bread));
+            if (!Strings.isNullOrEmpty(checksum)) {
+                download.setProperty(STATE_CHECKSUM, checksum);
+            }
+            download.setProperty(STATE_COMPLETE, String.valueOf(true));
+            writeState(target, download);
+            LogUtils.info(getClass(), String.format(
+                    "Downloaded content. [url=%s][path=%s][read=%d]",
+                    url.toString(), target.getAbsolutePath(), bread));
+            return bread;
+        } finally {
+            connection.disconnect();
+        }
+    }
+
+    /**
+     * Open a connection to the remote location.
+     *
+     * @param url - Remote location.
+     * @return - HTTP connection.
+     * @throws IOException
+     */
+    private HttpURLConnection openConnection(URL url) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+        connection.setConnectTimeout(timeout);
+        connection.setReadTimeout(timeout);
+        connection.setRequestProperty(HEADER_ACCEPT_ENCODING, ENCODING_IDENTITY);
+        return connection;
+    }
+
+    /**
+     * Set the conditional request headers from the download state.
+     *
+     * @param connection - HTTP connection.
+     * @param state      - Download state.
+     */
+    private static void setConditional(HttpURLConnection connection,
+                                       Properties state) {
+        String etag = state.getProperty(STATE_ETAG);
+        if (!Strings.isNullOrEmpty(etag)) {
+            connection.setRequestProperty(HEADER_IF_NONE_MATCH, etag);
+        }
+        String modified = state.getProperty(STATE_LAST_MODIFIED);
+        if (!Strings.isNullOrEmpty(modified)) {
+            connection.setRequestProperty(HEADER_IF_MODIFIED_SINCE, modified);
+        }
+    }
+
+    /**
+     * Create the download state from the response headers.
+     *
+     * @param url        - Remote location.
+     * @param connection - HTTP connection.
+     * @return - Download state.
+     */
+    private static Properties getState(URL url, HttpURLConnection connection) {
+        Properties state = new Properties();
+        state.setProperty(STATE_URL, url.toExternalForm());
+        String etag = connection.getHeaderField(HEADER_ETAG);
+        if (!Strings.isNullOrEmpty(etag)) {
+            state.setProperty(STATE_ETAG, etag);
+        }
+        String modified = connection.getHeaderField(HEADER_LAST_MODIFIED);
+        if (!Strings.isNullOrEmpty(modified)) {
+            state.setProperty(STATE_LAST_MODIFIED, modified);
+        }
+        return state;
+    }
+
+    /**
+     * Check if the target has content (non-empty directory).
+     *
+     * @param target - Local file/directory.
+     * @return - Has content?
+     */
+    private static boolean hasContent(File target) {
+        if (target.isDirectory()) {
+            String[] files = target.list();
+            return (files != null && files.length > 0);
+        }
+        return target.exists();
+    }
+
+    /**
+     * Complete the download : verify the partial file and move it to the
+     * target.
+     *
+     * @param target   - Local file to create.
+     * @param part     - Partial file.
+     * @param state    - Download state.
+     * @param checksum - Expected checksum of the file (can be NULL).
+     * @param bread    - Bytes downloaded.
+     * @return - Bytes downloaded.
+     * @throws IOException
+     */
+    private long complete(File target, File part, Properties state,
+                          String checksum, long bread) throws IOException {
+        String size = state.getProperty(STATE_SIZE);
+        if (size != null && Long.parseLong(size) != part.length()) {
+            // Keep the partial file, the download is resumed on retry.
+            throw new IOException(String.format(
+                    "Incomplete download. [path=%s][expected=%s][size=%d]",
+                    target.getAbsolutePath(), size, part.length()));
+        }
+        if (!Strings.isNullOrEmpty(checksum)) {
+            if (!verify(part, checksum)) {
+                deletePartial(target, part);
+                throw new IOException(String.format(
+                        "Checksum mismatch for downloaded file. [path=%s][checksum=%s]",
+                        target.getAbsolutePath(), checksum));
+            }
+            state.setProperty(STATE_CHECKSUM, checksum);
+        }
+        IOUtils.moveFile(part, target);
+        state.setProperty(STATE_SIZE, String.valueOf(target.length()));
+        state.setProperty(STATE_COMPLETE, String.valueOf(true));
+        writeState(target, state);
+        LogUtils.info(getClass(), String.format(
+                "Downloaded file. [path=%s][size=%d][read=%d]",
+                target.getAbsolutePath(), target.length(), bread));
+        return bread;
+    }
+
+    /**
+     * Delete the partial file and the download state.
+     *
+     * @param target - Local file.
+     * @param part   - Partial file.
+     */
+    private void deletePartial(File target, File part) {
+        if (part.exists() && !part.delete()) {
+            part.deleteOnExit();
+        }
+        File statefile = getStateFile(target);
+        if (statefile.exists() && !statefile.delete()) {
+            statefile.deleteOnExit();
+        }
+    }
+
+    /**
+     * Parse the start offset of the Content-Range header.
+     *
+     * @param range - Content-Range header (bytes start-end/total).
+     * @return - Start offset, -1 if invalid.
+     */
+    private static long getRangeStart(String range) {
+        if (Strings.isNullOrEmpty(range)) {
+            return -1;
+        }
+        String value = range.trim();
+        if (value.startsWith("bytes")) {
+            value = value.substring(5).trim();
+        }
+        int index = value.indexOf('-');
+        if (index <= 0) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(value.substring(0, index).trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Get the download state file of the target.
+     *
+     * @param target - Local file/directory.
+     * @return - State file.
+     */
+    static File getStateFile(File target) {
+        return new File(target.getAbsolutePath() + STATE_FILE_EXT);
+    }
+
+    /**
+     * Read the download state of the target.
+     *
+     * @param target - Local file/directory.
+     * @return - Download state or NULL if not found.
+     */
+    static Properties readState(File target) {
+        File statefile = getStateFile(target);
+        if (!statefile.exists()) {
+            return null;
+        }
+        try (InputStream input = new FileInputStream(statefile)) {
+            Properties state = new Properties();
+            state.load(input);
+            return state;
+        } catch (IOException e) {
+            LogUtils.debug(RemoteFileDownloader.class, String.format(
+                    "Error reading download state. [path=%s][error=%s]",
+                    statefile.getAbsolutePath(), e.getLocalizedMessage()));
+            return null;
+        }
+    }
+
+    /**
+     * Write the download state of the target.
+     *
+     * @param target - Local file/directory.
+     * @param state  - Download state.
+     * @throws IOException
+     */
+    static void writeState(File target, Properties state) throws IOException {
+        File statefile = getStateFile(target);
+        File tmpfile = new File(String.format("%s.%s.tmp", statefile.getAbsolutePath(),
+                                              UUID.randomUUID().toString()));
+        try {
+            try (OutputStream output = new FileOutputStream(tmpfile)) {
+                state.store(output, null);
+            }
+            IOUtils.moveFile(tmpfile, statefile);
+        } finally {
+            if (tmpfile.exists() && !tmpfile.delete()) {
+                tmpfile.deleteOnExit();
+            }
+        }
+    }
+}
@@ -24,65 +24,54 @@
 
 package com.codekutter.zconfig.common.utils;
 
-import com.codekutter.zconfig.common.readers.EReaderType;
 import com.google.common.base.Preconditions;
 import com.codekutter.zconfig.common.LogUtils;
 
 import javax.annotation.Nonnull;
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.net.URI;
-import java.net.URL;
-import java.nio.channels.Channels;
-import java.nio.channels.ReadableByteChannel;
-import java.util.zip.ZipEntry;
-import java.util.zip.ZipInputStream;
 
 /**
  * Helper class to download/upload remote files.
  */
 public class RemoteFileHelper {
     /**
-     * Download the specified file from the remote location.
+     * Download the specified file from the remote location. An existing file
+     * is only downloaded again if changed (see {@link RemoteFileDownloader}).
      *
      * @param remoteUri - URI of the HTTP endpoint to download from.
      * @param location  - Local File to create.
-     * @return - Number of file bytes read.
+     * @return - Size of the downloaded file.
      * @throws IOException
      */
     public static long downloadRemoteFile(@Nonnull URI remoteUri,
                                           @Nonnull File location)
+    throws IOException {
+        return downloadRemoteFile(remoteUri, location, null);
+    }
+
+    /**
+     * Download the specified file from the remote location, verifying the
+     * downloaded content against the checksum.
+     *
+     * @param remoteUri - URI of the HTTP endpoint to download from.
+     * @param location  - Local File to create.
+     * @param checksum  - Expected checksum ([algorithm:]hex-digest), can be NULL.
+     * @return - Size of the downloaded file.
+     * @throws IOException
+     */
+    public static long downloadRemoteFile(@Nonnull URI remoteUri,
+                                          @Nonnull File location,
+                                          String checksum)
     throws IOException {
         Preconditions.checkArgument(remoteUri != null);
         Preconditions.checkArgument(location != null);
-        EReaderType type = EReaderType.parseFromUri(remoteUri);
-        Preconditions.checkNotNull(type);
 
-        if (type != EReaderType.HTTP && type != EReaderType.HTTPS) {
-            throw new IOException(String.format(
-                    "Method should be only called for HTTP(S) channel. [passed channel=%s]",
-                    type.name()));
-        }
-        if (location.exists()) {
-            if (!location.delete()) {
-                throw new IOException(
-                        String.format("Error deleting existing file : [path=%s]",
-                                      location.getAbsolutePath()));
-            }
-        }
-        URL url = remoteUri.toURL();
         LogUtils.info(RemoteFileHelper.class,
-                      String.format("Downloading file [url=%s]", url.toString()));
-        try (
-                ReadableByteChannel remoteChannel = Channels
-                        .newChannel(url.openStream())) {
-            try (FileOutputStream fos = new FileOutputStream(location)) {
-                return fos.getChannel()
-                          .transferFrom(remoteChannel, 0, Long.MAX_VALUE);
-            }
-        }
+                      String.format("Downloading file [url=%s]", remoteUri.toString()));
+        RemoteFileDownloader.shared().download(remoteUri, location, checksum);
+        return location.length();
     }
 
     /**
@@ -97,62 +86,42 @@ public class RemoteFileHelper {
     public static long downloadRemoteDirectory(@Nonnull URI remoteUri,
                                                @Nonnull File directory)
     throws IOException {
-        String tempf = IOUtils.getTempFile();
-        File file = new File(tempf);
-
-        long bread = downloadRemoteFile(remoteUri, file);
-        if (bread <= 0) {
-            throw new IOException(
-                    String.format("No data downloaded from URL. [uri=%s]",
-                                  remoteUri.toString()));
-        }
-        try {
-            byte[] buffer = new byte[1024];
-            try (
-                    ZipInputStream zis = new ZipInputStream(
-                            new FileInputStream(file))) {
-                ZipEntry zipEntry = zis.getNextEntry();
-                while (zipEntry != null) {
-                    File newFile = newFile(directory, zipEntry);
-                    FileOutputStream fos = new FileOutputStream(newFile);
-                    int len;
-                    while ((len = zis.read(buffer)) > 0) {
-                        fos.write(buffer, 0, len);
-                    }
-                    fos.close();
-                    zipEntry = zis.getNextEntry();
-                }
-                zis.closeEntry();
-            }
-            LogUtils.info(RemoteFileHelper.class,
-                          String.format("Created downloaded directory. [path=%s]",
-                                        directory.getAbsolutePath()));
-            return bread;
-        } finally {
-            file.delete();
-        }
+        return downloadRemoteDirectory(remoteUri, directory, null);
     }
 
     /**
-     * Create a new file for the Zip entry in the destination folder.
+     * Download the directory content from a remote location. Directory content is
+     * expected to be zipped, the checksum is verified against the zip content.
+     * <p>
+     * The zip content is extracted as it is downloaded, entries unchanged since
+     * the previous download are not written again (see
+     * {@link ZipStreamExtractor}).
      *
-     * @param destinationDir - Destination folder.
-     * @param zipEntry       - Zip Entry to process.
-     * @return - Created output file.
+     * @param remoteUri - URI of the HTTP endpoint to download from.
+     * @param directory - Local directory to write to.
+     * @param checksum  - Expected checksum ([algorithm:]hex-digest), can be NULL.
+     * @return - Byte read (zip content), 0 if not modified.
      * @throws IOException
      */
-    private static File newFile(File destinationDir, ZipEntry zipEntry)
+    public static long downloadRemoteDirectory(@Nonnull URI remoteUri,
+                                               @Nonnull File directory,
+                                               String checksum)
     throws IOException {
-        File destFile = new File(destinationDir, zipEntry.getName());
-
-        String destDirPath = destinationDir.getCanonicalPath();
-        String destFilePath = destFile.getCanonicalPath();
-
-        if (!destFilePath.startsWith(destDirPath + File.separator)) {
-            throw new IOException(
-                    "Entry is outside of the target dir: " + zipEntry.getName());
-        }
+        Preconditions.checkArgument(remoteUri != null);
+        Preconditions.checkArgument(directory != null);
 
-        return destFile;
+        LogUtils.info(RemoteFileHelper.class,
+                      String.format("Downloading directory [url=%s]",
+                                    remoteUri.toString()));
+        ZipStreamExtractor extractor = new ZipStreamExtractor(directory);
+        long bread = RemoteFileDownloader.shared()
+                                         .stream(remoteUri, directory, checksum,
+                                                 extractor);
+        LogUtils.info(RemoteFileHelper.class,
+                      String.format(
+                              "Created downloaded directory. [path=%s][read=%d][written=%d][skipped=%d]",
+                              directory.getAbsolutePath(), bread,
+                              extractor.getWritten(), extractor.getSkipped()));
+        return bread;
     }
 }
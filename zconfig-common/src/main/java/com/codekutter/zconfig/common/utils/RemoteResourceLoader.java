@@ -0,0 +1,376 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ * Copyright (c) $year
+ * Date: 17/10/26 10:10 PM
+ * Subho Ghosh (subho dot ghosh at outlook.com)
+ *
+ */
+
+package com.codekutter.zconfig.common.utils;
+
+import com.codekutter.zconfig.common.ConfigurationException;
+import com.codekutter.zconfig.common.LogUtils;
+import com.codekutter.zconfig.common.model.Configuration;
+import com.codekutter.zconfig.common.model.nodes.ConfigResourceDirectory;
+import com.codekutter.zconfig.common.model.nodes.ConfigResourceFile;
+import com.codekutter.zconfig.common.readers.EReaderType;
+import com.google.common.base.Preconditions;
+import com.google.common.base.Strings;
+
+import javax.annotation.Nonnull;
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Loader for remote resources (file/directory/blob resource nodes).
+ * <p>
+ * Resources are downloaded on first access (see
+ * {@link ConfigResourceFile#getResourceHandle()}), concurrent requests for the
+ * same local resource wait for the same download. Resources can be prefetched
+ * in the background using a bounded thread pool. Files are downloaded using
+ * the {@link RemoteFileDownloader} (resume, retries and checksum
+ * verification).
+ */
+public class RemoteResourceLoader {
+    /**
+     * Default number of threads used to prefetch resources.
+     */
+    public static final int DEFAULT_PREFETCH_THREADS = 4;
+
+    /**
+     * Executor thread used to prefetch resources.
+     */
+    private static final class PrefetchThread extends Thread {
+        private PrefetchThread(Runnable runnable) {
+            super(runnable, String.format("zconfig-resource-%d",
+                                          threadCounter.incrementAndGet()));
+            setDaemon(true);
+        }
+    }
+
+    private static final AtomicInteger threadCounter = new AtomicInteger();
+
+    private static final RemoteResourceLoader __shared =
+            new RemoteResourceLoader(DEFAULT_PREFETCH_THREADS);
+
+    /**
+     * In-flight downloads keyed by the local resource path.
+     */
+    private final Map<String, CompletableFuture<Long>> downloads =
+            new ConcurrentHashMap<>();
+    private final ThreadPoolExecutor executor;
+    private final RemoteFileDownloader downloader;
+    private final AtomicLong downloadCount = new AtomicLong();
+    private final AtomicLong downloadBytes = new AtomicLong();
+    private final AtomicLong downloadTime = new AtomicLong();
+
+    /**
+     * Constructor with the size of the prefetch thread pool.
+     *
+     * @param threads - Max number of prefetch threads.
+     */
+    public RemoteResourceLoader(int threads) {
+        this(threads, RemoteFileDownloader.shared());
+    }
+
+    /**
+     * Constructor with the size of the prefetch thread pool and the downloader
+     * to use.
+     *
+     * @param threads    - Max number of prefetch threads.
+     * @param downloader - Remote file downloader.
+     */
+    public RemoteResourceLoader(int threads,
+                                @Nonnull RemoteFileDownloader downloader) {
+        Preconditions.checkArgument(threads > 0);
+        Preconditions.checkArgument(downloader != null);
+        this.downloader = downloader;
+        executor = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS,
+                                          new LinkedBlockingQueue<>(),
+                                          PrefetchThread::new);
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Get the resource loader shared by the configurations.
+     *
+     * @return - Shared resource loader.
+     */
+    public static RemoteResourceLoader shared() {
+        return __shared;
+    }
+
+    /**
+     * Get the number of resources downloaded.
+     *
+     * @return - Download count.
+     */
+    public long getDownloadCount() {
+        return downloadCount.get();
+    }
+
+    /**
+     * Get the number of bytes downloaded.
+     *
+     * @return - Downloaded bytes.
+     */
+    public long getDownloadBytes() {
+        return downloadBytes.get();
+    }
+
+    /**
+     * Get the total time spent downloading resources.
+     *
+     * @return - Download time (in milliseconds).
+     */
+    public long getDownloadTime() {
+        return downloadTime.get();
+    }
+
+    /**
+     * Check if the local resource is available (non-empty directory for
+     * directory resources). If a checksum is declared for the resource, the
+     * resource must have been downloaded (and verified) for the checksum.
+     *
+     * @param node - Resource node.
+     * @return - Is available?
+     */
+    public static boolean isAvailable(@Nonnull ConfigResourceFile node) {
+        Preconditions.checkArgument(node != null);
+        File file = node.getResourceHandle(false);
+        if (file == null || !file.exists()) {
+            return false;
+        }
+        if (node instanceof ConfigResourceDirectory) {
+            String[] files = file.list();
+            if (files == null || files.length == 0) {
+                return false;
+            }
+        }
+        if (!Strings.isNullOrEmpty(node.getChecksum())) {
+            return RemoteFileDownloader.isDownloaded(file, node.getChecksum());
+        }
+        return true;
+    }
+
+    /**
+     * Download the resource, if pending. If the resource is already being
+     * downloaded, wait for the download to complete.
+     *
+     * @param node - Resource node.
+     * @throws ConfigurationException
+     */
+    public void fetch(@Nonnull ConfigResourceFile node)
+    throws ConfigurationException {
+        Preconditions.checkArgument(node != null);
+        if (!node.isDownloadPending()) {
+            return;
+        }
+        File file = node.getResourceHandle(false);
+        Preconditions.checkState(file != null);
+
+        String key = file.getAbsolutePath();
+        CompletableFuture<Long> download = new CompletableFuture<>();
+        CompletableFuture<Long> current = downloads.putIfAbsent(key, download);
+        if (current != null) {
+            await(current, node);
+            node.setDownloadPending(false);
+            return;
+        }
+        try {
+            long bread = 0;
+            if (!isAvailable(node)) {
+                bread = download(node);
+            }
+            node.setDownloadPending(false);
+            download.complete(bread);
+        } catch (ConfigurationException e) {
+            download.completeExceptionally(e);
+            throw e;
+        } catch (RuntimeException e) {
+            download.completeExceptionally(e);
+            throw new ConfigurationException(e);
+        } finally {
+            downloads.remove(key, download);
+        }
+    }
+
+    /**
+     * Prefetch all the pending resources of the configuration in the
+     * background. Prefetch errors are logged, the resources will be
+     * downloaded again on access.
+     *
+     * @param configuration - Loaded configuration.
+     * @return - Future completed once all the resources are fetched.
+     */
+    public CompletableFuture<Void> prefetch(@Nonnull Configuration configuration) {
+        List<ConfigResourceFile> nodes = getPending(configuration);
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[nodes.size()];
+        for (int ii = 0; ii < futures.length; ii++) {
+            ConfigResourceFile node = nodes.get(ii);
+            futures[ii] = CompletableFuture.runAsync(() -> {
+                try {
+                    fetch(node);
+                } catch (ConfigurationException e) {
+                    LogUtils.warn(getClass(), String.format(
+                            "Error prefetching resource. [url=%s][error=%s]",
+                            node.getLocation(), e.getLocalizedMessage()));
+                }
+            }, executor);
+        }
+        return CompletableFuture.allOf(futures);
+    }
+
+    /**
+     * Download all the pending resources of the configuration, the resources
+     * are downloaded concurrently.
+     *
+     * @param configuration - Loaded configuration.
+     * @throws ConfigurationException - First download error.
+     */
+    public void fetchAll(@Nonnull Configuration configuration)
+    throws ConfigurationException {
+        List<ConfigResourceFile> nodes = getPending(configuration);
+        if (nodes.isEmpty()) {
+            return;
+        }
+        if (nodes.size() == 1) {
+            fetch(nodes.get(0));
+            return;
+        }
+        List<Future<?>> futures = new ArrayList<>(nodes.size());
+        for (ConfigResourceFile node : nodes) {
+            futures.add(executor.submit(() -> {
+                fetch(node);
+                return null;
+            }));
+        }
+        ConfigurationException error = null;
+        for (int ii = 0; ii < futures.size(); ii++) {
+            try {
+                await(futures.get(ii), nodes.get(ii));
+            } catch (ConfigurationException e) {
+                if (error == null) {
+                    error = e;
+                } else {
+                    error.addSuppressed(e);
+                }
+            }
+        }
+        if (error != null) {
+            throw error;
+        }
+    }
+
+    /**
+     * Get the resources of the configuration pending download.
+     *
+     * @param configuration - Loaded configuration.
+     * @return - Pending resource nodes.
+     */
+    private List<ConfigResourceFile> getPending(Configuration configuration) {
+        Preconditions.checkArgument(configuration != null);
+        Preconditions.checkState(configuration.getPathIndex() != null,
+                                 "Configuration not loaded.");
+
+        List<ConfigResourceFile> nodes = new ArrayList<>();
+        configuration.getPathIndex().forEach((path, node) -> {
+            if (node instanceof ConfigResourceFile &&
+                    ((ConfigResourceFile) node).isDownloadPending()) {
+                nodes.add((ConfigResourceFile) node);
+            }
+        });
+        return nodes;
+    }
+
+    /**
+     * Wait for the in-flight download of the resource.
+     *
+     * @param download - In-flight download.
+     * @param node     - Resource node.
+     * @throws ConfigurationException
+     */
+    private void await(Future<?> download, ConfigResourceFile node)
+    throws ConfigurationException {
+        try {
+            download.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConfigurationException(e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof ConfigurationException) {
+                throw (ConfigurationException) e.getCause();
+            }
+            throw new ConfigurationException(String.format(
+                    "Error downloading resource. [url=%s]", node.getLocation()),
+                                             e.getCause());
+        }
+    }
+
+    /**
+     * Download the remote resource to the local resource handle.
+     *
+     * @param node - Resource node.
+     * @return - Number of bytes read.
+     * @throws ConfigurationException
+     */
+    private long download(ConfigResourceFile node) throws ConfigurationException {
+        URI uri = node.getLocation();
+        EReaderType type = EReaderType.parseFromUri(uri);
+        if (type != EReaderType.HTTP && type != EReaderType.HTTPS) {
+            throw new ConfigurationException(String.format(
+                    "Download not supported for resource location. [url=%s]",
+                    uri));
+        }
+        File file = node.getResourceHandle(false);
+        long start = System.currentTimeMillis();
+        try {
+            long bread;
+            if (node instanceof ConfigResourceDirectory) {
+                bread = downloader.stream(uri, file, node.getChecksum(),
+                                          new ZipStreamExtractor(file));
+            } else {
+                bread = downloader.download(uri, file, node.getChecksum());
+            }
+            if (bread <= 0 && !file.exists()) {
+                throw new ConfigurationException(String.format(
+                        "No bytes read for remote file. [url=%s]",
+                        uri.toString()));
+            }
+            long time = System.currentTimeMillis() - start;
+            node.setFetchTime(time);
+            downloadCount.incrementAndGet();
+            downloadBytes.addAndGet(bread);
+            downloadTime.addAndGet(time);
+            LogUtils.debug(getClass(), String.format(
+                    "Downloaded remote resource. [path=%s][size=%d][time=%dms]",
+                    file.getAbsolutePath(), bread, time));
+            return bread;
+        } catch (IOException e) {
+            throw new ConfigurationException(e);
+        }
+    }
+}
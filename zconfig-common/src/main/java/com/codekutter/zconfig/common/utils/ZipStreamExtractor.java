@@ -0,0 +1,375 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ * Copyright (c) $year
+ * Date: 18/10/26 12:40 AM
+ * Subho Ghosh (subho dot ghosh at outlook.com)
+ *
+ */
+
+package com.codekutter.zconfig.common.utils;
+
+import com.codekutter.zconfig.common.LogUtils;
+import com.google.common.base.Preconditions;
+import com.google.common.io.ByteStreams;
+
+import javax.annotation.Nonnull;
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Extract a zip stream to a directory, entries are extracted as the stream
+ * is read (the zip file is not stored locally).
+ * <p>
+ * Extracted entries are recorded (CRC, size) in an entries file
+ * ({@code <directory>.entries}). Entries that are unchanged since the previous
+ * extraction are not written again, entries removed from the archive are
+ * deleted.
+ * <p>
+ * Changed entries are staged next to the directory and only moved to the
+ * directory on commit, so that a failed download doesn't leave the directory
+ * partially updated.
+ */
+public class ZipStreamExtractor implements IStreamConsumer {
+    /**
+     * Default size of the read/write buffer.
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 1024 * 1024;
+    public static final String ENTRIES_FILE_EXT = ".entries";
+
+    private static final String STAGING_DIR_EXT = ".staging";
+
+    /**
+     * Directory to extract to.
+     */
+    private final File directory;
+    /**
+     * Read/write buffer size.
+     */
+    private final int bufferSize;
+    /**
+     * Directory the changed entries are staged in.
+     */
+    private File staging = null;
+    /**
+     * Entries (CRC, size) of the extracted archive.
+     */
+    private Properties entries = null;
+    /**
+     * Directory entries of the archive.
+     */
+    private final List<String> directories = new ArrayList<>();
+    /**
+     * Staged files of the changed entries.
+     */
+    private final Map<String, File> changed = new LinkedHashMap<>();
+    /**
+     * Entries of the previous extraction.
+     */
+    private Properties previous = null;
+    private int skipped = 0;
+
+    /**
+     * Constructor with the directory to extract to.
+     *
+     * @param directory - Directory to extract to.
+     */
+    public ZipStreamExtractor(@Nonnull File directory) {
+        this(directory, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Constructor with the directory to extract to and the buffer size.
+     *
+     * @param directory  - Directory to extract to.
+     * @param bufferSize - Read/write buffer size.
+     */
+    public ZipStreamExtractor(@Nonnull File directory, int bufferSize) {
+        Preconditions.checkArgument(directory != null);
+        Preconditions.checkArgument(bufferSize > 0);
+        this.directory = directory.getAbsoluteFile();
+        this.bufferSize = bufferSize;
+    }
+
+    /**
+     * Get the number of entries written by the last extraction.
+     *
+     * @return - Written entries.
+     */
+    public int getWritten() {
+        return changed.size();
+    }
+
+    /**
+     * Get the number of (unchanged) entries skipped by the last extraction.
+     *
+     * @return - Skipped entries.
+     */
+    public int getSkipped() {
+        return skipped;
+    }
+
+    /**
+     * Extract the zip stream to the staging directory, unchanged entries are
+     * skipped.
+     *
+     * @param input - Zip content stream.
+     * @throws IOException
+     */
+    @Override
+    public void consume(InputStream input) throws IOException {
+        Preconditions.checkArgument(input != null);
+        discard();
+        previous = readEntries();
+        entries = new Properties();
+        staging = new File(String.format("%s%s.%s", directory.getAbsolutePath(),
+                                         STAGING_DIR_EXT,
+                                         UUID.randomUUID().toString()));
+        if (!staging.mkdirs()) {
+            throw new IOException(String.format(
+                    "Error creating staging directory. [path=%s]",
+                    staging.getAbsolutePath()));
+        }
+        byte[] data = new byte[bufferSize];
+        ByteBuffer buffer = ByteBuffer.wrap(data);
+        // The zip stream reads the compressed data in small chunks, buffer the
+        // network stream.
+        BufferedInputStream bis = new BufferedInputStream(input, bufferSize);
+        ZipInputStream zis = new ZipInputStream(bis);
+        ZipEntry entry;
+        while ((entry = zis.getNextEntry()) != null) {
+            String name = entry.getName();
+            File file = getFile(name);
+            if (entry.isDirectory()) {
+                directories.add(name);
+                continue;
+            }
+            // CRC/size are in the entry header, unless written after the
+            // entry data.
+            if (entry.getCrc() >= 0 && entry.getSize() >= 0 &&
+                    isUnchanged(name, entry.getCrc(), entry.getSize(), file)) {
+                entries.setProperty(name, getValue(entry.getCrc(), entry.getSize()));
+                skipped++;
+                continue;
+            }
+            File staged = new File(staging, String.valueOf(changed.size()));
+            long size = 0;
+            try (FileChannel channel = FileChannel.open(staged.toPath(),
+                                                        StandardOpenOption.CREATE_NEW,
+                                                        StandardOpenOption.WRITE)) {
+                int count;
+                while ((count = zis.read(data)) > 0) {
+                    buffer.clear().limit(count);
+                    while (buffer.hasRemaining()) {
+                        channel.write(buffer);
+                    }
+                    size += count;
+                }
+            }
+            long crc = entry.getCrc();
+            entries.setProperty(name, getValue(crc, size));
+            if (isUnchanged(name, crc, size, file)) {
+                if (!staged.delete()) {
+                    staged.deleteOnExit();
+                }
+                skipped++;
+            } else {
+                changed.put(name, staged);
+            }
+        }
+        // Read the zip trailer (central directory).
+        ByteStreams.exhaust(bis);
+    }
+
+    /**
+     * Move the staged entries to the directory, delete the entries removed
+     * from the archive and record the extracted entries.
+     *
+     * @throws IOException
+     */
+    @Override
+    public void commit() throws IOException {
+        Preconditions.checkState(entries != null, "No content consumed.");
+        if (!directory.exists() && !directory.mkdirs() && !directory.exists()) {
+            throw new IOException(String.format(
+                    "Error creating directory. [path=%s]",
+                    directory.getAbsolutePath()));
+        }
+        for (String name : directories) {
+            File dir = getFile(name);
+            if (!dir.exists() && !dir.mkdirs() && !dir.exists()) {
+                throw new IOException(String.format(
+                        "Error creating directory. [path=%s]", dir.getAbsolutePath()));
+            }
+        }
+        for (Map.Entry<String, File> entry : changed.entrySet()) {
+            File file = getFile(entry.getKey());
+            File parent = file.getParentFile();
+            if (!parent.exists() && !parent.mkdirs() && !parent.exists()) {
+                throw new IOException(String.format(
+                        "Error creating directory. [path=%s]",
+                        parent.getAbsolutePath()));
+            }
+            IOUtils.moveFile(entry.getValue(), file);
+        }
+        if (previous != null) {
+            for (String name : previous.stringPropertyNames()) {
+                if (!entries.containsKey(name)) {
+                    File file = getFile(name);
+                    if (file.isFile() && !file.delete()) {
+                        LogUtils.warn(getClass(), String.format(
+                                "Error deleting removed entry. [path=%s]",
+                                file.getAbsolutePath()));
+                    }
+                }
+            }
+        }
+        writeEntries(entries);
+        LogUtils.debug(getClass(), String.format(
+                "Extracted archive. [path=%s][written=%d][skipped=%d]",
+                directory.getAbsolutePath(), changed.size(), skipped));
+        deleteStaging();
+    }
+
+    /**
+     * Discard the staged entries.
+     */
+    @Override
+    public void discard() {
+        deleteStaging();
+        directories.clear();
+        changed.clear();
+        entries = null;
+        previous = null;
+        skipped = 0;
+    }
+
+    /**
+     * Check if the entry is unchanged since the previous extraction.
+     *
+     * @param name - Entry name.
+     * @param crc  - Entry CRC.
+     * @param size - Entry size.
+     * @param file - Extracted file.
+     * @return - Is unchanged?
+     */
+    private boolean isUnchanged(String name, long crc, long size, File file) {
+        if (previous == null) {
+            return false;
+        }
+        String value = previous.getProperty(name);
+        return (value != null && value.compareTo(getValue(crc, size)) == 0 &&
+                file.isFile() && file.length() == size);
+    }
+
+    private static String getValue(long crc, long size) {
+        return String.format("%08x:%d", crc, size);
+    }
+
+    /**
+     * Get the extracted file for the entry, checking that the entry is
+     * within the directory.
+     *
+     * @param name - Entry name.
+     * @return - Extracted file.
+     * @throws IOException
+     */
+    private File getFile(String name) throws IOException {
+        File file = new File(directory, name);
+        String dirPath = directory.getCanonicalPath();
+        String filePath = file.getCanonicalPath();
+        if (!filePath.startsWith(dirPath + File.separator)) {
+            throw new IOException(
+                    "Entry is outside of the target dir: " + name);
+        }
+        return file;
+    }
+
+    private File getEntriesFile() {
+        return new File(directory.getAbsolutePath() + ENTRIES_FILE_EXT);
+    }
+
+    /**
+     * Read the entries of the previous extraction.
+     *
+     * @return - Extracted entries or NULL if not extracted.
+     */
+    private Properties readEntries() {
+        File file = getEntriesFile();
+        if (!file.exists() || !directory.exists()) {
+            return null;
+        }
+        try (InputStream input = new FileInputStream(file)) {
+            Properties values = new Properties();
+            values.load(input);
+            return values;
+        } catch (IOException e) {
+            LogUtils.debug(getClass(), String.format(
+                    "Error reading extracted entries. [path=%s][error=%s]",
+                    file.getAbsolutePath(), e.getLocalizedMessage()));
+            return null;
+        }
+    }
+
+    /**
+     * Record the extracted entries.
+     *
+     * @param values - Extracted entries.
+     * @throws IOException
+     */
+    private void writeEntries(Properties values) throws IOException {
+        File file = getEntriesFile();
+        File tmpfile = new File(String.format("%s.%s.tmp", file.getAbsolutePath(),
+                                              UUID.randomUUID().toString()));
+        try {
+            try (OutputStream output = new FileOutputStream(tmpfile)) {
+                values.store(output, null);
+            }
+            IOUtils.moveFile(tmpfile, file);
+        } finally {
+            if (tmpfile.exists() && !tmpfile.delete()) {
+                tmpfile.deleteOnExit();
+            }
+        }
+    }
+
+    /**
+     * Delete the staging directory (and any staged entries).
+     */
+    private void deleteStaging() {
+        if (staging != null) {
+            File[] files = staging.listFiles();
+            if (files != null) {
+                for (File file : files) {
+                    if (!file.delete()) {
+                        file.deleteOnExit();
+                    }
+                }
+            }
+            if (!staging.delete()) {
+                staging.deleteOnExit();
+            }
+            staging = null;
+        }
+    }
+}
@@ -0,0 +1,369 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ * Copyright (c) $year
+ * Date: 17/10/26 6:55 PM
+ * Subho Ghosh (subho dot ghosh at outlook.com)
+ *
+ */
+
+package com.codekutter.zconfig.common.writers;
+
+import com.codekutter.zconfig.common.BinaryConfigConstants;
+import com.codekutter.zconfig.common.ConfigurationException;
+import com.codekutter.zconfig.common.model.Configuration;
+import com.codekutter.zconfig.common.model.ModifiedBy;
+import com.codekutter.zconfig.common.model.Version;
+import com.codekutter.zconfig.common.model.nodes.*;
+import com.codekutter.zconfig.common.utils.ConfigUtils;
+import com.codekutter.zconfig.common.utils.IOUtils;
+import com.google.common.base.Preconditions;
+import com.google.common.base.Strings;
+
+import javax.annotation.Nonnull;
+import java.io.*;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Configuration writer implementation that writes a loaded configuration as a
+ * binary snapshot, that can be loaded without parsing the source configuration.
+ * <p>
+ * See {@link BinaryConfigConstants} for the snapshot layout.
+ */
+public class BinaryConfigWriter extends AbstractConfigWriter {
+
+    /**
+     * Write the configuration snapshot to the specified output location.
+     * The name of the generated output file will be of the following format
+     * [config_name]_[instance_id].snapshot.
+     *
+     * @param configuration - Configuration handle to serialize.
+     * @param path          - Output location to write to.
+     * @return - Return the path of the output file created.
+     * @throws ConfigurationException
+     */
+    @Override
+    public String write(Configuration configuration, String path)
+    throws ConfigurationException {
+        Preconditions.checkArgument(configuration != null);
+        Preconditions.checkArgument(!Strings.isNullOrEmpty(path));
+
+        File outdir = new File(path);
+        if (!outdir.exists() || !outdir.isDirectory()) {
+            throw new ConfigurationException(String.format(
+                    "Invalid output directory specified : Directory does not exist or path isn't a directory."));
+        }
+        File outfile = new File(
+                String.format("%s/%s_%s%s", outdir.getAbsolutePath(),
+                              configuration.getName(),
+                              configuration.getInstanceId(),
+                              BinaryConfigConstants.SNAPSHOT_FILE_EXT));
+        write(configuration, outfile, null, configuration.getVersion());
+
+        return outfile.getAbsolutePath();
+    }
+
+    /**
+     * Write the configuration snapshot to the specified file. The snapshot is
+     * written to a temporary file and moved to the output file once complete.
+     *
+     * @param configuration - Configuration handle to serialize.
+     * @param outfile       - Output file handle.
+     * @param sourceHash    - Content hash of the configuration source.
+     * @param version       - Version the configuration was loaded for.
+     * @throws ConfigurationException
+     */
+    public void write(@Nonnull Configuration configuration, @Nonnull File outfile,
+                      String sourceHash, @Nonnull Version version)
+    throws ConfigurationException {
+        Preconditions.checkArgument(configuration != null);
+        Preconditions.checkArgument(configuration.getRootConfigNode() != null);
+        Preconditions.checkArgument(outfile != null);
+        Preconditions.checkArgument(version != null);
+
+        File tmpfile = new File(String.format("%s.%s.tmp", outfile.getAbsolutePath(),
+                                              UUID.randomUUID().toString()));
+        try {
+            try (OutputStream out = new BufferedOutputStream(
+                    new FileOutputStream(tmpfile))) {
+                write(configuration, out, sourceHash, version);
+            }
+            IOUtils.moveFile(tmpfile, outfile);
+        } catch (IOException e) {
+            throw new ConfigurationException(e);
+        } finally {
+            if (tmpfile.exists() && !tmpfile.delete()) {
+                tmpfile.deleteOnExit();
+            }
+        }
+    }
+
+    /**
+     * Write the configuration snapshot to the specified output stream. The
+     * output stream is not closed.
+     *
+     * @param configuration - Configuration handle to serialize.
+     * @param outstream     - Output stream to write to.
+     * @param sourceHash    - Content hash of the configuration source.
+     * @param version       - Version the configuration was loaded for.
+     * @throws ConfigurationException
+     */
+    public void write(@Nonnull Configuration configuration,
+                      @Nonnull OutputStream outstream, String sourceHash,
+                      @Nonnull Version version)
+    throws ConfigurationException {
+        Preconditions.checkArgument(configuration != null);
+        Preconditions.checkArgument(configuration.getRootConfigNode() != null);
+        Preconditions.checkArgument(outstream != null);
+        Preconditions.checkArgument(version != null);
+
+        try {
+            DataOutputStream out = new DataOutputStream(outstream);
+            new SnapshotOutput(out).write(configuration, sourceHash, version);
+            out.flush();
+        } catch (IOException e) {
+            throw new ConfigurationException(e);
+        }
+    }
+
+    /**
+     * Snapshot output stream with the pool of the strings written.
+     */
+    private static final class SnapshotOutput {
+        private final DataOutputStream out;
+        private final Map<String, Integer> strings = new HashMap<>();
+
+        private SnapshotOutput(DataOutputStream out) {
+            this.out = out;
+        }
+
+        /**
+         * Write the configuration snapshot.
+         *
+         * @param configuration - Configuration to write.
+         * @param sourceHash    - Content hash of the configuration source.
+         * @param version       - Version the configuration was loaded for.
+         * @throws IOException
+         * @throws ConfigurationException
+         */
+        private void write(Configuration configuration, String sourceHash,
+                           Version version)
+        throws IOException, ConfigurationException {
+            out.writeInt(BinaryConfigConstants.SNAPSHOT_MAGIC);
+            out.writeShort(BinaryConfigConstants.SNAPSHOT_FORMAT_VERSION);
+            writeString(sourceHash);
+            writeVersion(version);
+
+            Set<URI> includes = new LinkedHashSet<>();
+            ConfigUtils.collectIncludes(configuration.getRootConfigNode(),
+                                        includes);
+            out.writeInt(includes.size());
+            for (URI uri : includes) {
+                writeString(uri.toString());
+                writeString(IOUtils.getContentHash(IOUtils.readContent(uri)));
+            }
+
+            // Only the names and the fingerprint of the variable values are
+            // stored, the snapshot is stale if the values have changed.
+            Map<String, String> variables = configuration.getResolvedVariables();
+            out.writeInt(variables.size());
+            for (String name : variables.keySet()) {
+                writeString(name);
+            }
+            writeString(ConfigUtils.getVariablesHash(variables));
+
+            writeString(configuration.getId());
+            writeString(configuration.getApplicationGroup());
+            writeString(configuration.getApplication());
+            writeString(configuration.getName());
+            writeString(configuration.getDescription());
+            writeVersion(configuration.getVersion());
+            writeModifiedBy(configuration.getCreatedBy());
+            writeModifiedBy(configuration.getUpdatedBy());
+            writeString(configuration.getSyncMode() != null ?
+                                configuration.getSyncMode().name() : null);
+            writeString(configuration.getEncryptionHash());
+            out.writeLong(configuration.getHeader().getTimestamp());
+
+            writeNode(configuration.getRootConfigNode(), null);
+        }
+
+        /**
+         * Write the configuration node (and child nodes).
+         *
+         * @param node   - Configuration node.
+         * @param parent - Parent node the node is being written under.
+         * @throws IOException
+         * @throws ConfigurationException
+         */
+        private void writeNode(AbstractConfigNode node, AbstractConfigNode parent)
+        throws IOException, ConfigurationException {
+            if (parent != null && node.getParent() instanceof ConfigIncludeNode &&
+                    node.getParent() != parent) {
+                out.writeByte(BinaryConfigConstants.NODE_INCLUDED);
+                writeInclude((ConfigIncludeNode) node.getParent());
+            }
+            out.writeByte(getNodeType(node));
+            writeString(node.getName());
+            if (node instanceof ConfigValueNode) {
+                ConfigValueNode vn = (ConfigValueNode) node;
+                writeString(vn.getValue());
+                out.writeBoolean(vn.isEncrypted());
+            } else if (node instanceof ConfigPathNode) {
+                Map<String, AbstractConfigNode> children =
+                        ((ConfigPathNode) node).getChildren();
+                writeNodes(children != null ? children.values() : null, node);
+            } else if (node instanceof ConfigKeyValueNode) {
+                Map<String, ConfigValueNode> values =
+                        ((ConfigKeyValueNode) node).getKeyValues();
+                writeNodes(values != null ? values.values() : null, node);
+            } else if (node instanceof ConfigListNode) {
+                writeNodes(((ConfigListNode<?>) node).getValues(), node);
+            } else if (node instanceof ConfigIncludeNode) {
+                ConfigIncludeNode include = (ConfigIncludeNode) node;
+                writeInclude(include);
+                out.writeBoolean(include.getNode() != null);
+                if (include.getNode() != null) {
+                    writeNode(include.getNode(), include);
+                }
+            } else if (node instanceof ConfigResourceFile) {
+                ConfigResourceFile resource = (ConfigResourceFile) node;
+                writeString(resource.getLocation() != null ?
+                                    resource.getLocation().toString() : null);
+                writeString(resource.getResourceName());
+                writeString(resource.getResourceHandle(false) != null ?
+                                    resource.getResourceHandle(false).getAbsolutePath() :
+                                    null);
+                writeString(resource.getChecksum());
+            }
+        }
+
+        /**
+         * Write the child nodes, prefixed by the node count.
+         *
+         * @param nodes  - Child nodes.
+         * @param parent - Parent node.
+         * @throws IOException
+         * @throws ConfigurationException
+         */
+        private void writeNodes(Collection<? extends AbstractConfigNode> nodes,
+                                AbstractConfigNode parent)
+        throws IOException, ConfigurationException {
+            if (nodes == null) {
+                out.writeInt(0);
+                return;
+            }
+            out.writeInt(nodes.size());
+            for (AbstractConfigNode node : nodes) {
+                writeNode(node, parent);
+            }
+        }
+
+        /**
+         * Write the include definition.
+         *
+         * @param include - Include node.
+         * @throws IOException
+         */
+        private void writeInclude(ConfigIncludeNode include) throws IOException {
+            writeString(include.getConfigName());
+            writeString(include.getPath());
+            writeString(include.getReaderType() != null ?
+                                include.getReaderType().name() : null);
+            writeVersion(include.getVersion());
+        }
+
+        /**
+         * Get the snapshot type of the configuration node.
+         *
+         * @param node - Configuration node.
+         * @return - Node type.
+         * @throws ConfigurationException - If the node type isn't supported.
+         */
+        private byte getNodeType(AbstractConfigNode node)
+        throws ConfigurationException {
+            if (node instanceof ConfigValueNode) {
+                return BinaryConfigConstants.NODE_VALUE;
+            } else if (node instanceof ConfigPathNode) {
+                return BinaryConfigConstants.NODE_PATH;
+            } else if (node instanceof ConfigPropertiesNode) {
+                return BinaryConfigConstants.NODE_PROPERTIES;
+            } else if (node instanceof ConfigParametersNode) {
+                return BinaryConfigConstants.NODE_PARAMETERS;
+            } else if (node instanceof ConfigAttributesNode) {
+                return BinaryConfigConstants.NODE_ATTRIBUTES;
+            } else if (node instanceof ConfigListValueNode) {
+                return BinaryConfigConstants.NODE_LIST_VALUE;
+            } else if (node instanceof ConfigListElementNode) {
+                return BinaryConfigConstants.NODE_LIST_ELEMENT;
+            } else if (node instanceof ConfigIncludeNode) {
+                return BinaryConfigConstants.NODE_INCLUDE;
+            } else if (node instanceof ConfigResourceDirectory) {
+                return BinaryConfigConstants.NODE_RESOURCE_DIRECTORY;
+            } else if (node instanceof ConfigResourceBlob) {
+                return BinaryConfigConstants.NODE_RESOURCE_BLOB;
+            } else if (node instanceof ConfigResourceFile) {
+                return BinaryConfigConstants.NODE_RESOURCE_FILE;
+            }
+            throw new ConfigurationException(String.format(
+                    "Node type not supported in snapshot. [type=%s][path=%s]",
+                    node.getClass().getCanonicalName(), node.getAbsolutePath()));
+        }
+
+        private void writeVersion(Version version) throws IOException {
+            out.writeBoolean(version != null);
+            if (version != null) {
+                out.writeInt(version.getMajorVersion());
+                out.writeInt(version.getMinorVersion());
+            }
+        }
+
+        private void writeModifiedBy(ModifiedBy modifiedBy) throws IOException {
+            out.writeBoolean(modifiedBy != null);
+            if (modifiedBy != null) {
+                writeString(modifiedBy.getModifiedBy());
+                out.writeLong(modifiedBy.getTimestamp());
+            }
+        }
+
+        /**
+         * Write a (pooled) string value.
+         *
+         * @param value - String value, can be NULL.
+         * @throws IOException
+         */
+        private void writeString(String value) throws IOException {
+            if (value == null) {
+                out.writeInt(BinaryConfigConstants.STRING_NULL);
+                return;
+            }
+            Integer index = strings.get(value);
+            if (index != null) {
+                out.writeInt(index);
+                return;
+            }
+            strings.put(value, strings.size());
+            out.writeInt(BinaryConfigConstants.STRING_INLINE);
+            byte[] data = value.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(data.length);
+            out.write(data);
+        }
+    }
+}
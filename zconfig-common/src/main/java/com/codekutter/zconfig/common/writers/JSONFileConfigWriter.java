@@ -27,31 +27,40 @@ package com.codekutter.zconfig.common.writers;
 import com.codekutter.zconfig.common.model.Configuration;
 import com.codekutter.zconfig.common.model.ModifiedBy;
 import com.codekutter.zconfig.common.model.nodes.*;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.JsonNode;
+import com.codekutter.zconfig.common.utils.IOUtils;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.SerializationFeature;
-import com.fasterxml.jackson.databind.node.ArrayNode;
-import com.fasterxml.jackson.databind.node.JsonNodeType;
-import com.fasterxml.jackson.databind.node.ObjectNode;
-import com.fasterxml.jackson.datatype.joda.JodaModule;
 import com.google.common.base.Preconditions;
 import com.google.common.base.Strings;
 import com.codekutter.zconfig.common.ConfigurationException;
-import com.codekutter.zconfig.common.DateTimeUtils;
 import com.codekutter.zconfig.common.JSONConfigConstants;
 
+import java.io.BufferedOutputStream;
 import java.io.File;
-import java.io.FileNotFoundException;
-import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 
 /**
  * Configuration writer implementation that writes the specified configuration to JSON format output.
+ * <p>
+ * The configuration tree is streamed to the output file (no intermediate JSON
+ * tree is created). The output is written to a temporary file and moved to the
+ * output file once complete, so that readers never see a partially written
+ * file.
  */
 public class JSONFileConfigWriter extends AbstractConfigWriter {
+    /**
+     * Output buffer size.
+     */
+    private static final int BUFFER_SIZE = 64 * 1024;
+
     /**
      * JSON Object Mapper instance.
      */
@@ -72,24 +81,7 @@ public class JSONFileConfigWriter extends AbstractConfigWriter {
         Preconditions.checkArgument(configuration != null);
         Preconditions.checkArgument(!Strings.isNullOrEmpty(path));
 
-        File outdir = new File(path);
-        if (!outdir.exists() || !outdir.isDirectory()) {
-            throw new ConfigurationException(String.format(
-                    "Invalid output directory specified : Directory does not exist or path isn't a directory."));
-        }
-        File outfile = new File(
-                String.format("%s/%s_%s.json", outdir.getAbsolutePath(),
-                              configuration.getName(),
-                              configuration.getInstanceId()));
-        if (outfile.exists()) {
-            if (!outfile.delete()) {
-                throw new ConfigurationException(
-                        String.format("Error removing existing file. [file=%s]",
-                                      outfile.getAbsolutePath()));
-            }
-        }
-        mapper.enable(SerializationFeature.INDENT_OUTPUT);
-        mapper.registerModule(new JodaModule());
+        File outfile = getOutputFile(configuration, path);
 
         serializeToJson(configuration, outfile);
 
@@ -97,260 +89,315 @@ public class JSONFileConfigWriter extends AbstractConfigWriter {
     }
 
     /**
-     * Serialize the configuration to the specified output file.
+     * Get the output file ([config_name]_[instance_id].json) in the output location.
      *
-     * @param configuration - Configuration to serialize.
-     * @param outfile       - Output file handle.
+     * @param configuration - Configuration handle to serialize.
+     * @param path          - Output location to write to.
+     * @return - Output file handle.
      * @throws ConfigurationException
      */
-    private void serializeToJson(Configuration configuration, File outfile)
+    protected File getOutputFile(Configuration configuration, String path)
     throws ConfigurationException {
-        JsonNode rootNode = mapper.createObjectNode();
-        addConfigHeader(configuration, (ObjectNode) rootNode);
-        addConfigBody(configuration, (ObjectNode) rootNode);
-
-        // Write the generated JSON to the output file.
-        writeJSON(rootNode, outfile);
+        File outdir = new File(path);
+        if (!outdir.exists() || !outdir.isDirectory()) {
+            throw new ConfigurationException(String.format(
+                    "Invalid output directory specified : Directory does not exist or path isn't a directory."));
+        }
+        return new File(
+                String.format("%s/%s_%s.json", outdir.getAbsolutePath(),
+                              configuration.getName(),
+                              configuration.getInstanceId()));
     }
 
     /**
-     * Write the generated JSON tree to the specified output file.
+     * Serialize the configuration to the specified output file. The
+     * configuration is written to a temporary file, which replaces the output
+     * file once complete.
      *
-     * @param rootNode - JSON Tree root node.
-     * @param outfile  - Output file handle.
+     * @param configuration - Configuration to serialize.
+     * @param outfile       - Output file handle.
      * @throws ConfigurationException
      */
-    private void writeJSON(JsonNode rootNode, File outfile)
+    protected void serializeToJson(Configuration configuration, File outfile)
     throws ConfigurationException {
+        File tmpfile = new File(String.format("%s.%s.tmp", outfile.getAbsolutePath(),
+                                              UUID.randomUUID().toString()));
         try {
-            String json = mapper.writeValueAsString(rootNode);
-            try (FileOutputStream fos = new FileOutputStream(outfile)) {
-                fos.write(json.getBytes());
-                fos.flush();
+            try (FileChannel channel = FileChannel.open(tmpfile.toPath(),
+                                                        StandardOpenOption.CREATE_NEW,
+                                                        StandardOpenOption.WRITE);
+                 OutputStream output = new BufferedOutputStream(
+                         Channels.newOutputStream(channel), BUFFER_SIZE);
+                 JsonGenerator generator = mapper.getFactory()
+                                                 .createGenerator(output,
+                                                                  JsonEncoding.UTF8)) {
+                generator.useDefaultPrettyPrinter();
+                generator.writeStartObject();
+                addConfigHeader(configuration, generator);
+                addConfigBody(configuration, generator);
+                generator.writeEndObject();
+                generator.flush();
+                output.flush();
+                channel.force(false);
             }
-        } catch (JsonProcessingException e) {
-            throw new ConfigurationException(e);
-        } catch (FileNotFoundException e) {
-            throw new ConfigurationException(e);
+            IOUtils.moveFile(tmpfile, outfile);
         } catch (IOException e) {
             throw new ConfigurationException(e);
+        } finally {
+            if (tmpfile.exists() && !tmpfile.delete()) {
+                tmpfile.deleteOnExit();
+            }
         }
     }
 
     /**
-     * Add the Configuration Body to the JSON Tree.
+     * Add the Configuration Body to the JSON output.
      *
      * @param configuration - Configuration instance.
-     * @param parent        - Parent JSON node.
+     * @param generator     - JSON generator (in an object).
      * @throws ConfigurationException
+     * @throws IOException
      */
-    private void addConfigBody(Configuration configuration, ObjectNode parent)
-    throws ConfigurationException {
+    private void addConfigBody(Configuration configuration,
+                               JsonGenerator generator)
+    throws ConfigurationException, IOException {
         ConfigPathNode rootNode = configuration.getRootConfigNode();
-        addConfigPathNode(rootNode, parent);
+        addConfigNode(rootNode, generator, false);
+    }
+
+    /**
+     * Check if the configuration node is written in the specified context.
+     *
+     * @param node    - Configuration node.
+     * @param inArray - Is the generator in an array (else in an object)?
+     * @return - Is written?
+     */
+    protected static boolean isWritable(AbstractConfigNode node, boolean inArray) {
+        if (node instanceof ConfigPathNode || node instanceof ConfigValueNode) {
+            return true;
+        }
+        return (!inArray && (node instanceof ConfigListElementNode ||
+                node instanceof ConfigKeyValueNode ||
+                node instanceof ConfigListValueNode));
     }
 
     /**
      * Process the configuration node, based on the node type will call the appropriate method.
+     * The node is added as a field (named by the node) if in an object.
      *
-     * @param node           - Configuration node to process.
-     * @param parentJsonNode - Parent JSON node.
+     * @param node      - Configuration node to process.
+     * @param generator - JSON generator.
+     * @param inArray   - Is the generator in an array (else in an object)?
      * @throws ConfigurationException
+     * @throws IOException
      */
-    private void addConfigNode(AbstractConfigNode node,
-                               JsonNode parentJsonNode)
-    throws ConfigurationException {
+    protected void addConfigNode(AbstractConfigNode node, JsonGenerator generator,
+                                 boolean inArray)
+    throws ConfigurationException, IOException {
+        if (!isWritable(node, inArray)) {
+            return;
+        }
+        if (!(node instanceof ConfigValueNode) &&
+                Strings.isNullOrEmpty(node.getName())) {
+            throw ConfigurationException.propertyNotFoundException(
+                    JSONConfigConstants.CONFIG_HEADER_NAME);
+        }
+        if (!inArray) {
+            generator.writeFieldName(node.getName());
+        }
+        addNodeValue(node, generator);
+    }
+
+    /**
+     * Add the JSON value (object, array or string) of the configuration node.
+     *
+     * @param node      - Configuration node to process.
+     * @param generator - JSON generator.
+     * @throws ConfigurationException
+     * @throws IOException
+     */
+    protected void addNodeValue(AbstractConfigNode node, JsonGenerator generator)
+    throws ConfigurationException, IOException {
         if (node instanceof ConfigPathNode) {
-            if (parentJsonNode instanceof ObjectNode) {
-                addConfigPathNode((ConfigPathNode) node,
-                                  (ObjectNode) parentJsonNode);
-            } else if (parentJsonNode instanceof ArrayNode) {
-                addConfigPathNode((ConfigPathNode) node,
-                                  (ArrayNode) parentJsonNode);
-            }
-        } else if (node instanceof ConfigListElementNode &&
-                (parentJsonNode instanceof ObjectNode)) {
-            addListNode((ConfigListElementNode) node, (ObjectNode) parentJsonNode);
+            addConfigPathNode((ConfigPathNode) node, generator);
+        } else if (node instanceof ConfigListElementNode) {
+            addListNode((ConfigListElementNode) node, generator);
         } else if (node instanceof ConfigValueNode) {
-            addConfigValue((ConfigValueNode) node, parentJsonNode);
-        } else if (node instanceof ConfigKeyValueNode &&
-                (parentJsonNode instanceof ObjectNode)) {
-            addKeyValueNode((ConfigKeyValueNode) node, (ObjectNode) parentJsonNode);
-        } else if (node instanceof ConfigListValueNode &&
-                (parentJsonNode instanceof ObjectNode)) {
-            ArrayNode valueList =
-                    ((ObjectNode) parentJsonNode).putArray(node.getName());
+            generator.writeString(((ConfigValueNode) node).getValue());
+        } else if (node instanceof ConfigKeyValueNode) {
+            addKeyValueNode((ConfigKeyValueNode) node, generator);
+        } else if (node instanceof ConfigListValueNode) {
+            generator.writeStartArray();
             List<ConfigValueNode> values = ((ConfigListValueNode) node).getValues();
             if (values != null && !values.isEmpty()) {
                 for (ConfigValueNode cv : values) {
-                    addConfigValue(cv, valueList);
+                    generator.writeString(cv.getValue());
                 }
             }
+            generator.writeEndArray();
         }
     }
 
     /**
-     * Add a Key/Value node (Parameters/Properties) to the parent Object Node.
+     * Add a Key/Value node (Parameters/Properties) object.
      *
-     * @param node   - Configuration Key/Value set node.
-     * @param parent - Parent JSON node.
-     * @throws ConfigurationException
+     * @param node      - Configuration Key/Value set node.
+     * @param generator - JSON generator.
+     * @throws IOException
      */
-    private void addKeyValueNode(ConfigKeyValueNode node, ObjectNode parent)
-    throws ConfigurationException {
-        if (Strings.isNullOrEmpty(node.getName())) {
-            throw ConfigurationException.propertyNotFoundException(
-                    JSONConfigConstants.CONFIG_HEADER_NAME);
-        }
-        ObjectNode cnode = parent.putObject(node.getName());
+    private void addKeyValueNode(ConfigKeyValueNode node, JsonGenerator generator)
+    throws IOException {
+        generator.writeStartObject();
         Map<String, ConfigValueNode> keyValues = node.getKeyValues();
         if (keyValues != null && !keyValues.isEmpty()) {
-            for (String key : keyValues.keySet()) {
-                cnode.put(key, keyValues.get(key).getValue());
+            for (Map.Entry<String, ConfigValueNode> entry : keyValues.entrySet()) {
+                generator.writeStringField(entry.getKey(),
+                                           entry.getValue().getValue());
             }
         }
+        generator.writeEndObject();
     }
 
     /**
-     * Add a new Object node based on the configuration path element.
+     * Add a new Object based on the configuration path element.
      *
-     * @param node   - Configuration Path node.
-     * @param parent - Parent JSON node.
+     * @param node      - Configuration Path node.
+     * @param generator - JSON generator.
      * @throws ConfigurationException
+     * @throws IOException
      */
-    private void addConfigPathNode(ConfigPathNode node, ObjectNode parent)
-    throws ConfigurationException {
-        if (Strings.isNullOrEmpty(node.getName())) {
-            throw ConfigurationException.propertyNotFoundException(
-                    JSONConfigConstants.CONFIG_HEADER_NAME);
-        }
-        ObjectNode cnode = parent.putObject(node.getName());
-
+    private void addConfigPathNode(ConfigPathNode node, JsonGenerator generator)
+    throws ConfigurationException, IOException {
+        generator.writeStartObject();
         if (node.getChildren() != null) {
             Map<String, AbstractConfigNode> nodes = node.getChildren();
             if (!nodes.isEmpty()) {
-                for (String name : nodes.keySet()) {
-                    addConfigNode(nodes.get(name), cnode);
-                }
-            }
-        }
-    }
-
-    private void addConfigPathNode(ConfigPathNode node, ArrayNode parent)
-    throws ConfigurationException {
-        if (Strings.isNullOrEmpty(node.getName())) {
-            throw ConfigurationException.propertyNotFoundException(
-                    JSONConfigConstants.CONFIG_HEADER_NAME);
-        }
-        ObjectNode onode = parent.addObject();
-        if (node.getChildren() != null) {
-            Map<String, AbstractConfigNode> nodes = node.getChildren();
-            if (!nodes.isEmpty()) {
-                for (String name : nodes.keySet()) {
-                    addConfigNode(nodes.get(name), onode);
+                for (AbstractConfigNode child : nodes.values()) {
+                    addConfigNode(child, generator, false);
                 }
             }
         }
+        generator.writeEndObject();
     }
 
     /**
      * Add the List (Array) node and the List elements.
      *
-     * @param node   - Element List Node.
-     * @param parent - Parent JSON node.
+     * @param node      - Element List Node.
+     * @param generator - JSON generator.
      * @throws ConfigurationException
+     * @throws IOException
      */
-    private void addListNode(ConfigListElementNode node,
-                             ObjectNode parent) throws ConfigurationException {
-        if (Strings.isNullOrEmpty(node.getName())) {
-            throw ConfigurationException.propertyNotFoundException(
-                    JSONConfigConstants.CONFIG_HEADER_NAME);
-        }
-        ArrayNode array = parent.putArray(node.getName());
+    private void addListNode(ConfigListElementNode node, JsonGenerator generator)
+    throws ConfigurationException, IOException {
+        generator.writeStartArray();
         List<ConfigElementNode> values = node.getValues();
         if (values != null && !values.isEmpty()) {
             for (ConfigElementNode vn : values) {
-                addConfigNode(vn, array);
+                addConfigNode(vn, generator, true);
             }
         }
+        generator.writeEndArray();
     }
 
     /**
-     * Add a configuration value node to the parent node passed.
+     * Add the configuration header node.
      *
-     * @param value - Configuration value node.
-     * @param node  - Parent JSON node.
+     * @param configuration - Configuration instance.
+     * @param generator     - JSON generator (in the root object).
      * @throws ConfigurationException
+     * @throws IOException
      */
-    private void addConfigValue(ConfigValueNode value, JsonNode node)
-    throws ConfigurationException {
-        if (node.getNodeType() == JsonNodeType.ARRAY) {
-            ArrayNode array = (ArrayNode) node;
-            array.add(value.getValue());
-        } else if (node.getNodeType() == JsonNodeType.OBJECT) {
-            ObjectNode onode = (ObjectNode) node;
-            onode.put(value.getName(), value.getValue());
-        } else {
-            throw new ConfigurationException(String.format(
-                    "Cannot add node to parent. [config node=%s][parent=%s]",
-                    value.getClass().getCanonicalName(),
-                    node.getNodeType().name()));
-        }
+    private void addConfigHeader(Configuration configuration,
+                                 JsonGenerator generator)
+    throws ConfigurationException, IOException {
+        generator.writeFieldName(JSONConfigConstants.CONFIG_HEADER_NODE);
+        addHeaderValue(configuration, generator);
     }
 
     /**
-     * Add the configuration header node.
+     * Add the configuration header object.
      *
      * @param configuration - Configuration instance.
-     * @param node          - Root node to add the header to.
+     * @param generator     - JSON generator.
      * @throws ConfigurationException
+     * @throws IOException
      */
-    private void addConfigHeader(Configuration configuration, ObjectNode node)
-    throws ConfigurationException {
-        ObjectNode header = node.putObject(JSONConfigConstants.CONFIG_HEADER_NODE);
+    protected void addHeaderValue(Configuration configuration,
+                                  JsonGenerator generator)
+    throws ConfigurationException, IOException {
         if (Strings.isNullOrEmpty(configuration.getName())) {
             throw ConfigurationException.propertyNotFoundException(
                     JSONConfigConstants.CONFIG_HEADER_NAME);
         }
-        header.put(JSONConfigConstants.CONFIG_HEADER_NAME, configuration.getName());
         if (configuration.getVersion() == null) {
             throw ConfigurationException.propertyNotFoundException(
                     JSONConfigConstants.CONFIG_HEADER_VERSION);
         }
-        header.put(JSONConfigConstants.CONFIG_HEADER_VERSION,
-                   configuration.getVersion().toString());
+        generator.writeStartObject();
+        writeOptionalField(JSONConfigConstants.CONFIG_HEADER_ID,
+                           configuration.getId(), generator);
+        writeOptionalField(JSONConfigConstants.CONFIG_HEADER_GROUP,
+                           configuration.getApplicationGroup(), generator);
+        writeOptionalField(JSONConfigConstants.CONFIG_HEADER_APP,
+                           configuration.getApplication(), generator);
+        generator.writeStringField(JSONConfigConstants.CONFIG_HEADER_NAME,
+                                   configuration.getName());
+        generator.writeStringField(JSONConfigConstants.CONFIG_HEADER_VERSION,
+                                   configuration.getVersion().toString());
         addUpdateInfo(configuration.getCreatedBy(),
-                      JSONConfigConstants.CONFIG_CREATED_BY, header);
+                      JSONConfigConstants.CONFIG_CREATED_BY, generator);
         addUpdateInfo(configuration.getUpdatedBy(),
-                      JSONConfigConstants.CONFIG_UPDATED_BY, header);
+                      JSONConfigConstants.CONFIG_UPDATED_BY, generator);
         if (!Strings.isNullOrEmpty(configuration.getDescription())) {
-            header.put(JSONConfigConstants.CONFIG_HEADER_DESC,
-                       configuration.getDescription());
+            generator.writeStringField(JSONConfigConstants.CONFIG_HEADER_DESC,
+                                       configuration.getDescription());
         }
+        writeOptionalField(JSONConfigConstants.CONFIG_HEADER_PASSWD_HASH,
+                           configuration.getEncryptionHash(), generator);
+        generator.writeEndObject();
     }
 
     /**
-     * Added the Updation Info to the parent node specified.
+     * Write the string field, if the value is set.
+     *
+     * @param name      - Field name.
+     * @param value     - Field value.
+     * @param generator - JSON generator (in an object).
+     * @throws IOException
+     */
+    private void writeOptionalField(String name, String value,
+                                    JsonGenerator generator) throws IOException {
+        if (!Strings.isNullOrEmpty(value)) {
+            generator.writeStringField(name, value);
+        }
+    }
+
+    /**
+     * Added the Updation Info to the parent object.
      *
      * @param updateInfo - Updation Information
      * @param name       - Name of the node to create.
-     * @param parent     - Parent node to add to.
+     * @param generator  - JSON generator (in an object).
      * @throws ConfigurationException
+     * @throws IOException
      */
     private void addUpdateInfo(ModifiedBy updateInfo, String name,
-                               ObjectNode parent) throws ConfigurationException {
+                               JsonGenerator generator)
+    throws ConfigurationException, IOException {
         if (updateInfo == null) {
             throw ConfigurationException.propertyNotFoundException(name);
         }
-        ObjectNode node = parent.putObject(name);
         if (Strings.isNullOrEmpty(updateInfo.getModifiedBy())) {
             throw ConfigurationException.propertyNotFoundException(
                     JSONConfigConstants.CONFIG_UPDATE_OWNER);
         }
-        node.put(JSONConfigConstants.CONFIG_UPDATE_OWNER,
-                 updateInfo.getModifiedBy());
-
-        node.put(JSONConfigConstants.CONFIG_UPDATE_TIMESTAMP,
-                 DateTimeUtils.toString(updateInfo.getTimestamp()));
+        generator.writeObjectFieldStart(name);
+        generator.writeStringField(JSONConfigConstants.CONFIG_UPDATE_OWNER,
+                                   updateInfo.getModifiedBy());
+        generator.writeStringField(JSONConfigConstants.CONFIG_UPDATE_TIMESTAMP,
+                                   String.valueOf(
+                                           updateInfo.getTimestamp()));
+        generator.writeEndObject();
     }
 }
@@ -0,0 +1,582 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ * Copyright (c) $year
+ * Date: 18/10/26 2:15 AM
+ * Subho Ghosh (subho dot ghosh at outlook.com)
+ *
+ */
+
+package com.codekutter.zconfig.common.writers;
+
+import com.codekutter.zconfig.common.ConfigurationException;
+import com.codekutter.zconfig.common.JSONConfigConstants;
+import com.codekutter.zconfig.common.LogUtils;
+import com.codekutter.zconfig.common.model.Configuration;
+import com.codekutter.zconfig.common.model.nodes.*;
+import com.codekutter.zconfig.common.utils.IOUtils;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.common.base.Preconditions;
+import com.google.common.base.Strings;
+
+import javax.annotation.Nonnull;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * JSON configuration writer that only writes the changes made since the
+ * configuration was last synced.
+ * <p>
+ * The modified sub-trees (based on the node states) are appended as a JSON
+ * Patch (RFC 6902) document, one per line, to the patch file
+ * ([config_name]_[instance_id].json.patch) next to the base JSON file. Once
+ * the patch file grows beyond the compaction ratio of the base file, the
+ * complete configuration is written to the base file and the patch file is
+ * removed.
+ * <p>
+ * Patches are relative to the base file, the configuration being written
+ * must have been loaded from (or last written to) the base file. As the
+ * instance ID changes when the configuration is re-loaded, the base file can
+ * be passed as the output location. Use {@link #merge(File)} to apply the
+ * patches before loading the base file.
+ */
+public class JSONPatchConfigWriter extends JSONFileConfigWriter {
+    /**
+     * Extension of the patch file (appended to the base file name).
+     */
+    public static final String PATCH_FILE_EXT = ".patch";
+    /**
+     * Default compaction ratio (patch size / base size).
+     */
+    public static final double DEFAULT_COMPACT_RATIO = 0.25;
+
+    private static final String JSON_FILE_EXT = ".json";
+
+    private static final String PATCH_OP = "op";
+    private static final String PATCH_PATH = "path";
+    private static final String PATCH_VALUE = "value";
+    private static final String PATCH_OP_ADD = "add";
+    private static final String PATCH_OP_REPLACE = "replace";
+    private static final String PATCH_OP_REMOVE = "remove";
+
+    /**
+     * JSON Object Mapper instance.
+     */
+    private static final ObjectMapper mapper = new ObjectMapper();
+
+    /**
+     * Patch size (ratio of the base file size) beyond which the patches are
+     * compacted into the base file.
+     */
+    private double compactRatio = DEFAULT_COMPACT_RATIO;
+
+    /**
+     * Get the compaction ratio (patch size / base size).
+     *
+     * @return - Compaction ratio.
+     */
+    public double getCompactRatio() {
+        return compactRatio;
+    }
+
+    /**
+     * Set the compaction ratio (patch size / base size).
+     *
+     * @param compactRatio - Compaction ratio.
+     */
+    public void setCompactRatio(double compactRatio) {
+        Preconditions.checkArgument(compactRatio > 0);
+        this.compactRatio = compactRatio;
+    }
+
+    /**
+     * Get the base file, the output location is either the base JSON file or
+     * the output directory.
+     *
+     * @param configuration - Configuration handle to serialize.
+     * @param path          - Output location (base file or directory).
+     * @return - Base file handle.
+     * @throws ConfigurationException
+     */
+    @Override
+    protected File getOutputFile(Configuration configuration, String path)
+    throws ConfigurationException {
+        File file = new File(path);
+        if (file.isFile() || (path.endsWith(JSON_FILE_EXT) &&
+                file.getAbsoluteFile().getParentFile().isDirectory())) {
+            return file.getAbsoluteFile();
+        }
+        return super.getOutputFile(configuration, path);
+    }
+
+    /**
+     * Write the changes to the configuration as a patch to the base JSON file
+     * at the specified output location. The complete configuration is written
+     * if the base file doesn't exist or the patch file is to be compacted.
+     * <p>
+     * The configuration nodes are marked as synced once written.
+     *
+     * @param configuration - Configuration handle to serialize.
+     * @param path          - Output location (base file or directory).
+     * @return - Return the path of the base file.
+     * @throws ConfigurationException
+     */
+    @Override
+    public String write(Configuration configuration, String path)
+    throws ConfigurationException {
+        Preconditions.checkArgument(configuration != null);
+        Preconditions.checkArgument(!Strings.isNullOrEmpty(path));
+
+        File outfile = getOutputFile(configuration, path);
+        File patchfile = getPatchFile(outfile);
+        ConfigPathNode rootNode = configuration.getRootConfigNode();
+        if (!outfile.exists() || !isPersisted(rootNode)) {
+            compact(configuration, outfile, patchfile);
+        } else {
+            byte[] patch = createPatch(configuration);
+            if (patch != null) {
+                appendPatch(patchfile, patch);
+                if (patchfile.length() > outfile.length() * compactRatio) {
+                    compact(configuration, outfile, patchfile);
+                }
+            }
+        }
+        rootNode.loaded();
+
+        return outfile.getAbsolutePath();
+    }
+
+    /**
+     * Write the complete configuration to the base file and remove the patch
+     * file.
+     *
+     * @param configuration - Configuration to serialize.
+     * @param outfile       - Base file handle.
+     * @param patchfile     - Patch file handle.
+     * @throws ConfigurationException
+     */
+    private void compact(Configuration configuration, File outfile,
+                         File patchfile) throws ConfigurationException {
+        serializeToJson(configuration, outfile);
+        deletePatch(patchfile);
+        LogUtils.debug(getClass(), String.format(
+                "Compacted configuration. [path=%s]", outfile.getAbsolutePath()));
+    }
+
+    /**
+     * Create the patch document (single line) with the changes since the
+     * configuration was last synced.
+     *
+     * @param configuration - Configuration to serialize.
+     * @return - Patch document or NULL if nothing has changed.
+     * @throws ConfigurationException
+     */
+    private byte[] createPatch(Configuration configuration)
+    throws ConfigurationException {
+        ConfigPathNode rootNode = configuration.getRootConfigNode();
+        try {
+            ByteArrayOutputStream output = new ByteArrayOutputStream();
+            int count;
+            try (JsonGenerator generator = mapper.getFactory()
+                                                 .createGenerator(output,
+                                                                  JsonEncoding.UTF8)) {
+                generator.writeStartArray();
+                count = addPatchOps(rootNode, "/" + escape(rootNode.getName()),
+                                    generator);
+                if (count > 0) {
+                    generator.writeStartObject();
+                    generator.writeStringField(PATCH_OP, PATCH_OP_REPLACE);
+                    generator.writeStringField(PATCH_PATH, "/" + escape(
+                            JSONConfigConstants.CONFIG_HEADER_NODE));
+                    generator.writeFieldName(PATCH_VALUE);
+                    addHeaderValue(configuration, generator);
+                    generator.writeEndObject();
+                }
+                generator.writeEndArray();
+            }
+            if (count == 0) {
+                return null;
+            }
+            output.write('\n');
+            return output.toByteArray();
+        } catch (IOException e) {
+            throw new ConfigurationException(e);
+        }
+    }
+
+    /**
+     * Add the patch operations for the changes to the (persisted) path node.
+     * New child nodes are added, modified value/list nodes are replaced and
+     * removed child nodes are removed, path nodes are processed recursively.
+     *
+     * @param node      - Persisted path node.
+     * @param pointer   - JSON pointer to the path node.
+     * @param generator - JSON generator (in the patch array).
+     * @return - Number of operations added.
+     * @throws ConfigurationException
+     * @throws IOException
+     */
+    private int addPatchOps(ConfigPathNode node, String pointer,
+                            JsonGenerator generator)
+    throws ConfigurationException, IOException {
+        int count = 0;
+        Map<String, AbstractConfigNode> children = node.getChildren();
+        for (String name : node.getRemovedChildren()) {
+            // Re-added nodes are added (replacing the removed node).
+            if (children == null || !children.containsKey(name)) {
+                generator.writeStartObject();
+                generator.writeStringField(PATCH_OP, PATCH_OP_REMOVE);
+                generator.writeStringField(PATCH_PATH,
+                                           pointer + "/" + escape(name));
+                generator.writeEndObject();
+                count++;
+            }
+        }
+        if (children != null && !children.isEmpty()) {
+            for (AbstractConfigNode child : children.values()) {
+                if (!isWritable(child, false)) {
+                    continue;
+                }
+                String path = pointer + "/" + escape(child.getName());
+                if (!isPersisted(child)) {
+                    addPatchOp(PATCH_OP_ADD, path, child, generator);
+                    count++;
+                } else if (child instanceof ConfigPathNode) {
+                    count += addPatchOps((ConfigPathNode) child, path, generator);
+                } else if (isModified(child)) {
+                    addPatchOp(PATCH_OP_REPLACE, path, child, generator);
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Add a patch operation with the node value.
+     *
+     * @param op        - Patch operation.
+     * @param path      - JSON pointer to the node.
+     * @param node      - Configuration node.
+     * @param generator - JSON generator (in the patch array).
+     * @throws ConfigurationException
+     * @throws IOException
+     */
+    private void addPatchOp(String op, String path, AbstractConfigNode node,
+                            JsonGenerator generator)
+    throws ConfigurationException, IOException {
+        generator.writeStartObject();
+        generator.writeStringField(PATCH_OP, op);
+        generator.writeStringField(PATCH_PATH, path);
+        generator.writeFieldName(PATCH_VALUE);
+        addNodeValue(node, generator);
+        generator.writeEndObject();
+    }
+
+    /**
+     * Check if the node is present in the base file (synced or updated).
+     *
+     * @param node - Configuration node.
+     * @return - Is persisted?
+     */
+    private static boolean isPersisted(AbstractConfigNode node) {
+        return (node.getState().isSynced() || node.getState().isUpdated());
+    }
+
+    /**
+     * Check if the node (or any of the child nodes/values) has been modified
+     * since it was last synced.
+     *
+     * @param node - Configuration node.
+     * @return - Is modified?
+     */
+    private static boolean isModified(AbstractConfigNode node) {
+        if (!node.getState().isSynced()) {
+            return true;
+        }
+        if (node instanceof ConfigPathNode) {
+            ConfigPathNode pnode = (ConfigPathNode) node;
+            if (!pnode.getRemovedChildren().isEmpty()) {
+                return true;
+            }
+            if (pnode.getChildren() != null) {
+                for (AbstractConfigNode child : pnode.getChildren().values()) {
+                    if (isWritable(child, false) && isModified(child)) {
+                        return true;
+                    }
+                }
+            }
+        } else if (node instanceof ConfigKeyValueNode) {
+            Map<String, ConfigValueNode> values =
+                    ((ConfigKeyValueNode) node).getKeyValues();
+            if (values != null) {
+                for (ConfigValueNode value : values.values()) {
+                    if (isModified(value)) {
+                        return true;
+                    }
+                }
+            }
+        } else if (node instanceof ConfigListNode) {
+            List<?> values = ((ConfigListNode<?>) node).getValues();
+            if (values != null) {
+                for (Object value : values) {
+                    if (isModified((AbstractConfigNode) value)) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Append the patch document to the patch file. A partially written
+     * (last) line from a failed write is truncated.
+     *
+     * @param patchfile - Patch file handle.
+     * @param patch     - Patch document (line).
+     * @throws ConfigurationException
+     */
+    private void appendPatch(File patchfile, byte[] patch)
+    throws ConfigurationException {
+        try (FileChannel channel = FileChannel.open(patchfile.toPath(),
+                                                    StandardOpenOption.CREATE,
+                                                    StandardOpenOption.READ,
+                                                    StandardOpenOption.WRITE)) {
+            long size = getLineEnd(channel);
+            if (size < channel.size()) {
+                LogUtils.warn(getClass(), String.format(
+                        "Truncating incomplete patch. [path=%s][size=%d]",
+                        patchfile.getAbsolutePath(), channel.size() - size));
+                channel.truncate(size);
+            }
+            channel.position(size);
+            ByteBuffer buffer = ByteBuffer.wrap(patch);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+        } catch (IOException e) {
+            throw new ConfigurationException(e);
+        }
+    }
+
+    /**
+     * Get the end position of the last complete line of the file.
+     *
+     * @param channel - File channel.
+     * @return - Position after the last line separator.
+     * @throws IOException
+     */
+    private static long getLineEnd(FileChannel channel) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(4096);
+        long end = channel.size();
+        while (end > 0) {
+            long start = Math.max(0, end - buffer.capacity());
+            buffer.clear().limit((int) (end - start));
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, start + buffer.position()) < 0) {
+                    break;
+                }
+            }
+            for (int ii = buffer.position() - 1; ii >= 0; ii--) {
+                if (buffer.get(ii) == '\n') {
+                    return start + ii + 1;
+                }
+            }
+            end = start;
+        }
+        return 0;
+    }
+
+    /**
+     * Read the base JSON file and apply the patches (if any).
+     *
+     * @param outfile - Base file handle.
+     * @return - Patched JSON tree.
+     * @throws ConfigurationException
+     */
+    public static JsonNode read(@Nonnull File outfile)
+    throws ConfigurationException {
+        Preconditions.checkArgument(outfile != null);
+        try {
+            JsonNode root = mapper.readTree(outfile);
+            File patchfile = getPatchFile(outfile);
+            if (patchfile.exists()) {
+                List<String> lines = Files.readAllLines(patchfile.toPath(),
+                                                        StandardCharsets.UTF_8);
+                for (int ii = 0; ii < lines.size(); ii++) {
+                    String line = lines.get(ii);
+                    if (Strings.isNullOrEmpty(line)) {
+                        continue;
+                    }
+                    JsonNode patch;
+                    try {
+                        patch = mapper.readTree(line);
+                    } catch (JsonProcessingException e) {
+                        if (ii == lines.size() - 1) {
+                            // Incomplete last patch (failed write).
+                            LogUtils.warn(JSONPatchConfigWriter.class, String.format(
+                                    "Ignoring incomplete patch. [path=%s]",
+                                    patchfile.getAbsolutePath()));
+                            break;
+                        }
+                        throw new ConfigurationException(String.format(
+                                "Invalid patch. [path=%s][line=%d]",
+                                patchfile.getAbsolutePath(), ii + 1), e);
+                    }
+                    applyPatch(root, patch);
+                }
+            }
+            return root;
+        } catch (IOException e) {
+            throw new ConfigurationException(e);
+        }
+    }
+
+    /**
+     * Apply the patches (if any) to the base JSON file and remove the patch
+     * file.
+     *
+     * @param outfile - Base file handle.
+     * @return - Are patches applied?
+     * @throws ConfigurationException
+     */
+    public static boolean merge(@Nonnull File outfile)
+    throws ConfigurationException {
+        Preconditions.checkArgument(outfile != null);
+        File patchfile = getPatchFile(outfile);
+        if (!patchfile.exists()) {
+            return false;
+        }
+        JsonNode root = read(outfile);
+        File tmpfile = new File(String.format("%s.%s.tmp", outfile.getAbsolutePath(),
+                                              UUID.randomUUID().toString()));
+        try {
+            mapper.writerWithDefaultPrettyPrinter().writeValue(tmpfile, root);
+            IOUtils.moveFile(tmpfile, outfile);
+        } catch (IOException e) {
+            throw new ConfigurationException(e);
+        } finally {
+            if (tmpfile.exists() && !tmpfile.delete()) {
+                tmpfile.deleteOnExit();
+            }
+        }
+        deletePatch(patchfile);
+        return true;
+    }
+
+    /**
+     * Apply the patch operations to the JSON tree.
+     *
+     * @param root  - JSON tree.
+     * @param patch - Patch document (array of operations).
+     * @throws ConfigurationException
+     */
+    private static void applyPatch(JsonNode root, JsonNode patch)
+    throws ConfigurationException {
+        if (!patch.isArray()) {
+            throw new ConfigurationException("Invalid patch : Expected an array.");
+        }
+        for (JsonNode op : patch) {
+            String path = op.path(PATCH_PATH).asText();
+            List<String> tokens = parsePointer(path);
+            if (tokens.isEmpty()) {
+                throw new ConfigurationException(String.format(
+                        "Invalid patch path. [path=%s]", path));
+            }
+            JsonNode parent = root;
+            for (int ii = 0; ii < tokens.size() - 1 && parent != null; ii++) {
+                parent = parent.get(tokens.get(ii));
+            }
+            if (!(parent instanceof ObjectNode)) {
+                throw new ConfigurationException(String.format(
+                        "Invalid patch path : Parent not found. [path=%s]", path));
+            }
+            String name = tokens.get(tokens.size() - 1);
+            String type = op.path(PATCH_OP).asText();
+            if (PATCH_OP_ADD.equals(type) || PATCH_OP_REPLACE.equals(type)) {
+                ((ObjectNode) parent).set(name, op.get(PATCH_VALUE));
+            } else if (PATCH_OP_REMOVE.equals(type)) {
+                ((ObjectNode) parent).remove(name);
+            } else {
+                throw new ConfigurationException(String.format(
+                        "Invalid patch operation. [op=%s]", type));
+            }
+        }
+    }
+
+    /**
+     * Get the patch file for the base file.
+     *
+     * @param outfile - Base file handle.
+     * @return - Patch file handle.
+     */
+    public static File getPatchFile(@Nonnull File outfile) {
+        return new File(outfile.getAbsolutePath() + PATCH_FILE_EXT);
+    }
+
+    private static void deletePatch(File patchfile) throws ConfigurationException {
+        if (patchfile.exists() && !patchfile.delete()) {
+            throw new ConfigurationException(String.format(
+                    "Error deleting patch file. [path=%s]",
+                    patchfile.getAbsolutePath()));
+        }
+    }
+
+    /**
+     * Escape the name as a JSON pointer token.
+     *
+     * @param name - Node name.
+     * @return - Escaped token.
+     */
+    private static String escape(String name) {
+        return name.replace("~", "~0").replace("/", "~1");
+    }
+
+    /**
+     * Parse the JSON pointer into the (unescaped) tokens.
+     *
+     * @param pointer - JSON pointer.
+     * @return - List of tokens.
+     */
+    private static List<String> parsePointer(String pointer) {
+        List<String> tokens = new ArrayList<>();
+        if (!Strings.isNullOrEmpty(pointer) && pointer.charAt(0) == '/') {
+            for (String token : pointer.substring(1).split("/", -1)) {
+                tokens.add(token.replace("~1", "/").replace("~0", "~"));
+            }
+        }
+        return tokens;
+    }
+}
@@ -170,4 +170,30 @@ class Test_ConfigurationAnnotationProcessor {
             fail(t.getLocalizedMessage());
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    void cachedBindingPlan() {
+        try {
+            assertNotNull(configuration);
+            ConfigBindingPlan plan =
+                    ConfigBindingPlan.get(ConfigAnnotationsTest.class);
+            assertSame(plan, ConfigBindingPlan.get(ConfigAnnotationsTest.class));
+            assertEquals("configuration/node_1/node_2", plan.getPath());
+            assertEquals(8, plan.getFields().size());
+            assertEquals(3, plan.getMethods().size());
+            assertNotNull(plan.getConstructor());
+
+            // Binding uses (and doesn't replace) the cached plan.
+            assertNotNull(ConfigurationAnnotationProcessor
+                                  .readConfigAnnotations(
+                                          ConfigAnnotationsTest.class,
+                                          configuration));
+            assertSame(plan, ConfigBindingPlan.get(ConfigAnnotationsTest.class));
+            assertNotSame(plan,
+                          ConfigBindingPlan.create(ConfigAnnotationsTest.class));
+        } catch (Throwable t) {
+            LogUtils.error(getClass(), t);
+            fail(t.getLocalizedMessage());
+        }
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ * Copyright (c) $year
+ * Date: 17/10/26 2:40 PM
+ * Subho Ghosh (subho dot ghosh at outlook.com)
+ *
+ */
+
+package com.codekutter.zconfig.common;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.codekutter.zconfig.common.LogUtils.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class Test_VariableTemplate {
+
+    @Test
+    void compile() {
+        try {
+            VariableTemplate template =
+                    VariableTemplate.compile("This is a ${test} ${value} which has ${three} variables.");
+            assertTrue(template.hasVariables());
+            List<String> vars = template.getVariables();
+            assertEquals(3, vars.size());
+            assertEquals("test", vars.get(0));
+            assertEquals("three", vars.get(2));
+
+            assertFalse(VariableTemplate.compile("No variables here.").hasVariables());
+            assertFalse(VariableTemplate.compile("Unclosed ${variable").hasVariables());
+            assertFalse(VariableTemplate.compile("Empty ${} variable").hasVariables());
+        } catch (Throwable t) {
+            error(getClass(), t);
+            fail(t);
+        }
+    }
+
+    @Test
+    void apply() {
+        try {
+            Map<String, String> values = new HashMap<>();
+            values.put("test", "TEST");
+            values.put("value", "$1\\value");
+            values.put("empty", "");
+
+            String source = "${test}: ${value}, ${test} ${missing} ${empty}.";
+            VariableTemplate template = VariableTemplate.compile(source);
+            assertEquals("TEST: $1\\value, TEST ${missing} ${empty}.",
+                         template.apply(values::get));
+
+            source = "Nothing ${missing} to replace.";
+            assertSame(source, VariableTemplate.compile(source).apply(values::get));
+            source = "${} is not a variable, ${test} is.";
+            assertEquals("${} is not a variable, TEST is.",
+                         VariableTemplate.compile(source).apply(values::get));
+        } catch (Throwable t) {
+            error(getClass(), t);
+            fail(t);
+        }
+    }
+}
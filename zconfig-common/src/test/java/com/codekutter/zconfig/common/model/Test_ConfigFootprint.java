@@ -0,0 +1,121 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ * Copyright (c) $year
+ * Date: 17/10/26 11:40 AM
+ * Subho Ghosh (subho dot ghosh at outlook.com)
+ *
+ */
+
+package com.codekutter.zconfig.common.model;
+
+import com.codekutter.zconfig.common.ConfigProviderFactory;
+import com.codekutter.zconfig.common.ConfigTestConstants;
+import com.codekutter.zconfig.common.model.nodes.*;
+import com.codekutter.zconfig.common.parsers.JSONConfigParser;
+import com.codekutter.zconfig.common.readers.ConfigFileReader;
+import com.google.common.base.Strings;
+import org.junit.jupiter.api.Test;
+
+import java.io.FileInputStream;
+import java.util.Properties;
+
+import static com.codekutter.zconfig.common.LogUtils.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class Test_ConfigFootprint {
+    private static final String BASE_PROPS_FILE =
+            "src/test/resources/json/test-config.properties";
+
+    private Configuration load() throws Exception {
+        JSONConfigParser parser =
+                (JSONConfigParser) ConfigProviderFactory.parser(
+                        ConfigProviderFactory.EConfigType.JSON);
+        assertNotNull(parser);
+
+        Properties properties = new Properties();
+        properties.load(new FileInputStream(BASE_PROPS_FILE));
+
+        String filename = properties.getProperty(
+                ConfigTestConstants.PROP_CONFIG_FILE);
+        assertFalse(Strings.isNullOrEmpty(filename));
+        Version version = Version.parse(
+                properties.getProperty(ConfigTestConstants.PROP_CONFIG_VERSION));
+
+        try (ConfigFileReader reader = new ConfigFileReader(filename)) {
+            ConfigurationSettings settings = new ConfigurationSettings();
+            settings.setCompactOnLoad(false);
+            parser.parse("test-config", reader, settings, version, null);
+            Configuration configuration = parser.getConfiguration();
+            assertNotNull(configuration);
+            return configuration;
+        }
+    }
+
+    @Test
+    void compact() {
+        try {
+            Configuration configuration = load();
+            String path = "configuration/node_1/node_2/node_3";
+            AbstractConfigNode node = configuration.find(path);
+            assertTrue(node instanceof ConfigPathNode);
+            assertFalse(node.getState().isShared());
+
+            ConfigFootprint before =
+                    ConfigFootprint.measure(configuration.getRootConfigNode());
+            configuration.compact();
+            ConfigFootprint after =
+                    ConfigFootprint.measure(configuration.getRootConfigNode());
+            info(getClass(), before.compare(after));
+
+            assertEquals(before.getNodeCount(), after.getNodeCount());
+            assertTrue(after.getBytesPerNode() < before.getBytesPerNode());
+            assertTrue(after.getStateBytes() < before.getStateBytes());
+
+            ConfigPathNode pnode = (ConfigPathNode) node;
+            assertTrue(pnode.getChildren() instanceof CompactNodeMap);
+            assertTrue(pnode.getState().isShared());
+            assertTrue(pnode.getState().isSynced());
+            assertSame(node, configuration.find(path));
+            for (String key : pnode.getChildren().keySet()) {
+                AbstractConfigNode child = pnode.getChildNode(key);
+                assertNotNull(child);
+                assertSame(key, child.getName());
+            }
+
+            ConfigParametersNode params = (ConfigParametersNode) configuration
+                    .find("configuration/node_1/node_2#");
+            assertNotNull(params);
+            assertTrue(params.getKeyValues() instanceof CompactNodeMap);
+            assertNotNull(params.getValue("PARAM_4"));
+
+            // Updates are supported on compacted nodes.
+            ConfigValueNode value = new ConfigValueNode(configuration, null);
+            value.setName("ADDED_PARAM");
+            value.setValue("ADDED");
+            params.addKeyValue(value);
+            assertSame(value, params.getValue("ADDED_PARAM"));
+            assertTrue(params.getState().isUpdated());
+            assertFalse(params.getState().isShared());
+            assertTrue(pnode.getState().isShared());
+        } catch (Throwable e) {
+            error(getClass(), e);
+            fail(e);
+        }
+    }
+}
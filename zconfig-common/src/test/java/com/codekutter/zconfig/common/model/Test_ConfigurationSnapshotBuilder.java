@@ -0,0 +1,245 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ * Copyright (c) $year
+ * Date: 16/10/26 6:05 PM
+ * Subho Ghosh (subho dot ghosh at outlook.com)
+ *
+ */
+
+package com.codekutter.zconfig.common.model;
+
+import com.codekutter.zconfig.common.ConfigProviderFactory;
+import com.codekutter.zconfig.common.ConfigTestConstants;
+import com.codekutter.zconfig.common.model.nodes.*;
+import com.codekutter.zconfig.common.parsers.JSONConfigParser;
+import com.codekutter.zconfig.common.readers.ConfigFileReader;
+import com.google.common.base.Strings;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.FileInputStream;
+import java.util.Properties;
+
+import static com.codekutter.zconfig.common.LogUtils.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class Test_ConfigurationSnapshotBuilder {
+    private static final String BASE_PROPS_FILE =
+            "src/test/resources/json/test-config.properties";
+    private static Configuration configuration = null;
+
+    @BeforeAll
+    static void init() throws Exception {
+        JSONConfigParser parser =
+                (JSONConfigParser) ConfigProviderFactory.parser(
+                        ConfigProviderFactory.EConfigType.JSON);
+        assertNotNull(parser);
+
+        Properties properties = new Properties();
+        properties.load(new FileInputStream(BASE_PROPS_FILE));
+
+        String filename = properties.getProperty(
+                ConfigTestConstants.PROP_CONFIG_FILE);
+        assertFalse(Strings.isNullOrEmpty(filename));
+        String vs = properties.getProperty(ConfigTestConstants.PROP_CONFIG_VERSION);
+        assertFalse(Strings.isNullOrEmpty(vs));
+        Version version = Version.parse(vs);
+        assertNotNull(version);
+
+        try (ConfigFileReader reader = new ConfigFileReader(filename)) {
+            ConfigurationSettings settings = new ConfigurationSettings();
+            settings.setDownloadRemoteFiles(
+                    ConfigurationSettings.EStartupOptions.OnStartUp);
+            parser.parse("test-config", reader, settings, version, null);
+            configuration = parser.getConfiguration();
+            assertNotNull(configuration);
+        }
+    }
+
+    @Test
+    void editValue() {
+        try {
+            String path = "configuration/node_1/node_2#PARAM_4";
+            ConfigurationSnapshotBuilder builder =
+                    new ConfigurationSnapshotBuilder(configuration);
+            AbstractConfigNode node = builder.getConfiguration().find(path);
+            assertTrue(node instanceof ConfigValueNode);
+            ConfigValueNode vn = builder.edit((ConfigValueNode) node);
+            assertNotSame(node, vn);
+            vn.setValue("UPDATED_PARAM_4");
+
+            // Un-changed sub-trees are shared while the update is applied.
+            String spath = "configuration/node_1/node_2/node_3";
+            assertSame(configuration.find(spath),
+                       builder.getConfiguration().find(spath));
+
+            Configuration snapshot = builder.build();
+            assertNotSame(configuration, snapshot);
+            assertEquals("TEST_PARAM_4",
+                         ((ConfigValueNode) configuration.find(path)).getValue());
+            assertEquals("UPDATED_PARAM_4",
+                         ((ConfigValueNode) snapshot.find(path)).getValue());
+
+            // The built snapshot doesn't share nodes with the source.
+            assertNotSame(configuration.find(spath), snapshot.find(spath));
+            assertSame(snapshot, snapshot.find(spath).getConfiguration());
+            assertNotSame(configuration.find("configuration/node_1/node_2"),
+                          snapshot.find("configuration/node_1/node_2"));
+            debug(getClass(), snapshot.find(path));
+        } catch (Throwable e) {
+            error(getClass(), e);
+            fail(e);
+        }
+    }
+
+    @Test
+    void addAndRemove() {
+        try {
+            String path = "configuration/node_1/node_2#SNAPSHOT_TEST";
+            String ppath = "configuration/node_1/node_2/parameters";
+            ConfigurationSnapshotBuilder builder =
+                    new ConfigurationSnapshotBuilder(configuration);
+            ConfigParametersNode params = builder.edit(
+                    (ConfigParametersNode) configuration.find(ppath));
+            params.addKeyValue("SNAPSHOT_TEST", "snapshot value");
+            Configuration added = builder.build();
+            assertNull(configuration.find(path));
+            assertTrue(added.find(path) instanceof ConfigValueNode);
+
+            builder = new ConfigurationSnapshotBuilder(added);
+            params = builder.edit((ConfigParametersNode) added.find(ppath));
+            assertTrue(params.removeKeyValue("SNAPSHOT_TEST"));
+            Configuration removed = builder.build();
+            assertNull(removed.find(path));
+            assertNotNull(added.find(path));
+            assertNotNull(removed.find("configuration/node_1/node_2#PARAM_4"));
+        } catch (Throwable e) {
+            error(getClass(), e);
+            fail(e);
+        }
+    }
+
+    @Test
+    void updateProperty() {
+        try {
+            String ppath = "configuration/properties";
+            String spath = "configuration/node_1/node_2/node_3";
+            ConfigurationSnapshotBuilder builder =
+                    new ConfigurationSnapshotBuilder(configuration);
+            ConfigPropertiesNode props = builder.edit(
+                    (ConfigPropertiesNode) configuration.find(ppath));
+            props.addKeyValue("PROP_1", "UPDATED_PROP_1");
+            Configuration snapshot = builder.build();
+
+            // Properties are resolved through the nodes of the snapshot.
+            AbstractConfigNode node = snapshot.find(spath);
+            assertNotNull(node);
+            assertNotSame(configuration.find(spath), node);
+            assertEquals("UPDATED_PROP_1",
+                         snapshot.resolvedScope(node).getValue("PROP_1"));
+            assertEquals("UPDATED_PROP_1",
+                         snapshot.resolvedProperties(node).getValue("PROP_1")
+                                 .getValue());
+            AbstractConfigNode source = configuration.find(spath);
+            assertEquals("TEST_PROP_1",
+                         configuration.resolvedScope(source).getValue("PROP_1"));
+
+            // Nodes of the snapshot don't reference the earlier version.
+            AbstractConfigNode pnode = node;
+            while (pnode.getParent() != null) {
+                assertSame(snapshot, pnode.getConfiguration());
+                pnode = pnode.getParent();
+            }
+            assertSame(snapshot.getRootConfigNode(), pnode);
+            assertSame(node, snapshot.find(spath));
+        } catch (Throwable e) {
+            error(getClass(), e);
+            fail(e);
+        }
+    }
+
+    @Test
+    void sharedNodesCopied() {
+        try {
+            String path = "configuration/node_1/node_2#PARAM_2";
+            String spath = "configuration/node_1/node_2/node_3/node_4";
+            ConfigurationSnapshotBuilder builder =
+                    new ConfigurationSnapshotBuilder(configuration);
+            ConfigValueNode vn = builder.edit(
+                    (ConfigValueNode) configuration.find(path));
+            vn.setValue("UPDATED_PARAM_2");
+            Configuration snapshot = builder.build();
+
+            // Shared nodes are copied into the snapshot.
+            AbstractConfigNode node = snapshot.find(spath);
+            assertNotSame(configuration.find(spath), node);
+            assertSame(snapshot, node.getConfiguration());
+            AbstractConfigNode pnode = node;
+            while (pnode.getParent() != null) {
+                assertSame(snapshot, pnode.getConfiguration());
+                pnode = pnode.getParent();
+            }
+            assertSame(snapshot.getRootConfigNode(), pnode);
+            assertEquals("OVERRIDE_PROP_1",
+                         snapshot.resolvedScope(node).getValue("PROP_1"));
+        } catch (Throwable e) {
+            error(getClass(), e);
+            fail(e);
+        }
+    }
+
+    @Test
+    void readSourceAfterBuild() {
+        try {
+            String path = "configuration/node_1/node_2#PARAM_4";
+            String spath = "configuration/node_1/node_2/node_3/node_4";
+            AbstractConfigNode source = configuration.find(spath);
+            assertNotNull(source);
+            AbstractConfigNode sparent = source.getParent();
+
+            ConfigurationSnapshotBuilder builder =
+                    new ConfigurationSnapshotBuilder(configuration);
+            ConfigValueNode vn = builder.edit(
+                    (ConfigValueNode) configuration.find(path));
+            vn.setValue("UPDATED_PARAM_4");
+            Configuration snapshot = builder.build();
+            assertEquals("UPDATED_PARAM_4",
+                         ((ConfigValueNode) snapshot.find(path)).getValue());
+
+            // Nodes of the source still resolve through the source version.
+            assertSame(configuration, source.getConfiguration());
+            assertSame(sparent, source.getParent());
+            assertEquals("TEST_PARAM_4",
+                         ((ConfigValueNode) source.getConfiguration().find(path))
+                                 .getValue());
+            AbstractConfigNode pnode = source;
+            while (pnode.getParent() != null) {
+                assertSame(configuration, pnode.getConfiguration());
+                pnode = pnode.getParent();
+            }
+            assertSame(configuration.getRootConfigNode(), pnode);
+            assertSame(source, source.getParent().find("node_4"));
+            assertEquals("OVERRIDE_PROP_1",
+                         configuration.resolvedScope(source).getValue("PROP_1"));
+        } catch (Throwable e) {
+            error(getClass(), e);
+            fail(e);
+        }
+    }
+}
@@ -31,11 +31,15 @@ import com.codekutter.zconfig.common.ConfigTestConstants;
 import com.codekutter.zconfig.common.LogUtils;
 import com.codekutter.zconfig.common.parsers.JSONConfigParser;
 import com.codekutter.zconfig.common.readers.ConfigFileReader;
+import org.joda.time.DateTime;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 
 import java.io.FileInputStream;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Properties;
+import java.util.stream.Collectors;
 
 import static com.codekutter.zconfig.common.LogUtils.*;
 import static org.junit.jupiter.api.Assertions.*;
@@ -92,6 +96,94 @@ class Test_JSONConfiguration {
         }
     }
 
+    @Test
+    void findWithExpression() {
+        try {
+            String path = "configuration/node_1/node_2#PARAM_4";
+            ConfigPathExpression expression = configuration.compile(path);
+            assertNotNull(expression);
+            assertFalse(expression.isRelative());
+            assertFalse(expression.hasWildcard());
+            assertSame(expression, configuration.compile(path));
+
+            AbstractConfigNode node = configuration.find(expression);
+            assertNotNull(node);
+            assertTrue(node instanceof ConfigValueNode);
+            assertEquals(node, configuration.find(path));
+
+            expression = configuration.compile("configuration/node_1/node_2/node_3/*");
+            assertTrue(expression.hasWildcard());
+            node = configuration.find(expression);
+            assertTrue(node instanceof ConfigSearchListNode);
+            debug(getClass(), node);
+        } catch (Throwable e) {
+            error(getClass(), e);
+            fail(e);
+        }
+    }
+
+    @Test
+    void findWithIndex() {
+        try {
+            ConfigPathIndex index = configuration.getPathIndex();
+            assertNotNull(index);
+            assertTrue(index.size() > 0);
+
+            String path = "configuration/node_1/node_2#PARAM_4";
+            AbstractConfigNode node = configuration.find(path);
+            assertNotNull(node);
+            assertSame(node, index.get(
+                    configuration.compile(path).getIndexPath()));
+
+            node = configuration.find("configuration/node_1/node_2");
+            assertTrue(node instanceof ConfigPathNode);
+            ConfigParametersNode params = ((ConfigPathNode) node).parmeters();
+            assertNotNull(params);
+
+            path = "configuration/node_1/node_2#INDEX_TEST";
+            assertNull(configuration.find(path));
+            params.addKeyValue("INDEX_TEST", "index value");
+            node = configuration.find(path);
+            assertTrue(node instanceof ConfigValueNode);
+            assertEquals("index value", ((ConfigValueNode) node).getValue());
+
+            params.removeKeyValue("INDEX_TEST");
+            assertNull(configuration.find(path));
+        } catch (Throwable e) {
+            error(getClass(), e);
+            fail(e);
+        }
+    }
+
+    @Test
+    void typedValues() {
+        try {
+            ConfigValueNode node = new ConfigValueNode(configuration, null);
+            node.setName("TYPED_VALUE");
+            node.setValue("1024");
+            assertEquals(1024, node.getIntValue());
+            assertEquals(1024, node.getIntValue());
+            assertEquals(1024L, node.getLongValue());
+            assertEquals(1024.0, node.getDoubleValue());
+
+            node.setValue("2048");
+            assertEquals(2048, node.getIntValue());
+            assertEquals(2048L, node.getLongValue());
+
+            node.setValue("17.10.2026");
+            DateTime dt = node.getDateValue("dd.MM.yyyy");
+            assertNotNull(dt);
+            assertSame(dt, node.getDateValue("dd.MM.yyyy"));
+            assertEquals(2026, dt.getYear());
+            DateTime dt2 = node.getDateValue("d.M.y");
+            assertNotSame(dt, dt2);
+            assertEquals(dt.getMillis(), dt2.getMillis());
+        } catch (Throwable e) {
+            error(getClass(), e);
+            fail(e);
+        }
+    }
+
     @Test
     void update() {
         try {
@@ -133,6 +225,88 @@ class Test_JSONConfiguration {
         }
     }
 
+    @Test
+    void resolvedScope() {
+        try {
+            AbstractConfigNode node = configuration.find(
+                    "configuration/node_1/node_2/node_3/node_4/TEST_VALUE_LIST");
+            assertNotNull(node);
+            ConfigPropertyScope scope = configuration.resolvedScope(node);
+            assertNotNull(scope);
+            assertSame(scope, configuration.resolvedScope(node));
+            assertEquals("OVERRIDE_PROP_1", scope.getValue("PROP_1"));
+            assertEquals("TEST_PROP_2", scope.getValue("PROP_2"));
+            assertNull(scope.getValue("PROP_NOT_DEFINED"));
+
+            ConfigPropertiesNode props = configuration.resolvedProperties(node);
+            assertNotNull(props);
+            assertEquals("OVERRIDE_PROP_1", props.getValue("PROP_1").getValue());
+
+            ConfigPathNode root = configuration.getRootConfigNode();
+            assertEquals("TEST_PROP_1",
+                         root.getPropertyScope().getValue("PROP_1"));
+            // node_4 -> node_3 -> node_2 -> node_1 -> configuration
+            assertSame(root.getPropertyScope(), scope.getParent().getParent()
+                                                     .getParent().getParent());
+        } catch (Throwable e) {
+            error(getClass(), e);
+            fail(e);
+        }
+    }
+
+    @Test
+    void variableReplacement() {
+        try {
+            ConfigValueNode node = (ConfigValueNode) configuration
+                    .find("configuration/node_1/node_2#PARAM_1");
+            assertNotNull(node);
+            assertEquals("This is a replacement test. TEST_PROP_1TEST_PROP_2",
+                         node.getValue());
+
+            ConfigListValueNode list = (ConfigListValueNode) configuration.find(
+                    "configuration/node_1/node_2/node_3/node_4/TEST_VALUE_LIST");
+            assertNotNull(list);
+            assertEquals("Test override property. OVERRIDE_PROP_1",
+                         list.getValues().get(4).getValue());
+        } catch (Throwable e) {
+            error(getClass(), e);
+            fail(e);
+        }
+    }
+
+    @Test
+    void cachedPaths() {
+        try {
+            String path = "configuration/node_1/node_2/node_3";
+            AbstractConfigNode node = configuration.find(path);
+            assertNotNull(node);
+            String spath = node.getSearchPath();
+            assertEquals(path, spath);
+            assertSame(spath, node.getSearchPath());
+            assertSame(node.getAbsolutePath(), node.getAbsolutePath());
+            assertSame(spath, configuration.intern(new String(path)));
+
+            ConfigPathNode parent = new ConfigPathNode(configuration, null);
+            parent.setName("parent");
+            ConfigPathNode child = new ConfigPathNode(configuration, parent);
+            child.setName("child");
+            ConfigValueNode value = new ConfigValueNode(configuration, child);
+            value.setName("value");
+            assertEquals("parent/child/value", value.getSearchPath());
+            assertEquals("/parent/child/value", value.getAbsolutePath());
+
+            parent.setName("renamed");
+            assertEquals("renamed/child/value", value.getSearchPath());
+            value.setName("other");
+            assertEquals("/renamed/child/other", value.getAbsolutePath());
+            child.setParent(null);
+            assertEquals("child/other", value.getSearchPath());
+        } catch (Throwable e) {
+            error(getClass(), e);
+            fail(e);
+        }
+    }
+
     @Test
     void findParameters() {
         try {
@@ -258,6 +432,44 @@ class Test_JSONConfiguration {
         }
     }
 
+    @Test
+    void searchStream() {
+        try {
+            String path = "configuration/node_1/node_2/node_3/*";
+            AbstractConfigNode node = configuration.find(path);
+            assertTrue(node instanceof ConfigSearchListNode);
+            List<AbstractConfigNode> nodes =
+                    configuration.search(path).collect(Collectors.toList());
+            assertEquals(((ConfigSearchListNode) node).size(), nodes.size());
+
+            path = "**/node_3/*/TEST_VALUE_LIST";
+            nodes = configuration.search(path).collect(Collectors.toList());
+            assertEquals(1, nodes.size());
+            assertTrue(nodes.get(0) instanceof ConfigListValueNode);
+            assertEquals("configuration/node_1/node_2/node_3/node_4/TEST_VALUE_LIST",
+                         nodes.get(0).getSearchPath());
+
+            path = "configuration/**/createdBy";
+            assertTrue(configuration.search(path).count() > 1);
+            assertTrue(configuration.search(path)
+                                    .allMatch(n -> n.getName().equals("createdBy")));
+
+            path = "configuration/**/node_2#PARAM_4";
+            Iterator<AbstractConfigNode> iter =
+                    configuration.compile(path).getMatcher()
+                                 .iterator(configuration.getRootConfigNode());
+            assertTrue(iter.hasNext());
+            assertSame(configuration.find("configuration/node_1/node_2#PARAM_4"),
+                       iter.next());
+            assertFalse(iter.hasNext());
+
+            assertEquals(0, configuration.search("configuration/**/NOT_FOUND").count());
+        } catch (Throwable e) {
+            error(getClass(), e);
+            fail(e);
+        }
+    }
+
     @Test
     void searchParent() {
         try {
@@ -0,0 +1,274 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ * Copyright (c) $year
+ * Date: 17/10/26 8:45 PM
+ * Subho Ghosh (subho dot ghosh at outlook.com)
+ *
+ */
+
+package com.codekutter.zconfig.common.model;
+
+import com.codekutter.zconfig.common.ConfigProviderFactory;
+import com.codekutter.zconfig.common.ConfigurationException;
+import com.codekutter.zconfig.common.model.nodes.AbstractConfigNode;
+import com.codekutter.zconfig.common.model.nodes.ConfigValueNode;
+import com.codekutter.zconfig.common.parsers.AbstractConfigParser;
+import com.codekutter.zconfig.common.readers.ConfigFileReader;
+import com.codekutter.zconfig.common.utils.IOUtils;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.HashMap;
+import java.util.Map;
+
+import static com.codekutter.zconfig.common.LogUtils.debug;
+import static com.codekutter.zconfig.common.LogUtils.error;
+import static org.junit.jupiter.api.Assertions.*;
+
+class Test_SharedConfigStore {
+    private static final String CONFIG_FILE =
+            "src/test/resources/json/test-config-include.json";
+    private static final String CONFIG_NAME = "test-config-include";
+    private static Configuration configuration = null;
+    private static Version version = null;
+    private static String sourceHash = null;
+
+    @BeforeAll
+    static void init() throws Exception {
+        version = Version.parse("0.0");
+        sourceHash = IOUtils.getContentHash(
+                Files.readAllBytes(Paths.get(CONFIG_FILE)));
+        try (AbstractConfigParser parser = ConfigProviderFactory.parser(CONFIG_FILE);
+             ConfigFileReader reader = new ConfigFileReader(CONFIG_FILE)) {
+            assertNotNull(parser);
+            parser.parse(CONFIG_NAME, reader, null, version, null);
+            configuration = parser.getConfiguration();
+            assertNotNull(configuration);
+        }
+    }
+
+    @Test
+    void publishAndRead() {
+        try {
+            File dir = Files.createTempDirectory("zconfig-shared").toFile();
+            SharedConfigStore store = new SharedConfigStore(dir);
+            assertNull(store.open(CONFIG_NAME, version, sourceHash, null));
+
+            MappedConfiguration mapped =
+                    store.publish(configuration, version, sourceHash);
+            assertNotNull(mapped);
+            assertEquals(CONFIG_NAME, mapped.getName());
+            assertEquals(configuration.getPathIndex().size(), mapped.size());
+
+            // Second store instance maps the already published file.
+            SharedConfigStore other = new SharedConfigStore(dir);
+            MappedConfiguration shared =
+                    other.open(CONFIG_NAME, version, sourceHash, null);
+            assertNotNull(shared);
+            assertSame(shared, other.publish(configuration, version, sourceHash));
+
+            Map<String, AbstractConfigNode> nodes = new HashMap<>();
+            configuration.getPathIndex().forEach(nodes::put);
+            int values = 0;
+            for (Map.Entry<String, AbstractConfigNode> entry : nodes.entrySet()) {
+                assertTrue(shared.contains(entry.getKey()));
+                if (entry.getValue() instanceof ConfigValueNode) {
+                    assertEquals(((ConfigValueNode) entry.getValue()).getValue(),
+                                 shared.getValue(entry.getKey()));
+                    values++;
+                }
+            }
+            assertTrue(values > 0);
+            debug(getClass(), String.format("Verified shared values. [count=%d]",
+                                            values));
+
+            String path = "configuration/node_1#PARAM_4";
+            AbstractConfigNode node = configuration.find(path);
+            assertTrue(node instanceof ConfigValueNode);
+            ConfigValueNode value = shared.find(path);
+            assertNotNull(value);
+            assertEquals(((ConfigValueNode) node).getValue(), value.getValue());
+            assertNull(shared.find("configuration/node_1"));
+            assertTrue(shared.contains("configuration/node_1"));
+            assertFalse(shared.contains("configuration/node_1/not_found"));
+
+            Configuration loaded = shared.load(null);
+            assertNotNull(loaded);
+            assertEquals(configuration.getPathIndex().size(),
+                         loaded.getPathIndex().size());
+            assertEquals(((ConfigValueNode) node).getValue(),
+                         ((ConfigValueNode) loaded.find(path)).getValue());
+        } catch (Throwable t) {
+            error(getClass(), t);
+            fail(t);
+        }
+    }
+
+    @Test
+    void staleSource() {
+        try {
+            File dir = Files.createTempDirectory("zconfig-shared").toFile();
+            SharedConfigStore store = new SharedConfigStore(dir);
+            assertNotNull(store.publish(configuration, version, sourceHash));
+            assertNull(store.open(CONFIG_NAME, version, "CHANGED-HASH", null));
+
+            MappedConfiguration mapped =
+                    store.publish(configuration, version, "CHANGED-HASH");
+            assertEquals("CHANGED-HASH", mapped.getSourceHash());
+            assertNull(new SharedConfigStore(dir)
+                               .open(CONFIG_NAME, version, sourceHash, null));
+        } catch (Throwable t) {
+            error(getClass(), t);
+            fail(t);
+        }
+    }
+
+    @Test
+    void staleVariables() {
+        String variable = "zconfig.test.shared.variable";
+        try {
+            Configuration copy = configuration.copy();
+            copy.addResolvedVariable(variable, "VALUE_1");
+            System.setProperty(variable, "VALUE_1");
+
+            File dir = Files.createTempDirectory("zconfig-shared").toFile();
+            SharedConfigStore store = new SharedConfigStore(dir);
+            MappedConfiguration mapped = store.publish(copy, version, sourceHash);
+            assertEquals(1, mapped.getVariables().size());
+            assertNotNull(store.open(CONFIG_NAME, version, sourceHash, null));
+
+            System.setProperty(variable, "VALUE_2");
+            assertNull(store.open(CONFIG_NAME, version, sourceHash, null));
+            System.clearProperty(variable);
+            assertNull(new SharedConfigStore(dir)
+                               .open(CONFIG_NAME, version, sourceHash, null));
+        } catch (Throwable t) {
+            error(getClass(), t);
+            fail(t);
+        } finally {
+            System.clearProperty(variable);
+        }
+    }
+
+    @Test
+    void staleInclude() {
+        String includedFile = "src/test/resources/json/test-config-included.json";
+        try {
+            Path dir = Files.createTempDirectory("zconfig-include");
+            File included = dir.resolve("test-config-included.json").toFile();
+            File include = dir.resolve("test-config-include.json").toFile();
+            String data = new String(Files.readAllBytes(Paths.get(includedFile)),
+                                     StandardCharsets.UTF_8);
+            Files.write(included.toPath(), data.getBytes(StandardCharsets.UTF_8));
+            byte[] idata = new String(Files.readAllBytes(Paths.get(CONFIG_FILE)),
+                                      StandardCharsets.UTF_8)
+                    .replace(includedFile, included.getAbsolutePath())
+                    .getBytes(StandardCharsets.UTF_8);
+            Files.write(include.toPath(), idata);
+            String hash = IOUtils.getContentHash(idata);
+
+            Configuration loaded;
+            try (AbstractConfigParser parser = ConfigProviderFactory
+                    .parser(include.getAbsolutePath());
+                 ConfigFileReader reader = new ConfigFileReader(
+                         include.getAbsolutePath())) {
+                assertNotNull(parser);
+                parser.parse(CONFIG_NAME, reader, null, version, null);
+                loaded = parser.getConfiguration();
+            }
+            SharedConfigStore store = new SharedConfigStore(
+                    Files.createTempDirectory("zconfig-shared").toFile());
+            MappedConfiguration mapped = store.publish(loaded, version, hash);
+            assertEquals(1, mapped.getIncludes().size());
+            assertEquals(included.toURI().normalize(),
+                         mapped.getIncludes().keySet().iterator().next()
+                               .normalize());
+            assertNotNull(store.open(CONFIG_NAME, version, hash, null));
+
+            // Only the included configuration is changed.
+            Files.write(included.toPath(),
+                        data.replace("TEST_PARAM_2", "UPDATED_PARAM_2")
+                            .getBytes(StandardCharsets.UTF_8));
+            assertNull(store.open(CONFIG_NAME, version, hash, null));
+            assertNull(new SharedConfigStore(store.getDirectory())
+                               .open(CONFIG_NAME, version, hash, null));
+        } catch (Throwable t) {
+            error(getClass(), t);
+            fail(t);
+        }
+    }
+
+    @Test
+    void ownerOnlyAccess() {
+        try {
+            if (!FileSystems.getDefault().supportedFileAttributeViews()
+                            .contains("posix")) {
+                return;
+            }
+            File dir = new File(Files.createTempDirectory("zconfig-shared").toFile(),
+                                "store");
+            SharedConfigStore store = new SharedConfigStore(dir);
+            MappedConfiguration mapped =
+                    store.publish(configuration, version, sourceHash);
+            assertEquals(PosixFilePermissions.fromString("rwx------"),
+                         Files.getPosixFilePermissions(dir.toPath()));
+            assertEquals(PosixFilePermissions.fromString("rw-------"),
+                         Files.getPosixFilePermissions(
+                                 mapped.getFile().toPath()));
+        } catch (Throwable t) {
+            error(getClass(), t);
+            fail(t);
+        }
+    }
+
+    @Test
+    void validatePasscode() {
+        String filename = "src/test/resources/json/test-config-encrypted.json";
+        String passcode = "21947a50-6755-47";
+        try {
+            Version version = Version.parse("0.*");
+            Configuration encrypted;
+            try (AbstractConfigParser parser = ConfigProviderFactory.parser(filename);
+                 ConfigFileReader reader = new ConfigFileReader(filename)) {
+                assertNotNull(parser);
+                parser.parse("test-config", reader, null, version, passcode);
+                encrypted = parser.getConfiguration();
+            }
+            File dir = Files.createTempDirectory("zconfig-shared").toFile();
+            MappedConfiguration mapped = new SharedConfigStore(dir)
+                    .publish(encrypted, version, sourceHash);
+            assertEquals(encrypted.getEncryptionHash(), mapped.getEncryptionHash());
+            mapped.validatePasscode(passcode);
+            assertThrows(ConfigurationException.class,
+                         () -> mapped.validatePasscode(null));
+            assertThrows(ConfigurationException.class,
+                         () -> mapped.validatePasscode("00000000-0000-00"));
+        } catch (Throwable t) {
+            error(getClass(), t);
+            fail(t);
+        }
+    }
+}
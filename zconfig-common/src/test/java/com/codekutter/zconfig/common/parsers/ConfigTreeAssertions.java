@@ -0,0 +1,95 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ * Copyright (c) $year
+ * Date: 17/10/26 3:40 PM
+ * Subho Ghosh (subho dot ghosh at outlook.com)
+ *
+ */
+
+package com.codekutter.zconfig.common.parsers;
+
+import com.codekutter.zconfig.common.model.nodes.*;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Assertions comparing configuration node trees, used to check that the
+ * parser modes produce the same configuration.
+ */
+final class ConfigTreeAssertions {
+    private ConfigTreeAssertions() {
+    }
+
+    /**
+     * Assert that the node trees are equal (types, names, paths and values).
+     *
+     * @param expected - Expected node tree.
+     * @param actual   - Actual node tree.
+     */
+    @SuppressWarnings("unchecked")
+    static void assertNodeEquals(AbstractConfigNode expected,
+                                  AbstractConfigNode actual) {
+        assertNotNull(actual);
+        assertEquals(expected.getClass(), actual.getClass());
+        assertEquals(expected.getName(), actual.getName());
+        assertEquals(expected.getAbsolutePath(), actual.getAbsolutePath());
+        assertEquals(expected.getState().getState(), actual.getState().getState());
+
+        if (expected instanceof ConfigPathNode) {
+            assertMapEquals(((ConfigPathNode) expected).getChildren(),
+                            ((ConfigPathNode) actual).getChildren());
+        } else if (expected instanceof ConfigKeyValueNode) {
+            assertMapEquals(((ConfigKeyValueNode) expected).getKeyValues(),
+                            ((ConfigKeyValueNode) actual).getKeyValues());
+        } else if (expected instanceof ConfigListNode) {
+            List<AbstractConfigNode> ev =
+                    ((ConfigListNode<AbstractConfigNode>) expected).getValues();
+            List<AbstractConfigNode> av =
+                    ((ConfigListNode<AbstractConfigNode>) actual).getValues();
+            assertEquals(ev.size(), av.size());
+            for (int ii = 0; ii < ev.size(); ii++) {
+                assertNodeEquals(ev.get(ii), av.get(ii));
+            }
+        } else if (expected instanceof ConfigIncludeNode) {
+            assertNodeEquals(((ConfigIncludeNode) expected).getNode(),
+                             ((ConfigIncludeNode) actual).getNode());
+        } else if (expected instanceof ConfigValueNode) {
+            assertEquals(((ConfigValueNode) expected).getValue(),
+                         ((ConfigValueNode) actual).getValue());
+            assertEquals(((ConfigValueNode) expected).isEncrypted(),
+                         ((ConfigValueNode) actual).isEncrypted());
+        }
+    }
+
+    private static <T extends AbstractConfigNode> void assertMapEquals(
+            Map<String, T> expected, Map<String, T> actual) {
+        if (expected == null) {
+            assertTrue(actual == null || actual.isEmpty());
+            return;
+        }
+        assertNotNull(actual);
+        assertEquals(expected.keySet(), actual.keySet());
+        for (String key : expected.keySet()) {
+            assertNodeEquals(expected.get(key), actual.get(key));
+        }
+    }
+}
@@ -0,0 +1,187 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ * Copyright (c) $year
+ * Date: 17/10/26 7:55 PM
+ * Subho Ghosh (subho dot ghosh at outlook.com)
+ *
+ */
+
+package com.codekutter.zconfig.common.parsers;
+
+import com.codekutter.zconfig.common.ConfigProviderFactory;
+import com.codekutter.zconfig.common.ConfigurationException;
+import com.codekutter.zconfig.common.model.Configuration;
+import com.codekutter.zconfig.common.model.Version;
+import com.codekutter.zconfig.common.readers.ConfigFileReader;
+import com.codekutter.zconfig.common.writers.BinaryConfigWriter;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import static com.codekutter.zconfig.common.LogUtils.debug;
+import static com.codekutter.zconfig.common.LogUtils.error;
+import static org.junit.jupiter.api.Assertions.*;
+
+class Test_BinaryConfigParser {
+    private static final String SOURCE_HASH = "TEST-SOURCE-HASH";
+
+    @Test
+    void snapshotParity() {
+        try {
+            checkParity("src/test/resources/json/test-config.json",
+                        "test-config", "0.0");
+            checkParity("src/test/resources/json/test-config-include.json",
+                        "test-config-include", "0.0");
+            checkParity("src/test/resources/XML/test-config.xml",
+                        "test-config", "0.*");
+            checkParity("src/test/resources/XML/test-config-include.xml",
+                        "test-config-include", "0.0");
+        } catch (Throwable t) {
+            error(getClass(), t);
+            fail(t);
+        }
+    }
+
+    @Test
+    void staleSnapshot() {
+        try {
+            Version version = Version.parse("0.0");
+            Configuration configuration =
+                    parse("src/test/resources/json/test-config.json",
+                          "test-config", version);
+            File snapshot = File.createTempFile("test-config", ".snapshot");
+            snapshot.deleteOnExit();
+            new BinaryConfigWriter().write(configuration, snapshot, SOURCE_HASH,
+                                           version);
+
+            ConfigurationException e = assertThrows(
+                    ConfigurationException.class,
+                    () -> readSnapshot(snapshot, "test-config", version,
+                                       "CHANGED-SOURCE-HASH"));
+            debug(getClass(), e.getLocalizedMessage());
+            assertTrue(e.getLocalizedMessage().contains("Stale snapshot"));
+
+            e = assertThrows(ConfigurationException.class,
+                             () -> readSnapshot(snapshot, "test-config",
+                                                Version.parse("0.1"),
+                                                SOURCE_HASH));
+            assertTrue(e.getLocalizedMessage().contains("Stale snapshot"));
+
+            assertNotNull(readSnapshot(snapshot, "test-config", version,
+                                       SOURCE_HASH));
+        } catch (Throwable t) {
+            error(getClass(), t);
+            fail(t);
+        }
+    }
+
+    @Test
+    void staleVariables() {
+        String variable = "zconfig.test.snapshot.variable";
+        try {
+            Version version = Version.parse("0.0");
+            String data = new String(Files.readAllBytes(
+                    new File("src/test/resources/json/test-config.json").toPath()),
+                                     StandardCharsets.UTF_8);
+            File source = File.createTempFile("test-config", ".json");
+            source.deleteOnExit();
+            Files.write(source.toPath(),
+                        data.replace("This is a replacement test. ${PROP_1}\"",
+                                     String.format("${%s}\"", variable))
+                            .getBytes(StandardCharsets.UTF_8));
+
+            System.setProperty(variable, "VALUE_1");
+            Configuration configuration =
+                    parse(source.getAbsolutePath(), "test-config", version);
+            assertEquals("VALUE_1",
+                         configuration.getResolvedVariables().get(variable));
+            File snapshot = File.createTempFile("test-config", ".snapshot");
+            snapshot.deleteOnExit();
+            new BinaryConfigWriter().write(configuration, snapshot, SOURCE_HASH,
+                                           version);
+            assertNotNull(readSnapshot(snapshot, "test-config", version,
+                                       SOURCE_HASH));
+
+            System.setProperty(variable, "VALUE_2");
+            ConfigurationException e = assertThrows(
+                    ConfigurationException.class,
+                    () -> readSnapshot(snapshot, "test-config", version,
+                                       SOURCE_HASH));
+            debug(getClass(), e.getLocalizedMessage());
+            assertTrue(e.getLocalizedMessage().contains("Stale snapshot"));
+
+            System.clearProperty(variable);
+            assertThrows(ConfigurationException.class,
+                         () -> readSnapshot(snapshot, "test-config", version,
+                                            SOURCE_HASH));
+        } catch (Throwable t) {
+            error(getClass(), t);
+            fail(t);
+        } finally {
+            System.clearProperty(variable);
+        }
+    }
+
+    private void checkParity(String filename, String name, String vs)
+    throws Exception {
+        Version version = Version.parse(vs);
+        Configuration parsed = parse(filename, name, version);
+
+        File snapshot = File.createTempFile(name, ".snapshot");
+        snapshot.deleteOnExit();
+        new BinaryConfigWriter().write(parsed, snapshot, SOURCE_HASH, version);
+        debug(getClass(), String.format("Snapshot written. [file=%s][size=%d]",
+                                        filename, snapshot.length()));
+
+        Configuration loaded = readSnapshot(snapshot, name, version, SOURCE_HASH);
+        assertEquals(parsed.getId(), loaded.getId());
+        assertEquals(parsed.getApplicationGroup(), loaded.getApplicationGroup());
+        assertEquals(parsed.getApplication(), loaded.getApplication());
+        assertEquals(parsed.getVersion(), loaded.getVersion());
+        assertEquals(parsed.getCreatedBy().getTimestamp(),
+                     loaded.getCreatedBy().getTimestamp());
+        assertEquals(parsed.getState().getState(), loaded.getState().getState());
+        ConfigTreeAssertions.assertNodeEquals(parsed.getRootConfigNode(),
+                                              loaded.getRootConfigNode());
+    }
+
+    private Configuration parse(String filename, String name, Version version)
+    throws Exception {
+        try (AbstractConfigParser parser = ConfigProviderFactory.parser(filename);
+             ConfigFileReader reader = new ConfigFileReader(filename)) {
+            assertNotNull(parser);
+            parser.parse(name, reader, null, version, null);
+            assertNotNull(parser.getConfiguration());
+            return parser.getConfiguration();
+        }
+    }
+
+    private Configuration readSnapshot(File snapshot, String name,
+                                       Version version, String sourceHash)
+    throws Exception {
+        try (BinaryConfigParser parser = new BinaryConfigParser();
+             ConfigFileReader reader = new ConfigFileReader(snapshot)) {
+            parser.setSourceHash(sourceHash);
+            parser.parse(name, reader, null, version, null);
+            return parser.getConfiguration();
+        }
+    }
+}
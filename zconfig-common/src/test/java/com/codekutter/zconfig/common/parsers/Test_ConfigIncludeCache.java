@@ -0,0 +1,219 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ * Copyright (c) $year
+ * Date: 17/10/26 6:05 PM
+ * Subho Ghosh (subho dot ghosh at outlook.com)
+ *
+ */
+
+package com.codekutter.zconfig.common.parsers;
+
+import com.codekutter.zconfig.common.model.Configuration;
+import com.codekutter.zconfig.common.model.ConfigurationSettings;
+import com.codekutter.zconfig.common.model.Version;
+import com.codekutter.zconfig.common.model.nodes.*;
+import com.codekutter.zconfig.common.readers.ConfigFileReader;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static com.codekutter.zconfig.common.LogUtils.debug;
+import static com.codekutter.zconfig.common.LogUtils.error;
+import static org.junit.jupiter.api.Assertions.*;
+
+class Test_ConfigIncludeCache {
+    private static final String INCLUDE_FILE =
+            "src/test/resources/json/test-config-include.json";
+    private static final String INCLUDED_FILE =
+            "src/test/resources/json/test-config-included.json";
+    private static final String CONFIG_NAME = "test-config-include";
+
+    @Test
+    void cachedParity() {
+        try {
+            ConfigIncludeCache cache = new ConfigIncludeCache(8);
+            Configuration uncached = parse(INCLUDE_FILE, null);
+            Configuration first = parse(INCLUDE_FILE, cache);
+            assertEquals(0, cache.getHitCount());
+            assertEquals(1, cache.getMissCount());
+
+            Configuration second = parse(INCLUDE_FILE, cache);
+            assertEquals(1, cache.getHitCount());
+            assertEquals(1, cache.getMissCount());
+            assertEquals(1, cache.size());
+
+            ConfigTreeAssertions.assertNodeEquals(uncached.getRootConfigNode(),
+                                                  first.getRootConfigNode());
+            ConfigTreeAssertions.assertNodeEquals(uncached.getRootConfigNode(),
+                                                  second.getRootConfigNode());
+
+            // Each load gets its own copy of the included nodes.
+            AbstractConfigNode fnode = getIncluded(first);
+            AbstractConfigNode snode = getIncluded(second);
+            assertNotSame(fnode, snode);
+            assertSame(first, fnode.getConfiguration());
+            assertSame(second, snode.getConfiguration());
+        } catch (Throwable t) {
+            error(getClass(), t);
+            fail(t);
+        }
+    }
+
+    @Test
+    void contentChanged() {
+        try {
+            Path dir = Files.createTempDirectory("zconfig-include");
+            File included = dir.resolve("test-config-included.json").toFile();
+            File include = dir.resolve("test-config-include.json").toFile();
+            String data = new String(Files.readAllBytes(new File(INCLUDED_FILE).toPath()),
+                                     StandardCharsets.UTF_8);
+            Files.write(included.toPath(), data.getBytes(StandardCharsets.UTF_8));
+            String idata = new String(Files.readAllBytes(new File(INCLUDE_FILE).toPath()),
+                                      StandardCharsets.UTF_8)
+                    .replace(INCLUDED_FILE, included.getAbsolutePath());
+            Files.write(include.toPath(), idata.getBytes(StandardCharsets.UTF_8));
+
+            ConfigIncludeCache cache = new ConfigIncludeCache(1);
+            Configuration configuration = parse(include.getAbsolutePath(), cache);
+            assertEquals("TEST_PARAM_2", getParam(configuration, "PARAM_2"));
+            parse(include.getAbsolutePath(), cache);
+            assertEquals(1, cache.getHitCount());
+
+            Files.write(included.toPath(),
+                        data.replace("TEST_PARAM_2", "UPDATED_PARAM_2")
+                            .getBytes(StandardCharsets.UTF_8));
+            configuration = parse(include.getAbsolutePath(), cache);
+            assertEquals("UPDATED_PARAM_2", getParam(configuration, "PARAM_2"));
+            assertEquals(1, cache.getHitCount());
+            assertEquals(2, cache.getMissCount());
+            assertEquals(1, cache.size());
+            assertEquals(1, cache.getEvictionCount());
+            debug(getClass(), String.format("Cache : [hits=%d][misses=%d]",
+                                            cache.getHitCount(),
+                                            cache.getMissCount()));
+        } catch (Throwable t) {
+            error(getClass(), t);
+            fail(t);
+        }
+    }
+
+    @Test
+    void variableChanged() {
+        String property = "zconfig.test.include.variable";
+        try {
+            Path dir = Files.createTempDirectory("zconfig-include");
+            File included = dir.resolve("test-config-included.json").toFile();
+            File include = dir.resolve("test-config-include.json").toFile();
+            String data = new String(Files.readAllBytes(new File(INCLUDED_FILE).toPath()),
+                                     StandardCharsets.UTF_8)
+                    .replace("TEST_PARAM_2", "${" + property + "}");
+            Files.write(included.toPath(), data.getBytes(StandardCharsets.UTF_8));
+            String idata = new String(Files.readAllBytes(new File(INCLUDE_FILE).toPath()),
+                                      StandardCharsets.UTF_8)
+                    .replace(INCLUDED_FILE, included.getAbsolutePath());
+            Files.write(include.toPath(), idata.getBytes(StandardCharsets.UTF_8));
+
+            ConfigIncludeCache cache = new ConfigIncludeCache(8);
+            System.setProperty(property, "FIRST");
+            Configuration configuration = parse(include.getAbsolutePath(), cache);
+            assertEquals("FIRST", getParam(configuration, "PARAM_2"));
+            configuration = parse(include.getAbsolutePath(), cache);
+            assertEquals("FIRST", getParam(configuration, "PARAM_2"));
+            assertEquals(1, cache.getHitCount());
+
+            System.setProperty(property, "SECOND");
+            configuration = parse(include.getAbsolutePath(), cache);
+            assertEquals("SECOND", getParam(configuration, "PARAM_2"));
+            assertEquals(1, cache.getHitCount());
+            assertEquals(2, cache.getMissCount());
+            assertEquals("SECOND",
+                         configuration.getResolvedVariables().get(property));
+        } catch (Throwable t) {
+            error(getClass(), t);
+            fail(t);
+        } finally {
+            System.clearProperty(property);
+        }
+    }
+
+    @Test
+    void keyedByPasscodeAndSettings() {
+        try {
+            ConfigIncludeCache cache = new ConfigIncludeCache(8);
+            parse(INCLUDE_FILE, cache);
+            parse(INCLUDE_FILE, cache, null, "21947a50-6755-47");
+            assertEquals(0, cache.getHitCount());
+            assertEquals(2, cache.getMissCount());
+
+            ConfigurationSettings settings = new ConfigurationSettings();
+            settings.setDownloadRemoteFiles(
+                    ConfigurationSettings.EStartupOptions.OnDemand);
+            parse(INCLUDE_FILE, cache, settings, null);
+            assertEquals(0, cache.getHitCount());
+            assertEquals(3, cache.getMissCount());
+
+            parse(INCLUDE_FILE, cache, null, "21947a50-6755-47");
+            assertEquals(1, cache.getHitCount());
+            assertEquals(3, cache.size());
+        } catch (Throwable t) {
+            error(getClass(), t);
+            fail(t);
+        }
+    }
+
+    private Configuration parse(String filename, ConfigIncludeCache cache)
+    throws Exception {
+        return parse(filename, cache, null, null);
+    }
+
+    private Configuration parse(String filename, ConfigIncludeCache cache,
+                                ConfigurationSettings settings, String password)
+    throws Exception {
+        JSONConfigParser parser = new JSONConfigParser();
+        parser.setIncludeCache(cache);
+        try (ConfigFileReader reader = new ConfigFileReader(filename)) {
+            parser.parse(CONFIG_NAME, reader, settings, Version.parse("0.0"),
+                         password);
+        }
+        Configuration configuration = parser.getConfiguration();
+        assertNotNull(configuration);
+        return configuration;
+    }
+
+    private AbstractConfigNode getIncluded(Configuration configuration) {
+        ConfigPathNode node = (ConfigPathNode) configuration.getRootConfigNode()
+                                                            .getChildNode("node_1");
+        assertNotNull(node);
+        AbstractConfigNode included = node.getChildNode("root-node");
+        assertNotNull(included);
+        return included;
+    }
+
+    private String getParam(Configuration configuration, String name) {
+        ConfigPathNode node = (ConfigPathNode) getIncluded(configuration);
+        node = (ConfigPathNode) node.getChildNode("node_1");
+        assertNotNull(node);
+        ConfigParametersNode params = node.parmeters();
+        assertNotNull(params);
+        return params.getKeyValues().get(name).getValue();
+    }
+}
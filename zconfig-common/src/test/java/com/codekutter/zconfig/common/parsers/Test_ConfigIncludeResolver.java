@@ -0,0 +1,214 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ * Copyright (c) $year
+ * Date: 17/10/26 4:45 PM
+ * Subho Ghosh (subho dot ghosh at outlook.com)
+ *
+ */
+
+package com.codekutter.zconfig.common.parsers;
+
+import com.codekutter.zconfig.common.ConfigurationException;
+import com.codekutter.zconfig.common.model.Configuration;
+import com.codekutter.zconfig.common.model.ConfigurationSettings;
+import com.codekutter.zconfig.common.model.nodes.ConfigIncludeNode;
+import com.codekutter.zconfig.common.readers.EReaderType;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static com.codekutter.zconfig.common.LogUtils.debug;
+import static com.codekutter.zconfig.common.LogUtils.error;
+import static org.junit.jupiter.api.Assertions.*;
+
+class Test_ConfigIncludeResolver {
+
+    private static ConfigIncludeNode include(String name) {
+        ConfigIncludeNode node = new ConfigIncludeNode();
+        node.setConfigName(name);
+        node.setReaderType(EReaderType.File);
+        node.setPath(String.format("/tmp/%s.json", name));
+        return node;
+    }
+
+    private static Configuration config(String name) {
+        Configuration configuration = new Configuration();
+        configuration.setName(name);
+        return configuration;
+    }
+
+    @Test
+    void attachInOrder() {
+        try {
+            ConfigurationSettings settings = new ConfigurationSettings();
+            settings.setIncludeLoaderThreads(4);
+            ConfigIncludeResolver resolver =
+                    new ConfigIncludeResolver("root", settings);
+            List<String> attached =
+                    Collections.synchronizedList(new ArrayList<>());
+            long start = System.currentTimeMillis();
+            try {
+                for (int ii = 0; ii < 8; ii++) {
+                    String name = String.format("include-%d", ii);
+                    long sleep = (8 - ii) * 50;
+                    resolver.submit(include(name), (r) -> {
+                        try {
+                            Thread.sleep(sleep);
+                        } catch (InterruptedException e) {
+                            throw new ConfigurationException(e);
+                        }
+                        return config(name);
+                    }, (c) -> attached.add(c.getName()));
+                }
+                resolver.await();
+            } finally {
+                resolver.close();
+            }
+            long time = System.currentTimeMillis() - start;
+            debug(getClass(), String.format("Loaded includes. [time=%dms]", time));
+
+            assertEquals(8, attached.size());
+            for (int ii = 0; ii < 8; ii++) {
+                assertEquals(String.format("include-%d", ii), attached.get(ii));
+            }
+            // Sequential load would take 1800ms.
+            assertTrue(time < 1500);
+        } catch (Throwable t) {
+            error(getClass(), t);
+            fail(t);
+        }
+    }
+
+    @Test
+    void nestedIncludes() {
+        try {
+            ConfigurationSettings settings = new ConfigurationSettings();
+            settings.setIncludeLoaderThreads(2);
+            ConfigIncludeResolver resolver =
+                    new ConfigIncludeResolver("root", settings);
+            List<String> attached =
+                    Collections.synchronizedList(new ArrayList<>());
+            try {
+                for (int ii = 0; ii < 4; ii++) {
+                    String name = String.format("include-%d", ii);
+                    resolver.submit(include(name), (r) -> {
+                        // Nested includes, more than the executor threads.
+                        for (int jj = 0; jj < 4; jj++) {
+                            String nname = String.format("%s-%d", name, jj);
+                            r.submit(include(nname), (nr) -> config(nname),
+                                     (c) -> attached.add(c.getName()));
+                        }
+                        r.await();
+                        return config(name);
+                    }, (c) -> attached.add(c.getName()));
+                }
+                resolver.await();
+            } finally {
+                resolver.close();
+            }
+            assertEquals(20, attached.size());
+            for (int ii = 0; ii < 4; ii++) {
+                String name = String.format("include-%d", ii);
+                int index = attached.indexOf(name);
+                for (int jj = 0; jj < 4; jj++) {
+                    // Nested includes are attached before the include.
+                    int nindex = attached.indexOf(String.format("%s-%d", name, jj));
+                    assertTrue(nindex >= 0 && nindex < index);
+                }
+            }
+        } catch (Throwable t) {
+            error(getClass(), t);
+            fail(t);
+        }
+    }
+
+    @Test
+    void cyclicInclude() {
+        ConfigurationSettings settings = new ConfigurationSettings();
+        ConfigIncludeResolver resolver =
+                new ConfigIncludeResolver("root", settings);
+        try {
+            resolver.submit(include("include-a"), (r) -> {
+                r.submit(include("include-b"), (rb) -> {
+                    // include-b includes include-a
+                    rb.submit(include("include-a"), (ra) -> config("include-a"),
+                              (c) -> {
+                              });
+                    rb.await();
+                    return config("include-b");
+                }, (c) -> {
+                });
+                r.await();
+                return config("include-a");
+            }, (c) -> {
+            });
+            ConfigurationException e =
+                    assertThrows(ConfigurationException.class, resolver::await);
+            debug(getClass(), e.getLocalizedMessage());
+            assertTrue(e.getLocalizedMessage().contains("Cyclic include"));
+
+            // Including the root configuration.
+            resolver.submit(include("include-c"), (r) -> {
+                r.submit(include("root"), (rr) -> config("root"), (c) -> {
+                });
+                r.await();
+                return config("include-c");
+            }, (c) -> {
+            });
+            e = assertThrows(ConfigurationException.class, resolver::await);
+            assertTrue(e.getLocalizedMessage().contains("Cyclic include"));
+        } catch (Throwable t) {
+            error(getClass(), t);
+            fail(t);
+        } finally {
+            resolver.close();
+        }
+    }
+
+    @Test
+    void loadTimeout() {
+        ConfigurationSettings settings = new ConfigurationSettings();
+        settings.setIncludeLoadTimeout(200);
+        ConfigIncludeResolver resolver =
+                new ConfigIncludeResolver("root", settings);
+        try {
+            long start = System.currentTimeMillis();
+            resolver.submit(include("include-slow"), (r) -> {
+                try {
+                    Thread.sleep(5000);
+                } catch (InterruptedException e) {
+                    throw new ConfigurationException(e);
+                }
+                return config("include-slow");
+            }, (c) -> fail("Include should not be attached."));
+            ConfigurationException e =
+                    assertThrows(ConfigurationException.class, resolver::await);
+            debug(getClass(), e.getLocalizedMessage());
+            assertTrue(e.getLocalizedMessage().contains("Timeout"));
+            assertTrue(System.currentTimeMillis() - start < 2000);
+        } catch (Throwable t) {
+            error(getClass(), t);
+            fail(t);
+        } finally {
+            resolver.close();
+        }
+    }
+}
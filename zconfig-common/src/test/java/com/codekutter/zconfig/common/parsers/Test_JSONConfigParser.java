@@ -146,4 +146,47 @@ class Test_JSONConfigParser {
             fail(t);
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    void streamingParity() {
+        try {
+            checkParity(BASIC_PROPS_FILE, "test-config");
+            checkParity(INCLUDED_PROPS_FILE, "test-config-include");
+        } catch (Throwable t) {
+            error(getClass(), t);
+            fail(t);
+        }
+    }
+
+    private void checkParity(String propsFile, String name) throws Exception {
+        Properties properties = new Properties();
+        properties.load(new FileInputStream(propsFile));
+
+        String filename =
+                properties.getProperty(ConfigTestConstants.PROP_CONFIG_FILE);
+        assertFalse(Strings.isNullOrEmpty(filename));
+        Version version = Version.parse(
+                properties.getProperty(ConfigTestConstants.PROP_CONFIG_VERSION));
+
+        Configuration streamed = parse(filename, name, version, true);
+        Configuration tree = parse(filename, name, version, false);
+
+        assertEquals(tree.getId(), streamed.getId());
+        assertEquals(tree.getVersion().toString(), streamed.getVersion().toString());
+        ConfigTreeAssertions.assertNodeEquals(tree.getRootConfigNode(),
+                                              streamed.getRootConfigNode());
+    }
+
+    private Configuration parse(String filename, String name, Version version,
+                                boolean streaming) throws Exception {
+        JSONConfigParser parser = new JSONConfigParser();
+        parser.setStreaming(streaming);
+        assertEquals(streaming, parser.isStreaming());
+        try (ConfigFileReader reader = new ConfigFileReader(filename)) {
+            parser.parse(name, reader, null, version, null);
+        }
+        Configuration configuration = parser.getConfiguration();
+        assertNotNull(configuration);
+        return configuration;
+    }
+}
@@ -29,6 +29,7 @@ import com.codekutter.zconfig.common.ConfigProviderFactory;
 import com.codekutter.zconfig.common.ConfigTestConstants;
 import com.codekutter.zconfig.common.model.Configuration;
 import com.codekutter.zconfig.common.model.Version;
+import com.codekutter.zconfig.common.model.nodes.*;
 import com.codekutter.zconfig.common.readers.ConfigFileReader;
 import org.junit.jupiter.api.Test;
 
@@ -113,4 +114,83 @@ class Test_XMLConfigParser {
             fail(t);
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    void streamingParity() {
+        try {
+            checkParity(BASIC_PROPS_FILE, "test-config");
+            checkParity(INCLUDED_PROPS_FILE, "test-config-include");
+        } catch (Throwable t) {
+            error(getClass(), t);
+            fail(t);
+        }
+    }
+
+    @Test
+    void streamingNodeTypes() {
+        try {
+            Configuration configuration =
+                    parse(BASIC_PROPS_FILE, "test-config", true);
+            ConfigPathNode root = configuration.getRootConfigNode();
+            assertEquals("configuration", root.getName());
+
+            ConfigPathNode node_1 = (ConfigPathNode) root.getChildNode("node_1");
+            assertNotNull(node_1);
+            assertTrue(node_1.getChildNode(
+                    "parameters") instanceof ConfigParametersNode);
+
+            AbstractConfigNode node = node_1.getChildNode("VALUE_LIST");
+            assertTrue(node instanceof ConfigListValueNode);
+            assertEquals(8, ((ConfigListValueNode) node).getValues().size());
+
+            node = node_1.getChildNode("ELEMENT_LIST");
+            assertTrue(node instanceof ConfigListElementNode);
+            assertEquals(4, ((ConfigListElementNode) node).getValues().size());
+
+            ConfigPathNode node_2 = (ConfigPathNode) node_1.getChildNode("node_2");
+            assertNotNull(node_2);
+            node = node_2.getChildNode(ConfigResourceNode.NODE_NAME);
+            assertTrue(node instanceof ConfigResourceBlob);
+            node = node_2.getChildNode("nodeName");
+            assertTrue(node instanceof ConfigValueNode);
+            assertEquals("Test Node", ((ConfigValueNode) node).getValue());
+        } catch (Throwable t) {
+            error(getClass(), t);
+            fail(t);
+        }
+    }
+
+    private void checkParity(String propsFile, String name) throws Exception {
+        Configuration streamed = parse(propsFile, name, true);
+        Configuration dom = parse(propsFile, name, false);
+
+        assertEquals(dom.getId(), streamed.getId());
+        assertEquals(dom.getName(), streamed.getName());
+        assertEquals(dom.getDescription(), streamed.getDescription());
+        assertEquals(dom.getVersion().toString(), streamed.getVersion().toString());
+        ConfigTreeAssertions.assertNodeEquals(dom.getRootConfigNode(),
+                                              streamed.getRootConfigNode());
+    }
+
+    private Configuration parse(String propsFile, String name,
+                                boolean streaming) throws Exception {
+        Properties properties = new Properties();
+        properties.load(new FileInputStream(propsFile));
+
+        String filename =
+                properties.getProperty(ConfigTestConstants.PROP_CONFIG_FILE);
+        assertFalse(Strings.isNullOrEmpty(filename));
+        Version version = Version.parse(
+                properties.getProperty(ConfigTestConstants.PROP_CONFIG_VERSION));
+
+        XMLConfigParser parser = new XMLConfigParser();
+        parser.setStreaming(streaming);
+        assertEquals(streaming, parser.isStreaming());
+        try (ConfigFileReader reader = new ConfigFileReader(filename)) {
+            parser.parse(name, reader, null, version, null);
+        }
+        Configuration configuration = parser.getConfiguration();
+        assertNotNull(configuration);
+        return configuration;
+    }
+}
@@ -0,0 +1,228 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ * Copyright (c) $year
+ * Date: 17/10/26 9:30 PM
+ * Subho Ghosh (subho dot ghosh at outlook.com)
+ *
+ */
+
+package com.codekutter.zconfig.common.readers;
+
+import com.codekutter.zconfig.common.ConfigProviderFactory;
+import com.codekutter.zconfig.common.ConfigurationException;
+import com.codekutter.zconfig.common.model.Configuration;
+import com.codekutter.zconfig.common.model.ConfigurationSettings;
+import com.codekutter.zconfig.common.model.Version;
+import com.codekutter.zconfig.common.parsers.AbstractConfigParser;
+import com.google.common.io.ByteStreams;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPOutputStream;
+
+import static com.codekutter.zconfig.common.LogUtils.error;
+import static org.junit.jupiter.api.Assertions.*;
+
+class Test_ConfigURLReader {
+    private static final String CONFIG_FILE =
+            "src/test/resources/json/test-config.json";
+    private static HttpServer server = null;
+    private static volatile byte[] content = null;
+    private static volatile String etag = "\"v1\"";
+    private static final AtomicInteger fullResponses = new AtomicInteger();
+    private static final AtomicInteger notModifiedResponses = new AtomicInteger();
+    private static final AtomicInteger gzipResponses = new AtomicInteger();
+
+    @BeforeAll
+    static void init() throws Exception {
+        content = Files.readAllBytes(Paths.get(CONFIG_FILE));
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/config", Test_ConfigURLReader::handle);
+        server.createContext("/error", Test_ConfigURLReader::handleError);
+        server.start();
+    }
+
+    @AfterAll
+    static void dispose() {
+        if (server != null) {
+            server.stop(0);
+        }
+    }
+
+    private static void handle(HttpExchange exchange) {
+        try {
+            String match = exchange.getRequestHeaders().getFirst("If-None-Match");
+            if (etag.equals(match)) {
+                notModifiedResponses.incrementAndGet();
+                exchange.sendResponseHeaders(304, -1);
+                return;
+            }
+            fullResponses.incrementAndGet();
+            exchange.getResponseHeaders().add("ETag", etag);
+            String encoding =
+                    exchange.getRequestHeaders().getFirst("Accept-Encoding");
+            if (encoding != null && encoding.contains("gzip")) {
+                gzipResponses.incrementAndGet();
+                exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+                exchange.sendResponseHeaders(200, 0);
+                try (OutputStream out = new GZIPOutputStream(
+                        exchange.getResponseBody())) {
+                    out.write(content);
+                }
+            } else {
+                exchange.sendResponseHeaders(200, content.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(content);
+                }
+            }
+        } catch (Exception e) {
+            error(Test_ConfigURLReader.class, e);
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private static void handleError(HttpExchange exchange) {
+        try {
+            String path = exchange.getRequestURI().getPath();
+            int code = Integer.parseInt(path.substring(path.lastIndexOf('/') + 1));
+            exchange.sendResponseHeaders(code, -1);
+        } catch (Exception e) {
+            error(Test_ConfigURLReader.class, e);
+        } finally {
+            exchange.close();
+        }
+    }
+
+    @Test
+    void errorResponse() {
+        try {
+            ConfigurationSettings settings = new ConfigurationSettings();
+            settings.setTempDirectory(
+                    Files.createTempDirectory("zconfig-http").toString());
+            for (int code : new int[]{404, 500}) {
+                URL url = new URL(String.format("http://localhost:%d/error/%d",
+                                                server.getAddress().getPort(),
+                                                code));
+                try (ConfigURLReader reader = new ConfigURLReader(url, settings)) {
+                    ConfigurationException e = assertThrows(
+                            ConfigurationException.class, reader::open);
+                    assertTrue(e.getCause() instanceof IOException);
+                    assertTrue(e.getLocalizedMessage()
+                                .contains(String.format("[response=%d]", code)));
+                    assertTrue(reader.getState().hasError());
+                    assertFalse(reader.isOpen());
+                }
+            }
+        } catch (Throwable t) {
+            error(getClass(), t);
+            fail(t);
+        }
+    }
+
+    @Test
+    void settingsTempDirectory() {
+        try {
+            ConfigurationSettings settings = new ConfigurationSettings();
+            settings.setTempDirectory(
+                    Files.createTempDirectory("zconfig-http").toString());
+            URI uri = new URI(String.format("http://localhost:%d/config/test-config.json",
+                                            server.getAddress().getPort()));
+            try (AbstractConfigReader reader =
+                         ConfigProviderFactory.reader(uri, settings)) {
+                assertTrue(reader instanceof ConfigURLReader);
+                assertTrue(((ConfigURLReader) reader).getCacheDirectory()
+                                   .startsWith(settings.getTempDirectory()));
+            }
+        } catch (Throwable t) {
+            error(getClass(), t);
+            fail(t);
+        }
+    }
+
+    @Test
+    void conditionalFetch() {
+        try {
+            URL url = new URL(String.format("http://localhost:%d/config/test-config.json",
+                                            server.getAddress().getPort()));
+            ConfigurationSettings settings = new ConfigurationSettings();
+            settings.setTempDirectory(
+                    Files.createTempDirectory("zconfig-http").toString());
+
+            try (ConfigURLReader reader = new ConfigURLReader(url, settings)) {
+                reader.open();
+                assertFalse(reader.isNotModified());
+                assertArrayEquals(content, read(reader));
+            }
+            assertEquals(1, fullResponses.get());
+            assertEquals(1, gzipResponses.get());
+
+            try (ConfigURLReader reader = new ConfigURLReader(url, settings)) {
+                reader.open();
+                assertTrue(reader.isNotModified());
+                assertArrayEquals(content, read(reader));
+                assertEquals(1, notModifiedResponses.get());
+
+                try (AbstractConfigParser parser =
+                             ConfigProviderFactory.parser(CONFIG_FILE)) {
+                    assertNotNull(parser);
+                    parser.parse("test-config", reader, null,
+                                 Version.parse("0.0"), null);
+                    Configuration configuration = parser.getConfiguration();
+                    assertNotNull(configuration);
+                    assertNotNull(configuration.find("configuration/node_1"));
+                }
+            }
+            assertEquals(1, fullResponses.get());
+
+            byte[] previous = content;
+            content = new String(previous, "UTF-8")
+                    .replace("TEST_PARAM_4", "TEST_PARAM_4_CHANGED")
+                    .getBytes("UTF-8");
+            etag = "\"v2\"";
+            try (ConfigURLReader reader = new ConfigURLReader(url, settings)) {
+                reader.open();
+                assertFalse(reader.isNotModified());
+                assertArrayEquals(content, read(reader));
+            }
+            assertEquals(2, fullResponses.get());
+        } catch (Throwable t) {
+            error(getClass(), t);
+            fail(t);
+        }
+    }
+
+    private static byte[] read(ConfigURLReader reader) throws Exception {
+        try (InputStream input = reader.getInputStream()) {
+            return ByteStreams.toByteArray(input);
+        }
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ * Copyright (c) $year
+ * Date: 16/10/26 7:30 PM
+ * Subho Ghosh (subho dot ghosh at outlook.com)
+ *
+ */
+
+package com.codekutter.zconfig.common.utils;
+
+import com.codekutter.zconfig.common.ConfigProviderFactory;
+import com.codekutter.zconfig.common.ConfigTestConstants;
+import com.codekutter.zconfig.common.model.Configuration;
+import com.codekutter.zconfig.common.model.ConfigurationSettings;
+import com.codekutter.zconfig.common.model.Version;
+import com.codekutter.zconfig.common.model.nodes.AbstractConfigNode;
+import com.codekutter.zconfig.common.model.nodes.ConfigValueNode;
+import com.codekutter.zconfig.common.parsers.JSONConfigParser;
+import com.codekutter.zconfig.common.readers.ConfigFileReader;
+import com.google.common.base.Strings;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.FileInputStream;
+import java.util.Properties;
+
+import static com.codekutter.zconfig.common.LogUtils.error;
+import static org.junit.jupiter.api.Assertions.*;
+
+class Test_ConfigVault {
+    private static final String BASE_PROPS_FILE =
+            "src/test/resources/json/test-config-encrypted.properties";
+    private static Configuration configuration = null;
+    private static String encryptionKey = "21947a50-6755-47";
+    private static String encryptedValue = null;
+
+    @BeforeAll
+    static void init() throws Exception {
+        JSONConfigParser parser =
+                (JSONConfigParser) ConfigProviderFactory.parser(
+                        ConfigProviderFactory.EConfigType.JSON);
+        assertNotNull(parser);
+
+        Properties properties = new Properties();
+        properties.load(new FileInputStream(BASE_PROPS_FILE));
+
+        String filename = properties.getProperty(
+                ConfigTestConstants.PROP_CONFIG_FILE);
+        assertFalse(Strings.isNullOrEmpty(filename));
+        String vs = properties.getProperty(ConfigTestConstants.PROP_CONFIG_VERSION);
+        assertFalse(Strings.isNullOrEmpty(vs));
+        Version version = Version.parse(vs);
+        assertNotNull(version);
+
+        try (ConfigFileReader reader = new ConfigFileReader(filename)) {
+            ConfigurationSettings settings = new ConfigurationSettings();
+            settings.setDownloadRemoteFiles(
+                    ConfigurationSettings.EStartupOptions.OnStartUp);
+            parser.parse("test-config", reader, settings, version, encryptionKey);
+            configuration = parser.getConfiguration();
+            assertNotNull(configuration);
+        }
+        AbstractConfigNode node =
+                configuration.find("configuration/node_1/node_2#PARAM_3");
+        assertTrue(node instanceof ConfigValueNode);
+        encryptedValue = ((ConfigValueNode) node).getValue();
+    }
+
+    @Test
+    void decryptCached() {
+        try {
+            CypherUtils.ConfigVault vault = new CypherUtils.ConfigVault();
+            vault.addPasscode(configuration, encryptionKey);
+
+            assertEquals("TEST-PARAM-3", vault.decrypt(encryptedValue, configuration));
+            assertEquals(1, vault.getCachedCount());
+            assertEquals("TEST-PARAM-3", vault.decrypt(encryptedValue, configuration));
+            assertEquals(1, vault.getCachedCount());
+
+            vault.wipe(configuration);
+            assertEquals(0, vault.getCachedCount());
+            assertEquals("TEST-PARAM-3", vault.decrypt(encryptedValue, configuration));
+
+            vault.wipe();
+            assertEquals(0, vault.getCachedCount());
+        } catch (Throwable e) {
+            error(getClass(), e);
+            fail(e);
+        }
+    }
+
+    @Test
+    void decryptNotCached() {
+        try {
+            CypherUtils.ConfigVault vault = new CypherUtils.ConfigVault(0);
+            vault.addPasscode(configuration, encryptionKey);
+
+            assertEquals("TEST-PARAM-3", vault.decrypt(encryptedValue, configuration));
+            assertEquals("TEST-PARAM-3", vault.decrypt(encryptedValue, configuration));
+            assertEquals(0, vault.getCachedCount());
+        } catch (Throwable e) {
+            error(getClass(), e);
+            fail(e);
+        }
+    }
+
+    @Test
+    void decryptExpired() {
+        try {
+            CypherUtils.ConfigVault vault = new CypherUtils.ConfigVault(200);
+            vault.addPasscode(configuration, encryptionKey);
+
+            assertEquals("TEST-PARAM-3", vault.decrypt(encryptedValue, configuration));
+            assertEquals(1, vault.getCachedCount());
+
+            Thread.sleep(500);
+            assertEquals(0, vault.getCachedCount());
+            assertEquals("TEST-PARAM-3", vault.decrypt(encryptedValue, configuration));
+            assertEquals(1, vault.getCachedCount());
+            vault.wipe();
+        } catch (Throwable e) {
+            error(getClass(), e);
+            fail(e);
+        }
+    }
+}
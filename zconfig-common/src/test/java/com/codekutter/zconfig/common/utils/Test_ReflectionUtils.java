@@ -55,6 +55,54 @@ class Test_ReflectionUtils {
         }
     }
 
+    public static class TestValues {
+        private int intValue;
+        private Long longValue;
+        private double doubleValue;
+        private boolean enabled;
+        private String name;
+
+        public int getIntValue() {
+            return intValue;
+        }
+
+        public void setIntValue(int intValue) {
+            this.intValue = intValue;
+        }
+
+        public Long getLongValue() {
+            return longValue;
+        }
+
+        public void setLongValue(Long longValue) {
+            this.longValue = longValue;
+        }
+
+        public double getDoubleValue() {
+            return doubleValue;
+        }
+
+        public void setDoubleValue(double doubleValue) {
+            this.doubleValue = doubleValue;
+        }
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+    }
+
     @Test
     void isSuperType() {
         boolean ret = ReflectionUtils
@@ -90,4 +138,44 @@ class Test_ReflectionUtils {
             fail(e.getLocalizedMessage());
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    void setFieldValues() {
+        try {
+            TestValues values = new TestValues();
+            Class<?> cls = TestValues.class;
+            ReflectionUtils.setValueFromString("100", values,
+                                               cls.getDeclaredField("intValue"));
+            ReflectionUtils.setValueFromString("10000000000", values,
+                                               cls.getDeclaredField("longValue"));
+            ReflectionUtils.setValueFromString("1.5", values,
+                                               cls.getDeclaredField("doubleValue"));
+            ReflectionUtils.setValueFromString("true", values,
+                                               cls.getDeclaredField("enabled"));
+            ReflectionUtils.setValueFromString("test", values,
+                                               cls.getDeclaredField("name"));
+            assertEquals(100, values.getIntValue());
+            assertEquals(Long.valueOf(10000000000L), values.getLongValue());
+            assertEquals(1.5, values.getDoubleValue());
+            assertTrue(values.isEnabled());
+            assertEquals("test", values.getName());
+
+            Field f = cls.getDeclaredField("longValue");
+            ReflectionUtils.setObjectValue(values, f, null);
+            assertNull(ReflectionUtils.getFieldValue(values, f));
+            assertEquals(Boolean.TRUE, ReflectionUtils.getFieldValue(values,
+                                                                     cls.getDeclaredField("enabled")));
+            assertSame(FieldAccessor.get(cls, f), FieldAccessor.get(cls, f));
+
+            // Fields without setters.
+            TestList list = new TestList();
+            assertThrows(Exception.class,
+                         () -> ReflectionUtils.setObjectValue(list,
+                                                              TestList.class.getDeclaredField("ints"),
+                                                              new ArrayList<Integer>()));
+        } catch (Exception e) {
+            LogUtils.error(getClass(), e);
+            fail(e.getLocalizedMessage());
+        }
+    }
+}
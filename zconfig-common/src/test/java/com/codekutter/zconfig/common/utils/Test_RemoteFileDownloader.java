@@ -0,0 +1,191 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ * Copyright (c) $year
+ * Date: 17/10/26 11:50 PM
+ * Subho Ghosh (subho dot ghosh at outlook.com)
+ *
+ */
+
+package com.codekutter.zconfig.common.utils;
+
+import com.google.common.hash.Hashing;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.file.Files;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.codekutter.zconfig.common.LogUtils.debug;
+import static com.codekutter.zconfig.common.LogUtils.error;
+import static org.junit.jupiter.api.Assertions.*;
+
+class Test_RemoteFileDownloader {
+    private static final String ETAG = "\"v1\"";
+    private static final byte[] CONTENT = new byte[256 * 1024];
+    private static HttpServer server = null;
+    private static final AtomicInteger requests = new AtomicInteger();
+    private static final AtomicInteger ranges = new AtomicInteger();
+    private static final AtomicInteger notModified = new AtomicInteger();
+    /**
+     * Number of responses to truncate (simulated connection failures).
+     */
+    private static final AtomicInteger failures = new AtomicInteger();
+
+    @BeforeAll
+    static void init() throws Exception {
+        new Random(17).nextBytes(CONTENT);
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/file", Test_RemoteFileDownloader::handle);
+        server.start();
+    }
+
+    @AfterAll
+    static void dispose() {
+        if (server != null) {
+            server.stop(0);
+        }
+    }
+
+    @BeforeEach
+    void reset() {
+        requests.set(0);
+        ranges.set(0);
+        notModified.set(0);
+        failures.set(0);
+    }
+
+    private static void handle(HttpExchange exchange) throws IOException {
+        try {
+            requests.incrementAndGet();
+            exchange.getResponseHeaders().set("ETag", ETAG);
+            if (ETAG.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                notModified.incrementAndGet();
+                exchange.sendResponseHeaders(304, -1);
+                return;
+            }
+            int offset = 0;
+            String range = exchange.getRequestHeaders().getFirst("Range");
+            if (range != null &&
+                    ETAG.equals(exchange.getRequestHeaders().getFirst("If-Range"))) {
+                offset = Integer.parseInt(
+                        range.substring("bytes=".length(), range.indexOf('-')));
+                ranges.incrementAndGet();
+                exchange.getResponseHeaders().set("Content-Range",
+                                                  String.format("bytes %d-%d/%d",
+                                                                offset,
+                                                                CONTENT.length - 1,
+                                                                CONTENT.length));
+                exchange.sendResponseHeaders(206, CONTENT.length - offset);
+            } else {
+                exchange.sendResponseHeaders(200, CONTENT.length);
+            }
+            OutputStream out = exchange.getResponseBody();
+            if (failures.getAndDecrement() > 0) {
+                // Send half the content and drop the connection.
+                out.write(CONTENT, offset, (CONTENT.length - offset) / 2);
+                out.flush();
+                return;
+            }
+            out.write(CONTENT, offset, CONTENT.length - offset);
+            out.close();
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private static URI getURI(String name) {
+        return URI.create(String.format("http://localhost:%d/file/%s",
+                                        server.getAddress().getPort(), name));
+    }
+
+    private static RemoteFileDownloader getDownloader() {
+        RemoteFileDownloader downloader = new RemoteFileDownloader();
+        downloader.setRetryInterval(10);
+        return downloader;
+    }
+
+    @Test
+    void resumeAndSkip() {
+        try {
+            File dir = Files.createTempDirectory("zconfig-download").toFile();
+            File target = new File(dir, "resume.dat");
+            String checksum = "sha256:" + Hashing.sha256().hashBytes(CONTENT).toString();
+
+            failures.set(1);
+            RemoteFileDownloader downloader = getDownloader();
+            long bread = downloader.download(getURI("resume"), target, checksum);
+            assertArrayEquals(CONTENT, Files.readAllBytes(target.toPath()));
+            assertEquals(2, requests.get());
+            assertEquals(1, ranges.get());
+            assertTrue(bread < CONTENT.length);
+            assertFalse(new File(target.getAbsolutePath() +
+                                         RemoteFileDownloader.PART_FILE_EXT).exists());
+            assertTrue(RemoteFileDownloader.isDownloaded(target, checksum));
+            debug(getClass(), String.format("Resumed download. [read=%d]", bread));
+
+            // Verified against the checksum, no request made.
+            assertEquals(0, downloader.download(getURI("resume"), target, checksum));
+            assertEquals(2, requests.get());
+
+            // Re-validated using the ETag.
+            assertEquals(0, downloader.download(getURI("resume"), target, null));
+            assertEquals(3, requests.get());
+            assertEquals(1, notModified.get());
+        } catch (Throwable t) {
+            error(getClass(), t);
+            fail(t);
+        }
+    }
+
+    @Test
+    void checksumMismatch() {
+        try {
+            File dir = Files.createTempDirectory("zconfig-download").toFile();
+            File target = new File(dir, "invalid.dat");
+            String checksum = "md5:" + Hashing.md5().hashBytes(new byte[1]).toString();
+
+            RemoteFileDownloader downloader = getDownloader();
+            downloader.setRetries(1);
+            assertThrows(IOException.class,
+                         () -> downloader.download(getURI("invalid"), target,
+                                                   checksum));
+            assertEquals(2, requests.get());
+            assertFalse(target.exists());
+            assertFalse(RemoteFileDownloader.isDownloaded(target, checksum));
+
+            assertThrows(IOException.class,
+                         () -> RemoteFileDownloader.getDigestAlgorithm("crc:0000"));
+            assertEquals("SHA-1", RemoteFileDownloader.getDigestAlgorithm(
+                    Hashing.sha1().hashBytes(CONTENT).toString()));
+        } catch (Throwable t) {
+            error(getClass(), t);
+            fail(t);
+        }
+    }
+}
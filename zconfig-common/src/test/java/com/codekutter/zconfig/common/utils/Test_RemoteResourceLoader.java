@@ -0,0 +1,188 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ * Copyright (c) $year
+ * Date: 17/10/26 10:40 PM
+ * Subho Ghosh (subho dot ghosh at outlook.com)
+ *
+ */
+
+package com.codekutter.zconfig.common.utils;
+
+import com.codekutter.zconfig.common.ConfigProviderFactory;
+import com.codekutter.zconfig.common.model.Configuration;
+import com.codekutter.zconfig.common.model.ConfigurationSettings;
+import com.codekutter.zconfig.common.model.Version;
+import com.codekutter.zconfig.common.model.nodes.ConfigResourceFile;
+import com.codekutter.zconfig.common.parsers.AbstractConfigParser;
+import com.codekutter.zconfig.common.readers.ConfigFileReader;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.codekutter.zconfig.common.LogUtils.debug;
+import static com.codekutter.zconfig.common.LogUtils.error;
+import static org.junit.jupiter.api.Assertions.*;
+
+class Test_RemoteResourceLoader {
+    private static final String CONFIG_FILE =
+            "src/test/resources/json/test-config.json";
+    private static final byte[] CONTENT =
+            "Remote resource content.".getBytes(StandardCharsets.UTF_8);
+    private static HttpServer server = null;
+    private static final AtomicInteger requests = new AtomicInteger();
+
+    @BeforeAll
+    static void init() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/resource", Test_RemoteResourceLoader::handle);
+        server.setExecutor(Executors.newFixedThreadPool(4));
+        server.start();
+    }
+
+    @AfterAll
+    static void dispose() {
+        if (server != null) {
+            server.stop(0);
+        }
+    }
+
+    private static void handle(HttpExchange exchange) {
+        try {
+            requests.incrementAndGet();
+            // Slow response, so that concurrent accesses overlap.
+            Thread.sleep(200);
+            exchange.sendResponseHeaders(200, CONTENT.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(CONTENT);
+            }
+        } catch (Exception e) {
+            error(Test_RemoteResourceLoader.class, e);
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private static URI getURI(String name) {
+        return URI.create(String.format("http://localhost:%d/resource/%s",
+                                        server.getAddress().getPort(), name));
+    }
+
+    @Test
+    void singleDownload() {
+        try {
+            File dir = Files.createTempDirectory("zconfig-resource").toFile();
+            ConfigResourceFile node = new ConfigResourceFile();
+            node.setName("remoteResource");
+            node.setLocation(getURI("single"));
+            node.setResourceName("single.txt");
+            node.setResourceHandle(new File(dir, "single.txt"));
+            node.setDownloadPending(true);
+
+            int start = requests.get();
+            ExecutorService executor = Executors.newFixedThreadPool(8);
+            try {
+                List<Future<File>> futures = new ArrayList<>();
+                CountDownLatch latch = new CountDownLatch(1);
+                for (int ii = 0; ii < 8; ii++) {
+                    futures.add(executor.submit(() -> {
+                        latch.await();
+                        return node.getResourceHandle();
+                    }));
+                }
+                latch.countDown();
+                for (Future<File> future : futures) {
+                    File file = future.get(30, TimeUnit.SECONDS);
+                    assertArrayEquals(CONTENT, Files.readAllBytes(file.toPath()));
+                }
+            } finally {
+                executor.shutdownNow();
+            }
+            assertEquals(1, requests.get() - start);
+            assertFalse(node.isDownloadPending());
+            assertTrue(node.getFetchTime() >= 0);
+            debug(getClass(), String.format("Resource fetched. [time=%dms]",
+                                            node.getFetchTime()));
+        } catch (Throwable t) {
+            error(getClass(), t);
+            fail(t);
+        }
+    }
+
+    @Test
+    void prefetch() {
+        try {
+            ConfigurationSettings settings = new ConfigurationSettings();
+            settings.setTempDirectory(
+                    Files.createTempDirectory("zconfig-resource").toString());
+            settings.setDownloadRemoteFiles(
+                    ConfigurationSettings.EStartupOptions.OnDemand);
+
+            Configuration configuration;
+            try (AbstractConfigParser parser = ConfigProviderFactory.parser(CONFIG_FILE);
+                 ConfigFileReader reader = new ConfigFileReader(CONFIG_FILE)) {
+                assertNotNull(parser);
+                parser.parse("test-config", reader, settings, Version.parse("0.0"),
+                             null);
+                configuration = parser.getConfiguration();
+                assertNotNull(configuration);
+            }
+            List<ConfigResourceFile> nodes = new ArrayList<>();
+            configuration.getPathIndex().forEach((path, node) -> {
+                if (node instanceof ConfigResourceFile) {
+                    nodes.add((ConfigResourceFile) node);
+                }
+            });
+            assertFalse(nodes.isEmpty());
+            for (ConfigResourceFile node : nodes) {
+                assertTrue(node.isDownloadPending());
+                assertFalse(node.getResourceHandle(false).exists());
+                // Serve the resources from the test server.
+                node.setLocation(getURI(node.getResourceName()));
+            }
+
+            int start = requests.get();
+            RemoteResourceLoader loader = new RemoteResourceLoader(2);
+            loader.prefetch(configuration).get(30, TimeUnit.SECONDS);
+            assertEquals(nodes.size(), requests.get() - start);
+            assertEquals(nodes.size(), loader.getDownloadCount());
+            for (ConfigResourceFile node : nodes) {
+                assertFalse(node.isDownloadPending());
+                assertArrayEquals(CONTENT, Files.readAllBytes(
+                        node.getResourceHandle().toPath()));
+            }
+            assertEquals(nodes.size(), requests.get() - start);
+        } catch (Throwable t) {
+            error(getClass(), t);
+            fail(t);
+        }
+    }
+}
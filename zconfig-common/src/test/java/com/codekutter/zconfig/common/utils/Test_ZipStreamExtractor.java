@@ -0,0 +1,188 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ * Copyright (c) $year
+ * Date: 18/10/26 1:10 AM
+ * Subho Ghosh (subho dot ghosh at outlook.com)
+ *
+ */
+
+package com.codekutter.zconfig.common.utils;
+
+import com.google.common.hash.Hashing;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static com.codekutter.zconfig.common.LogUtils.debug;
+import static com.codekutter.zconfig.common.LogUtils.error;
+import static org.junit.jupiter.api.Assertions.*;
+
+class Test_ZipStreamExtractor {
+    private static HttpServer server = null;
+    private static volatile byte[] archive = null;
+    private static volatile String etag = null;
+
+    @BeforeAll
+    static void init() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/archive", Test_ZipStreamExtractor::handle);
+        server.start();
+    }
+
+    @AfterAll
+    static void dispose() {
+        if (server != null) {
+            server.stop(0);
+        }
+    }
+
+    private static void handle(HttpExchange exchange) throws IOException {
+        try {
+            exchange.getResponseHeaders().set("ETag", etag);
+            if (etag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                exchange.sendResponseHeaders(304, -1);
+                return;
+            }
+            exchange.sendResponseHeaders(200, archive.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(archive);
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /**
+     * Create a zip archive, entries prefixed with "stored/" are stored
+     * (CRC in the entry header), others are deflated (CRC after the data).
+     */
+    private static byte[] zip(Map<String, String> entries) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ZipOutputStream zos = new ZipOutputStream(bytes)) {
+            zos.putNextEntry(new ZipEntry("stored/"));
+            zos.closeEntry();
+            for (Map.Entry<String, String> entry : entries.entrySet()) {
+                byte[] data = entry.getValue().getBytes(StandardCharsets.UTF_8);
+                ZipEntry ze = new ZipEntry(entry.getKey());
+                if (entry.getKey().startsWith("stored/")) {
+                    CRC32 crc = new CRC32();
+                    crc.update(data);
+                    ze.setMethod(ZipEntry.STORED);
+                    ze.setSize(data.length);
+                    ze.setCompressedSize(data.length);
+                    ze.setCrc(crc.getValue());
+                }
+                zos.putNextEntry(ze);
+                zos.write(data);
+                zos.closeEntry();
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    private static String read(File file) throws IOException {
+        return new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void incrementalExtract() {
+        try {
+            File dir = new File(Files.createTempDirectory("zconfig-zip").toFile(),
+                                "resources");
+            URI uri = URI.create(String.format("http://localhost:%d/archive/data.zip",
+                                               server.getAddress().getPort()));
+            RemoteFileDownloader downloader = new RemoteFileDownloader();
+
+            Map<String, String> entries = new LinkedHashMap<>();
+            entries.put("a.txt", "File A");
+            entries.put("b.txt", "File B");
+            entries.put("c.txt", "File C");
+            entries.put("stored/s.txt", "Stored file");
+            archive = zip(entries);
+            etag = "\"v1\"";
+
+            ZipStreamExtractor extractor = new ZipStreamExtractor(dir);
+            assertEquals(archive.length, downloader.stream(uri, dir, null, extractor));
+            assertEquals(4, extractor.getWritten());
+            assertEquals("File C", read(new File(dir, "c.txt")));
+            assertEquals("Stored file", read(new File(dir, "stored/s.txt")));
+            assertTrue(RemoteFileDownloader.isDownloaded(dir, null));
+
+            // Not modified, nothing extracted.
+            extractor = new ZipStreamExtractor(dir);
+            assertEquals(0, downloader.stream(uri, dir, null, extractor));
+            assertEquals(0, extractor.getWritten());
+
+            entries.put("b.txt", "File B (changed)");
+            entries.remove("c.txt");
+            entries.put("d/d.txt", "File D");
+            archive = zip(entries);
+            etag = "\"v2\"";
+            String checksum = Hashing.sha256().hashBytes(archive).toString();
+
+            // Checksum mismatch, directory not updated.
+            extractor = new ZipStreamExtractor(dir);
+            downloader.setRetries(0);
+            final ZipStreamExtractor failed = extractor;
+            assertThrows(IOException.class,
+                         () -> downloader.stream(uri, dir, "sha256:" +
+                                 Hashing.sha256().hashBytes(new byte[1]), failed));
+            assertEquals("File B", read(new File(dir, "b.txt")));
+            assertTrue(new File(dir, "c.txt").exists());
+
+            extractor = new ZipStreamExtractor(dir);
+            assertEquals(archive.length,
+                         downloader.stream(uri, dir, checksum, extractor));
+            assertEquals(2, extractor.getWritten());
+            assertEquals(2, extractor.getSkipped());
+            assertEquals("File A", read(new File(dir, "a.txt")));
+            assertEquals("File B (changed)", read(new File(dir, "b.txt")));
+            assertEquals("File D", read(new File(dir, "d/d.txt")));
+            assertFalse(new File(dir, "c.txt").exists());
+            assertTrue(RemoteFileDownloader.isDownloaded(dir, checksum));
+
+            String[] siblings = dir.getParentFile().list();
+            assertNotNull(siblings);
+            for (String name : siblings) {
+                assertFalse(name.contains(".staging"));
+            }
+            debug(getClass(), String.format("Extracted archive. [path=%s]",
+                                            dir.getAbsolutePath()));
+        } catch (Throwable t) {
+            error(getClass(), t);
+            fail(t);
+        }
+    }
+}
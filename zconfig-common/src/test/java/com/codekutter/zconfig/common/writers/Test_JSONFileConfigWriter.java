@@ -24,11 +24,15 @@
 
 package com.codekutter.zconfig.common.writers;
 
+import com.codekutter.zconfig.common.JSONConfigConstants;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.base.Strings;
 import com.codekutter.zconfig.common.ConfigProviderFactory;
 import com.codekutter.zconfig.common.ConfigTestConstants;
 import com.codekutter.zconfig.common.model.Configuration;
 import com.codekutter.zconfig.common.model.Version;
+import com.codekutter.zconfig.common.model.nodes.ConfigValueNode;
 import com.codekutter.zconfig.common.parsers.JSONConfigParser;
 import com.codekutter.zconfig.common.readers.ConfigFileReader;
 import org.junit.jupiter.api.BeforeAll;
@@ -36,7 +40,7 @@ import org.junit.jupiter.api.Test;
 
 import java.io.File;
 import java.io.FileInputStream;
-import java.util.Properties;
+import java.util.*;
 
 import static com.codekutter.zconfig.common.LogUtils.debug;
 import static com.codekutter.zconfig.common.LogUtils.error;
@@ -106,4 +110,56 @@ class Test_JSONFileConfigWriter {
             fail(e);
         }
     }
-}
\ No newline at end of file
+
+    private static void collectValues(JsonNode node, Set<String> values) {
+        if (node.isTextual()) {
+            values.add(node.textValue());
+        } else {
+            for (JsonNode child : node) {
+                collectValues(child, values);
+            }
+        }
+    }
+
+    @Test
+    void streamedWrite() {
+        try {
+            assertNotNull(configuration);
+
+            JSONFileConfigWriter writer = new JSONFileConfigWriter();
+            String outfile = writer.write(configuration, TEMP_OUTDIR);
+            // Existing output is replaced.
+            assertEquals(outfile, writer.write(configuration, TEMP_OUTDIR));
+            File[] tmpfiles = new File(TEMP_OUTDIR)
+                    .listFiles((dir, name) -> name.endsWith(".tmp"));
+            assertNotNull(tmpfiles);
+            assertEquals(0, tmpfiles.length);
+
+            JsonNode root = new ObjectMapper().readTree(new File(outfile));
+            JsonNode header = root.get(JSONConfigConstants.CONFIG_HEADER_NODE);
+            assertNotNull(header);
+            assertEquals(configuration.getName(),
+                         header.get(JSONConfigConstants.CONFIG_HEADER_NAME).textValue());
+            assertNotNull(root.get(configuration.getRootConfigNode().getName()));
+
+            Set<String> written = new HashSet<>();
+            collectValues(root, written);
+            List<String> values = new ArrayList<>();
+            configuration.getPathIndex().forEach((path, node) -> {
+                if (node instanceof ConfigValueNode &&
+                        ((ConfigValueNode) node).getValue() != null) {
+                    values.add(((ConfigValueNode) node).getValue());
+                }
+            });
+            assertFalse(values.isEmpty());
+            for (String value : values) {
+                assertTrue(written.contains(value), value);
+            }
+            debug(getClass(), String.format("Verified written values. [count=%d]",
+                                            values.size()));
+        } catch (Throwable e) {
+            error(getClass(), e);
+            fail(e);
+        }
+    }
+}
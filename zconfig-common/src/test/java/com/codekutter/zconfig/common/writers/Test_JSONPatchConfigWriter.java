@@ -0,0 +1,151 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ * Copyright (c) $year
+ * Date: 18/10/26 2:50 AM
+ * Subho Ghosh (subho dot ghosh at outlook.com)
+ *
+ */
+
+package com.codekutter.zconfig.common.writers;
+
+import com.codekutter.zconfig.common.ConfigProviderFactory;
+import com.codekutter.zconfig.common.ConfigTestConstants;
+import com.codekutter.zconfig.common.model.Configuration;
+import com.codekutter.zconfig.common.model.Version;
+import com.codekutter.zconfig.common.model.nodes.ConfigPathNode;
+import com.codekutter.zconfig.common.model.nodes.ConfigValueNode;
+import com.codekutter.zconfig.common.parsers.JSONConfigParser;
+import com.codekutter.zconfig.common.readers.ConfigFileReader;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.google.common.base.Strings;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+
+import static com.codekutter.zconfig.common.LogUtils.debug;
+import static com.codekutter.zconfig.common.LogUtils.error;
+import static org.junit.jupiter.api.Assertions.*;
+
+class Test_JSONPatchConfigWriter {
+    private static final String JSON_FILE =
+            "src/test/resources/json/test-config.properties";
+
+    private static Configuration load(String filename) throws Exception {
+        JSONConfigParser parser =
+                (JSONConfigParser) ConfigProviderFactory.parser(
+                        ConfigProviderFactory.EConfigType.JSON);
+        assertNotNull(parser);
+        Properties properties = new Properties();
+        properties.load(new FileInputStream(JSON_FILE));
+        if (filename == null) {
+            filename = properties.getProperty(ConfigTestConstants.PROP_CONFIG_FILE);
+        }
+        assertFalse(Strings.isNullOrEmpty(filename));
+        Version version = Version.parse(
+                properties.getProperty(ConfigTestConstants.PROP_CONFIG_VERSION));
+        try (ConfigFileReader reader = new ConfigFileReader(filename)) {
+            parser.parse("test-config", reader, null, version, null);
+            return parser.getConfiguration();
+        }
+    }
+
+    private static ConfigValueNode getParam(Configuration configuration) {
+        ConfigPathNode node = (ConfigPathNode) configuration.getRootConfigNode()
+                                                            .getChildNode("node_1");
+        assertNotNull(node);
+        return node.parmeters().getKeyValues().get("PARAM_2");
+    }
+
+    @Test
+    void incrementalWrite() {
+        try {
+            File outdir = Files.createTempDirectory("zconfig-patch").toFile();
+            JSONPatchConfigWriter writer = new JSONPatchConfigWriter();
+            writer.setCompactRatio(1.0);
+
+            File base = new File(writer.write(load(null), outdir.getAbsolutePath()));
+            File patch = JSONPatchConfigWriter.getPatchFile(base);
+            assertTrue(base.exists());
+            assertFalse(patch.exists());
+            byte[] written = Files.readAllBytes(base.toPath());
+
+            // Load the written configuration, only the changes are written.
+            String path = base.getAbsolutePath();
+            Configuration configuration = load(path);
+            assertEquals(path, writer.write(configuration, path));
+            assertFalse(patch.exists());
+
+            getParam(configuration).setValue("CHANGED_PARAM_2");
+            ConfigPathNode node = (ConfigPathNode) configuration.getRootConfigNode()
+                                                                .getChildNode("node_1");
+            assertTrue(node.removeChildNode("TEST_ELEMENT_LIST"));
+            ConfigValueNode added = new ConfigValueNode(configuration,
+                                                        configuration.getRootConfigNode());
+            added.setName("ADDED_VALUE");
+            added.setValue("ADDED");
+            configuration.getRootConfigNode().addChildNode(added);
+
+            writer.write(configuration, path);
+            assertArrayEquals(written, Files.readAllBytes(base.toPath()));
+            assertTrue(patch.exists());
+            assertTrue(patch.length() < base.length() / 4);
+            List<String> lines = Files.readAllLines(patch.toPath());
+            assertEquals(1, lines.size());
+            debug(getClass(), String.format("Written patch. [patch=%s]", lines.get(0)));
+
+            // Nothing changed since the last write.
+            writer.write(configuration, path);
+            assertEquals(1, Files.readAllLines(patch.toPath()).size());
+
+            // Incomplete (failed) write is ignored.
+            Files.write(patch.toPath(), Arrays.asList("[{\"op\":\"rem"),
+                        StandardOpenOption.APPEND);
+            JsonNode root = JSONPatchConfigWriter.read(base);
+            assertEquals("CHANGED_PARAM_2",
+                         root.at("/configuration/node_1/parameters/PARAM_2").asText());
+            assertTrue(root.at("/configuration/node_1/TEST_ELEMENT_LIST").isMissingNode());
+            assertEquals("ADDED", root.at("/configuration/ADDED_VALUE").asText());
+
+            assertTrue(JSONPatchConfigWriter.merge(base));
+            assertFalse(patch.exists());
+            Configuration merged = load(path);
+            assertEquals("CHANGED_PARAM_2", getParam(merged).getValue());
+            assertNull(((ConfigPathNode) merged.getRootConfigNode()
+                                               .getChildNode("node_1"))
+                               .getChildNode("TEST_ELEMENT_LIST"));
+
+            // Patch exceeds the compaction ratio.
+            writer.setCompactRatio(0.0001);
+            getParam(merged).setValue("COMPACTED_PARAM_2");
+            writer.write(merged, path);
+            assertFalse(patch.exists());
+            assertEquals("COMPACTED_PARAM_2",
+                         getParam(load(path)).getValue());
+        } catch (Throwable t) {
+            error(getClass(), t);
+            fail(t);
+        }
+    }
+}
@@ -0,0 +1,921 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ * Copyright (c) $year
+ * Date: 18/10/26 5:40 AM
+ * Subho Ghosh (subho dot ghosh at outlook.com)
+ *
+ */
+
+package com.codekutter.zconfig.processor;
+
+import com.codekutter.zconfig.common.AbstractConfigBinder;
+import com.codekutter.zconfig.common.ConfigurationAnnotationProcessor;
+import com.codekutter.zconfig.common.ConfigurationException;
+import com.codekutter.zconfig.common.IConfigBinder;
+import com.codekutter.zconfig.common.model.EncryptedValue;
+import com.codekutter.zconfig.common.model.annotations.*;
+import com.codekutter.zconfig.common.model.annotations.transformers.NullTransformer;
+import com.codekutter.zconfig.common.model.nodes.AbstractConfigNode;
+import com.codekutter.zconfig.common.model.nodes.ConfigAttributesNode;
+import com.codekutter.zconfig.common.model.nodes.ConfigParametersNode;
+import com.codekutter.zconfig.common.model.nodes.ConfigPathNode;
+import com.codekutter.zconfig.common.utils.CollectionUtils;
+
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.*;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import java.lang.annotation.Annotation;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.*;
+
+/**
+ * Generates the source of the configuration binder ([Type]_ConfigBinder) of a
+ * Config Path annotated type. The binder applies the annotated fields and invokes
+ * the annotated methods/constructor with straight-line code, following the same
+ * rules as the reflection based binding in {@link ConfigurationAnnotationProcessor}.
+ * <p>
+ * Bindings that cannot be expressed as direct calls (no public setter/constructor,
+ * non-public types, generic types, ...) are reported as unsupported: no binder is
+ * generated for the type and the reflection based binding is used.
+ */
+final class ConfigBinderGenerator {
+    /**
+     * Exception raised for types the binder cannot be generated for.
+     */
+    static final class UnsupportedBindingException extends Exception {
+        /**
+         * Exception constructor with error message string.
+         *
+         * @param s - Error message string.
+         */
+        UnsupportedBindingException(String s) {
+            super(s);
+        }
+    }
+
+    private static final String INDENT = "    ";
+    private static final Set<String> ELEMENT_TYPES = new HashSet<>(Arrays.asList(
+            String.class.getCanonicalName(), Boolean.class.getCanonicalName(),
+            Character.class.getCanonicalName(), Short.class.getCanonicalName(),
+            Integer.class.getCanonicalName(), Long.class.getCanonicalName(),
+            Float.class.getCanonicalName(), Double.class.getCanonicalName(),
+            BigInteger.class.getCanonicalName(), BigDecimal.class.getCanonicalName(),
+            Date.class.getCanonicalName()));
+
+    private final Elements elements;
+    private final Types types;
+    private final TypeElement type;
+    private final String typeName;
+
+    /**
+     * Generator constructor.
+     *
+     * @param env  - Annotation processing environment.
+     * @param type - Config Path annotated type.
+     */
+    ConfigBinderGenerator(ProcessingEnvironment env, TypeElement type) {
+        this.elements = env.getElementUtils();
+        this.types = env.getTypeUtils();
+        this.type = type;
+        this.typeName = type.getQualifiedName().toString();
+    }
+
+    /**
+     * Get the package name of the annotated type (and the binder).
+     *
+     * @return - Package name.
+     */
+    String getPackageName() {
+        return elements.getPackageOf(type).getQualifiedName().toString();
+    }
+
+    /**
+     * Get the (simple) class name of the binder: the (nested) type names
+     * joined by '_' with the binder suffix.
+     *
+     * @return - Binder class name.
+     */
+    String getBinderName() {
+        StringBuilder buffer = new StringBuilder(type.getSimpleName());
+        Element parent = type.getEnclosingElement();
+        while (parent instanceof TypeElement) {
+            buffer.insert(0, '_').insert(0, parent.getSimpleName());
+            parent = parent.getEnclosingElement();
+        }
+        return buffer.append(IConfigBinder.BINDER_SUFFIX).toString();
+    }
+
+    /**
+     * Get the fully qualified class name of the binder.
+     *
+     * @return - Binder class name.
+     */
+    String getQualifiedBinderName() {
+        String pkg = getPackageName();
+        if (pkg.isEmpty()) {
+            return getBinderName();
+        }
+        return String.format("%s.%s", pkg, getBinderName());
+    }
+
+    /**
+     * Generate the binder source.
+     *
+     * @return - Java source of the binder.
+     * @throws UnsupportedBindingException - Binder cannot be generated for the type.
+     */
+    String generate() throws UnsupportedBindingException {
+        checkType();
+        AnnotationMirror cpath = getTypeAnnotation(type, ConfigPath.class);
+        if (cpath == null) {
+            throw new UnsupportedBindingException("Config Path annotation not found.");
+        }
+        String path = (String) getValue(cpath, "path");
+
+        StringBuilder fields = new StringBuilder();
+        StringBuilder methods = new StringBuilder();
+        for (TypeElement current : getHierarchy(type)) {
+            for (VariableElement field :
+                    ElementFilter.fieldsIn(current.getEnclosedElements())) {
+                generateField(field, fields);
+            }
+        }
+        for (TypeElement current : getHierarchy(type)) {
+            for (ExecutableElement method :
+                    ElementFilter.methodsIn(current.getEnclosedElements())) {
+                if (method.getModifiers().contains(Modifier.PUBLIC) &&
+                        getAnnotation(method, MethodInvoke.class) != null) {
+                    generateMethod(method, methods);
+                }
+            }
+        }
+
+        StringBuilder buffer = new StringBuilder();
+        String pkg = getPackageName();
+        if (!pkg.isEmpty()) {
+            buffer.append("package ").append(pkg).append(";\n\n");
+        }
+        buffer.append("/**\n")
+              .append(" * Configuration binder of {@link ").append(typeName)
+              .append("}.\n")
+              .append(" * <p>\n")
+              .append(" * Generated by ")
+              .append(ConfigBinderProcessor.class.getCanonicalName())
+              .append(", do not edit.\n")
+              .append(" */\n");
+        buffer.append("public final class ").append(getBinderName())
+              .append(" extends ").append(AbstractConfigBinder.class.getCanonicalName())
+              .append("<").append(typeName).append("> {\n");
+        line(buffer, 1, "public " + getBinderName() + "() {");
+        line(buffer, 2, "super(" + typeName + ".class, " + literal(path) + ");");
+        line(buffer, 1, "}");
+        buffer.append("\n");
+        generateNewInstance(buffer);
+        buffer.append("\n");
+
+        line(buffer, 1, "@Override");
+        line(buffer, 1, "@SuppressWarnings({\"unchecked\", \"rawtypes\"})");
+        line(buffer, 1, "public void bind(" + nodeType() + " node, " + typeName +
+                " target, java.util.List<java.lang.String> valuePaths)");
+        line(buffer, 3, "throws " + exceptionType() + " {");
+        if (fields.length() > 0 || methods.length() > 0) {
+            line(buffer, 2, "try {");
+            buffer.append(fields).append(methods);
+            line(buffer, 2, "} catch (" + exceptionType() + " e) {");
+            line(buffer, 3, "throw e;");
+            line(buffer, 2, "} catch (java.lang.Exception e) {");
+            line(buffer, 3, "throw new " + exceptionType() + "(e);");
+            line(buffer, 2, "}");
+        }
+        line(buffer, 1, "}");
+        buffer.append("}\n");
+        return buffer.toString();
+    }
+
+    /**
+     * Check the annotated type can be accessed and instantiated by the binder.
+     *
+     * @throws UnsupportedBindingException
+     */
+    private void checkType() throws UnsupportedBindingException {
+        if (type.getKind() != ElementKind.CLASS) {
+            throw new UnsupportedBindingException("Type is not a class.");
+        }
+        if (!type.getTypeParameters().isEmpty()) {
+            throw new UnsupportedBindingException("Generic types not supported.");
+        }
+        if (!isAccessible(type)) {
+            throw new UnsupportedBindingException(
+                    "Type (and enclosing types) should be accessible/static.");
+        }
+    }
+
+    /**
+     * Generate the new instance method: invokes the annotated constructor,
+     * if present, else the default (empty) constructor.
+     *
+     * @param buffer - Source buffer.
+     * @throws UnsupportedBindingException
+     */
+    private void generateNewInstance(StringBuilder buffer)
+            throws UnsupportedBindingException {
+        ExecutableElement annotated = null;
+        boolean defaultConstructor = false;
+        for (ExecutableElement constr :
+                ElementFilter.constructorsIn(type.getEnclosedElements())) {
+            if (constr.getModifiers().contains(Modifier.PUBLIC)) {
+                if (constr.getParameters().isEmpty()) {
+                    defaultConstructor = true;
+                } else if (annotated == null &&
+                        getAnnotation(constr, MethodInvoke.class) != null) {
+                    annotated = constr;
+                }
+            }
+        }
+        line(buffer, 1, "@Override");
+        line(buffer, 1, "@SuppressWarnings(\"unchecked\")");
+        line(buffer, 1, "public " + typeName + " newInstance(" + nodeType() +
+                " node)");
+        line(buffer, 3, "throws " + exceptionType() + " {");
+        if (type.getModifiers().contains(Modifier.ABSTRACT) ||
+                (annotated == null && !defaultConstructor)) {
+            line(buffer, 2, "throw new " + exceptionType() + "(java.lang.String.format(");
+            line(buffer, 4, "\"No valid constructor found. [type=%s]\", " +
+                    literal(typeName) + "));");
+        } else if (annotated != null) {
+            String path = (String) getValue(getAnnotation(annotated,
+                                                          MethodInvoke.class), "path");
+            line(buffer, 2, "try {");
+            line(buffer, 3, nodeType() + " cnode = getInvokeNode(node, " +
+                    literal(path) + ");");
+            line(buffer, 3, "return new " + typeName + "(" +
+                    getParamValues(annotated, "cnode") + ");");
+            line(buffer, 2, "} catch (" + exceptionType() + " e) {");
+            line(buffer, 3, "throw e;");
+            line(buffer, 2, "} catch (java.lang.Exception e) {");
+            line(buffer, 3, "throw new " + exceptionType() + "(e);");
+            line(buffer, 2, "}");
+        } else {
+            line(buffer, 2, "try {");
+            line(buffer, 3, "return new " + typeName + "();");
+            line(buffer, 2, "} catch (java.lang.Exception e) {");
+            line(buffer, 3, "throw new " + exceptionType() + "(e);");
+            line(buffer, 2, "}");
+        }
+        line(buffer, 1, "}");
+    }
+
+    /**
+     * Generate the invocation of an annotated method.
+     *
+     * @param method - Annotated method.
+     * @param buffer - Source buffer.
+     * @throws UnsupportedBindingException
+     */
+    private void generateMethod(ExecutableElement method, StringBuilder buffer)
+            throws UnsupportedBindingException {
+        if (method.getModifiers().contains(Modifier.STATIC)) {
+            throw new UnsupportedBindingException(String.format(
+                    "Static annotated method. [method=%s]", method.getSimpleName()));
+        }
+        String path = (String) getValue(getAnnotation(method, MethodInvoke.class),
+                                        "path");
+        line(buffer, 3, "{");
+        line(buffer, 4, nodeType() + " mnode = getInvokeNode(node, " +
+                literal(path) + ");");
+        line(buffer, 4, "target." + method.getSimpleName() + "(" +
+                getParamValues(method, "mnode") + ");");
+        line(buffer, 3, "}");
+    }
+
+    /**
+     * Get the parameter values (expressions) of an annotated method/constructor.
+     *
+     * @param executable - Annotated method/constructor.
+     * @param node       - Configuration node variable.
+     * @return - Parameter values.
+     * @throws UnsupportedBindingException
+     */
+    private String getParamValues(ExecutableElement executable, String node)
+            throws UnsupportedBindingException {
+        StringBuilder buffer = new StringBuilder();
+        for (VariableElement param : executable.getParameters()) {
+            AnnotationMirror cp = getAnnotation(param, ConfigParam.class);
+            if (cp == null) {
+                throw new UnsupportedBindingException(String.format(
+                        "Parameter Annotation not defined. [param=%s][method=%s]",
+                        param.getSimpleName(), executable.getSimpleName()));
+            }
+            TypeMirror ptype = param.asType();
+            if (!isPrimitive(ptype) && ptype.getKind() != TypeKind.DECLARED) {
+                throw new UnsupportedBindingException(String.format(
+                        "Parameter type not supported. [param=%s][type=%s]",
+                        param.getSimpleName(), ptype));
+            }
+            String pname = (String) getValue(cp, "name");
+            if (pname.isEmpty() && !isType(ptype, AbstractConfigNode.class)) {
+                // Resolved from the parameter name at runtime, only available
+                // when compiled with parameter names.
+                throw new UnsupportedBindingException(String.format(
+                        "Parameter name not specified. [param=%s][method=%s]",
+                        param.getSimpleName(), executable.getSimpleName()));
+            }
+            if (buffer.length() > 0) {
+                buffer.append(",");
+            }
+            buffer.append("\n").append(indent(6)).append("(")
+                  .append(boxedName(ptype)).append(") getParamValue(")
+                  .append(typeName).append(".class, ").append(node).append(", ")
+                  .append(literal(param.getSimpleName().toString())).append(", ")
+                  .append(literal(pname)).append(", ")
+                  .append(types.erasure(ptype)).append(".class, ")
+                  .append(getValue(cp, "required")).append(")");
+        }
+        return buffer.toString();
+    }
+
+    /**
+     * Generate the binding of an annotated field.
+     *
+     * @param field  - Field to bind.
+     * @param buffer - Source buffer.
+     * @throws UnsupportedBindingException
+     */
+    private void generateField(VariableElement field, StringBuilder buffer)
+            throws UnsupportedBindingException {
+        AnnotationMirror annotation;
+        if ((annotation = getAnnotation(field, ConfigParam.class)) != null) {
+            generateKeyValue(field, annotation, "Param",
+                             ConfigParametersNode.NODE_ABBR_PREFIX, false, buffer);
+        } else if ((annotation = getAnnotation(field, ConfigAttribute.class)) != null) {
+            generateKeyValue(field, annotation, "Attribute",
+                             ConfigAttributesNode.NODE_ABBR_PREFIX, true, buffer);
+        } else if ((annotation = getAnnotation(field, ConfigValue.class)) != null) {
+            generateValue(field, annotation, buffer);
+        }
+    }
+
+    /**
+     * Generate the binding of a Config Value annotated field.
+     *
+     * @param field      - Field to bind.
+     * @param annotation - Config Value annotation.
+     * @param buffer     - Source buffer.
+     * @throws UnsupportedBindingException
+     */
+    private void generateValue(VariableElement field, AnnotationMirror annotation,
+                               StringBuilder buffer)
+            throws UnsupportedBindingException {
+        TypeMirror ftype = field.asType();
+        String name = getName(annotation, field);
+        String required = String.valueOf(getValue(annotation, "required"));
+        TypeMirror transformer = (TypeMirror) getValue(annotation, "transformer");
+
+        line(buffer, 3, "{");
+        if (canParse(ftype)) {
+            line(buffer, 4, "java.lang.String value = getValue(node, " +
+                    literal(name) + ", " + required + ", valuePaths);");
+            line(buffer, 4, "if (value != null) {");
+            line(buffer, 5, "target." + getSetter(field) + "(" +
+                    parse(ftype, "value") + ");");
+            line(buffer, 4, "}");
+        } else if (isCollection(ftype)) {
+            DeclaredType dtype = (DeclaredType) ftype;
+            String method = (isType(ftype, List.class) ? "createList" : "createSet");
+            line(buffer, 4, "java.util.List<java.lang.String> values = getValues(node, " +
+                    literal(name) + ", " + required + ", valuePaths);");
+            line(buffer, 4, "if (values != null) {");
+            line(buffer, 5, "target." + getSetter(field) + "(" +
+                    CollectionUtils.class.getCanonicalName() + "." + method +
+                    "(values, " + dtype.getTypeArguments().get(0) + ".class));");
+            line(buffer, 4, "}");
+        } else if (isType(ftype, EncryptedValue.class)) {
+            line(buffer, 4, EncryptedValue.class.getCanonicalName() +
+                    " value = getEncryptedValue(node, " + literal(name) + ", " +
+                    required + ", valuePaths);");
+            line(buffer, 4, "if (value != null) {");
+            line(buffer, 5, "target." + getSetter(field) + "(value);");
+            line(buffer, 4, "}");
+        } else if (!isType(transformer, NullTransformer.class)) {
+            line(buffer, 4, "java.lang.String value = getTransformValue(node, " +
+                    literal(name) + ", " + required + ", valuePaths);");
+            generateTransform(field, transformer, buffer);
+        } else {
+            generateNested(field, name, Boolean.parseBoolean(required), buffer);
+        }
+        line(buffer, 3, "}");
+    }
+
+    /**
+     * Generate the binding of a field of a nested Config Path annotated type.
+     *
+     * @param field    - Field to bind.
+     * @param name     - Value name.
+     * @param required - Is required?
+     * @param buffer   - Source buffer.
+     * @throws UnsupportedBindingException
+     */
+    private void generateNested(VariableElement field, String name,
+                                boolean required, StringBuilder buffer)
+            throws UnsupportedBindingException {
+        TypeMirror ftype = field.asType();
+        TypeElement nested = (ftype.getKind() == TypeKind.DECLARED ?
+                (TypeElement) types.asElement(ftype) : null);
+        AnnotationMirror cpath = (nested != null ?
+                getTypeAnnotation(nested, ConfigPath.class) : null);
+        String path = (cpath != null ? (String) getValue(cpath, "path") : null);
+        if (path == null || path.isEmpty()) {
+            throw new UnsupportedBindingException(String.format(
+                    "Parameter cannot be set for field of type = %s", ftype));
+        }
+        if (!nested.getTypeParameters().isEmpty() || !isInstantiable(nested)) {
+            throw new UnsupportedBindingException(String.format(
+                    "Nested type cannot be created. [field=%s][type=%s]",
+                    field.getSimpleName(), ftype));
+        }
+        if (path.equals(".")) {
+            path = name;
+        } else {
+            path = String.format("%s.%s", path, name);
+        }
+        String ntype = nested.getQualifiedName().toString();
+        // The getter is required to check the value (after binding).
+        String getter = getGetter(field);
+        line(buffer, 4, ConfigPathNode.class.getCanonicalName() +
+                " cnode = getNestedNode(node, " + literal(path) + ");");
+        line(buffer, 4, "if (cnode != null) {");
+        line(buffer, 5, "target." + getSetter(field) + "(" +
+                ConfigurationAnnotationProcessor.class.getCanonicalName() +
+                ".readConfigAnnotations(");
+        line(buffer, 7, ntype + ".class, cnode, new " + ntype + "(), valuePaths));");
+        line(buffer, 5, "addValuePath(cnode, valuePaths);");
+        line(buffer, 4, "}");
+        if (required) {
+            line(buffer, 4, "checkRequired(target." + getter + "(), node, " +
+                    literal(name) + ");");
+        }
+    }
+
+    /**
+     * Generate the binding of a Config Param/Attribute annotated field.
+     *
+     * @param field      - Field to bind.
+     * @param annotation - Field annotation.
+     * @param kind       - Helper method suffix (Param/Attribute).
+     * @param tag        - Name tag.
+     * @param attribute  - Is attribute (can be transformed)?
+     * @param buffer     - Source buffer.
+     * @throws UnsupportedBindingException
+     */
+    private void generateKeyValue(VariableElement field, AnnotationMirror annotation,
+                                  String kind, String tag, boolean attribute,
+                                  StringBuilder buffer)
+            throws UnsupportedBindingException {
+        TypeMirror ftype = field.asType();
+        String name = getName(annotation, field);
+        String required = String.valueOf(getValue(annotation, "required"));
+        TypeMirror transformer = (TypeMirror) getValue(annotation, "transformer");
+
+        String tpath = null;
+        String tname = name;
+        if (name.contains(tag)) {
+            String[] parts = name.split(tag);
+            if (parts.length != 2) {
+                throw new UnsupportedBindingException(
+                        String.format("Invalid ConfigParam : [name=%s]", name));
+            }
+            if (!parts[0].isEmpty()) {
+                tpath = parts[0];
+            }
+            tname = parts[1];
+        }
+        String args = "(node, " + (tpath != null ? literal(tpath) : "null") + ", " +
+                literal(tname) + ", " + required + ", valuePaths);";
+
+        line(buffer, 3, "{");
+        if (isType(ftype, EncryptedValue.class)) {
+            line(buffer, 4, EncryptedValue.class.getCanonicalName() +
+                    " value = getEncrypted" + kind + args);
+            line(buffer, 4, "if (value != null) {");
+            line(buffer, 5, "target." + getSetter(field) + "(value);");
+            line(buffer, 4, "}");
+        } else if (canParse(ftype)) {
+            line(buffer, 4, "java.lang.String value = get" + kind + args);
+            line(buffer, 4, "if (value != null) {");
+            line(buffer, 5, "target." + getSetter(field) + "(" +
+                    parse(ftype, "value") + ");");
+            line(buffer, 4, "}");
+        } else if (isCollection(ftype) || isAssignable(ftype, Collection.class) ||
+                (ftype.getKind() == TypeKind.DECLARED &&
+                        getTypeAnnotation((TypeElement) types.asElement(ftype),
+                                          ConfigPath.class) != null)) {
+            throw new UnsupportedBindingException(String.format(
+                    "Field type not supported. [field=%s][type=%s]",
+                    field.getSimpleName(), ftype));
+        } else if (attribute && !isType(transformer, NullTransformer.class)) {
+            line(buffer, 4, "java.lang.String value = get" + kind + args);
+            generateTransform(field, transformer, buffer);
+        } else {
+            // Value is not set, only checked.
+            line(buffer, 4, "get" + kind + args);
+        }
+        line(buffer, 3, "}");
+    }
+
+    /**
+     * Generate setting the transformed value.
+     *
+     * @param field       - Field to bind.
+     * @param transformer - Transformer type.
+     * @param buffer      - Source buffer.
+     * @throws UnsupportedBindingException
+     */
+    private void generateTransform(VariableElement field, TypeMirror transformer,
+                                   StringBuilder buffer)
+            throws UnsupportedBindingException {
+        TypeElement telement = (TypeElement) types.asElement(transformer);
+        if (!isInstantiable(telement)) {
+            throw new UnsupportedBindingException(String.format(
+                    "Transformer cannot be created. [field=%s][transformer=%s]",
+                    field.getSimpleName(), transformer));
+        }
+        line(buffer, 4, "if (value != null) {");
+        line(buffer, 5, ITransformer.class.getCanonicalName() +
+                " transformer = new " + types.erasure(transformer) + "();");
+        line(buffer, 5, "target." + getSetter(field) + "((" +
+                boxedName(field.asType()) + ") transformer.transform(value));");
+        line(buffer, 4, "}");
+    }
+
+    /**
+     * Get the public setter of the field: set[Name](value) or [name](value).
+     *
+     * @param field - Field to set.
+     * @return - Setter name.
+     * @throws UnsupportedBindingException
+     */
+    private String getSetter(VariableElement field) throws UnsupportedBindingException {
+        String name = field.getSimpleName().toString();
+        String[] names = {"set" + capitalize(name), name};
+        for (String mname : names) {
+            for (ExecutableElement method :
+                    ElementFilter.methodsIn(elements.getAllMembers(type))) {
+                if (isAccessor(method, mname) && method.getParameters().size() == 1) {
+                    TypeMirror ptype = method.getParameters().get(0).asType();
+                    if (types.isSameType(types.erasure(ptype),
+                                         types.erasure(field.asType()))) {
+                        return mname;
+                    }
+                }
+            }
+        }
+        throw new UnsupportedBindingException(String.format(
+                "No accessable method found for field. [field=%s]", name));
+    }
+
+    /**
+     * Get the public getter of the field: get[Name](), [name]() or is[Name]().
+     *
+     * @param field - Field to get.
+     * @return - Getter name.
+     * @throws UnsupportedBindingException
+     */
+    private String getGetter(VariableElement field) throws UnsupportedBindingException {
+        String name = field.getSimpleName().toString();
+        List<String> names = new ArrayList<>(Arrays.asList("get" + capitalize(name), name));
+        if (field.asType().getKind() == TypeKind.BOOLEAN ||
+                isType(field.asType(), Boolean.class)) {
+            names.add("is" + capitalize(name));
+        }
+        for (String mname : names) {
+            for (ExecutableElement method :
+                    ElementFilter.methodsIn(elements.getAllMembers(type))) {
+                if (isAccessor(method, mname) && method.getParameters().isEmpty()) {
+                    return mname;
+                }
+            }
+        }
+        throw new UnsupportedBindingException(String.format(
+                "No accessable method found for field. [field=%s]", name));
+    }
+
+    private static boolean isAccessor(ExecutableElement method, String name) {
+        return method.getSimpleName().contentEquals(name) &&
+                method.getModifiers().contains(Modifier.PUBLIC) &&
+                !method.getModifiers().contains(Modifier.STATIC);
+    }
+
+    /**
+     * Check if the value of the field type is parsed from the value string
+     * (primitives, String and enums).
+     *
+     * @param ftype - Field type.
+     * @return - Can parse?
+     */
+    private boolean canParse(TypeMirror ftype) {
+        if (isPrimitive(ftype)) {
+            return ftype.getKind() != TypeKind.BYTE;
+        } else if (ftype.getKind() == TypeKind.DECLARED) {
+            if (isType(ftype, String.class)) {
+                return true;
+            }
+            if (types.asElement(ftype).getKind() == ElementKind.ENUM) {
+                return isAccessible((TypeElement) types.asElement(ftype));
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Check if the field is a (java.util) List/Set of a supported element type.
+     *
+     * @param ftype - Field type.
+     * @return - Is supported collection?
+     */
+    private boolean isCollection(TypeMirror ftype) {
+        if (isType(ftype, List.class) || isType(ftype, Set.class)) {
+            List<? extends TypeMirror> args = ((DeclaredType) ftype).getTypeArguments();
+            if (args.size() == 1 && args.get(0).getKind() == TypeKind.DECLARED) {
+                return ELEMENT_TYPES.contains(types.erasure(args.get(0)).toString());
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Get the expression parsing the value string to the field type.
+     *
+     * @param ftype - Field type.
+     * @param value - Value variable.
+     * @return - Parse expression.
+     */
+    private String parse(TypeMirror ftype, String value) {
+        if (isType(ftype, String.class)) {
+            return value;
+        }
+        if (ftype.getKind() == TypeKind.DECLARED &&
+                types.asElement(ftype).getKind() == ElementKind.ENUM) {
+            return types.erasure(ftype) + ".valueOf(" + value + ")";
+        }
+        TypeKind kind = (ftype.getKind().isPrimitive() ? ftype.getKind() :
+                types.unboxedType(ftype).getKind());
+        switch (kind) {
+            case BOOLEAN:
+                return "java.lang.Boolean.parseBoolean(" + value + ")";
+            case SHORT:
+                return "java.lang.Short.parseShort(" + value + ")";
+            case INT:
+                return "java.lang.Integer.parseInt(" + value + ")";
+            case LONG:
+                return "java.lang.Long.parseLong(" + value + ")";
+            case FLOAT:
+                return "java.lang.Float.parseFloat(" + value + ")";
+            case DOUBLE:
+                return "java.lang.Double.parseDouble(" + value + ")";
+            default:
+                return value + ".charAt(0)";
+        }
+    }
+
+    /**
+     * Check if the type is a primitive or primitive wrapper type.
+     *
+     * @param tmirror - Type to check.
+     * @return - Is primitive?
+     */
+    private boolean isPrimitive(TypeMirror tmirror) {
+        if (tmirror.getKind().isPrimitive()) {
+            return true;
+        }
+        try {
+            return types.unboxedType(tmirror).getKind().isPrimitive();
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private String boxedName(TypeMirror tmirror) {
+        if (tmirror.getKind().isPrimitive()) {
+            return types.boxedClass((javax.lang.model.type.PrimitiveType) tmirror)
+                        .getQualifiedName().toString();
+        }
+        return tmirror.toString();
+    }
+
+    private boolean isType(TypeMirror tmirror, Class<?> cls) {
+        return tmirror.getKind() == TypeKind.DECLARED &&
+                ((TypeElement) types.asElement(tmirror)).getQualifiedName()
+                                                        .contentEquals(cls.getCanonicalName());
+    }
+
+    private boolean isAssignable(TypeMirror tmirror, Class<?> cls) {
+        TypeElement element = elements.getTypeElement(cls.getCanonicalName());
+        return element != null && tmirror.getKind() == TypeKind.DECLARED &&
+                types.isAssignable(types.erasure(tmirror),
+                                   types.erasure(element.asType()));
+    }
+
+    /**
+     * Check if the type (and the enclosing types) can be referenced from the
+     * binder: public, or not private if in the package of the binder.
+     *
+     * @param element - Type to check.
+     * @return - Is accessible?
+     */
+    private boolean isAccessible(TypeElement element) {
+        boolean local = elements.getPackageOf(element)
+                                .equals(elements.getPackageOf(type));
+        Element current = element;
+        while (current instanceof TypeElement) {
+            Set<Modifier> modifiers = current.getModifiers();
+            if (!modifiers.contains(Modifier.PUBLIC) &&
+                    (!local || modifiers.contains(Modifier.PRIVATE))) {
+                return false;
+            }
+            if (current.getEnclosingElement() instanceof TypeElement &&
+                    !modifiers.contains(Modifier.STATIC) &&
+                    current.getKind() == ElementKind.CLASS) {
+                return false;
+            }
+            current = current.getEnclosingElement();
+        }
+        return true;
+    }
+
+    /**
+     * Check if the type can be created using the public default constructor.
+     *
+     * @param element - Type to check.
+     * @return - Can create?
+     */
+    private boolean isInstantiable(TypeElement element) {
+        if (element.getKind() != ElementKind.CLASS ||
+                element.getModifiers().contains(Modifier.ABSTRACT) ||
+                !isAccessible(element)) {
+            return false;
+        }
+        for (ExecutableElement constr :
+                ElementFilter.constructorsIn(element.getEnclosedElements())) {
+            if (constr.getParameters().isEmpty() &&
+                    constr.getModifiers().contains(Modifier.PUBLIC)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Get the type and the super types (excluding Object) in binding order.
+     *
+     * @param element - Type.
+     * @return - List of types.
+     */
+    private List<TypeElement> getHierarchy(TypeElement element) {
+        List<TypeElement> hierarchy = new ArrayList<>();
+        TypeElement current = element;
+        while (current != null &&
+                !current.getQualifiedName().contentEquals(Object.class.getCanonicalName())) {
+            hierarchy.add(current);
+            TypeMirror parent = current.getSuperclass();
+            current = (parent.getKind() == TypeKind.DECLARED ?
+                    (TypeElement) types.asElement(parent) : null);
+        }
+        return hierarchy;
+    }
+
+    /**
+     * Get the annotation of the type (including inherited annotations).
+     *
+     * @param element    - Annotated type.
+     * @param annotation - Annotation type.
+     * @return - Annotation mirror, NULL if not found.
+     */
+    private AnnotationMirror getTypeAnnotation(TypeElement element,
+                                               Class<? extends Annotation> annotation) {
+        return findAnnotation(elements.getAllAnnotationMirrors(element), annotation);
+    }
+
+    private static AnnotationMirror getAnnotation(Element element,
+                                                  Class<? extends Annotation> annotation) {
+        return findAnnotation(element.getAnnotationMirrors(), annotation);
+    }
+
+    private static AnnotationMirror findAnnotation(
+            List<? extends AnnotationMirror> mirrors,
+            Class<? extends Annotation> annotation) {
+        for (AnnotationMirror mirror : mirrors) {
+            TypeElement atype = (TypeElement) mirror.getAnnotationType().asElement();
+            if (atype.getQualifiedName().contentEquals(annotation.getCanonicalName())) {
+                return mirror;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Get the value (or default value) of an annotation element.
+     *
+     * @param mirror - Annotation mirror.
+     * @param name   - Element name.
+     * @return - Element value.
+     */
+    private Object getValue(AnnotationMirror mirror, String name) {
+        for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry :
+                elements.getElementValuesWithDefaults(mirror).entrySet()) {
+            if (entry.getKey().getSimpleName().contentEquals(name)) {
+                return entry.getValue().getValue();
+            }
+        }
+        return null;
+    }
+
+    private String getName(AnnotationMirror annotation, VariableElement field) {
+        String name = (String) getValue(annotation, "name");
+        if (name == null || name.isEmpty()) {
+            return field.getSimpleName().toString();
+        }
+        return name;
+    }
+
+    private static String capitalize(String name) {
+        return Character.toTitleCase(name.charAt(0)) + name.substring(1);
+    }
+
+    private static String nodeType() {
+        return AbstractConfigNode.class.getCanonicalName();
+    }
+
+    private static String exceptionType() {
+        return ConfigurationException.class.getCanonicalName();
+    }
+
+    private static String indent(int level) {
+        StringBuilder buffer = new StringBuilder();
+        for (int ii = 0; ii < level; ii++) {
+            buffer.append(INDENT);
+        }
+        return buffer.toString();
+    }
+
+    private static void line(StringBuilder buffer, int level, String line) {
+        buffer.append(indent(level)).append(line).append("\n");
+    }
+
+    /**
+     * Get the Java string literal of the value.
+     *
+     * @param value - String value.
+     * @return - Quoted/escaped literal.
+     */
+    private static String literal(String value) {
+        StringBuilder buffer = new StringBuilder("\"");
+        for (char c : value.toCharArray()) {
+            switch (c) {
+                case '"':
+                    buffer.append("\\\"");
+                    break;
+                case '\\':
+                    buffer.append("\\\\");
+                    break;
+                case '\n':
+                    buffer.append("\\n");
+                    break;
+                case '\r':
+                    buffer.append("\\r");
+                    break;
+                case '\t':
+                    buffer.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20 || c > 0x7e) {
+                        buffer.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        buffer.append(c);
+                    }
+            }
+        }
+        return buffer.append("\"").toString();
+    }
+}
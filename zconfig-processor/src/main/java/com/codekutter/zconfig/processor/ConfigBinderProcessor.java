@@ -0,0 +1,114 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ * Copyright (c) $year
+ * Date: 18/10/26 5:45 AM
+ * Subho Ghosh (subho dot ghosh at outlook.com)
+ *
+ */
+
+
+package com.codekutter.zconfig.processor;
+
+import com.codekutter.zconfig.common.model.annotations.ConfigPath;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Annotation processor generating the configuration binders ([Type]_ConfigBinder)
+ * of Config Path annotated types at compile time.
+ * <p>
+ * Types the binder cannot be generated for are reported (as a note) and are
+ * bound using reflection at runtime.
+ */
+@SupportedAnnotationTypes("com.codekutter.zconfig.common.model.annotations.ConfigPath")
+public class ConfigBinderProcessor extends AbstractProcessor {
+    /**
+     * Binders generated by this processor instance.
+     */
+    private final Set<String> generated = new HashSet<>();
+
+    /**
+     * Get the latest source version supported.
+     *
+     * @return - Source version.
+     */
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    /**
+     * Generate the binders for the annotated types of this round.
+     *
+     * @param annotations - Annotation types.
+     * @param roundEnv    - Round environment.
+     * @return - False, annotations are not claimed.
+     */
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations,
+                           RoundEnvironment roundEnv) {
+        for (Element element : roundEnv.getElementsAnnotatedWith(ConfigPath.class)) {
+            if (element.getKind() != ElementKind.CLASS) {
+                continue;
+            }
+            TypeElement type = (TypeElement) element;
+            ConfigBinderGenerator generator =
+                    new ConfigBinderGenerator(processingEnv, type);
+            String name = generator.getQualifiedBinderName();
+            if (!generated.add(name)) {
+                continue;
+            }
+            try {
+                String source = generator.generate();
+                JavaFileObject file =
+                        processingEnv.getFiler().createSourceFile(name, type);
+                try (Writer writer = file.openWriter()) {
+                    writer.write(source);
+                }
+            } catch (ConfigBinderGenerator.UnsupportedBindingException e) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE,
+                                                         String.format(
+                                                                 "Config binder not generated, type will be bound using reflection. [type=%s][reason=%s]",
+                                                                 type.getQualifiedName(),
+                                                                 e.getMessage()),
+                                                         type);
+            } catch (IOException e) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                                                         String.format(
+                                                                 "Error writing config binder. [type=%s][error=%s]",
+                                                                 type.getQualifiedName(),
+                                                                 e.getMessage()),
+                                                         type);
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,259 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ * Copyright (c) $year
+ * Date: 18/10/26 5:50 AM
+ * Subho Ghosh (subho dot ghosh at outlook.com)
+ *
+ */
+
+
+package com.codekutter.zconfig.processor;
+
+import com.codekutter.zconfig.common.ConfigProviderFactory;
+import com.codekutter.zconfig.common.ConfigurationAnnotationProcessor;
+import com.codekutter.zconfig.common.IConfigBinder;
+import com.codekutter.zconfig.common.LogUtils;
+import com.codekutter.zconfig.common.model.Configuration;
+import com.codekutter.zconfig.common.model.Version;
+import com.codekutter.zconfig.common.model.annotations.*;
+import com.codekutter.zconfig.common.model.annotations.transformers.JodaTimeTransformer;
+import com.codekutter.zconfig.common.parsers.JSONConfigParser;
+import com.codekutter.zconfig.common.readers.ConfigFileReader;
+import org.joda.time.DateTime;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class Test_ConfigBinderProcessor {
+    private static final String CONFIG_FILE =
+            "src/test/resources/json/test-binder.json";
+    private static Configuration configuration = null;
+
+    public enum ETestValue {
+        EValue1, EValue2, EValue3
+    }
+
+    @ConfigPath(path = ".")
+    public static class ModifiedBy {
+        @ConfigValue(name = "user")
+        private String name;
+        @ConfigValue(name = "timestamp", transformer = JodaTimeTransformer.class)
+        private DateTime timestamp;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public DateTime getTimestamp() {
+            return timestamp;
+        }
+
+        public void setTimestamp(DateTime timestamp) {
+            this.timestamp = timestamp;
+        }
+    }
+
+    @ConfigPath(path = "configuration/node_1")
+    public static class BinderTest {
+        @ConfigValue(required = true)
+        private String nodeName;
+        @ConfigValue
+        private boolean enabled;
+        @ConfigValue(name = "values/longValue", required = true)
+        private long longValue;
+        @ConfigValue(name = "values/doubleValue")
+        private Double doubleValue;
+        @ConfigValue(name = "LONG_LIST")
+        private Set<Long> longSet;
+        @ConfigValue(name = "STRING_LIST")
+        private List<String> stringList;
+        @ConfigValue(name = "createdBy", required = true)
+        private ModifiedBy createdBy;
+        @ConfigParam(name = "PARAM_2", required = true)
+        private int paramInt;
+        @ConfigAttribute(name = "@ATTR_1")
+        private String attribute;
+        @ConfigAttribute(name = "@ATTR_2", transformer = JodaTimeTransformer.class)
+        private DateTime attributeTime;
+        private final String paramValue;
+        private long paramLong = -1;
+        private ETestValue paramEnum = ETestValue.EValue1;
+
+        @MethodInvoke
+        public BinderTest(
+                @ConfigParam(name = "PARAM_1", required = true) String paramValue) {
+            this.paramValue = paramValue;
+        }
+
+        @MethodInvoke
+        public void updateValues(
+                @ConfigParam(name = "PARAM_3", required = true) long paramLong,
+                @ConfigParam(name = "PARAM_4", required = true)
+                        ETestValue paramEnum) {
+            this.paramLong = paramLong;
+            this.paramEnum = paramEnum;
+        }
+
+        public void setNodeName(String nodeName) {
+            this.nodeName = nodeName;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public void setLongValue(long longValue) {
+            this.longValue = longValue;
+        }
+
+        public void setDoubleValue(Double doubleValue) {
+            this.doubleValue = doubleValue;
+        }
+
+        public void setLongSet(Set<Long> longSet) {
+            this.longSet = longSet;
+        }
+
+        public void setStringList(List<String> stringList) {
+            this.stringList = stringList;
+        }
+
+        public ModifiedBy getCreatedBy() {
+            return createdBy;
+        }
+
+        public void setCreatedBy(ModifiedBy createdBy) {
+            this.createdBy = createdBy;
+        }
+
+        public void setParamInt(int paramInt) {
+            this.paramInt = paramInt;
+        }
+
+        public void setAttribute(String attribute) {
+            this.attribute = attribute;
+        }
+
+        public void setAttributeTime(DateTime attributeTime) {
+            this.attributeTime = attributeTime;
+        }
+    }
+
+    /**
+     * Generic types are not supported by the binder, bound using reflection.
+     */
+    @ConfigPath(path = "configuration/node_1")
+    public static class ReflectionTest<T> {
+        @ConfigValue(required = true)
+        private String nodeName;
+
+        public String getNodeName() {
+            return nodeName;
+        }
+
+        public void setNodeName(String nodeName) {
+            this.nodeName = nodeName;
+        }
+    }
+
+    @BeforeAll
+    static void init() throws Exception {
+        JSONConfigParser parser =
+                (JSONConfigParser) ConfigProviderFactory.parser(
+                        ConfigProviderFactory.EConfigType.JSON);
+        assertNotNull(parser);
+
+        try (ConfigFileReader reader = new ConfigFileReader(CONFIG_FILE)) {
+            parser.parse("test-binder", reader, null, Version.parse("0.0"), null);
+            configuration = parser.getConfiguration();
+            assertNotNull(configuration);
+        }
+    }
+
+    @Test
+    void generatedBinder() {
+        try {
+            IConfigBinder<?> binder = (IConfigBinder<?>) Class.forName(
+                    BinderTest.class.getName().replace('$', '_') +
+                            IConfigBinder.BINDER_SUFFIX).newInstance();
+            assertEquals(BinderTest.class, binder.getType());
+            assertEquals("configuration/node_1", binder.getPath());
+            assertNotNull(Class.forName(ModifiedBy.class.getName().replace('$', '_')
+                                                + IConfigBinder.BINDER_SUFFIX));
+        } catch (Throwable t) {
+            LogUtils.error(getClass(), t);
+            fail(t.getLocalizedMessage());
+        }
+    }
+
+    @Test
+    void readConfigAnnotations() {
+        try {
+            assertNotNull(configuration);
+            BinderTest value = ConfigurationAnnotationProcessor
+                    .readConfigAnnotations(BinderTest.class, configuration);
+            assertNotNull(value);
+            assertEquals("Test Node", value.nodeName);
+            assertTrue(value.enabled);
+            assertEquals(998739, value.longValue);
+            assertEquals(99834.93948, value.doubleValue, 0.00001);
+            assertEquals(3, value.longSet.size());
+            assertTrue(value.longSet.contains(-129814901L));
+            assertEquals(2, value.stringList.size());
+            assertNotNull(value.createdBy);
+            assertEquals("subho", value.createdBy.name);
+            assertNotNull(value.createdBy.timestamp);
+            assertEquals(1024, value.paramInt);
+            assertEquals("TEST_ATTR_1", value.attribute);
+            assertNotNull(value.attributeTime);
+            assertEquals("TEST_PARAM_1", value.paramValue);
+            assertEquals(18473498, value.paramLong);
+            assertEquals(ETestValue.EValue3, value.paramEnum);
+
+            LogUtils.debug(getClass(), value);
+        } catch (Throwable t) {
+            LogUtils.error(getClass(), t);
+            fail(t.getLocalizedMessage());
+        }
+    }
+
+    @Test
+    void reflectionFallback() {
+        try {
+            assertThrows(ClassNotFoundException.class, () -> Class.forName(
+                    ReflectionTest.class.getName().replace('$', '_') +
+                            IConfigBinder.BINDER_SUFFIX));
+            ReflectionTest<?> value = ConfigurationAnnotationProcessor
+                    .readConfigAnnotations(ReflectionTest.class, configuration);
+            assertNotNull(value);
+            assertEquals("Test Node", value.getNodeName());
+        } catch (Throwable t) {
+            LogUtils.error(getClass(), t);
+            fail(t.getLocalizedMessage());
+        }
+    }
+}